@@ -22,62 +22,113 @@ import com.liaison.javabasics.commons.Util;
 import com.liaison.javabasics.logging.JitLog;
 import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
 import com.liaison.shachi.api.request.OperationController;
+import com.liaison.shachi.api.request.frozen.ColSpecReadFrozen;
 import com.liaison.shachi.api.request.frozen.ColSpecWriteFrozen;
 import com.liaison.shachi.api.request.frozen.LongValueSpecFrozen;
 import com.liaison.shachi.api.request.frozen.ReadOpSpecFrozen;
+import com.liaison.shachi.api.request.frozen.RowSpecFrozen;
+import com.liaison.shachi.api.request.fluid.ReadOpSpecFluid;
 import com.liaison.shachi.api.request.impl.ColSpecRead;
 import com.liaison.shachi.api.request.impl.CondSpec;
 import com.liaison.shachi.api.request.impl.LongValueSpec;
 import com.liaison.shachi.api.request.impl.OperationControllerDefault;
 import com.liaison.shachi.api.request.impl.OperationSpec;
+import com.liaison.shachi.api.request.impl.PreparedRead;
+import com.liaison.shachi.api.request.impl.PreparedWrite;
 import com.liaison.shachi.api.request.impl.ReadOpSpecDefault;
 import com.liaison.shachi.api.request.impl.RowSpec;
 import com.liaison.shachi.api.request.impl.WriteOpSpecDefault;
 import com.liaison.shachi.api.response.OpResultSet;
 import com.liaison.shachi.context.HBaseContext;
+import com.liaison.shachi.context.batch.MicroBatchPolicy;
+import com.liaison.shachi.context.breaker.CircuitBreaker;
+import com.liaison.shachi.context.breaker.CircuitBreakerListener;
+import com.liaison.shachi.context.breaker.CircuitBreakerPolicy;
+import com.liaison.shachi.context.hedge.HedgeMetrics;
+import com.liaison.shachi.context.hedge.HedgingPolicy;
+import com.liaison.shachi.context.hedge.ReadLatencyWindow;
 import com.liaison.shachi.dto.ApplicableVersion;
+import com.liaison.shachi.dto.Deadline;
 import com.liaison.shachi.dto.FamilyQualifierPair;
 import com.liaison.shachi.dto.GetColumnGrouping;
 import com.liaison.shachi.dto.NullableValue;
 import com.liaison.shachi.dto.RowKey;
 import com.liaison.shachi.dto.RowRef;
+import com.liaison.shachi.exception.HBaseCircuitOpenException;
+import com.liaison.shachi.exception.HBaseDeadlineExceededException;
 import com.liaison.shachi.exception.HBaseException;
+import com.liaison.shachi.exception.HBaseInitializationException;
 import com.liaison.shachi.exception.HBaseMultiColumnException;
+import com.liaison.shachi.exception.HBaseNoSuchTableException;
+import com.liaison.shachi.exception.HBaseOperationAbortedException;
+import com.liaison.shachi.exception.HBaseResourceManagementException;
 import com.liaison.shachi.exception.HBaseRuntimeException;
 import com.liaison.shachi.exception.HBaseTableRowException;
+import com.liaison.shachi.exception.SpecValidationException;
+import com.liaison.shachi.exec.MicroBatcher;
+import com.liaison.shachi.exec.ReadCoalescer;
+import com.liaison.shachi.exec.RegionAwareBatchPerformer;
+import com.liaison.shachi.exec.WriteLaneScheduler;
 import com.liaison.shachi.model.ColumnRange;
 import com.liaison.shachi.model.FamilyHB;
 import com.liaison.shachi.model.Name;
 import com.liaison.shachi.model.QualHB;
 import com.liaison.shachi.model.QualModel;
+import com.liaison.shachi.model.TableModel;
 import com.liaison.shachi.model.VersioningModel;
 import com.liaison.shachi.resmgr.HBaseResourceManager;
+import com.liaison.shachi.resmgr.ResourceManagerUtil;
+import com.liaison.shachi.resmgr.VerifiedTableRegistry;
+import com.liaison.shachi.resmgr.res.ManagedAdmin;
 import com.liaison.shachi.resmgr.res.ManagedTable;
 import com.liaison.shachi.util.HBaseUtil;
 import com.liaison.shachi.util.ReadUtils;
 import com.liaison.shachi.util.SpecUtil;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.TableNotFoundException;
 import org.apache.hadoop.hbase.client.Delete;
 import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.HTable;
 import org.apache.hadoop.hbase.client.Mutation;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Row;
 import org.apache.hadoop.hbase.filter.BinaryComparator;
 import org.apache.hadoop.hbase.filter.Filter;
 import org.apache.hadoop.hbase.filter.FilterList;
 import org.apache.hadoop.hbase.filter.QualifierFilter;
+import org.apache.hadoop.hbase.util.Threads;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * HBaseControl is the main kernel of functionality for the HBase Client, and as the default
@@ -624,7 +675,7 @@ public class HBaseControl implements HBaseStart<OpResultSet>, Closeable {
                      * checkAndPut needs in either case.
                      */
                     writeCompleted =
-                        condMutateOp.checkAndMutate(tableRowSpec.getLiteralizedRowKeyBytes(),
+                        condMutateOp.checkAndMutate(tableRowSpec.getLiteralizedRowKeyBytes(dcs),
                                                     fam.getName().getValue(dcs),
                                                     qual.getName().getValue(dcs),
                                                     condPossibleValue.getValue(dcs),
@@ -639,6 +690,7 @@ public class HBaseControl implements HBaseStart<OpResultSet>, Closeable {
                           ()->" operation response: ",
                           ()->Boolean.toString(writeCompleted));
             } catch (IOException ioExc) {
+                handleTableNotFound(logMethodName, tableRowSpec, ioExc);
                 logMsg = (opName.toUpperCase()
                           + " failure"
                           + ((condition == null)
@@ -763,18 +815,15 @@ public class HBaseControl implements HBaseStart<OpResultSet>, Closeable {
             }
         }
 
-        private Get buildGet(final RowRef rowRef, final ColumnRange colRange, final DefensiveCopyStrategy dcs) {
+        private Get buildGet(final byte[] rowKeyBytes, final ColumnRange colRange, final DefensiveCopyStrategy dcs) {
             final String logMethodName;
             final Get readGet;
-            final byte[] rowKeyBytes;
             final Filter combinedFilter;
             final Filter lowerFilter;
             final Filter higherFilter;
 
             logMethodName =
-                LOG.enter(()->"buildGet(rowRef=",
-                          ()->rowRef,
-                          ()->",colRange=",
+                LOG.enter(()->"buildGet(colRange=",
                           ()->colRange,
                           ()->")");
             lowerFilter =
@@ -792,7 +841,6 @@ public class HBaseControl implements HBaseStart<OpResultSet>, Closeable {
                                             .getName()
                                             .getValue(dcs)));
             combinedFilter = new FilterList(lowerFilter, higherFilter);
-            rowKeyBytes = rowRef.getLiteralizedRowKeyBytes();
             readGet = new Get(rowKeyBytes);
             readGet.addFamily(colRange.getFamily().getName().getValue(dcs));
             readGet.setFilter(combinedFilter);
@@ -824,6 +872,548 @@ public class HBaseControl implements HBaseStart<OpResultSet>, Closeable {
             LOG.leave(logMethodName);
         }
 
+        /**
+         * Determine the hedged-read policy in effect for the given table: the policy assigned to
+         * the table model, if any, or else the policy assigned to the context.
+         * @param model the table being read
+         * @return the applicable hedged-read policy if it enables hedging; null otherwise
+         */
+        private HedgingPolicy resolveHedgingPolicy(final TableModel model) {
+            HedgingPolicy policy;
+
+            policy = model.getHedgingPolicy();
+            if (policy == null) {
+                policy = HBaseControl.this.context.getHedgingPolicy();
+            }
+            if ((policy != null) && (policy.isHedgingEnabled())) {
+                return policy;
+            }
+            return null;
+        }
+
+        /**
+         * Convert the failure of an individual action within a batch call into an IOException.
+         * @param batchResult
+         * @return
+         */
+        private IOException toBatchFailure(final Object batchResult) {
+            if (batchResult instanceof IOException) {
+                return (IOException) batchResult;
+            } else if (batchResult instanceof Throwable) {
+                return new IOException("Batched action failed; " + batchResult,
+                                       (Throwable) batchResult);
+            }
+            return new IOException("Unexpected batched action result: " + batchResult);
+        }
+
+        /**
+         * Execute the given GETs as part of a batch call shared with other operations submitted
+         * concurrently against the same table.
+         * @param logMethodName
+         * @param tableRowSpec
+         * @param colReadList
+         * @param allReadGets
+         * @param deadline
+         * @return
+         * @throws HBaseException
+         */
+        private List<Result> performBatchedGets(final String logMethodName, final RowRef tableRowSpec, final List<ColSpecRead<ReadOpSpecDefault>> colReadList, final List<Get> allReadGets, final Deadline deadline) throws HBaseException {
+            final Object[] batchResults;
+            final List<Result> resList;
+
+            LOG.trace(logMethodName, ()->"performing batched read (using: ", ()->allReadGets);
+            try {
+                batchResults =
+                    HBaseControl.this.microBatcher.execute(tableRowSpec.getTable(),
+                                                           allReadGets,
+                                                           deadline);
+            } catch (IOException ioExc) {
+                throw translateReadFailure(logMethodName, tableRowSpec, colReadList, deadline, ioExc);
+            }
+            resList = new LinkedList<>();
+            for (Object batchResult : batchResults) {
+                if (!(batchResult instanceof Result)) {
+                    throw translateReadFailure(logMethodName,
+                                               tableRowSpec,
+                                               colReadList,
+                                               deadline,
+                                               toBatchFailure(batchResult));
+                }
+                resList.add((Result) batchResult);
+            }
+            return resList;
+        }
+
+        /**
+         * Execute the given (unconditional) mutation as part of a batch call shared with other
+         * operations submitted concurrently against the same table.
+         * @param logMethodName
+         * @param opName
+         * @param tableRowSpec
+         * @param colWriteList
+         * @param writeMutation
+         * @param deadline
+         * @return
+         * @throws HBaseException
+         */
+        private boolean performBatchedMutation(final String logMethodName, final String opName, final RowSpec<WriteOpSpecDefault> tableRowSpec, final List<ColSpecWriteFrozen> colWriteList, final Mutation writeMutation, final Deadline deadline) throws HBaseException {
+            final String logMsg;
+            final Object[] batchResults;
+
+            LOG.trace(logMethodName, ()->"performing batched ", ()->opName, ()->"...");
+            try {
+                batchResults =
+                    HBaseControl.this.microBatcher.execute(tableRowSpec.getTable(),
+                                                           Collections.singletonList(writeMutation),
+                                                           deadline);
+                if (batchResults[0] instanceof Throwable) {
+                    throw toBatchFailure(batchResults[0]);
+                }
+            } catch (IOException ioExc) {
+                handleTableNotFound(logMethodName, tableRowSpec, ioExc);
+                logMsg = opName.toUpperCase() + " failure; " + ioExc;
+                LOG.error(logMethodName, logMsg, ioExc);
+                if ((colWriteList != null) && (!colWriteList.isEmpty())) {
+                    throw new HBaseMultiColumnException(tableRowSpec, colWriteList, logMsg, ioExc);
+                } else {
+                    throw new HBaseTableRowException(tableRowSpec, logMsg, ioExc);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Execute the given GETs, hedging them if a hedged-read policy is in effect for the
+         * table, batching them with other concurrent operations if micro-batching is enabled, or
+         * otherwise in order against a single borrowed table resource.
+         * @param logMethodName
+         * @param tableRowSpec
+         * @param colReadList
+         * @param allReadGets
+         * @param deadline
+         * @return
+         * @throws HBaseException
+         * @throws IOException
+         */
+        private List<Result> performReads(final String logMethodName, final RowRef tableRowSpec, final List<ColSpecRead<ReadOpSpecDefault>> colReadList, final List<Get> allReadGets, final Deadline deadline) throws HBaseException, IOException {
+            final HedgingPolicy hedgingPolicy;
+            final List<Result> resList;
+
+            hedgingPolicy = resolveHedgingPolicy(tableRowSpec.getTable());
+            if ((hedgingPolicy == null) && (HBaseControl.this.microBatcher != null)) {
+                return performBatchedGets(logMethodName, tableRowSpec, colReadList, allReadGets, deadline);
+            } else if (hedgingPolicy == null) {
+                return performGets(logMethodName, tableRowSpec, colReadList, allReadGets, deadline);
+            }
+            LOG.trace(logMethodName, ()->"hedging reads per: ", ()->hedgingPolicy);
+            resList = new LinkedList<>();
+            for (Get getToExec : allReadGets) {
+                LOG.trace(logMethodName, () -> "performing hedged read (using: ", ()->getToExec);
+                resList.add(performHedgedGet(logMethodName,
+                                             tableRowSpec,
+                                             colReadList,
+                                             hedgingPolicy,
+                                             getToExec,
+                                             deadline));
+            }
+            return resList;
+        }
+
+        /**
+         * Execute the given GETs in order against a single table resource borrowed for the
+         * duration of the read operation.
+         * @param logMethodName
+         * @param tableRowSpec
+         * @param colReadList
+         * @param allReadGets
+         * @return
+         * @throws HBaseException
+         * @throws IOException
+         */
+        private List<Result> performGets(final String logMethodName, final RowRef tableRowSpec, final List<ColSpecRead<ReadOpSpecDefault>> colReadList, final List<Get> allReadGets, final Deadline deadline) throws HBaseException, IOException {
+            final List<Result> resList;
+            final int prevOpTimeout;
+
+            try (ManagedTable readFromTable = borrowTable(tableRowSpec, deadline)) {
+
+                LOG.trace(logMethodName, ()->"table obtained");
+
+                prevOpTimeout = applyDeadline(readFromTable.use(), tableRowSpec, deadline);
+                try {
+                    resList = new LinkedList<>();
+                    for (Get getToExec : allReadGets) {
+                        deadline.ensureActive(tableRowSpec);
+                        LOG.trace(logMethodName, () -> "performing read (using: ", ()->getToExec);
+                        try {
+                            // perform the HBase READ operation and return the result
+                            resList.add(readFromTable.use().get(getToExec));
+                        } catch (IOException ioExc) {
+                            throw translateReadFailure(logMethodName,
+                                                       tableRowSpec,
+                                                       colReadList,
+                                                       deadline,
+                                                       ioExc);
+                        }
+                    }
+                } finally {
+                    readFromTable.use().setOperationTimeout(prevOpTimeout);
+                }
+            }
+            return resList;
+        }
+
+        /**
+         * Obtain permission from the circuit breaker for the table of the given row to execute an
+         * operation against it.
+         * @param logMethodName
+         * @param tableRowSpec
+         * @return the breaker to which the outcome of the operation must be reported, or null if
+         * circuit breaking is not enabled
+         * @throws HBaseCircuitOpenException if the breaker is rejecting operations
+         */
+        private CircuitBreaker acquireCircuitPermission(final String logMethodName, final RowRef tableRowSpec) throws HBaseCircuitOpenException {
+            final String logMsg;
+            final CircuitBreaker breaker;
+
+            breaker = obtainCircuitBreaker(tableRowSpec.getTable());
+            if ((breaker != null) && (!breaker.tryAcquirePermission())) {
+                logMsg = "Circuit breaker for table "
+                         + tableRowSpec.getTable().getName()
+                         + " is "
+                         + breaker.getState()
+                         + "; rejecting operation on row: "
+                         + tableRowSpec;
+                LOG.trace(logMethodName, ()->logMsg);
+                throw new HBaseCircuitOpenException(logMsg);
+            }
+            return breaker;
+        }
+
+        /**
+         * Report the outcome of an operation to the circuit breaker which permitted it. Failures
+         * count against the breaker only if they indicate that the table or cluster is unhealthy:
+         * failure to acquire a table resource, deadline expiration, or an underlying I/O failure.
+         * @param breaker the breaker returned by
+         * {@link #acquireCircuitPermission(String, RowRef)}; ignored if null
+         * @param failure the failure of the operation, or null if it succeeded
+         */
+        private void recordCircuitOutcome(final CircuitBreaker breaker, final Throwable failure) {
+            Throwable cause;
+
+            if (breaker == null) {
+                return;
+            }
+            if (failure == null) {
+                breaker.recordSuccess();
+                return;
+            }
+            if ((failure instanceof HBaseResourceManagementException)
+                || (failure instanceof HBaseDeadlineExceededException)) {
+                breaker.recordFailure();
+                return;
+            }
+            if ((failure instanceof HBaseOperationAbortedException)
+                || (failure instanceof HBaseCircuitOpenException)
+                || (failure instanceof HBaseNoSuchTableException)) {
+                breaker.recordIgnored();
+                return;
+            }
+            cause = failure;
+            while (cause != null) {
+                if ((cause instanceof IOException) && (!(cause instanceof InterruptedIOException))) {
+                    breaker.recordFailure();
+                    return;
+                }
+                cause = cause.getCause();
+            }
+            breaker.recordIgnored();
+        }
+
+        /**
+         * Borrow the table for the given row from the resource manager, waiting no longer than
+         * the time remaining before the given deadline (if bounded).
+         * @param tableRowSpec
+         * @param deadline
+         * @return
+         * @throws HBaseException
+         */
+        private ManagedTable borrowTable(final RowRef tableRowSpec, final Deadline deadline) throws HBaseException {
+            deadline.ensureActive(tableRowSpec);
+            if (deadline.isBounded()) {
+                return resMgr.borrow(HBaseControl.this.context,
+                                     tableRowSpec.getTable(),
+                                     deadline.remainingMillis());
+            }
+            return resMgr.borrow(HBaseControl.this.context, tableRowSpec.getTable());
+        }
+
+        /**
+         * If the given deadline is bounded, cap the HBase client operation timeout (which bounds
+         * the total time spent on an operation, including retries) of the given table to the time
+         * remaining before the deadline. The table is pooled, so the caller must restore the
+         * timeout returned by this method before releasing the table.
+         * @param table
+         * @param tableRowSpec
+         * @param deadline
+         * @return the operation timeout in effect for the table prior to invoking this method
+         * @throws HBaseException if the deadline has already expired
+         */
+        private int applyDeadline(final HTable table, final RowRef tableRowSpec, final Deadline deadline) throws HBaseException {
+            final int prevOpTimeout;
+
+            prevOpTimeout = table.getOperationTimeout();
+            if (deadline.isBounded()) {
+                deadline.ensureActive(tableRowSpec);
+                table.setOperationTimeout(deadline.capMillis(prevOpTimeout));
+            }
+            return prevOpTimeout;
+        }
+
+        /**
+         * If the given failure was caused by the table not being found, have the table verified
+         * again (and recreated if absent; see {@link ResourceManagerUtil#reverifyTable}), so that
+         * subsequent operations against it can succeed. The failed operation itself still fails.
+         * @param logMethodName
+         * @param tableRowSpec
+         * @param ioExc
+         */
+        private void handleTableNotFound(final String logMethodName, final RowRef tableRowSpec, final IOException ioExc) {
+            final String logMsg;
+            Throwable cause;
+
+            cause = ioExc;
+            while ((cause != null) && (!(cause instanceof TableNotFoundException))) {
+                cause = cause.getCause();
+            }
+            if (cause == null) {
+                return;
+            }
+            try {
+                ResourceManagerUtil.reverifyTable(HBaseControl.this.resMgr,
+                                                  HBaseControl.this.context,
+                                                  tableRowSpec.getTable());
+            } catch (IOException | RuntimeException reverifyExc) {
+                logMsg = "Failed to re-verify table "
+                         + tableRowSpec.getTable()
+                         + " after it was not found; "
+                         + reverifyExc;
+                LOG.error(logMethodName, logMsg, reverifyExc);
+            }
+        }
+
+        /**
+         * Convert a failure of an HBase READ into the appropriate exception: an abort if the
+         * thread was interrupted or the deadline expired while the READ was in progress, otherwise
+         * a failure of the READ itself.
+         * @param logMethodName
+         * @param tableRowSpec
+         * @param colReadList
+         * @param deadline
+         * @param ioExc
+         * @return
+         */
+        private HBaseException translateReadFailure(final String logMethodName, final RowRef tableRowSpec, final List<ColSpecRead<ReadOpSpecDefault>> colReadList, final Deadline deadline, final IOException ioExc) {
+            final String logMsg;
+
+            handleTableNotFound(logMethodName, tableRowSpec, ioExc);
+            if (ioExc instanceof InterruptedIOException) {
+                logMsg = "READ aborted; interrupted while in progress; " + ioExc;
+                LOG.error(logMethodName, logMsg, ioExc);
+                return new HBaseOperationAbortedException(logMsg, ioExc);
+            } else if (deadline.isExpired()) {
+                logMsg = "READ aborted; deadline expired while in progress; " + ioExc;
+                LOG.error(logMethodName, logMsg, ioExc);
+                return new HBaseDeadlineExceededException(logMsg, ioExc);
+            }
+            logMsg = "READ failed; " + ioExc;
+            LOG.error(logMethodName, logMsg, ioExc);
+            return new HBaseMultiColumnException(tableRowSpec, colReadList, logMsg, ioExc);
+        }
+
+        /**
+         * Perform a single GET against a table resource borrowed exclusively for this call, and
+         * record the latency of the GET in the given window. Used by both the original and the
+         * hedge request of a hedged read, so that neither shares an HTable with the other (nor
+         * with the calling thread).
+         * @param model
+         * @param get
+         * @param latencyWindow
+         * @return
+         * @throws HBaseException
+         * @throws IOException
+         */
+        private Result timedGet(final RowRef tableRowSpec, final Get get, final ReadLatencyWindow latencyWindow, final Deadline deadline) throws HBaseException, IOException {
+            final long startNanos;
+            final Result res;
+            final int prevOpTimeout;
+
+            try (ManagedTable readFromTable = borrowTable(tableRowSpec, deadline)) {
+                prevOpTimeout = applyDeadline(readFromTable.use(), tableRowSpec, deadline);
+                try {
+                    startNanos = System.nanoTime();
+                    res = readFromTable.use().get(get);
+                    latencyWindow.record(System.nanoTime() - startNanos);
+                } finally {
+                    readFromTable.use().setOperationTimeout(prevOpTimeout);
+                }
+            }
+            return res;
+        }
+
+        /**
+         * Wait for the next of the outstanding requests to complete, but no longer than the time
+         * remaining before the given deadline.
+         * @param completion
+         * @param tableRowSpec
+         * @param deadline
+         * @return
+         * @throws InterruptedException
+         * @throws HBaseDeadlineExceededException
+         */
+        private Future<Result> awaitNext(final CompletionService<Result> completion, final RowRef tableRowSpec, final Deadline deadline) throws InterruptedException, HBaseDeadlineExceededException {
+            final String logMsg;
+            final Future<Result> next;
+
+            if (!deadline.isBounded()) {
+                return completion.take();
+            }
+            next = completion.poll(Math.max(0L, deadline.remainingNanos()), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                logMsg = "READ aborted; deadline expired awaiting result for " + tableRowSpec;
+                throw new HBaseDeadlineExceededException(logMsg);
+            }
+            return next;
+        }
+
+        /**
+         * Perform a GET under the given hedging policy. The GET is issued asynchronously; if it
+         * has not completed within the hedge delay derived from recent latency for the table, and
+         * the hedge-rate cap permits, a duplicate GET is issued, and the result of whichever
+         * completes successfully first is returned. If the first to complete fails while the other
+         * is still outstanding, the other is given the chance to succeed.
+         * <br><br>
+         * The losing request is not interrupted (interrupting the HBase client mid-RPC is not
+         * safe); it runs to completion in the background and returns its table to the resource
+         * manager as usual.
+         * @param logMethodName
+         * @param tableRowSpec
+         * @param colReadList
+         * @param policy
+         * @param getToExec
+         * @param deadline
+         * @return
+         * @throws HBaseException
+         */
+        private Result performHedgedGet(final String logMethodName, final RowRef tableRowSpec, final List<ColSpecRead<ReadOpSpecDefault>> colReadList, final HedgingPolicy policy, final Get getToExec, final Deadline deadline) throws HBaseException {
+            String logMsg;
+            final ReadLatencyWindow latencyWindow;
+            final HedgeMetrics metrics;
+            final CompletionService<Result> completion;
+            final long hedgeDelayNanos;
+            final Future<Result> primary;
+            Future<Result> hedge;
+            Future<Result> winner;
+            Throwable cause;
+            Result res;
+
+            latencyWindow =
+                HBaseControl.this.readLatency.computeIfAbsent(tableRowSpec.getTable(),
+                                                              (key)->new ReadLatencyWindow(policy));
+            metrics = HBaseControl.this.hedgeMetrics;
+            completion = new ExecutorCompletionService<>(getHedgePool());
+            hedgeDelayNanos = latencyWindow.getHedgeDelayNanos();
+            metrics.recordHedgeableRead();
+            hedge = null;
+
+            try {
+                try {
+                    primary =
+                        completion.submit(()->timedGet(tableRowSpec, getToExec, latencyWindow, deadline));
+                } catch (RejectedExecutionException rejExc) {
+                    LOG.trace(logMethodName,
+                              ()->"hedge pool saturated; executing read unhedged");
+                    try {
+                        return timedGet(tableRowSpec, getToExec, latencyWindow, deadline);
+                    } catch (IOException ioExc) {
+                        throw translateReadFailure(logMethodName,
+                                                   tableRowSpec,
+                                                   colReadList,
+                                                   deadline,
+                                                   ioExc);
+                    }
+                }
+                winner =
+                    completion.poll(Math.max(0L, Math.min(hedgeDelayNanos, deadline.remainingNanos())),
+                                    TimeUnit.NANOSECONDS);
+                if ((winner == null) && (!deadline.isExpired())) {
+                    if (metrics.tryAcquireHedge(policy.getMaxHedgeRatio())) {
+                        LOG.trace(logMethodName,
+                                  ()->"read outstanding after ",
+                                  ()->Long.valueOf(hedgeDelayNanos),
+                                  ()->"ns; issuing hedge request");
+                        try {
+                            hedge =
+                                completion.submit(()->timedGet(tableRowSpec,
+                                                               new Get(getToExec),
+                                                               latencyWindow,
+                                                               deadline));
+                        } catch (RejectedExecutionException rejExc) {
+                            LOG.trace(logMethodName,
+                                      ()->"hedge pool saturated; hedge request not issued");
+                        }
+                    } else {
+                        LOG.trace(logMethodName,
+                                  ()->"read outstanding after ",
+                                  ()->Long.valueOf(hedgeDelayNanos),
+                                  ()->"ns; hedge suppressed by rate cap");
+                    }
+                }
+                if (winner == null) {
+                    winner = awaitNext(completion, tableRowSpec, deadline);
+                }
+                try {
+                    res = winner.get();
+                } catch (ExecutionException execExc) {
+                    if (hedge == null) {
+                        throw execExc;
+                    }
+                    LOG.trace(logMethodName,
+                              ()->"first response failed; awaiting the other: ",
+                              execExc::getCause);
+                    winner = awaitNext(completion, tableRowSpec, deadline);
+                    res = winner.get();
+                }
+                if (winner == hedge) {
+                    metrics.recordHedgeWon();
+                    primary.cancel(false);
+                } else if (hedge != null) {
+                    hedge.cancel(false);
+                }
+            } catch (InterruptedException intExc) {
+                Thread.currentThread().interrupt();
+                logMsg = "READ aborted; interrupted while awaiting result; " + intExc;
+                LOG.error(logMethodName, logMsg, intExc);
+                throw new HBaseOperationAbortedException(logMsg, intExc);
+            } catch (ExecutionException execExc) {
+                cause = execExc.getCause();
+                if (cause instanceof HBaseException) {
+                    throw (HBaseException) cause;
+                } else if (cause instanceof HBaseRuntimeException) {
+                    throw (HBaseRuntimeException) cause;
+                } else if (cause instanceof IOException) {
+                    throw translateReadFailure(logMethodName,
+                                               tableRowSpec,
+                                               colReadList,
+                                               deadline,
+                                               (IOException) cause);
+                }
+                logMsg = "READ failed; " + cause;
+                LOG.error(logMethodName, logMsg, cause);
+                throw new HBaseMultiColumnException(tableRowSpec, colReadList, logMsg, cause);
+            }
+            return res;
+        }
+
         /**
          * TODO
          * @param readSpec
@@ -833,38 +1423,28 @@ public class HBaseControl implements HBaseStart<OpResultSet>, Closeable {
          * @throws HBaseRuntimeException
          */
         public Iterable<Result> exec(final ReadOpSpecDefault readSpec) throws IllegalArgumentException, HBaseException, HBaseRuntimeException {
-            String logMsg;
-            final String logMethodName;
-            final DefensiveCopyStrategy dcs;
+            return exec(readSpec, Deadline.NONE);
+        }
+
+        /**
+         * Build the GET(s) which read the given columns of the given (frozen) READ spec from the
+         * given row, associating each family, family+qualifier pair, and column range read with
+         * the column spec(s) which caused it to be read, for use when parsing the result.
+         * @param logMethodName
+         * @param readSpec
+         * @param colReadList the column specs of the READ spec to read; ordinarily, all of them
+         * @param dcs
+         * @param rowKeyBytes
+         * @return
+         * @throws HBaseTableRowException
+         */
+        private List<Get> buildReadGets(final String logMethodName, final ReadOpSpecDefault readSpec, final List<ColSpecRead<ReadOpSpecDefault>> colReadList, final DefensiveCopyStrategy dcs, final byte[] rowKeyBytes) throws HBaseTableRowException {
             final RowSpec<?> tableRowSpec;
             final GetColumnGrouping gcg;
             final List<Get> allReadGets;
             Get readGet;
-            final List<ColSpecRead<ReadOpSpecDefault>> colReadList;
-            final List<Result> resList;
-            final byte[] rowKeyBytes;
-            
-            Util.ensureNotNull(readSpec, this, "readSpec", ReadOpSpecDefault.class);
-            
-            logMethodName =
-                LOG.enter(()->"exec(READ:",
-                          ()->String.valueOf(readSpec.getHandle()),
-                          ()->")");
-            
-            // Ensure that the spec contains all required attributes for a READ operation
-            verifyStateForExec(readSpec);
-            
-            dcs = HBaseControl.this.context.getDefensiveCopyStrategy();
-            LOG.trace(logMethodName,
-                      ()->"defensive-copying: ",
-                      ()->String.valueOf(dcs));
-            
-            tableRowSpec = readSpec.getTableRow();
-            LOG.trace(logMethodName,
-                      ()->"table-row: ",
-                      ()->tableRowSpec);
 
-            colReadList = readSpec.getWithColumn();
+            tableRowSpec = readSpec.getTableRow();
             LOG.trace(logMethodName,
                       ()->"columns: ",
                       ()->colReadList,
@@ -889,7 +1469,6 @@ public class HBaseControl implements HBaseStart<OpResultSet>, Closeable {
             allReadGets = new LinkedList<>();
 
             if ((gcg.hasFamilies()) || (gcg.hasFQPs())) {
-                rowKeyBytes = tableRowSpec.getLiteralizedRowKeyBytes();
                 LOG.trace(logMethodName,
                           () -> "building main Get object for columns which require NO filter...");
                 readGet = new Get(rowKeyBytes);
@@ -912,7 +1491,7 @@ public class HBaseControl implements HBaseStart<OpResultSet>, Closeable {
                           () -> ColumnRange.class.getSimpleName(),
                           () -> "...");
                 for (ColumnRange colRange : gcg.getColumnRangeSet()) {
-                    allReadGets.add(buildGet(tableRowSpec, colRange, dcs));
+                    allReadGets.add(buildGet(rowKeyBytes, colRange, dcs));
                 }
             }
 
@@ -921,38 +1500,259 @@ public class HBaseControl implements HBaseStart<OpResultSet>, Closeable {
             for (Get getForSetup : allReadGets) {
                 addSetupParamsToGet(getForSetup, readSpec, tableRowSpec);
             }
+            return allReadGets;
+        }
 
-            try (ManagedTable readFromTable =
-                     resMgr.borrow(HBaseControl.this.context, tableRowSpec.getTable())) {
+        /**
+         * Compute the shape under which the given GETs, built from the given spec for a single
+         * row, are coalesced.
+         * @param logMethodName
+         * @param readSpec the (frozen) spec from which the GETs were built
+         * @param gets
+         * @return the shape of the GETs, or null if READs are not coalesced
+         * @throws HBaseRuntimeException if the GETs cannot be encoded
+         */
+        private ReadCoalescer.ReadShape buildReadShape(final String logMethodName, final ReadOpSpecDefault readSpec, final List<Get> gets) throws HBaseRuntimeException {
+            final String logMsg;
+            if (HBaseControl.this.readCoalescer == null) {
+                return null;
+            }
+            try {
+                return ReadCoalescer.ReadShape.of(readSpec.getTableRow().getTable(), gets);
+            } catch (IOException ioExc) {
+                logMsg = "Failed to encode GETs for READ ("
+                         + readSpec
+                         + ") to determine coalescing shape; "
+                         + ioExc;
+                LOG.error(logMsg, logMethodName, ioExc);
+                throw new HBaseRuntimeException(logMsg, ioExc);
+            }
+        }
 
-                LOG.trace(logMethodName, ()->"table obtained");
+        /**
+         * Execute the given GETs (via read coalescing, if enabled) once the circuit breaker for the
+         * table permits it, reporting the outcome to the breaker.
+         * @param logMethodName
+         * @param readSpec the (frozen) spec from which the GETs were built
+         * @param readShape the shape of the GETs sent for each row read, under which they are
+         * coalesced; null if READs are not coalesced
+         * @param tableRowSpec
+         * @param allReadGets
+         * @param deadline
+         * @param opDescription
+         * @return
+         * @throws HBaseException
+         * @throws HBaseRuntimeException
+         */
+        private List<Result> performGuardedReads(final String logMethodName, final ReadOpSpecDefault readSpec, final ReadCoalescer.ReadShape readShape, final RowRef tableRowSpec, final List<Get> allReadGets, final Deadline deadline, final Object opDescription) throws HBaseException, HBaseRuntimeException {
+            final String logMsg;
+            final List<ColSpecRead<ReadOpSpecDefault>> colReadList;
+            final CircuitBreaker breaker;
+            final List<Result> resList;
 
-                resList = new LinkedList<>();
-                for (Get getToExec : allReadGets) {
-                    LOG.trace(logMethodName, () -> "performing read (using: ", ()->getToExec);
-                    try {
-                        // perform the HBase READ operation and return the result
-                        resList.add(readFromTable.use().get(getToExec));
-                    } catch (IOException ioExc) {
-                        logMsg = "READ failed; " + ioExc;
-                        LOG.error(logMethodName, logMsg, ioExc);
-                        throw new HBaseMultiColumnException(tableRowSpec, colReadList, logMsg, ioExc);
-                    }
+            colReadList = readSpec.getWithColumn();
+            breaker = acquireCircuitPermission(logMethodName, tableRowSpec);
+            try {
+                if ((HBaseControl.this.readCoalescer != null) && (readShape != null)) {
+                    resList =
+                        HBaseControl.this.readCoalescer.execute(readShape,
+                                                                allReadGets,
+                                                                deadline,
+                                                                ()->performReads(logMethodName,
+                                                                                 tableRowSpec,
+                                                                                 colReadList,
+                                                                                 allReadGets,
+                                                                                 deadline));
+                } else {
+                    resList =
+                        performReads(logMethodName, tableRowSpec, colReadList, allReadGets, deadline);
                 }
+                recordCircuitOutcome(breaker, null);
             } catch (HBaseException | HBaseRuntimeException exc) {
-                // already logged; just rethrow to get out of the current try block
+                // already logged; just rethrow
+                recordCircuitOutcome(breaker, exc);
                 throw exc;
             } catch (Exception exc) {
+                recordCircuitOutcome(breaker, exc);
                 logMsg = "Unexpected failure during READ operation ("
-                         + readSpec
+                         + opDescription
                          + "): "
                          + exc.toString();
                 LOG.error(logMsg, logMethodName, exc);
                 throw new HBaseRuntimeException(logMsg, exc);
+            }
+            return resList;
+        }
+
+        /**
+         * TODO
+         * @param readSpec
+         * @param deadline
+         * @return
+         * @throws IllegalArgumentException
+         * @throws HBaseException
+         * @throws HBaseRuntimeException
+         */
+        public Iterable<Result> exec(final ReadOpSpecDefault readSpec, final Deadline deadline) throws IllegalArgumentException, HBaseException, HBaseRuntimeException {
+            final String logMethodName;
+            final DefensiveCopyStrategy dcs;
+            final RowSpec<?> tableRowSpec;
+            final List<Get> allReadGets;
+            ReadCoalescer.ReadShape readShape;
+            
+            Util.ensureNotNull(readSpec, this, "readSpec", ReadOpSpecDefault.class);
+            Util.ensureNotNull(deadline, this, "deadline", Deadline.class);
+            
+            logMethodName =
+                LOG.enter(()->"exec(READ:",
+                          ()->String.valueOf(readSpec.getHandle()),
+                          ()->")");
+            
+            // Ensure that the spec contains all required attributes for a READ operation
+            verifyStateForExec(readSpec);
+            
+            dcs = HBaseControl.this.context.getDefensiveCopyStrategy();
+            LOG.trace(logMethodName,
+                      ()->"defensive-copying: ",
+                      ()->String.valueOf(dcs));
+            
+            tableRowSpec = readSpec.getTableRow();
+            LOG.trace(logMethodName,
+                      ()->"table-row: ",
+                      ()->tableRowSpec);
+
+            try {
+                allReadGets =
+                    buildReadGets(logMethodName,
+                                  readSpec,
+                                  readSpec.getWithColumn(),
+                                  dcs,
+                                  tableRowSpec.getLiteralizedRowKeyBytes(dcs));
+                // the shape does not depend upon the row, so compute it once per (frozen) spec
+                readShape = readSpec.getReadShape();
+                if (readShape == null) {
+                    readShape = buildReadShape(logMethodName, readSpec, allReadGets);
+                    if (readShape != null) {
+                        readSpec.setReadShape(readShape);
+                    }
+                }
+                return performGuardedReads(logMethodName,
+                                           readSpec,
+                                           readShape,
+                                           tableRowSpec,
+                                           allReadGets,
+                                           deadline,
+                                           readSpec);
+            } finally {
+                LOG.leave(logMethodName);
+            }
+        }
+
+        /**
+         * Compile the given (frozen) READ spec into a {@link PreparedRead}: the GETs it requires
+         * (families, qualifiers, version-derived qualifiers, column-range filters, time range, and
+         * per-family limits) are built once, against a placeholder row, and the spec's column
+         * associations are populated once, so that the read may subsequently be executed against
+         * any row of the same table by substituting only the row key. When the spec reads more
+         * than one column, the GETs which read each column alone are also built, for packed
+         * reads of a single column. If READs are coalesced, the shape of the GETs is computed once
+         * as well. The row specified in the spec is not read.
+         * @param readSpec
+         * @return
+         * @throws IllegalArgumentException
+         * @throws IllegalStateException if the spec is not frozen
+         * @throws HBaseTableRowException
+         * @throws HBaseRuntimeException if the GETs cannot be encoded to determine their shape
+         */
+        public PreparedRead prepare(final ReadOpSpecDefault readSpec) throws IllegalArgumentException, IllegalStateException, HBaseTableRowException, HBaseRuntimeException {
+            final String logMethodName;
+            final DefensiveCopyStrategy dcs;
+            final List<ColSpecRead<ReadOpSpecDefault>> colReadList;
+            final List<Get> templateGets;
+            final Map<ColSpecReadFrozen, PreparedRead.GetTemplate> columnTemplates;
+            List<Get> columnGets;
+
+            Util.ensureNotNull(readSpec, this, "readSpec", ReadOpSpecDefault.class);
+
+            logMethodName =
+                LOG.enter(()->"prepare(READ:",
+                          ()->String.valueOf(readSpec.getHandle()),
+                          ()->")");
+            verifyStateForExec(readSpec);
+            dcs = HBaseControl.this.context.getDefensiveCopyStrategy();
+            colReadList = readSpec.getWithColumn();
+            templateGets =
+                buildReadGets(logMethodName,
+                              readSpec,
+                              colReadList,
+                              dcs,
+                              PREPARED_ROW_PLACEHOLDER);
+            columnTemplates = new HashMap<>();
+            if ((colReadList != null) && (colReadList.size() > 1)) {
+                for (ColSpecRead<ReadOpSpecDefault> colSpec : colReadList) {
+                    columnGets =
+                        buildReadGets(logMethodName,
+                                      readSpec,
+                                      Collections.singletonList(colSpec),
+                                      dcs,
+                                      PREPARED_ROW_PLACEHOLDER);
+                    // coalesced under their own shape, so only with READs sending identical GETs
+                    columnTemplates.put(colSpec,
+                                        new PreparedRead.GetTemplate(columnGets,
+                                                                     buildReadShape(logMethodName,
+                                                                                    readSpec,
+                                                                                    columnGets)));
+                }
+            }
+            LOG.leave(logMethodName);
+            return new PreparedRead(this,
+                                    readSpec,
+                                    new PreparedRead.GetTemplate(templateGets,
+                                                                 buildReadShape(logMethodName,
+                                                                                readSpec,
+                                                                                templateGets)),
+                                    columnTemplates);
+        }
+
+        /**
+         * Execute GETs built from a {@link PreparedRead}, subject to the same circuit breaking,
+         * coalescing, hedging, and micro-batching as {@link #exec(ReadOpSpecDefault, Deadline)}.
+         * @param preparedSpec the (frozen) spec from which the prepared read was compiled
+         * @param readShape the shape of the GETs sent for each row read, under which they are
+         * coalesced; null if READs are not coalesced
+         * @param tableRow the row(s) being read, for error reporting
+         * @param allReadGets the GETs to execute, bound to the row(s) being read
+         * @param deadline
+         * @return the results of the GETs, in order
+         * @throws IllegalArgumentException
+         * @throws HBaseException
+         * @throws HBaseRuntimeException
+         */
+        public List<Result> exec(final ReadOpSpecDefault preparedSpec, final ReadCoalescer.ReadShape readShape, final RowRef tableRow, final List<Get> allReadGets, final Deadline deadline) throws IllegalArgumentException, HBaseException, HBaseRuntimeException {
+            final String logMethodName;
+
+            Util.ensureNotNull(preparedSpec, this, "preparedSpec", ReadOpSpecDefault.class);
+            Util.ensureNotNull(tableRow, this, "tableRow", RowRef.class);
+            Util.ensureNotNull(allReadGets, this, "allReadGets", List.class);
+            Util.ensureNotNull(deadline, this, "deadline", Deadline.class);
+
+            logMethodName =
+                LOG.enter(()->"exec(PREPARED-READ:",
+                          ()->String.valueOf(preparedSpec.getHandle()),
+                          ()->",row=",
+                          ()->tableRow,
+                          ()->")");
+            try {
+                return performGuardedReads(logMethodName,
+                                           preparedSpec,
+                                           readShape,
+                                           tableRow,
+                                           allReadGets,
+                                           deadline,
+                                           tableRow);
             } finally {
                 LOG.leave(logMethodName);
             }
-            return resList;
         }
         
         /**
@@ -965,6 +1765,20 @@ public class HBaseControl implements HBaseStart<OpResultSet>, Closeable {
          * @throws HBaseRuntimeException
          */
         public boolean exec(final WriteOpSpecDefault writeSpec) throws IllegalArgumentException, IllegalStateException, HBaseException, HBaseRuntimeException {
+            return exec(writeSpec, Deadline.NONE);
+        }
+
+        /**
+         * 
+         * @param writeSpec
+         * @param deadline
+         * @return
+         * @throws IllegalArgumentException
+         * @throws IllegalStateException
+         * @throws HBaseException
+         * @throws HBaseRuntimeException
+         */
+        public boolean exec(final WriteOpSpecDefault writeSpec, final Deadline deadline) throws IllegalArgumentException, IllegalStateException, HBaseException, HBaseRuntimeException {
             String logMsg;
             final String logMethodName;
             final DefensiveCopyStrategy dcs;
@@ -976,8 +1790,11 @@ public class HBaseControl implements HBaseStart<OpResultSet>, Closeable {
             final Delete writeDel;
             final Long ttl;
             boolean writeCompleted;
+            final int prevOpTimeout;
+            final CircuitBreaker breaker;
             
             Util.ensureNotNull(writeSpec, this, "writeSpec", WriteOpSpecDefault.class);
+            Util.ensureNotNull(deadline, this, "deadline", Deadline.class);
             
             logMethodName =
                 LOG.enter(()->"exec(WRITE:",
@@ -998,24 +1815,17 @@ public class HBaseControl implements HBaseStart<OpResultSet>, Closeable {
                     ()->"table-row: ",
                     ()->tableRowSpec);
 
-            try (ManagedTable writeToTable =
-                    resMgr.borrow(HBaseControl.this.context, tableRowSpec.getTable())) {
-                LOG.trace(logMethodName, ()->"table obtained");
-
-                rowKeyBytes = tableRowSpec.getLiteralizedRowKeyBytes();
+            breaker = acquireCircuitPermission(logMethodName, tableRowSpec);
+            try {
+                rowKeyBytes = tableRowSpec.getLiteralizedRowKeyBytes(dcs);
                 condition = writeSpec.getGivenCondition();
 
                 if (writeSpec.isDeleteRow()) {
-                    writeCompleted =
-                        this.performDelete(logMethodName,
-                                           writeToTable.use(),
-                                           tableRowSpec,
-                                           null,
-                                           condition,
-                                           new Delete(rowKeyBytes),
-                                           dcs);
-
+                    colWriteList = null;
+                    writeDel = new Delete(rowKeyBytes);
+                    writePut = null;
                 } else {
+                    writeDel = null;
                     writePut = new Put(rowKeyBytes);
 
                     ttl = writeSpec.getTTL();
@@ -1035,19 +1845,52 @@ public class HBaseControl implements HBaseStart<OpResultSet>, Closeable {
                             addColumn(logMethodName, dcs, writePut, colWrite);
                         }
                     }
+                }
 
+                // conditional mutations have no batch equivalent, so are always sent alone
+                if ((condition == null) && (HBaseControl.this.microBatcher != null)) {
                     writeCompleted =
-                        this.performWrite(logMethodName,
-                                          writeToTable.use(),
-                                          tableRowSpec,
-                                          colWriteList,
-                                          condition,
-                                          writePut,
-                                          dcs);
+                        performBatchedMutation(logMethodName,
+                                               ((writeDel != null)?"delete":"write"),
+                                               tableRowSpec,
+                                               colWriteList,
+                                               ((writeDel != null)?writeDel:writePut),
+                                               deadline);
+                } else {
+                    try (ManagedTable writeToTable = borrowTable(tableRowSpec, deadline)) {
+                        LOG.trace(logMethodName, ()->"table obtained");
+                        prevOpTimeout = applyDeadline(writeToTable.use(), tableRowSpec, deadline);
+                        try {
+                            if (writeDel != null) {
+                                writeCompleted =
+                                    this.performDelete(logMethodName,
+                                                       writeToTable.use(),
+                                                       tableRowSpec,
+                                                       colWriteList,
+                                                       condition,
+                                                       writeDel,
+                                                       dcs);
+                            } else {
+                                writeCompleted =
+                                    this.performWrite(logMethodName,
+                                                      writeToTable.use(),
+                                                      tableRowSpec,
+                                                      colWriteList,
+                                                      condition,
+                                                      writePut,
+                                                      dcs);
+                            }
+                        } finally {
+                            writeToTable.use().setOperationTimeout(prevOpTimeout);
+                        }
+                    }
                 }
+                recordCircuitOutcome(breaker, null);
             } catch (HBaseException | HBaseRuntimeException exc) {
+                recordCircuitOutcome(breaker, exc);
                 throw exc;
             } catch (Exception exc) {
+                recordCircuitOutcome(breaker, exc);
                 logMsg = "Unexpected failure during WRITE operation ("
                          + writeSpec
                          + "): "
@@ -1057,6 +1900,81 @@ public class HBaseControl implements HBaseStart<OpResultSet>, Closeable {
             }
             return writeCompleted;
         }
+
+        /**
+         * Execute the given (unconditional) PUTs, bound from a {@link PreparedWrite}, against the
+         * table of the given row, subject to the same circuit breaking, deadline, and
+         * micro-batching as {@link #exec(WriteOpSpecDefault, Deadline)}. Without micro-batching,
+         * all of the PUTs are sent via a single table resource in one call.
+         * @param tableRow the row (or first of the rows) written, for error reporting
+         * @param writePuts the PUTs to execute
+         * @param deadline
+         * @throws IllegalArgumentException
+         * @throws HBaseException
+         * @throws HBaseRuntimeException
+         */
+        public void exec(final RowRef tableRow, final List<Put> writePuts, final Deadline deadline) throws IllegalArgumentException, HBaseException, HBaseRuntimeException {
+            final String logMethodName;
+            String logMsg;
+            final CircuitBreaker breaker;
+            final Object[] batchResults;
+            final int prevOpTimeout;
+
+            Util.ensureNotNull(tableRow, this, "tableRow", RowRef.class);
+            Util.ensureNotNull(writePuts, this, "writePuts", List.class);
+            Util.ensureNotNull(deadline, this, "deadline", Deadline.class);
+
+            logMethodName =
+                LOG.enter(()->"exec(PREPARED-WRITE:",
+                          ()->tableRow,
+                          ()->",count=",
+                          ()->Integer.valueOf(writePuts.size()),
+                          ()->")");
+            breaker = acquireCircuitPermission(logMethodName, tableRow);
+            try {
+                if (HBaseControl.this.microBatcher != null) {
+                    batchResults =
+                        HBaseControl.this.microBatcher.execute(tableRow.getTable(),
+                                                               writePuts,
+                                                               deadline);
+                    for (Object batchResult : batchResults) {
+                        if (batchResult instanceof Throwable) {
+                            throw toBatchFailure(batchResult);
+                        }
+                    }
+                } else {
+                    try (ManagedTable writeToTable = borrowTable(tableRow, deadline)) {
+                        LOG.trace(logMethodName, ()->"table obtained");
+                        prevOpTimeout = applyDeadline(writeToTable.use(), tableRow, deadline);
+                        try {
+                            writeToTable.use().put(writePuts);
+                        } finally {
+                            writeToTable.use().setOperationTimeout(prevOpTimeout);
+                        }
+                    }
+                }
+                recordCircuitOutcome(breaker, null);
+            } catch (IOException ioExc) {
+                recordCircuitOutcome(breaker, ioExc);
+                handleTableNotFound(logMethodName, tableRow, ioExc);
+                logMsg = "WRITE failure; " + ioExc;
+                LOG.error(logMethodName, logMsg, ioExc);
+                throw new HBaseTableRowException(tableRow, logMsg, ioExc);
+            } catch (HBaseException | HBaseRuntimeException exc) {
+                recordCircuitOutcome(breaker, exc);
+                throw exc;
+            } catch (Exception exc) {
+                recordCircuitOutcome(breaker, exc);
+                logMsg = "Unexpected failure during PREPARED-WRITE operation ("
+                         + tableRow
+                         + "): "
+                         + exc.toString();
+                LOG.error(logMethodName, logMsg, exc);
+                throw new HBaseException(logMsg, exc);
+            } finally {
+                LOG.leave(logMethodName);
+            }
+        }
         
         /**
          * Tunnelling method so that OperationController with access to the delegate can use the
@@ -1066,8 +1984,26 @@ public class HBaseControl implements HBaseStart<OpResultSet>, Closeable {
          * @throws UnsupportedOperationException
          */
         public ListenableFuture<OpResultSet> execAsync(Callable<OpResultSet> operationExecutable) throws UnsupportedOperationException {
+            return execAsync(operationExecutable, Collections.emptyList());
+        }
+        
+        /**
+         * Tunnelling method so that OperationController with access to the delegate can use the
+         * execution thread pool established in the HBaseControl. If the context enables ordered
+         * WRITE lanes (see {@link com.liaison.shachi.context.async.AsyncConfig#getWriteLaneCount()})
+         * and the operation WRITEs to any rows, it is executed on the lane(s) for those rows rather
+         * than in the (unordered) thread pool, so that it is applied after any operation submitted
+         * earlier which WRITEs to any of the same rows.
+         * @param operationExecutable
+         * @param writeRows the rows to which the operation WRITEs
+         * @return
+         * @throws UnsupportedOperationException
+         */
+        public ListenableFuture<OpResultSet> execAsync(Callable<OpResultSet> operationExecutable, Collection<? extends RowSpecFrozen> writeRows) throws UnsupportedOperationException {
             String logMsg;
             final ListeningExecutorService asyncPool;
+            final WriteLaneScheduler writeLanes;
+            final BitSet laneSet;
             final ListenableFuture<OpResultSet> execTask;
             asyncPool = HBaseControl.this.execPool;
             if (asyncPool == null) {
@@ -1077,7 +2013,17 @@ public class HBaseControl implements HBaseStart<OpResultSet>, Closeable {
                          + "') does not support asynchronous operations";
                 throw new UnsupportedOperationException(logMsg);
             }
-            execTask = asyncPool.submit(operationExecutable);
+            writeLanes = HBaseControl.this.writeLanes;
+            if ((writeLanes == null) || (writeRows == null) || (writeRows.isEmpty())) {
+                execTask = asyncPool.submit(operationExecutable);
+            } else {
+                laneSet = new BitSet(writeLanes.getLaneCount());
+                for (RowSpecFrozen writeRow : writeRows) {
+                    laneSet.set(writeLanes.laneFor(writeRow.getTable(),
+                                                   writeRow.getLiteralizedRowKeyBytes(DefensiveCopyStrategy.NEVER)));
+                }
+                execTask = writeLanes.submit(laneSet, operationExecutable);
+            }
             return execTask;
         }
         
@@ -1097,6 +2043,37 @@ public class HBaseControl implements HBaseStart<OpResultSet>, Closeable {
     
     private static final long DEFAULT_THREADPOOL_IDLEEXPIRE = 60L * 1000L; // 60s
     private static final TimeUnit DEFAULT_THREADPOOL_IDLEEXPIRE_UNIT = TimeUnit.MILLISECONDS;
+    private static final int PREWARM_MAX_PARALLELISM = 16;
+    /**
+     * Maximum number of threads executing hedged GETs (original and hedge requests alike) at once
+     * for a single controller.
+     */
+    private static final int HEDGEPOOL_MAXTHREADS = 64;
+    /**
+     * Maximum number of threads sending micro-batches (and region-aware sub-batches) at once for
+     * a single controller.
+     */
+    private static final int BATCHPOOL_MAXTHREADS = 64;
+    /**
+     * Runs a task which a saturated pool cannot start in the submitting thread, providing
+     * back-pressure rather than queueing it behind tasks which may be waiting for it. Unlike
+     * {@link ThreadPoolExecutor.CallerRunsPolicy}, a task submitted after the pool has been shut
+     * down is rejected, rather than silently discarded.
+     */
+    private static final RejectedExecutionHandler RUN_IN_CALLER_UNLESS_SHUTDOWN =
+        (task, pool)->{
+            if (pool.isShutdown()) {
+                throw new RejectedExecutionException("Pool shut down; rejected task: " + task);
+            }
+            task.run();
+        };
+    /**
+     * Row key with which the GETs of a {@link PreparedRead} are built; each execution substitutes
+     * the row key actually being read.
+     */
+    private static final byte[] PREPARED_ROW_PLACEHOLDER = new byte[] {0};
+    private static final long DEFAULT_SCHEMA_ENABLE_TIMEOUT_MILLIS = 60L * 1000L; // 60s
+    private static final long SCHEMA_ENABLE_POLL_MILLIS = 100L;
     
     private static final JitLog LOG;
     
@@ -1140,6 +2117,17 @@ public class HBaseControl implements HBaseStart<OpResultSet>, Closeable {
     private final HBaseResourceManager resMgr;
     private final HBaseDelegate delegate;
     private final ListeningExecutorService execPool;
+    private final ConcurrentHashMap<TableModel, ReadLatencyWindow> readLatency;
+    private final HedgeMetrics hedgeMetrics;
+    private final ConcurrentHashMap<TableModel, CircuitBreaker> circuitBreakers;
+    private final List<CircuitBreakerListener> circuitBreakerListeners;
+    private final ReadCoalescer readCoalescer;
+    private final WriteLaneScheduler writeLanes;
+    private final ExecutorService batchPool;
+    private final MicroBatcher microBatcher;
+    private final Object hedgePoolLock;
+    private volatile ExecutorService hedgePool;
+    private final AtomicBoolean closed;
     
     // ||----(instance properties)---------------------------------------------------------------||
     
@@ -1148,14 +2136,221 @@ public class HBaseControl implements HBaseStart<OpResultSet>, Closeable {
     // ||----------------------------------------------------------------------------------------||
     
     /**
-     * Shut down the asynchronous execution pool, if one was created.
+     * Shut down the asynchronous execution pool, ordered WRITE lanes, and micro-batch pool, if
+     * they were created, then release this controller's use of the HBase connection shared by
+     * the context. The connection is closed only once every controller using the context has
+     * been closed, whereupon the resource manager evicts its idle resources for the context.
+     * Subsequent invocations have no effect.
      * @see java.io.Closeable#close()
      */
     @Override
     public void close() {
+        if (!this.closed.compareAndSet(false, true)) {
+            return;
+        }
         if (this.execPool != null) {
             this.execPool.shutdown();
         }
+        if (this.writeLanes != null) {
+            this.writeLanes.shutdown();
+        }
+        if (this.batchPool != null) {
+            this.batchPool.shutdown();
+        }
+        synchronized (this.hedgePoolLock) {
+            if (this.hedgePool != null) {
+                this.hedgePool.shutdown();
+            }
+        }
+        if (this.context.releaseConnection()) {
+            this.resMgr.evict(this.context);
+        }
+    }
+
+    /**
+     * Borrow a table resource with which to send (part of) a micro-batch, waiting no longer than
+     * the time remaining before the given deadline (if bounded).
+     * @param model
+     * @param deadline the earliest deadline of the operations in the batch
+     * @return
+     * @throws HBaseException if the deadline has expired, or no resource could be borrowed
+     */
+    private ManagedTable borrowForBatch(final TableModel model, final Deadline deadline) throws HBaseException {
+        deadline.ensureActive(model);
+        if (deadline.isBounded()) {
+            return this.resMgr.borrow(this.context, model, deadline.remainingMillis());
+        }
+        return this.resMgr.borrow(this.context, model);
+    }
+
+    /**
+     * Send a micro-batch as a single batch call, subject to the given deadline, which bounds both
+     * the wait to borrow the table and the operation timeout of the call.
+     * @see MicroBatcher.BatchPerformer
+     */
+    private void performBatch(final TableModel model, final List<Row> actions, final Object[] results, final Deadline deadline) throws HBaseException, IOException, InterruptedException {
+        final int prevOpTimeout;
+
+        try (ManagedTable batchTable = borrowForBatch(model, deadline)) {
+            prevOpTimeout = batchTable.use().getOperationTimeout();
+            batchTable.use().setOperationTimeout(deadline.capMillis(prevOpTimeout));
+            try {
+                batchTable.use().batch(actions, results);
+            } finally {
+                batchTable.use().setOperationTimeout(prevOpTimeout);
+            }
+        }
+    }
+
+    /**
+     * Obtain the thread pool in which hedged reads are executed, creating it upon first use.
+     * Hedged reads need not be enabled at the context level (they may be enabled only for
+     * individual tables), so the pool is not created until a hedged read is first executed. The
+     * pool is bounded at {@link #HEDGEPOOL_MAXTHREADS} threads and does not queue; a submission
+     * which finds every thread busy is rejected, and the caller falls back to an unhedged read.
+     * @return the hedged-read thread pool
+     */
+    private ExecutorService getHedgePool() {
+        ExecutorService pool;
+        
+        pool = this.hedgePool;
+        if (pool == null) {
+            synchronized (this.hedgePoolLock) {
+                pool = this.hedgePool;
+                if (pool == null) {
+                    pool =
+                        new ThreadPoolExecutor(0,
+                                               HEDGEPOOL_MAXTHREADS,
+                                               DEFAULT_THREADPOOL_IDLEEXPIRE,
+                                               DEFAULT_THREADPOOL_IDLEEXPIRE_UNIT,
+                                               new SynchronousQueue<Runnable>(),
+                                               Threads.newDaemonThreadFactory("shachi-"
+                                                                              + this.context.getId()
+                                                                              + "-hedge"));
+                    this.hedgePool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+    
+    /**
+     * Counters describing how often reads executed by this controller were hedged, and how often
+     * the hedge request won.
+     * @return hedged-read metrics for this controller
+     */
+    public HedgeMetrics getHedgeMetrics() {
+        return this.hedgeMetrics;
+    }
+
+    /**
+     * The single-flight READ coalescer for this controller, which reports how many READs were
+     * satisfied by attaching to an identical in-flight READ (see
+     * {@link ReadCoalescer#getCoalescingRatio()}).
+     * @return the READ coalescer, or null if the context does not enable READ coalescing
+     */
+    public ReadCoalescer getReadCoalescer() {
+        return this.readCoalescer;
+    }
+    
+    /**
+     * The micro-batcher for this controller, which reports how many operations were sent per
+     * batch call (see {@link MicroBatcher#getMeanBatchSize()}).
+     * @return the micro-batcher, or null if the context does not enable micro-batching
+     */
+    public MicroBatcher getMicroBatcher() {
+        return this.microBatcher;
+    }
+    
+    /**
+     * Obtain the circuit breaker for the given table, creating it upon first use.
+     * @param model the table
+     * @return the circuit breaker for the table, or null if the context does not enable circuit
+     * breaking
+     */
+    private CircuitBreaker obtainCircuitBreaker(final TableModel model) {
+        final CircuitBreakerPolicy policy;
+        policy = this.context.getCircuitBreakerPolicy();
+        if ((policy == null) || (!policy.isCircuitBreakingEnabled())) {
+            return null;
+        }
+        return this.circuitBreakers.computeIfAbsent(model,
+                                                    (key)->new CircuitBreaker(key,
+                                                                              policy,
+                                                                              this::publishCircuitTransition));
+    }
+    
+    /**
+     * Log the given circuit breaker state transition, and notify all registered listeners of it.
+     * A listener which throws is logged and otherwise ignored, so that it cannot cause the
+     * operation which triggered the transition to fail.
+     * @param breaker
+     * @param fromState
+     * @param toState
+     */
+    private void publishCircuitTransition(final CircuitBreaker breaker, final CircuitBreaker.State fromState, final CircuitBreaker.State toState) {
+        final String logMethodName;
+        
+        logMethodName =
+            LOG.enter(()->"publishCircuitTransition(table=",
+                      ()->breaker.getTable().getName(),
+                      ()->",",
+                      ()->fromState,
+                      ()->"->",
+                      ()->toState,
+                      ()->")");
+        LOG.trace(logMethodName, ()->"circuit breaker state changed: ", ()->breaker);
+        for (CircuitBreakerListener listener : this.circuitBreakerListeners) {
+            try {
+                listener.onStateTransition(breaker, fromState, toState);
+            } catch (RuntimeException exc) {
+                LOG.error(exc,
+                          logMethodName,
+                          ()->"Circuit breaker listener failed: ",
+                          ()->listener);
+            }
+        }
+        LOG.leave(logMethodName);
+    }
+    
+    /**
+     * The circuit breaker for the given table, which reports its current state and how many
+     * operations it has rejected.
+     * @param model the table
+     * @return the circuit breaker for the table, or null if the context does not enable circuit
+     * breaking or no operation has yet been executed against the table
+     */
+    public CircuitBreaker getCircuitBreaker(final TableModel model) {
+        Util.ensureNotNull(model, this, "model", TableModel.class);
+        return this.circuitBreakers.get(model);
+    }
+    
+    /**
+     * The circuit breakers for all tables against which an operation has been executed.
+     * @return unmodifiable view of the circuit breakers for this controller
+     */
+    public Collection<CircuitBreaker> getCircuitBreakers() {
+        return Collections.unmodifiableCollection(this.circuitBreakers.values());
+    }
+    
+    /**
+     * Register a listener to be notified whenever the circuit breaker for any table changes
+     * state.
+     * @param listener the listener
+     */
+    public void addCircuitBreakerListener(final CircuitBreakerListener listener) {
+        Util.ensureNotNull(listener, this, "listener", CircuitBreakerListener.class);
+        this.circuitBreakerListeners.add(listener);
+    }
+    
+    /**
+     * Unregister a listener previously registered via
+     * {@link #addCircuitBreakerListener(CircuitBreakerListener)}.
+     * @param listener the listener
+     * @return true if the listener was registered; false otherwise
+     */
+    public boolean removeCircuitBreakerListener(final CircuitBreakerListener listener) {
+        return this.circuitBreakerListeners.remove(listener);
     }
     
     /**
@@ -1166,6 +2361,382 @@ public class HBaseControl implements HBaseStart<OpResultSet>, Closeable {
         return this.context;
     }
     
+    /**
+     * Establish the HBase resources for the given tables ahead of first use, e.g. at application
+     * startup before traffic arrives, so that the first operations against them do not pay for
+     * connection and table setup inline. With a pooling resource manager, this fills each table's
+     * pool to its minimum idle size (see {@link com.liaison.shachi.context.pool.PoolSizing}).
+     * Tables are pre-warmed in parallel; the method returns once all have completed.
+     * @param models the tables to pre-warm
+     * @throws IllegalArgumentException if models, or any individual model, is null
+     * @throws HBaseInitializationException if any table could not be pre-warmed; the failure for
+     * the first such table is the cause, and failures for any others are suppressed exceptions
+     */
+    public void prewarm(final TableModel... models) throws IllegalArgumentException, HBaseInitializationException {
+        final String logMethodName;
+        final String logMsg;
+        final ExecutorService prewarmPool;
+        final List<Future<?>> prewarmFutures;
+        final List<TableModel> failedModels;
+        final List<Throwable> failures;
+        
+        Util.ensureNotNull(models, this, "models", TableModel[].class);
+        for (TableModel model : models) {
+            Util.ensureNotNull(model, this, "model", TableModel.class);
+        }
+        if (models.length <= 0) {
+            return;
+        }
+        
+        logMethodName =
+            LOG.enter(()->"prewarm(tables=",
+                      ()->Integer.valueOf(models.length),
+                      ()->")");
+        prewarmPool =
+            Executors.newFixedThreadPool(Math.min(models.length, PREWARM_MAX_PARALLELISM));
+        prewarmFutures = new ArrayList<>(models.length);
+        failedModels = new LinkedList<>();
+        failures = new LinkedList<>();
+        try {
+            for (TableModel model : models) {
+                prewarmFutures.add(prewarmPool.submit(()->{
+                    this.resMgr.prewarm(this.context, model);
+                    return null;
+                }));
+            }
+            for (int index = 0; index < models.length; index++) {
+                try {
+                    prewarmFutures.get(index).get();
+                } catch (ExecutionException exExc) {
+                    failedModels.add(models[index]);
+                    failures.add(exExc.getCause());
+                }
+            }
+        } catch (InterruptedException iExc) {
+            Thread.currentThread().interrupt();
+            throw new HBaseInitializationException("Interrupted while pre-warming table resources", iExc);
+        } finally {
+            prewarmPool.shutdownNow();
+            LOG.leave(logMethodName);
+        }
+        
+        if (!failures.isEmpty()) {
+            logMsg = "Failed to pre-warm resources for "
+                     + failures.size()
+                     + " of "
+                     + models.length
+                     + " table(s): "
+                     + failedModels;
+            throw aggregateFailures(logMethodName, logMsg, failures);
+        }
+    }
+    
+    /**
+     * Combine the given failures, each pertaining to a different table, into a single exception.
+     * @param logMethodName
+     * @param logMsg
+     * @param failures
+     * @return an exception whose cause is the first failure, and which suppresses the others
+     */
+    private static HBaseInitializationException aggregateFailures(final String logMethodName, final String logMsg, final List<Throwable> failures) {
+        final HBaseInitializationException aggregateExc;
+        aggregateExc = new HBaseInitializationException(logMsg, failures.get(0));
+        for (Throwable failure : failures.subList(1, failures.size())) {
+            aggregateExc.addSuppressed(failure);
+        }
+        LOG.error(aggregateExc, logMethodName, ()->logMsg);
+        return aggregateExc;
+    }
+    
+    /**
+     * Ensure that the tables for all of the given models exist and are enabled, creating any which
+     * are missing, with a default timeout of 60s for newly-created tables to become enabled.
+     * @see #ensureSchema(Collection, long)
+     * @param models the tables which must exist
+     * @throws IllegalArgumentException if models, or any individual model, is null
+     * @throws HBaseInitializationException if the cluster could not be listed, or any table could
+     * not be created or did not become enabled in time
+     */
+    public void ensureSchema(final Collection<TableModel> models) throws IllegalArgumentException, HBaseInitializationException {
+        ensureSchema(models, DEFAULT_SCHEMA_ENABLE_TIMEOUT_MILLIS);
+    }
+    
+    /**
+     * Ensure that the tables for all of the given models exist and are enabled, creating any which
+     * are missing. Intended to be run at application startup (possibly in the background), so that
+     * table creation is not performed inline by the first operation against each table.
+     * <br><br>
+     * The tables present in the cluster are determined by a single listing call; those found are
+     * recorded in the context's registry of verified tables, so that no further existence check is
+     * performed for them. Missing tables are created concurrently, with parallelism bounded by the
+     * maximum number of admin resources configured for the context (see
+     * {@link com.liaison.shachi.context.pool.ResourcePoolPolicy#getAdminSizing()}). Creation goes
+     * through the verified-table registry, so an operation which needs a table while it is being
+     * created here waits for (and shares the outcome of) that creation rather than repeating it.
+     * The method returns once every created table is enabled and all of its regions are available.
+     * @param models the tables which must exist
+     * @param enableTimeoutMillis the maximum time to wait, after creation, for created tables to
+     * become enabled
+     * @throws IllegalArgumentException if models, or any individual model, is null
+     * @throws HBaseInitializationException if the cluster could not be listed, or any table could
+     * not be created or did not become enabled in time; the failure for the first such table is
+     * the cause, and failures for any others are suppressed exceptions
+     */
+    public void ensureSchema(final Collection<TableModel> models, final long enableTimeoutMillis) throws IllegalArgumentException, HBaseInitializationException {
+        String logMsg;
+        final String logMethodName;
+        final DefensiveCopyStrategy dcs;
+        final VerifiedTableRegistry registry;
+        final Map<TableName, TableModel> modelsByTableName;
+        final Set<TableName> existingTables;
+        final List<TableName> missingTables;
+        final Integer adminMaxTotal;
+        final int parallelism;
+        final ExecutorService createPool;
+        final List<Future<?>> createFutures;
+        final List<TableName> failedTables;
+        final List<Throwable> failures;
+        final long enableDeadlineMillis;
+        
+        Util.ensureNotNull(models, this, "models", Collection.class);
+        for (TableModel model : models) {
+            Util.ensureNotNull(model, this, "model", TableModel.class);
+        }
+        if (models.isEmpty()) {
+            return;
+        }
+        
+        logMethodName =
+            LOG.enter(()->"ensureSchema(tables=",
+                      ()->Integer.valueOf(models.size()),
+                      ()->")");
+        dcs = this.context.getDefensiveCopyStrategy();
+        registry = this.context.getVerifiedTableRegistry();
+        modelsByTableName = new LinkedHashMap<>();
+        for (TableModel model : models) {
+            modelsByTableName.put(TableName.valueOf(this.context
+                                                        .getTableNamingStrategy()
+                                                        .generate(model)
+                                                        .getValue(dcs)),
+                                  model);
+        }
+        
+        existingTables = new HashSet<>();
+        try (ManagedAdmin admin = this.resMgr.borrowAdmin(this.context)) {
+            Collections.addAll(existingTables, admin.use().listTableNames());
+        } catch (HBaseException | IOException exc) {
+            logMsg = "Failed to list the tables present in the cluster; " + exc;
+            LOG.error(logMethodName, logMsg, exc);
+            LOG.leave(logMethodName);
+            throw new HBaseInitializationException(logMsg, exc);
+        }
+        missingTables = new ArrayList<>(modelsByTableName.size());
+        for (Map.Entry<TableName, TableModel> tableEntry : modelsByTableName.entrySet()) {
+            if (!existingTables.contains(tableEntry.getKey())) {
+                missingTables.add(tableEntry.getKey());
+            } else if (registry != null) {
+                registry.markVerified(this.context
+                                          .getTableNamingStrategy()
+                                          .generate(tableEntry.getValue()));
+            }
+        }
+        LOG.trace(logMethodName,
+                  ()->"tables missing from the cluster: ",
+                  ()->missingTables);
+        if (missingTables.isEmpty()) {
+            LOG.leave(logMethodName);
+            return;
+        }
+        
+        adminMaxTotal =
+            ResourceManagerUtil.getResourcePoolPolicy(this.context).getAdminSizing().getMaxTotal();
+        if (adminMaxTotal == null) {
+            parallelism = Math.min(missingTables.size(), PREWARM_MAX_PARALLELISM);
+        } else {
+            parallelism = Math.max(1, Math.min(missingTables.size(), adminMaxTotal.intValue()));
+        }
+        createPool = Executors.newFixedThreadPool(parallelism);
+        createFutures = new ArrayList<>(missingTables.size());
+        failedTables = new LinkedList<>();
+        failures = new LinkedList<>();
+        try {
+            for (TableName tableName : missingTables) {
+                createFutures.add(createPool.submit(()->{
+                    ResourceManagerUtil.ensureTableVerified(this.resMgr,
+                                                            this.context,
+                                                            modelsByTableName.get(tableName));
+                    return null;
+                }));
+            }
+            for (int index = 0; index < missingTables.size(); index++) {
+                try {
+                    createFutures.get(index).get();
+                } catch (ExecutionException exExc) {
+                    failedTables.add(missingTables.get(index));
+                    failures.add(exExc.getCause());
+                }
+            }
+            
+            enableDeadlineMillis = System.currentTimeMillis() + Math.max(0L, enableTimeoutMillis);
+            try (ManagedAdmin admin = this.resMgr.borrowAdmin(this.context)) {
+                for (TableName tableName : missingTables) {
+                    if (failedTables.contains(tableName)) {
+                        continue;
+                    }
+                    while (!((admin.use().isTableEnabled(tableName))
+                             && (admin.use().isTableAvailable(tableName)))) {
+                        if (System.currentTimeMillis() >= enableDeadlineMillis) {
+                            failedTables.add(tableName);
+                            failures.add(new HBaseDeadlineExceededException("Table "
+                                                                             + tableName
+                                                                             + " not enabled within "
+                                                                             + enableTimeoutMillis
+                                                                             + "ms of creation"));
+                            break;
+                        }
+                        Thread.sleep(SCHEMA_ENABLE_POLL_MILLIS);
+                    }
+                }
+            } catch (HBaseException | IOException exc) {
+                logMsg = "Failed to verify that created tables are enabled; " + exc;
+                LOG.error(logMethodName, logMsg, exc);
+                throw new HBaseInitializationException(logMsg, exc);
+            }
+        } catch (InterruptedException iExc) {
+            Thread.currentThread().interrupt();
+            throw new HBaseInitializationException("Interrupted while ensuring schema", iExc);
+        } finally {
+            createPool.shutdownNow();
+            LOG.leave(logMethodName);
+        }
+        
+        if (!failures.isEmpty()) {
+            logMsg = "Failed to create (or enable) "
+                     + failures.size()
+                     + " of "
+                     + missingTables.size()
+                     + " missing table(s): "
+                     + failedTables;
+            throw aggregateFailures(logMethodName, logMsg, failures);
+        }
+    }
+    
+    /**
+     * Bring the column families of the existing tables for the given models in line with the
+     * storage settings declared by each {@link com.liaison.shachi.model.FamilyModel} (bloom
+     * filter, block size, block cache and in-memory flags, compression, data block encoding,
+     * maximum versions, and TTL), adding any family missing from a table. Storage settings are
+     * otherwise applied only when a table is created, so this must be invoked explicitly after
+     * changing them for a table which already exists (see
+     * {@link HBaseUtil#reconcileTableFromModel(org.apache.hadoop.hbase.client.HBaseAdmin,
+     * TableModel, Name, DefensiveCopyStrategy)}).
+     * @param models the tables to reconcile
+     * @return the number of column families added or modified, across all tables
+     * @throws IllegalArgumentException if models, or any individual model, is null
+     * @throws HBaseInitializationException if any table could not be reconciled (e.g. because it
+     * does not exist); the failure for the first such table is the cause, and failures for any
+     * others are suppressed exceptions
+     */
+    public int reconcileSchema(final Collection<TableModel> models) throws IllegalArgumentException, HBaseInitializationException {
+        String logMsg;
+        final String logMethodName;
+        final DefensiveCopyStrategy dcs;
+        final List<TableModel> failedModels;
+        final List<Throwable> failures;
+        int changeCount;
+        
+        Util.ensureNotNull(models, this, "models", Collection.class);
+        for (TableModel model : models) {
+            Util.ensureNotNull(model, this, "model", TableModel.class);
+        }
+        
+        logMethodName =
+            LOG.enter(()->"reconcileSchema(tables=",
+                      ()->Integer.valueOf(models.size()),
+                      ()->")");
+        dcs = this.context.getDefensiveCopyStrategy();
+        failedModels = new LinkedList<>();
+        failures = new LinkedList<>();
+        changeCount = 0;
+        try (ManagedAdmin admin = this.resMgr.borrowAdmin(this.context)) {
+            for (TableModel model : models) {
+                try {
+                    changeCount +=
+                        HBaseUtil.reconcileTableFromModel(admin.use(),
+                                                          model,
+                                                          this.context
+                                                              .getTableNamingStrategy()
+                                                              .generate(model),
+                                                          dcs);
+                } catch (IOException ioExc) {
+                    failedModels.add(model);
+                    failures.add(ioExc);
+                }
+            }
+        } catch (HBaseException | IOException exc) {
+            logMsg = "Failed to obtain (or release) admin resource to reconcile schema; " + exc;
+            LOG.error(logMethodName, logMsg, exc);
+            throw new HBaseInitializationException(logMsg, exc);
+        } finally {
+            LOG.leave(logMethodName);
+        }
+        
+        if (!failures.isEmpty()) {
+            logMsg = "Failed to reconcile "
+                     + failures.size()
+                     + " of "
+                     + models.size()
+                     + " table(s): "
+                     + failedModels;
+            throw aggregateFailures(logMethodName, logMsg, failures);
+        }
+        return changeCount;
+    }
+    
+    /**
+     * Compile the shape of a READ (columns, versions, time range, and per-family limits) against
+     * the given table into a {@link PreparedRead}, which may then be executed repeatedly against
+     * any row of the table without re-specifying, re-validating, or re-planning the READ. The
+     * shape is specified via the same fluent API as {@link #begin()}, except that the table and
+     * row are supplied by the prepared read, so <code>from()</code> must not be invoked.
+     * @param handle the handle identifying the READ in the results it produces
+     * @param table the table to be read
+     * @param shape specifies the columns (etc.) to be read
+     * @return the compiled READ
+     * @throws IllegalArgumentException if any parameter is null
+     * @throws SpecValidationException if the resulting READ is invalid
+     * @throws HBaseTableRowException if the GETs for the READ cannot be built
+     */
+    public PreparedRead prepareRead(final Object handle, final TableModel table, final Consumer<? super ReadOpSpecFluid<OpResultSet>> shape) throws IllegalArgumentException, SpecValidationException, HBaseTableRowException {
+        final ReadOpSpecDefault readSpec;
+
+        Util.ensureNotNull(handle, this, "handle", Object.class);
+        Util.ensureNotNull(table, this, "table", TableModel.class);
+        Util.ensureNotNull(shape, this, "shape", Consumer.class);
+
+        readSpec = new OperationControllerDefault(this.delegate, this.context).read(handle);
+        readSpec
+            .from()
+            .tbl(table)
+            .row(RowKey.of(PREPARED_ROW_PLACEHOLDER, DefensiveCopyStrategy.ALWAYS));
+        shape.accept(readSpec);
+        readSpec.freezeRecursive();
+        return this.delegate.prepare(readSpec);
+    }
+
+    /**
+     * Begin specifying a {@link PreparedWrite}: a fixed column layout for a table, compiled once,
+     * into which the row key, values, and (optionally) version or timestamp of each record are
+     * bound positionally to produce a PUT directly.
+     * @param handle the handle identifying the WRITE
+     * @return a builder for the prepared WRITE
+     * @throws IllegalArgumentException if handle is null
+     */
+    public PreparedWrite.Builder prepareWrite(final Object handle) throws IllegalArgumentException {
+        Util.ensureNotNull(handle, this, "handle", Object.class);
+        return PreparedWrite.getBuilder(this.delegate, this.context).handle(handle);
+    }
+
     /**
      * {@inheritDoc}
      * @see {@link HBaseStart#begin()}.
@@ -1181,11 +2752,52 @@ public class HBaseControl implements HBaseStart<OpResultSet>, Closeable {
     // ||----------------------------------------------------------------------------------------||
     
     public HBaseControl(final HBaseContext context, final HBaseResourceManager resMgr) {
+        final MicroBatchPolicy microBatchPolicy;
+        
         Util.ensureNotNull(context, this, "context", HBaseContext.class);
         this.context = context;
         Util.ensureNotNull(resMgr, this, "resMgr", HBaseResourceManager.class);
         this.resMgr = resMgr;
         this.delegate = new HBaseDelegate();
+        this.readLatency = new ConcurrentHashMap<>();
+        this.hedgeMetrics = new HedgeMetrics();
+        this.circuitBreakers = new ConcurrentHashMap<>();
+        this.circuitBreakerListeners = new CopyOnWriteArrayList<>();
+        if (context.doCoalesceReads()) {
+            this.readCoalescer = new ReadCoalescer();
+        } else {
+            this.readCoalescer = null;
+        }
+        this.hedgePoolLock = new Object();
+        this.hedgePool = null;
+        this.closed = new AtomicBoolean(false);
+        microBatchPolicy = context.getMicroBatchPolicy();
+        if ((microBatchPolicy != null) && (microBatchPolicy.isMicroBatchingEnabled())) {
+            this.batchPool =
+                new ThreadPoolExecutor(0,
+                                       BATCHPOOL_MAXTHREADS,
+                                       DEFAULT_THREADPOOL_IDLEEXPIRE,
+                                       DEFAULT_THREADPOOL_IDLEEXPIRE_UNIT,
+                                       new SynchronousQueue<Runnable>(),
+                                       Threads.newDaemonThreadFactory("shachi-"
+                                                                      + context.getId()
+                                                                      + "-batch"),
+                                       RUN_IN_CALLER_UNLESS_SHUTDOWN);
+            if (microBatchPolicy.isRegionAwareDispatch()) {
+                this.microBatcher =
+                    new MicroBatcher(microBatchPolicy,
+                                     new RegionAwareBatchPerformer(microBatchPolicy,
+                                                                   this::borrowForBatch,
+                                                                   this.batchPool),
+                                     this.batchPool);
+            } else {
+                this.microBatcher =
+                    new MicroBatcher(microBatchPolicy, this::performBatch, this.batchPool);
+            }
+        } else {
+            this.batchPool = null;
+            this.microBatcher = null;
+        }
         if (context.getAsyncConfig().isAsyncEnabled()) {
             this.execPool =
                 MoreExecutors.listeningDecorator(
@@ -1194,9 +2806,18 @@ public class HBaseControl implements HBaseStart<OpResultSet>, Closeable {
                                            DEFAULT_THREADPOOL_IDLEEXPIRE,
                                            DEFAULT_THREADPOOL_IDLEEXPIRE_UNIT,
                                            new SynchronousQueue<Runnable>()));
+            if (context.getAsyncConfig().getWriteLaneCount() > 0) {
+                this.writeLanes =
+                    new WriteLaneScheduler(context.getAsyncConfig().getWriteLaneCount(),
+                                           "shachi-" + context.getId() + "-writelane");
+            } else {
+                this.writeLanes = null;
+            }
         } else {
             this.execPool = null;
+            this.writeLanes = null;
         }
+        context.retainConnection();
     }
     
     // ||----(constructors)----------------------------------------------------------------------||
@@ -20,6 +20,8 @@ import com.liaison.shachi.HBaseControl;
 import com.liaison.shachi.api.request.fluid.ReadOpSpecFluid;
 import com.liaison.shachi.api.request.fluid.WriteOpSpecFluid;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Starting point during the HBase operation-spec generating process for individual read and write
  * operations, as well as the transition point when the chain of operations encapsulated in the
@@ -46,6 +48,21 @@ public interface OperationController<X> extends OperationExecutor<X> {
      * @throws IllegalArgumentException if handle is null
      */
     WriteOpSpecFluid<X> write(Object handle) throws IllegalStateException, IllegalArgumentException;
+    /**
+     * Assign a deadline to the execution of this operation chain: once
+     * {@link OperationExecutor#exec()} is invoked (whether synchronously or via {@link #async()}),
+     * the chain must complete within the given amount of time. The time spent waiting for table
+     * resources and the HBase client operation timeout (RPC plus retries) for each operation are
+     * capped to the time remaining, and any operations not yet started once the deadline expires
+     * are abandoned (with {@link com.liaison.shachi.exception.HBaseDeadlineExceededException}).
+     * @param timeout the time allotted for execution of the chain
+     * @param unit the unit of the time allotted
+     * @return this controller
+     * @throws IllegalStateException if the controller is no longer accepting changes to the
+     * operation specification
+     * @throws IllegalArgumentException if timeout is not positive, or unit is null
+     */
+    OperationController<X> timeout(long timeout, TimeUnit unit) throws IllegalStateException, IllegalArgumentException;
     /**
      * Transfer control to an {@link OperationExecutor} identical to this one, except that the
      * {@link OperationExecutor#exec()} operation is executed asynchronously in a thread pool
@@ -58,6 +75,10 @@ public interface OperationController<X> extends OperationExecutor<X> {
      * in this {@link OperationController} instance are carried over to the new, asynchronicity-
      * supporting {@link OperationExecutor} proxy, and will be carried out (asynchronously) upon
      * invoking {@link OperationExecutor#exec()} on that instance.
+     * <br><br>
+     * Cancelling the future returned by the asynchronous executor (with interruption) stops the
+     * chain: operations not yet started are abandoned, and any table resources held by the
+     * in-progress operation are released as it unwinds.
      * @return an asynchronous {@link OperationExecutor} proxy for this controller, using a thread
      * pool established by the original {@link HBaseControl} (if available).
      */
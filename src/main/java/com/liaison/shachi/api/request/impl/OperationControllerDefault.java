@@ -20,16 +20,21 @@ import com.liaison.javabasics.commons.Util;
 import com.liaison.shachi.HBaseControl;
 import com.liaison.shachi.api.request.OperationController;
 import com.liaison.shachi.api.request.OperationExecutor;
+import com.liaison.shachi.api.request.frozen.RowSpecFrozen;
 import com.liaison.shachi.api.response.OpResultSet;
 import com.liaison.shachi.context.HBaseContext;
+import com.liaison.shachi.dto.Deadline;
 import com.liaison.shachi.exception.HBaseException;
 import com.liaison.shachi.exception.HBaseTableRowException;
 import com.liaison.shachi.exception.HBaseUnsupportedOperationException;
 import com.liaison.shachi.util.TreeNodeRoot;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 
@@ -40,6 +45,12 @@ public class OperationControllerDefault extends TreeNodeRoot<OperationController
     
     private static final long serialVersionUID = -6620685078075615195L;
 
+    /**
+     * Initial capacity of the operation map; a controller nearly always carries a single
+     * operation, so the default capacity of 16 is wasted.
+     */
+    private static final int OPS_INITIAL_CAPACITY = 2;
+
     private static enum State {
         ACCEPTING, EXECUTING;
     }
@@ -49,6 +60,7 @@ public class OperationControllerDefault extends TreeNodeRoot<OperationController
     private final HBaseControl.HBaseDelegate delegate;
     private final HBaseContext context;
     private final LinkedHashMap<Object, OperationSpec<?>> ops;
+    private Long timeoutNanos;
 
     @Override
     protected OperationControllerDefault self() {
@@ -104,11 +116,54 @@ public class OperationControllerDefault extends TreeNodeRoot<OperationController
         return nextCreateOp;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OperationControllerDefault timeout(final long timeout, final TimeUnit unit) throws IllegalStateException, IllegalArgumentException {
+        verifyStateForAddingOps();
+        Util.ensureNotNull(unit, this, "unit", TimeUnit.class);
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("Operation timeout must be positive; was: "
+                                               + timeout
+                                               + " "
+                                               + unit);
+        }
+        this.timeoutNanos = Long.valueOf(unit.toNanos(timeout));
+        return this;
+    }
+
+    /**
+     * Establish the deadline for execution of this chain, per the timeout (if any) assigned via
+     * {@link #timeout(long, TimeUnit)}. Invoked at the moment execution is requested, so that (in
+     * the asynchronous case) time spent waiting for a pool thread counts against the deadline.
+     * @return the deadline for execution of this chain
+     */
+    Deadline startDeadline() {
+        if (this.timeoutNanos == null) {
+            return Deadline.NONE;
+        }
+        return Deadline.after(this.timeoutNanos.longValue(), TimeUnit.NANOSECONDS);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public OpResultSet exec() throws HBaseUnsupportedOperationException, HBaseTableRowException, HBaseException {
+        return exec(startDeadline());
+    }
+
+    /**
+     * Execute the operations in this chain, in order, abandoning any remaining operations if the
+     * given deadline expires or the executing thread is interrupted.
+     * @param deadline
+     * @return
+     * @throws HBaseUnsupportedOperationException
+     * @throws HBaseTableRowException
+     * @throws HBaseException
+     */
+    OpResultSet exec(final Deadline deadline) throws HBaseUnsupportedOperationException, HBaseTableRowException, HBaseException {
         String logMsg;
         final OpResultSet opResSet;
         OperationSpec<?> opSpec;
@@ -118,12 +173,13 @@ public class OperationControllerDefault extends TreeNodeRoot<OperationController
         opResSet = new OpResultSet();
         for (Map.Entry<Object, OperationSpec<?>> op : this.ops.entrySet()) {
             opSpec = op.getValue();
+            deadline.ensureActive(op.getKey());
             if (opSpec instanceof ReadOpSpecDefault) {
                 readOpSpec = (ReadOpSpecDefault) opSpec;
-                opResSet.assimilate(readOpSpec, this.delegate.exec(readOpSpec));
+                opResSet.assimilate(readOpSpec, this.delegate.exec(readOpSpec, deadline));
             } else if (opSpec instanceof WriteOpSpecDefault) {
                 writeOpSpec = (WriteOpSpecDefault) opSpec;
-                opResSet.assimilate(writeOpSpec, this.delegate.exec(writeOpSpec));
+                opResSet.assimilate(writeOpSpec, this.delegate.exec(writeOpSpec, deadline));
             } else {
                 if (opSpec == null) {
                     logMsg = "Null operation in chain";
@@ -139,6 +195,28 @@ public class OperationControllerDefault extends TreeNodeRoot<OperationController
         return opResSet;
     }
     
+    /**
+     * The rows targeted by the WRITE operations in this chain, so that asynchronous execution can
+     * order this chain relative to other chains which WRITE to the same rows. Rows which have not
+     * been frozen are omitted, since the chain will fail validation upon execution regardless.
+     * @return the rows to which this chain WRITEs (possibly empty)
+     */
+    List<RowSpecFrozen> getWriteRows() {
+        final List<RowSpecFrozen> writeRows;
+        RowSpec<WriteOpSpecDefault> tableRow;
+        
+        writeRows = new ArrayList<>();
+        for (OperationSpec<?> opSpec : this.ops.values()) {
+            if (opSpec instanceof WriteOpSpecDefault) {
+                tableRow = ((WriteOpSpecDefault) opSpec).getTableRow();
+                if ((tableRow != null) && (tableRow.isFrozen())) {
+                    writeRows.add(tableRow);
+                }
+            }
+        }
+        return writeRows;
+    }
+    
     @Override
     public OperationExecutor<ListenableFuture<OpResultSet>> async() {
         return new OperationExecutorAsync(this.delegate, this);
@@ -156,6 +234,7 @@ public class OperationControllerDefault extends TreeNodeRoot<OperationController
         this.state = State.ACCEPTING;
         this.delegate = delegate;
         this.context = context;
-        this.ops = new LinkedHashMap<>();
+        this.ops = new LinkedHashMap<>(OPS_INITIAL_CAPACITY);
+        this.timeoutNanos = null;
     }
 }
@@ -18,9 +18,9 @@ package com.liaison.shachi.api.request.impl;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.liaison.javabasics.commons.Util;
 import com.liaison.shachi.HBaseControl;
-import com.liaison.shachi.api.request.OperationController;
 import com.liaison.shachi.api.request.OperationExecutor;
 import com.liaison.shachi.api.response.OpResultSet;
+import com.liaison.shachi.dto.Deadline;
 
 
 /**
@@ -29,7 +29,7 @@ import com.liaison.shachi.api.response.OpResultSet;
  */
 public class OperationExecutorAsync implements OperationExecutor<ListenableFuture<OpResultSet>> {
 
-    private final OperationController<OpResultSet> coreOperation;
+    private final OperationControllerDefault coreOperation;
     private final HBaseControl.HBaseDelegate delegate;
 
     /**
@@ -38,16 +38,21 @@ public class OperationExecutorAsync implements OperationExecutor<ListenableFutur
      */
     @Override
     public ListenableFuture<OpResultSet> exec() {
-        return this.delegate.execAsync(this.coreOperation::exec);
+        final Deadline deadline;
+
+        // start the clock now, so that any wait for a pool thread counts against the deadline
+        deadline = this.coreOperation.startDeadline();
+        return this.delegate.execAsync(()->this.coreOperation.exec(deadline),
+                                       this.coreOperation.getWriteRows());
     }
 
     /**
      * 
      */
-    public OperationExecutorAsync(final HBaseControl.HBaseDelegate delegate, final OperationController<OpResultSet> coreOperation) {
+    public OperationExecutorAsync(final HBaseControl.HBaseDelegate delegate, final OperationControllerDefault coreOperation) {
         Util.ensureNotNull(delegate, this, "delegate", HBaseControl.HBaseDelegate.class);
         this.delegate = delegate;
-        Util.ensureNotNull(coreOperation, this, "coreOperation", OperationController.class);
+        Util.ensureNotNull(coreOperation, this, "coreOperation", OperationControllerDefault.class);
         this.coreOperation = coreOperation;
     }
 
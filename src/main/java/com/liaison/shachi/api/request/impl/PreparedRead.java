@@ -0,0 +1,350 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.api.request.impl;
+
+import com.liaison.javabasics.commons.Util;
+import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
+import com.liaison.shachi.HBaseControl;
+import com.liaison.shachi.api.request.frozen.ColSpecReadFrozen;
+import com.liaison.shachi.api.request.frozen.ReadOpSpecFrozen;
+import com.liaison.shachi.api.response.OpResultSet;
+import com.liaison.shachi.api.response.ReadOpResult;
+import com.liaison.shachi.dto.Deadline;
+import com.liaison.shachi.dto.PackedCellSet;
+import com.liaison.shachi.dto.RowKey;
+import com.liaison.shachi.dto.TableRow;
+import com.liaison.shachi.exception.HBaseException;
+import com.liaison.shachi.exception.HBaseTableRowException;
+import com.liaison.shachi.exec.ReadCoalescer;
+import com.liaison.shachi.model.TableModel;
+import com.liaison.shachi.util.ReadUtils;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Result;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A READ compiled once, for repeated execution against arbitrary rows of a single table. The
+ * spec from which it is compiled is validated, and the GETs it requires (including any
+ * version-derived qualifiers, column-range filters, time range, and per-family limits) are built,
+ * at most once, so that each execution only binds the row key(s) into copies of those GETs and
+ * parses the results. Instances are immutable, and may be shared between threads.
+ * <br><br>
+ * Each {@link ReadOpResult} produced refers to the spec from which the prepared read was compiled
+ * as its origin; {@link ReadOpResult#getTableRow()} identifies the row actually read.
+ * @see HBaseControl#prepareRead(Object, TableModel, java.util.function.Consumer)
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public final class PreparedRead {
+
+    /**
+     * GETs built against a placeholder row, to be bound to each row read, along with the shape
+     * under which the GETs for each row are coalesced.
+     */
+    public static final class GetTemplate {
+        private final Get[] gets;
+        private final ReadCoalescer.ReadShape shape;
+
+        /**
+         * @param gets the GETs (built against a placeholder row) issued for each row read
+         * @param shape the shape of the given GETs, as computed by
+         * {@link ReadCoalescer.ReadShape#of(TableModel, List)}; null if READs of them are not to be
+         * coalesced
+         */
+        public GetTemplate(final List<Get> gets, final ReadCoalescer.ReadShape shape) {
+            Util.ensureNotNull(gets, this, "gets", List.class);
+            this.gets = gets.toArray(new Get[gets.size()]);
+            this.shape = shape;
+        }
+    }
+
+    private final HBaseControl.HBaseDelegate delegate;
+    private final ReadOpSpecDefault readSpec;
+    private final TableModel table;
+    private final GetTemplate template;
+    private final Map<ColSpecReadFrozen, GetTemplate> columnTemplates;
+
+    /**
+     * @return the handle identifying this READ in the results it produces
+     */
+    public Object getHandle() {
+        return this.readSpec.getHandle();
+    }
+
+    /**
+     * @return the (frozen) spec from which this READ was compiled
+     */
+    public ReadOpSpecFrozen getSpec() {
+        return this.readSpec;
+    }
+
+    /**
+     * @return the table read by this READ
+     */
+    public TableModel getTable() {
+        return this.table;
+    }
+
+    /**
+     * @return the number of GETs issued per row read
+     */
+    public int getGetCountPerRow() {
+        return this.template.gets.length;
+    }
+
+    private void bind(final Get[] templates, final TableRow tableRow, final List<Get> allReadGets) throws HBaseTableRowException {
+        final String logMsg;
+        final byte[] rowKeyBytes;
+
+        rowKeyBytes = tableRow.getLiteralizedRowKeyBytes(DefensiveCopyStrategy.NEVER);
+        try {
+            for (Get template : templates) {
+                allReadGets.add(ReadUtils.rebind(template, rowKeyBytes));
+            }
+        } catch (IOException ioExc) {
+            logMsg = "Failed to bind prepared READ (handle:'"
+                     + getHandle()
+                     + "') to row; "
+                     + ioExc;
+            throw new HBaseTableRowException(tableRow, logMsg, ioExc);
+        }
+    }
+
+    /**
+     * Bind the GETs of the given template for each of the given rows, and issue them together.
+     * @param getTemplate the GETs to bind, and their shape
+     * @param rowKeys the rows to read
+     * @param tableRows populated with the table/row of each of the given rows, in order
+     * @param deadline the deadline for the READ
+     * @return the results of the GETs: those for the first row, then those for the second, etc.
+     * @throws HBaseException
+     */
+    private Result[] fetch(final GetTemplate getTemplate, final List<RowKey> rowKeys, final TableRow[] tableRows, final Deadline deadline) throws HBaseException {
+        final int rowCount;
+        final List<Get> allReadGets;
+        final TableRow execRow;
+
+        rowCount = rowKeys.size();
+        allReadGets = new ArrayList<>(rowCount * getTemplate.gets.length);
+        for (int index = 0; index < rowCount; index++) {
+            tableRows[index] = TableRow.of(this.table, rowKeys.get(index));
+            bind(getTemplate.gets, tableRows[index], allReadGets);
+        }
+
+        if (rowCount == 1) {
+            execRow = tableRows[0];
+        } else {
+            execRow =
+                TableRow
+                    .getBuilder()
+                    .table(this.table)
+                    .row(rowKeys.get(0))
+                    .literalizedRowKey(tableRows[0].getLiteralizedRowKeyBytes(DefensiveCopyStrategy.NEVER))
+                    .description("first of " + rowCount + " rows read by prepared READ")
+                    .build();
+        }
+        return
+            this.delegate
+                .exec(this.readSpec, getTemplate.shape, execRow, allReadGets, deadline)
+                .toArray(new Result[allReadGets.size()]);
+    }
+
+    private List<ReadOpResult> exec(final List<RowKey> rowKeys, final Deadline deadline) throws HBaseException {
+        final int rowCount;
+        final int getsPerRow;
+        final TableRow[] tableRows;
+        final Result[] allResults;
+        final List<ReadOpResult> readResults;
+        int offset;
+
+        rowCount = rowKeys.size();
+        if (rowCount == 0) {
+            return Collections.emptyList();
+        }
+        getsPerRow = this.template.gets.length;
+        tableRows = new TableRow[rowCount];
+        allResults = fetch(this.template, rowKeys, tableRows, deadline);
+
+        readResults = new ArrayList<>(rowCount);
+        offset = 0;
+        for (TableRow tableRow : tableRows) {
+            readResults.add(
+                OpResultSet.buildReadResult(
+                    this.readSpec,
+                    tableRow,
+                    Arrays.asList(allResults).subList(offset, offset + getsPerRow)));
+            offset += getsPerRow;
+        }
+        return readResults;
+    }
+
+    /**
+     * Execute this READ against the given row.
+     * @param rowKey the row to read
+     * @return the result of the READ
+     * @throws IllegalArgumentException if rowKey is null
+     * @throws HBaseException
+     */
+    public ReadOpResult exec(final RowKey rowKey) throws IllegalArgumentException, HBaseException {
+        Util.ensureNotNull(rowKey, this, "rowKey", RowKey.class);
+        return exec(Collections.singletonList(rowKey), Deadline.NONE).get(0);
+    }
+
+    /**
+     * Execute this READ against the given row, within the given amount of time.
+     * @param rowKey the row to read
+     * @param timeout the time allotted for the READ
+     * @param unit the unit of the time allotted
+     * @return the result of the READ
+     * @throws IllegalArgumentException if rowKey or unit is null, or timeout is not positive
+     * @throws HBaseException
+     */
+    public ReadOpResult exec(final RowKey rowKey, final long timeout, final TimeUnit unit) throws IllegalArgumentException, HBaseException {
+        Util.ensureNotNull(rowKey, this, "rowKey", RowKey.class);
+        return exec(Collections.singletonList(rowKey), Deadline.after(timeout, unit)).get(0);
+    }
+
+    /**
+     * Execute this READ against each of the given rows. The GETs for all of the rows are issued
+     * together, so that they share a single table resource, batch, or coalesced read (per the
+     * configuration of the context), rather than one per row.
+     * @param rowKeys the rows to read
+     * @return the results of the READ, in the order of the given rows
+     * @throws IllegalArgumentException if rowKeys is null
+     * @throws HBaseException
+     */
+    public List<ReadOpResult> exec(final List<RowKey> rowKeys) throws IllegalArgumentException, HBaseException {
+        Util.ensureNotNull(rowKeys, this, "rowKeys", List.class);
+        return exec(rowKeys, Deadline.NONE);
+    }
+
+    /**
+     * Execute this READ against each of the given rows, within the given amount of time.
+     * @param rowKeys the rows to read
+     * @param timeout the time allotted for the READ of all of the rows
+     * @param unit the unit of the time allotted
+     * @return the results of the READ, in the order of the given rows
+     * @throws IllegalArgumentException if rowKeys or unit is null, or timeout is not positive
+     * @throws HBaseException
+     */
+    public List<ReadOpResult> exec(final List<RowKey> rowKeys, final long timeout, final TimeUnit unit) throws IllegalArgumentException, HBaseException {
+        Util.ensureNotNull(rowKeys, this, "rowKeys", List.class);
+        return exec(rowKeys, Deadline.after(timeout, unit));
+    }
+
+    private ColSpecReadFrozen findColumn(final Object columnHandle) throws IllegalArgumentException {
+        for (ColSpecReadFrozen colSpec : this.readSpec.getWithColumn()) {
+            if (Util.refEquals(colSpec.getHandle(), columnHandle)) {
+                return colSpec;
+            }
+        }
+        throw new IllegalArgumentException("Prepared READ (handle:'"
+                                           + getHandle()
+                                           + "') has no column with handle: "
+                                           + columnHandle);
+    }
+
+    private PackedCellSet execPacked(final RowKey rowKey, final Object columnHandle, final Deadline deadline) throws IllegalArgumentException, HBaseException {
+        final ColSpecReadFrozen colSpec;
+        GetTemplate colTemplate;
+        final TableRow[] tableRows;
+        final Result[] results;
+
+        Util.ensureNotNull(rowKey, this, "rowKey", RowKey.class);
+        colSpec = findColumn(columnHandle);
+        colTemplate = this.columnTemplates.get(colSpec);
+        if (colTemplate == null) {
+            // the only column of the READ
+            colTemplate = this.template;
+        }
+        tableRows = new TableRow[1];
+        results = fetch(colTemplate, Collections.singletonList(rowKey), tableRows, deadline);
+        return OpResultSet.buildPackedResult(this.readSpec,
+                                             colSpec,
+                                             tableRows[0],
+                                             Arrays.asList(results));
+    }
+
+    /**
+     * Execute this READ against the given row, returning only the cells read for the column spec
+     * with the given handle, in packed form; for wide reads (full families, column ranges, or
+     * many versions), this retains far less memory per cell than {@link #exec(RowKey)}. Only
+     * the GETs required by the given column spec are issued, so the other columns of this READ
+     * are not fetched.
+     * @param rowKey the row to read
+     * @param columnHandle the handle of the column spec for which to return cells
+     * @return the cells read for the column spec
+     * @throws IllegalArgumentException if rowKey is null, or this READ has no column spec with
+     * the given handle
+     * @throws HBaseException
+     */
+    public PackedCellSet execPacked(final RowKey rowKey, final Object columnHandle) throws IllegalArgumentException, HBaseException {
+        return execPacked(rowKey, columnHandle, Deadline.NONE);
+    }
+
+    /**
+     * Equivalent to {@link #execPacked(RowKey, Object)}, within the given amount of time.
+     * @param rowKey the row to read
+     * @param columnHandle the handle of the column spec for which to return cells
+     * @param timeout the time allotted for the READ
+     * @param unit the unit of the time allotted
+     * @return the cells read for the column spec
+     * @throws IllegalArgumentException if rowKey or unit is null, timeout is not positive, or
+     * this READ has no column spec with the given handle
+     * @throws HBaseException
+     */
+    public PackedCellSet execPacked(final RowKey rowKey, final Object columnHandle, final long timeout, final TimeUnit unit) throws IllegalArgumentException, HBaseException {
+        return execPacked(rowKey, columnHandle, Deadline.after(timeout, unit));
+    }
+
+    @Override
+    public String toString() {
+        return PreparedRead.class.getSimpleName()
+               + "(handle="
+               + getHandle()
+               + ",table="
+               + this.table
+               + ",gets-per-row="
+               + this.template.gets.length
+               + ")";
+    }
+
+    /**
+     * @param delegate executes the GETs
+     * @param readSpec the frozen spec from which the READ was compiled
+     * @param template the GETs (built against a placeholder row) which the READ requires
+     * @param columnTemplates the GETs (built against a placeholder row) which read each column
+     * spec of the READ alone; may be empty if the READ has only one column spec
+     */
+    public PreparedRead(final HBaseControl.HBaseDelegate delegate, final ReadOpSpecDefault readSpec, final GetTemplate template, final Map<ColSpecReadFrozen, GetTemplate> columnTemplates) {
+        Util.ensureNotNull(delegate, this, "delegate", HBaseControl.HBaseDelegate.class);
+        Util.ensureNotNull(readSpec, this, "readSpec", ReadOpSpecDefault.class);
+        Util.ensureNotNull(template, this, "template", GetTemplate.class);
+        Util.ensureNotNull(columnTemplates, this, "columnTemplates", Map.class);
+        this.delegate = delegate;
+        this.readSpec = readSpec;
+        this.table = readSpec.getTableRow().getTable();
+        this.template = template;
+        this.columnTemplates = new HashMap<>(columnTemplates);
+    }
+}
@@ -0,0 +1,443 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.api.request.impl;
+
+import com.liaison.javabasics.commons.Util;
+import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
+import com.liaison.shachi.HBaseControl;
+import com.liaison.shachi.context.HBaseContext;
+import com.liaison.shachi.dto.Deadline;
+import com.liaison.shachi.dto.FamilyQualifierPair;
+import com.liaison.shachi.dto.NullableValue;
+import com.liaison.shachi.dto.RowKey;
+import com.liaison.shachi.dto.TableRow;
+import com.liaison.shachi.exception.HBaseException;
+import com.liaison.shachi.model.FamilyHB;
+import com.liaison.shachi.model.QualHB;
+import com.liaison.shachi.model.TableModel;
+import com.liaison.shachi.model.VersioningModel;
+import com.liaison.shachi.model.ser.CellSerializer;
+import com.liaison.shachi.util.HBaseUtil;
+import com.liaison.shachi.util.SpecUtil;
+import org.apache.hadoop.hbase.client.Put;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A WRITE of a fixed column layout to a single table, compiled once, for repeated execution with
+ * different rows and values. The family and qualifier bytes, versioning scheme, and serializer of
+ * each column are resolved when the prepared write is built; each record then binds only its row
+ * key, one value per column (positionally, in the order in which the columns were declared), and
+ * optionally a version and/or timestamp, producing the PUT directly rather than via a WRITE spec.
+ * Instances are immutable, and may be shared between threads.
+ * <br><br>
+ * A bound version is applied to every column exactly as
+ * {@link com.liaison.shachi.api.request.fluid.fluent.ColSpecWriteFluent#version(long)} would be:
+ * appended to the qualifier for columns using a qualifier-based versioning scheme, or used as the
+ * timestamp for columns using a timestamp-based one. A bound timestamp is otherwise applied as
+ * {@link com.liaison.shachi.api.request.fluid.fluent.ColSpecWriteFluent#ts(long)} would be.
+ * @see HBaseControl#prepareWrite(Object)
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public final class PreparedWrite {
+
+    /**
+     * A column of the layout, with everything needed to write to it resolved in advance.
+     */
+    private static final class PreparedColumn {
+        private final FamilyHB family;
+        private final QualHB qual;
+        private final byte[] familyBytes;
+        private final byte[] qualBytes;
+        private final VersioningModel versioning;
+        private final CellSerializer serializer;
+
+        private PreparedColumn(final TableModel table, final FamilyHB family, final QualHB qual) {
+            this.family = family;
+            this.qual = qual;
+            this.familyBytes = family.getName().getValue(DefensiveCopyStrategy.ALWAYS);
+            this.qualBytes = qual.getName().getValue(DefensiveCopyStrategy.ALWAYS);
+            this.versioning = SpecUtil.determineVersioningScheme(family, qual);
+            this.serializer =
+                SpecUtil.identifySerializer(FamilyQualifierPair.of(family, qual),
+                                            qual,
+                                            family,
+                                            table);
+        }
+    }
+
+    /**
+     * Ensure that the given column is part of the given table model: the family must be one of the
+     * table's families, and, if that family's qualifiers are closed, the qualifier must be one of
+     * them.
+     * @param handle
+     * @param table
+     * @param family
+     * @param qual
+     * @throws IllegalArgumentException if the column is not part of the table model
+     */
+    private static void validateColumn(final Object handle, final TableModel table, final FamilyHB family, final QualHB qual) throws IllegalArgumentException {
+        final String logMsg;
+        final FamilyHB tableFamily;
+
+        tableFamily = table.getFamily(family.getName());
+        if (tableFamily == null) {
+            logMsg = "Prepared WRITE (handle:'"
+                     + handle
+                     + "') family "
+                     + family.getName()
+                     + " is not defined by table "
+                     + table.getName();
+            throw new IllegalArgumentException(logMsg);
+        }
+        if ((tableFamily.isClosedQualSet())
+            && (!tableFamily.getQuals().containsKey(qual.getName()))) {
+            logMsg = "Prepared WRITE (handle:'"
+                     + handle
+                     + "') qualifier "
+                     + qual.getName()
+                     + " is not defined by the closed qualifier set of family "
+                     + family.getName()
+                     + " of table "
+                     + table.getName();
+            throw new IllegalArgumentException(logMsg);
+        }
+    }
+
+    public static final class Builder {
+        private final HBaseControl.HBaseDelegate delegate;
+        private final HBaseContext context;
+        private Object handle;
+        private TableModel table;
+        private Long ttlMillisec;
+        private final List<FamilyHB> families;
+        private final List<QualHB> quals;
+
+        public Builder handle(final Object handle) {
+            this.handle = handle;
+            return this;
+        }
+        public Builder tbl(final TableModel table) {
+            this.table = table;
+            return this;
+        }
+        public Builder keepFor(final long ttlValue, final TimeUnit ttlUnit) throws IllegalArgumentException {
+            Util.ensureNotNull(ttlUnit, this, "ttlUnit", TimeUnit.class);
+            this.ttlMillisec = Long.valueOf(ttlUnit.toMillis(ttlValue));
+            return this;
+        }
+        /**
+         * Append a column to the layout; values are bound to columns in the order in which the
+         * columns are appended.
+         * @param family
+         * @param qual
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder column(final FamilyHB family, final QualHB qual) throws IllegalArgumentException {
+            Util.ensureNotNull(family, this, "family", FamilyHB.class);
+            Util.ensureNotNull(qual, this, "qual", QualHB.class);
+            this.families.add(family);
+            this.quals.add(qual);
+            return this;
+        }
+        public PreparedWrite build() throws IllegalArgumentException {
+            return new PreparedWrite(this);
+        }
+        private Builder(final HBaseControl.HBaseDelegate delegate, final HBaseContext context) {
+            this.delegate = delegate;
+            this.context = context;
+            this.handle = null;
+            this.table = null;
+            this.ttlMillisec = null;
+            this.families = new ArrayList<>();
+            this.quals = new ArrayList<>();
+        }
+    }
+
+    public static Builder getBuilder(final HBaseControl.HBaseDelegate delegate, final HBaseContext context) {
+        return new Builder(delegate, context);
+    }
+
+    private final HBaseControl.HBaseDelegate delegate;
+    private final DefensiveCopyStrategy dcs;
+    private final Object handle;
+    private final TableModel table;
+    private final Long ttlMillisec;
+    private final PreparedColumn[] columns;
+
+    /**
+     * @return the handle identifying this WRITE
+     */
+    public Object getHandle() {
+        return this.handle;
+    }
+
+    /**
+     * @return the table written by this WRITE
+     */
+    public TableModel getTable() {
+        return this.table;
+    }
+
+    /**
+     * @return the number of values which must be bound per record
+     */
+    public int getColumnCount() {
+        return this.columns.length;
+    }
+
+    private byte[] toValueBytes(final PreparedColumn column, final Object value) throws IllegalArgumentException {
+        final String logMsg;
+
+        if (value instanceof NullableValue) {
+            return ((NullableValue) value).getValue(this.dcs);
+        }
+        Util.ensureNotNull(value, this, "value", Object.class);
+        if (column.serializer == null) {
+            logMsg = "Value for column "
+                     + FamilyQualifierPair.of(column.family, column.qual)
+                     + " is not of type "
+                     + NullableValue.class.getSimpleName()
+                     + " and therefore requires serialization, but no serializer is defined";
+            throw new IllegalArgumentException(logMsg);
+        }
+        return column.serializer.serialize(value);
+    }
+
+    /**
+     * Build the PUT for a single record.
+     * @param rowKey the row to which to write
+     * @param version the version to apply to every column, or null
+     * @param ts the timestamp to apply to every column (unless superseded by the version, for
+     * columns using timestamp-based versioning), or null to use the server timestamp
+     * @param values one value per column, in the order in which the columns were declared; each
+     * either a {@link NullableValue} to be written as-is, or an object to be serialized by the
+     * serializer applicable to its column
+     * @return the PUT
+     * @throws IllegalArgumentException if rowKey or values is null, the number of values does not
+     * match the number of columns, or a value requires a serializer which is not defined
+     */
+    public Put bind(final RowKey rowKey, final Long version, final Long ts, final Object[] values) throws IllegalArgumentException {
+        final String logMsg;
+        final Put writePut;
+        PreparedColumn column;
+        byte[] qualBytes;
+        Long writeTS;
+
+        Util.ensureNotNull(rowKey, this, "rowKey", RowKey.class);
+        Util.ensureNotNull(values, this, "values", Object[].class);
+        if (values.length != this.columns.length) {
+            logMsg = "Prepared WRITE (handle:'"
+                     + this.handle
+                     + "') requires "
+                     + this.columns.length
+                     + " value(s); "
+                     + values.length
+                     + " bound";
+            throw new IllegalArgumentException(logMsg);
+        }
+
+        writePut = new Put(this.table.literalize(rowKey));
+        if (this.ttlMillisec != null) {
+            writePut.setTTL(this.ttlMillisec.longValue());
+        }
+        for (int index = 0; index < this.columns.length; index++) {
+            column = this.columns[index];
+            qualBytes = column.qualBytes;
+            writeTS = ts;
+            if (version != null) {
+                if (VersioningModel.isQualifierBased(column.versioning)) {
+                    qualBytes =
+                        HBaseUtil.appendVersionToQual(qualBytes,
+                                                      version.longValue(),
+                                                      column.versioning);
+                } else if (VersioningModel.isTimestampBased(column.versioning)) {
+                    writeTS = version;
+                }
+            }
+            if (writeTS == null) {
+                writePut.add(column.familyBytes, qualBytes, toValueBytes(column, values[index]));
+            } else {
+                writePut.add(column.familyBytes,
+                             qualBytes,
+                             writeTS.longValue(),
+                             toValueBytes(column, values[index]));
+            }
+        }
+        return writePut;
+    }
+
+    /**
+     * Build the PUT for a single record, with neither version nor timestamp.
+     * @see #bind(RowKey, Long, Long, Object[])
+     */
+    public Put bind(final RowKey rowKey, final Object[] values) throws IllegalArgumentException {
+        return bind(rowKey, null, null, values);
+    }
+
+    /**
+     * Build the PUTs for many records.
+     * @param rowKeys the row of each record
+     * @param versions the version of each record (elements may be null), or null if no record is
+     * versioned
+     * @param timestamps the timestamp of each record (elements may be null), or null if no record
+     * specifies a timestamp
+     * @param values the values of each record
+     * @return the PUTs, in the order of the given records
+     * @throws IllegalArgumentException if rowKeys or values is null, the lists are not of equal
+     * size, or any record fails to bind
+     * @see #bind(RowKey, Long, Long, Object[])
+     */
+    public List<Put> bindAll(final List<RowKey> rowKeys, final List<Long> versions, final List<Long> timestamps, final List<Object[]> values) throws IllegalArgumentException {
+        final String logMsg;
+        final int recordCount;
+        final List<Put> writePuts;
+
+        Util.ensureNotNull(rowKeys, this, "rowKeys", List.class);
+        Util.ensureNotNull(values, this, "values", List.class);
+        recordCount = rowKeys.size();
+        if ((values.size() != recordCount)
+            || ((versions != null) && (versions.size() != recordCount))
+            || ((timestamps != null) && (timestamps.size() != recordCount))) {
+            logMsg = "Prepared WRITE (handle:'"
+                     + this.handle
+                     + "') requires the same number of row keys ("
+                     + recordCount
+                     + "), values, versions (if any), and timestamps (if any)";
+            throw new IllegalArgumentException(logMsg);
+        }
+
+        writePuts = new ArrayList<>(recordCount);
+        for (int index = 0; index < recordCount; index++) {
+            writePuts.add(bind(rowKeys.get(index),
+                               ((versions == null)?null:versions.get(index)),
+                               ((timestamps == null)?null:timestamps.get(index)),
+                               values.get(index)));
+        }
+        return writePuts;
+    }
+
+    /**
+     * Build the PUTs for many records, with neither versions nor timestamps.
+     * @see #bindAll(List, List, List, List)
+     */
+    public List<Put> bindAll(final List<RowKey> rowKeys, final List<Object[]> values) throws IllegalArgumentException {
+        return bindAll(rowKeys, null, null, values);
+    }
+
+    private void exec(final List<Put> writePuts, final Deadline deadline) throws HBaseException {
+        final int putCount;
+        final TableRow execRow;
+
+        putCount = writePuts.size();
+        if (putCount == 0) {
+            return;
+        }
+        // the PUT carries the row key as already literalized
+        execRow =
+            TableRow
+                .getBuilder()
+                .table(this.table)
+                .row(RowKey.of(writePuts.get(0).getRow(), DefensiveCopyStrategy.NEVER))
+                .literalizedRowKey(writePuts.get(0).getRow())
+                .description((putCount == 1)
+                             ?null
+                             :("first of " + putCount + " rows written by prepared WRITE"))
+                .build();
+        this.delegate.exec(execRow, writePuts, deadline);
+    }
+
+    /**
+     * Execute the given PUTs (as bound by this prepared WRITE) against the table, together.
+     * @param writePuts the PUTs to execute
+     * @throws IllegalArgumentException if writePuts is null
+     * @throws HBaseException
+     */
+    public void exec(final List<Put> writePuts) throws IllegalArgumentException, HBaseException {
+        Util.ensureNotNull(writePuts, this, "writePuts", List.class);
+        exec(writePuts, Deadline.NONE);
+    }
+
+    /**
+     * Execute the given PUTs (as bound by this prepared WRITE) against the table, together,
+     * within the given amount of time.
+     * @param writePuts the PUTs to execute
+     * @param timeout the time allotted for the WRITE
+     * @param unit the unit of the time allotted
+     * @throws IllegalArgumentException if writePuts or unit is null, or timeout is not positive
+     * @throws HBaseException
+     */
+    public void exec(final List<Put> writePuts, final long timeout, final TimeUnit unit) throws IllegalArgumentException, HBaseException {
+        Util.ensureNotNull(writePuts, this, "writePuts", List.class);
+        exec(writePuts, Deadline.after(timeout, unit));
+    }
+
+    /**
+     * Bind and execute a single record.
+     * @see #bind(RowKey, Long, Long, Object[])
+     */
+    public void exec(final RowKey rowKey, final Long version, final Long ts, final Object[] values) throws IllegalArgumentException, HBaseException {
+        exec(Collections.singletonList(bind(rowKey, version, ts, values)), Deadline.NONE);
+    }
+
+    /**
+     * Bind and execute a single record, with neither version nor timestamp.
+     * @see #bind(RowKey, Object[])
+     */
+    public void exec(final RowKey rowKey, final Object[] values) throws IllegalArgumentException, HBaseException {
+        exec(rowKey, null, null, values);
+    }
+
+    @Override
+    public String toString() {
+        return PreparedWrite.class.getSimpleName()
+               + "(handle="
+               + this.handle
+               + ",table="
+               + this.table
+               + ",columns="
+               + this.columns.length
+               + ")";
+    }
+
+    private PreparedWrite(final Builder build) throws IllegalArgumentException {
+        final String logMsg;
+
+        Util.ensureNotNull(build.delegate, this, "delegate", HBaseControl.HBaseDelegate.class);
+        Util.ensureNotNull(build.context, this, "context", HBaseContext.class);
+        Util.ensureNotNull(build.handle, this, "handle", Object.class);
+        Util.ensureNotNull(build.table, this, "table", TableModel.class);
+        if (build.families.isEmpty()) {
+            logMsg = "Prepared WRITE (handle:'" + build.handle + "') requires at least one column";
+            throw new IllegalArgumentException(logMsg);
+        }
+        this.delegate = build.delegate;
+        this.dcs = build.context.getDefensiveCopyStrategy();
+        this.handle = build.handle;
+        this.table = build.table;
+        this.ttlMillisec = build.ttlMillisec;
+        this.columns = new PreparedColumn[build.families.size()];
+        for (int index = 0; index < this.columns.length; index++) {
+            validateColumn(this.handle, this.table, build.families.get(index), build.quals.get(index));
+            this.columns[index] =
+                new PreparedColumn(this.table, build.families.get(index), build.quals.get(index));
+        }
+    }
+}
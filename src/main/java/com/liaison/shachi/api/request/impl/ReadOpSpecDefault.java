@@ -24,6 +24,7 @@ import com.liaison.shachi.api.response.OpResultSet;
 import com.liaison.shachi.context.HBaseContext;
 import com.liaison.shachi.dto.FamilyQualifierPair;
 import com.liaison.shachi.exception.SpecValidationException;
+import com.liaison.shachi.exec.ReadCoalescer;
 import com.liaison.shachi.model.ColumnRange;
 import com.liaison.shachi.model.FamilyHB;
 import com.liaison.shachi.model.QualHB;
@@ -32,9 +33,9 @@ import com.liaison.shachi.util.SpecUtil;
 import com.liaison.shachi.util.StringRepFormat;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -51,6 +52,11 @@ public final class ReadOpSpecDefault extends TableRowOpSpec<ReadOpSpecDefault> i
 
     private static final long serialVersionUID = 1602390434837826147L;
 
+    /**
+     * Initial capacity of the column spec list; most reads name only a handful of columns.
+     */
+    private static final int COLUMN_LIST_INITIAL_CAPACITY = 4;
+
     // ||========================================================================================||
     // ||    INSTANCE PROPERTIES                                                                 ||
     // ||----------------------------------------------------------------------------------------||
@@ -66,23 +72,35 @@ public final class ReadOpSpecDefault extends TableRowOpSpec<ReadOpSpecDefault> i
      * Association of family+qualifier pairs to the original column specifications which caused
      * them to be read; used when parsing the result set.
      */
-    private final Map<FamilyQualifierPair, Set<ColSpecReadFrozen>> columnAssoc;
+    private Map<FamilyQualifierPair, Set<ColSpecReadFrozen>> columnAssoc;
     /**
      * Association of family references to the original column specifications which caused them to
      * be read; used when parsing the result set.
      */
-    private final Map<FamilyHB, Set<ColSpecReadFrozen>> fullFamilyAssoc;
+    private Map<FamilyHB, Set<ColSpecReadFrozen>> fullFamilyAssoc;
 
     /**
      * If any ColumnRanges were generated during the parsing of this spec, this map stores them,
      * indexed to the column family to which they apply.
      */
-    private final Map<FamilyHB, Set<ColumnRange>> columnRangeForFamily;
+    private Map<FamilyHB, Set<ColumnRange>> columnRangeForFamily;
     /**
      * Association of column ranges (for a particular family) to the original column spec which
      * caused them to be generated/read.
      */
-    private final Map<ColumnRange, Set<ColSpecReadFrozen>> columnRangeAssoc;
+    private Map<ColumnRange, Set<ColSpecReadFrozen>> columnRangeAssoc;
+    /*
+     * The four association maps above are only populated once the spec is frozen and executed
+     * (and many specs never need some of them), so they are created on first write; until then,
+     * each is null and treated as empty by the accessors. They are populated by the single thread
+     * which generates the GETs for the spec, before the spec is read from any other thread, so
+     * their creation is not synchronized.
+     */
+    /**
+     * Shape of the GET(s) performed by this spec, less the row, under which executions of this
+     * spec are coalesced; computed upon first execution (see {@link ReadCoalescer.ReadShape}).
+     */
+    private transient volatile ReadCoalescer.ReadShape readShape;
 
     
     // ||----(instance properties)---------------------------------------------------------------||
@@ -182,26 +200,46 @@ public final class ReadOpSpecDefault extends TableRowOpSpec<ReadOpSpecDefault> i
 
     @Override
     public void addColumnAssoc(final FamilyHB famModel, final ColSpecReadFrozen colSpecRead) {
+        if (this.fullFamilyAssoc == null) {
+            this.fullFamilyAssoc = new ConcurrentHashMap<>();
+        }
         addColumnAssoc(famModel, colSpecRead, this.fullFamilyAssoc);
     }
 
     @Override
     public void addColumnAssoc(final FamilyQualifierPair fqp, final ColSpecReadFrozen colSpecRead) {
+        if (this.columnAssoc == null) {
+            this.columnAssoc = new ConcurrentHashMap<>();
+        }
         addColumnAssoc(fqp, colSpecRead, this.columnAssoc);
     }
 
     @Override
     public void addColumnRangeAssoc(final ColumnRange columnRange, final ColSpecReadFrozen colSpecRead) {
         prepPostFreezeOp("addColumnRangeAssoc");
+        if (this.columnRangeForFamily == null) {
+            this.columnRangeForFamily = new ConcurrentHashMap<>();
+            this.columnRangeAssoc = new ConcurrentHashMap<>();
+        }
         Util.appendToValueInMap(this.columnRangeForFamily, columnRange.getFamily(), columnRange, Set::add, HashSet::new);
         addColumnAssoc(columnRange, colSpecRead, this.columnRangeAssoc);
     }
 
     private <K> Set<ColSpecReadFrozen> getColumnAssoc(final K key, final Map<K, Set<ColSpecReadFrozen>> assoc) {
         prepPostFreezeOp("getColumnAssoc");
+        if (assoc == null) {
+            return Collections.emptySet();
+        }
         return assoc.getOrDefault(key, Collections.emptySet());
     }
 
+    private static <K, V> Map<K, V> unmodifiableOrEmpty(final Map<K, V> map) {
+        if (map == null) {
+            return Collections.emptyMap();
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
     @Override
     public Set<ColSpecReadFrozen> getColumnAssoc(final FamilyHB famModel) {
         return getColumnAssoc(famModel, this.fullFamilyAssoc);
@@ -214,13 +252,18 @@ public final class ReadOpSpecDefault extends TableRowOpSpec<ReadOpSpecDefault> i
 
     @Override
     public Set<ColSpecReadFrozen> getColumnRangeAssoc(final FamilyQualifierPair fqp) {
+        final Map<FamilyHB, Set<ColumnRange>> rangeMap;
         final Set<ColumnRange> rangesForFamily;
         final Set<ColSpecReadFrozen> setSourceColSpec;
 
         prepPostFreezeOp("getColumnRangeAssoc");
 
+        rangeMap = this.columnRangeForFamily;
+        if (rangeMap == null) {
+            return Collections.emptySet();
+        }
         setSourceColSpec = new HashSet<>();
-        rangesForFamily = this.columnRangeForFamily.get(fqp.getFamily());
+        rangesForFamily = rangeMap.get(fqp.getFamily());
         if ((rangesForFamily != null) && (!rangesForFamily.isEmpty())) {
             for (ColumnRange range : rangesForFamily) {
                 if (range.contains(fqp.getColumn())) {
@@ -234,22 +277,42 @@ public final class ReadOpSpecDefault extends TableRowOpSpec<ReadOpSpecDefault> i
     @Override
     public Map<FamilyQualifierPair, Set<ColSpecReadFrozen>> getFamilyQualifierAssoc() {
         // TODO Collections.unmodifiableMap does nothing to safeguard the Sets inside the Map
-        return Collections.unmodifiableMap(this.columnAssoc);
+        return unmodifiableOrEmpty(this.columnAssoc);
     }
 
     @Override
     public Map<FamilyHB, Set<ColSpecReadFrozen>> getFullFamilyAssoc() {
         // TODO Collections.unmodifiableMap does nothing to safeguard the Sets inside the Map
-        return Collections.unmodifiableMap(this.fullFamilyAssoc);
+        return unmodifiableOrEmpty(this.fullFamilyAssoc);
     }
 
     @Override
     public Map<ColumnRange, Set<ColSpecReadFrozen>> getColumnRangeAssoc() {
         // TODO Collections.unmodifiableMap does nothing to safeguard the Sets inside the Map
-        return Collections.unmodifiableMap(this.columnRangeAssoc);
+        return unmodifiableOrEmpty(this.columnRangeAssoc);
     }
 
 
+    /**
+     * @return the shape under which executions of this spec are coalesced, or null if it has not
+     * yet been computed
+     */
+    public ReadCoalescer.ReadShape getReadShape() {
+        return this.readShape;
+    }
+    /**
+     * Retain the shape under which executions of this spec are coalesced. The shape is derived
+     * only from the (frozen) spec, so any two computations of it are equal, and a race to set it
+     * is benign.
+     * @param readShape
+     * @throws IllegalStateException if this spec is not frozen
+     */
+    public void setReadShape(final ReadCoalescer.ReadShape readShape) throws IllegalStateException {
+        prepPostFreezeOp("setReadShape");
+        Util.ensureNotNull(readShape, this, "readShape", ReadCoalescer.ReadShape.class);
+        this.readShape = readShape;
+    }
+
     @Override
     public VersioningModel getCommonVersioningConfig() throws IllegalStateException {
         /*
@@ -499,12 +562,12 @@ public final class ReadOpSpecDefault extends TableRowOpSpec<ReadOpSpecDefault> i
 
     public ReadOpSpecDefault(final Object handle, final HBaseContext context, final OperationControllerDefault parent) {
         super(handle, context, parent);
-        this.withColumn = new LinkedList<>();
+        this.withColumn = new ArrayList<>(COLUMN_LIST_INITIAL_CAPACITY);
         this.atTime = null;
-        this.fullFamilyAssoc = new ConcurrentHashMap<>();
-        this.columnAssoc = new ConcurrentHashMap<>();
-        this.columnRangeForFamily = new ConcurrentHashMap<>();
-        this.columnRangeAssoc = new ConcurrentHashMap<>();
+        this.fullFamilyAssoc = null;
+        this.columnAssoc = null;
+        this.columnRangeForFamily = null;
+        this.columnRangeAssoc = null;
     }
     
     // ||----(constructors)----------------------------------------------------------------------||
@@ -16,6 +16,8 @@
 package com.liaison.shachi.api.request.impl;
 
 import com.liaison.javabasics.commons.Util;
+import com.liaison.javabasics.serialization.BytesUtil;
+import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
 import com.liaison.shachi.api.request.fluid.fluent.RowSpecFluent;
 import com.liaison.shachi.api.request.frozen.RowSpecFrozen;
 import com.liaison.shachi.dto.RowKey;
@@ -42,6 +44,10 @@ public final class RowSpec<P extends OperationSpec<P>> extends CriteriaSpec<RowS
     
     private TableModel table;
     private RowKey rowKey;
+    /**
+     * Row key as literalized by the table model (e.g. salted), computed once at freeze time
+     */
+    private byte[] literalizedRowKey;
     
     // ||----(instance properties)---------------------------------------------------------------||
     
@@ -83,9 +89,13 @@ public final class RowSpec<P extends OperationSpec<P>> extends CriteriaSpec<RowS
     }
 
     @Override
-    public byte[] getLiteralizedRowKeyBytes() throws IllegalStateException {
+    public byte[] getLiteralizedRowKeyBytes(final DefensiveCopyStrategy copyStrategy) throws IllegalStateException {
         prepPostFreezeOp("getLiteralizedRowKeyBytes");
-        return this.table.literalize(this.rowKey);
+        return BytesUtil.getInternalByteArray(this.literalizedRowKey, copyStrategy);
+    }
+    @Override
+    public byte[] getLiteralizedRowKeyBytes() throws IllegalStateException {
+        return getLiteralizedRowKeyBytes(DefensiveCopyStrategy.ALWAYS);
     }
     
     // ||----(instance methods: API: frozen)-----------------------------------------------------||
@@ -151,6 +161,11 @@ public final class RowSpec<P extends OperationSpec<P>> extends CriteriaSpec<RowS
         SpecUtil.validateRequired(getTable(), this, "tbl", TableModel.class);
         SpecUtil.validateRequired(getRowKey(), this, "row", RowKey.class);
     }
+
+    @Override
+    protected void onFreeze() {
+        this.literalizedRowKey = this.table.literalize(this.rowKey);
+    }
     
     // ||----(instance methods: utility)---------------------------------------------------------||
 
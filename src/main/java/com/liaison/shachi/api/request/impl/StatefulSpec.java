@@ -23,10 +23,10 @@ import com.liaison.shachi.util.TreeNode;
 import com.liaison.shachi.util.TreeNodeNonRoot;
 
 import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * An element in an HBase operation specification tree which can be in one of two states:
@@ -47,6 +47,12 @@ public abstract class StatefulSpec<A extends StatefulSpec<A, P>, P extends TreeN
 
     private static final JitLog LOG;
 
+    /**
+     * Initial capacity of the subordinate spec array, once the first subordinate is added; most
+     * specs have no more than a few subordinates (e.g. table/row plus one or two columns).
+     */
+    private static final int SUBORD_INITIAL_CAPACITY = 4;
+
     static {
         LOG = new JitLog(StatefulSpec.class);
     }
@@ -56,8 +62,19 @@ public abstract class StatefulSpec<A extends StatefulSpec<A, P>, P extends TreeN
     // ||----------------------------------------------------------------------------------------||
     
     private SpecState state;
-    private final LinkedList<StatefulSpec<?,?>> subordSpecList;
-    private final ConcurrentHashMap<StringRepFormat, String> strRep;
+    /**
+     * Subordinate specs, in the order added; null until the first is added, and possibly larger
+     * than subordSpecCount.
+     */
+    private StatefulSpec<?,?>[] subordSpecs;
+    private int subordSpecCount;
+    /*
+     * Cached string representations, one per StringRepFormat. A race between threads generating
+     * the same representation is benign (Strings are immutable and the results identical), so
+     * plain fields suffice.
+     */
+    private String strRepInline;
+    private String strRepStructured;
     private Integer hc;
     
     // ||----(instance properties)---------------------------------------------------------------||
@@ -94,7 +111,8 @@ public abstract class StatefulSpec<A extends StatefulSpec<A, P>, P extends TreeN
          * reset generated string representation and int value, as the core properties from which
          * they were generated are changing
          */
-        this.strRep.clear();
+        this.strRepInline = null;
+        this.strRepStructured = null;
         this.hc = null;
     }
 
@@ -124,8 +142,19 @@ public abstract class StatefulSpec<A extends StatefulSpec<A, P>, P extends TreeN
         // TODO implement this in inheritors, where relevant
     }
 
-    private void performCascadingStateChange(final LinkedList<StatefulSpec<?, ?>> subordSpecQueue, final StatefulSpec<?, ?> currentSpec) {
+    /**
+     * Invoked once, immediately after this spec has been validated and before it is transitioned
+     * to FROZEN state (and before its subordinates are frozen), so that inheritors may precompute
+     * values derived from their (no longer mutable) properties. If this throws, the spec is left
+     * unfrozen.
+     */
+    protected void onFreeze() {
+        // provide a default implementation which does nothing
+    }
+
+    private void performCascadingStateChange(final ArrayDeque<StatefulSpec<?, ?>> subordSpecQueue, final StatefulSpec<?, ?> currentSpec) {
         currentSpec.validate();
+        currentSpec.onFreeze();
         LOG.trace(() -> "Setting state of ",
                   () -> String.valueOf(currentSpec.getClass()),
                   () -> " from ",
@@ -136,18 +165,22 @@ public abstract class StatefulSpec<A extends StatefulSpec<A, P>, P extends TreeN
                   () -> String.valueOf(currentSpec.getClass()),
                   ()->" set: ",
                   ()->String.valueOf(currentSpec.getState()));
-        subordSpecQueue.addAll(currentSpec.subordSpecList);
+        for (int index = 0; index < currentSpec.subordSpecCount; index++) {
+            subordSpecQueue.addLast(currentSpec.subordSpecs[index]);
+        }
     }
 
     /**
-     * TODO
+     * Validate and freeze this spec and its subordinates, breadth-first. Specs which are already
+     * frozen are skipped, along with their subordinates.
      * @throws SpecValidationException
      */
     public final void freezeRecursive() throws SpecValidationException {
-        final LinkedList<StatefulSpec<?, ?>> subordSpecQueue;
+        final ArrayDeque<StatefulSpec<?, ?>> subordSpecQueue;
         StatefulSpec<?, ?> currentSpec;
         
-        subordSpecQueue = new LinkedList<>();
+        // array-backed, so the walk allocates once per tree rather than once per spec
+        subordSpecQueue = new ArrayDeque<>();
         subordSpecQueue.add(this);
         while (!subordSpecQueue.isEmpty()) {
             currentSpec = subordSpecQueue.removeFirst();
@@ -164,7 +197,13 @@ public abstract class StatefulSpec<A extends StatefulSpec<A, P>, P extends TreeN
      */
     private final void addSubordinate(final StatefulSpec<?,?> subordSpec) throws IllegalArgumentException {
         Util.ensureNotNull(subordSpec, this, "subordSpec", StatefulSpec.class);
-        this.subordSpecList.add(subordSpec);
+        if (this.subordSpecs == null) {
+            this.subordSpecs = new StatefulSpec<?,?>[SUBORD_INITIAL_CAPACITY];
+        } else if (this.subordSpecCount == this.subordSpecs.length) {
+            this.subordSpecs = Arrays.copyOf(this.subordSpecs, this.subordSpecCount * 2);
+        }
+        this.subordSpecs[this.subordSpecCount] = subordSpec;
+        this.subordSpecCount++;
     }
 
     /**
@@ -172,7 +211,12 @@ public abstract class StatefulSpec<A extends StatefulSpec<A, P>, P extends TreeN
      * @return
      */
     protected final List<StatefulSpec<?,?>> getSubordSpecList() {
-        return Collections.unmodifiableList(this.subordSpecList);
+        if (this.subordSpecCount == 0) {
+            return Collections.emptyList();
+        }
+        return
+            Collections.unmodifiableList(
+                Arrays.asList(this.subordSpecs).subList(0, this.subordSpecCount));
     }
     
     /**
@@ -199,7 +243,11 @@ public abstract class StatefulSpec<A extends StatefulSpec<A, P>, P extends TreeN
         final StringBuilder strGen;
         String returnString;
         
-        returnString = this.strRep.get(format);
+        if (format == StringRepFormat.STRUCTURED) {
+            returnString = this.strRepStructured;
+        } else {
+            returnString = this.strRepInline;
+        }
         if (returnString == null) {
             strGen = new StringBuilder();
             if (format == StringRepFormat.STRUCTURED) {
@@ -209,7 +257,11 @@ public abstract class StatefulSpec<A extends StatefulSpec<A, P>, P extends TreeN
             }
             prepareStrRep(strGen, format);
             returnString = strGen.toString();
-            this.strRep.putIfAbsent(format, returnString);
+            if (format == StringRepFormat.STRUCTURED) {
+                this.strRepStructured = returnString;
+            } else {
+                this.strRepInline = returnString;
+            }
         }
         return returnString;
     }
@@ -262,8 +314,10 @@ public abstract class StatefulSpec<A extends StatefulSpec<A, P>, P extends TreeN
         final StatefulSpec<?, ?> parentSpec;
 
         this.state = SpecState.FLUID;
-        this.subordSpecList = new LinkedList<>();
-        this.strRep = new ConcurrentHashMap<>();
+        this.subordSpecs = null;
+        this.subordSpecCount = 0;
+        this.strRepInline = null;
+        this.strRepStructured = null;
 
         if (parent instanceof StatefulSpec) {
             parentSpec = (StatefulSpec<?, ?>) parent;
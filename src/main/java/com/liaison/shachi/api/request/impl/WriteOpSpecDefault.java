@@ -27,8 +27,8 @@ import com.liaison.shachi.util.SpecUtil;
 import com.liaison.shachi.util.StringRepFormat;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
@@ -38,6 +38,11 @@ public final class WriteOpSpecDefault extends TableRowOpSpec<WriteOpSpecDefault>
 
     private static final long serialVersionUID = 2572256818666730468L;
 
+    /**
+     * Initial capacity of the column spec list; most writes name only a handful of columns.
+     */
+    private static final int COLUMN_LIST_INITIAL_CAPACITY = 4;
+
     // ||========================================================================================||
     // ||    INSTANCE PROPERTIES                                                                 ||
     // ||----------------------------------------------------------------------------------------||
@@ -304,7 +309,7 @@ public final class WriteOpSpecDefault extends TableRowOpSpec<WriteOpSpecDefault>
 
     public WriteOpSpecDefault(final Object handle, final HBaseContext context, final OperationControllerDefault parent) {
         super(handle, context, parent);
-        this.withColumn = new LinkedList<>();
+        this.withColumn = new ArrayList<>(COLUMN_LIST_INITIAL_CAPACITY);
         // by default, assign no TTL
         this.ttlMillisec = null;
         this.deleteRow = false;
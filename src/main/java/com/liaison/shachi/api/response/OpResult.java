@@ -16,7 +16,10 @@
 package com.liaison.shachi.api.response;
 
 import com.liaison.javabasics.commons.Util;
+import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
+import com.liaison.shachi.api.request.impl.StatefulSpec;
 import com.liaison.shachi.api.request.impl.TableRowOpSpec;
+import com.liaison.shachi.dto.RowRef;
 import com.liaison.shachi.dto.TableRow;
 import com.liaison.shachi.exception.HBaseException;
 import com.liaison.shachi.util.AbstractSelfRefBuilder;
@@ -34,10 +37,33 @@ public abstract class OpResult<O extends TableRowOpSpec<O>> implements Serializa
         private HBaseException hbExc;
 
         public B origin(final O originSpec) {
+            return origin(originSpec, originSpec.getTableRow());
+        }
+
+        /**
+         * Specify the spec which produced this result, and the row to which it applies (which may
+         * differ from the row specified by the spec, if the spec was compiled for execution
+         * against many rows).
+         * @param originSpec
+         * @param row
+         * @return
+         */
+        public B origin(final O originSpec, final RowRef row) {
             this.originSpec = originSpec;
-            this.tableRow =
-                TableRow.of(originSpec.getTableRow().getTable(),
-                            originSpec.getTableRow().getRowKey());
+            if (row instanceof TableRow) {
+                this.tableRow = (TableRow) row;
+            } else if ((row instanceof StatefulSpec) && (((StatefulSpec<?,?>) row).isFrozen())) {
+                // reuse the row key literalized when the row spec was frozen
+                this.tableRow =
+                    TableRow
+                        .getBuilder()
+                        .table(row.getTable())
+                        .row(row.getRowKey())
+                        .literalizedRowKey(row.getLiteralizedRowKeyBytes(DefensiveCopyStrategy.NEVER))
+                        .build();
+            } else {
+                this.tableRow = TableRow.of(row.getTable(), row.getRowKey());
+            }
             return self();
         }
         
@@ -24,19 +24,23 @@ import com.liaison.shachi.api.request.frozen.WriteOpSpecFrozen;
 import com.liaison.shachi.api.request.impl.ColSpecRead;
 import com.liaison.shachi.api.request.impl.OperationSpec;
 import com.liaison.shachi.api.request.impl.ReadOpSpecDefault;
-import com.liaison.shachi.api.request.impl.RowSpec;
 import com.liaison.shachi.api.request.impl.TableRowOpSpec;
 import com.liaison.shachi.api.request.impl.WriteOpSpecDefault;
 import com.liaison.shachi.api.response.ReadOpResult.ReadOpResultBuilder;
 import com.liaison.shachi.dto.Datum;
 import com.liaison.shachi.dto.FamilyQualifierPair;
+import com.liaison.shachi.dto.PackedCellSet;
 import com.liaison.shachi.dto.ParsedVersionQualifier;
+import com.liaison.shachi.dto.RowRef;
 import com.liaison.shachi.dto.SpecCellResultSet;
 import com.liaison.shachi.exception.HBaseNoCellException;
 import com.liaison.shachi.exception.HBaseTableRowException;
+import com.liaison.shachi.model.ColumnRange;
+import com.liaison.shachi.model.FamilyHB;
 import com.liaison.shachi.model.FamilyModel;
-import com.liaison.shachi.model.Name;
+import com.liaison.shachi.model.ModelInterner;
 import com.liaison.shachi.model.QualModel;
+import com.liaison.shachi.model.VersioningModel;
 import com.liaison.shachi.util.HBaseUtil;
 import com.liaison.shachi.util.SpecUtil;
 import org.apache.hadoop.hbase.Cell;
@@ -44,9 +48,12 @@ import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.client.Result;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class OpResultSet implements Serializable {
     
@@ -61,34 +68,25 @@ public class OpResultSet implements Serializable {
     private final Map<OperationSpec<?>, OpResult<?>> dataBySpec;
     private final Map<Object, OpResult<?>> dataByHandle;
     
-    private FamilyQualifierPair generateFQP(final Cell resCell) {
-        final byte[] cellFamily;
-        final byte[] cellQual;
+    private static FamilyQualifierPair generateFQP(final Cell resCell) {
         final FamilyModel family;
         final QualModel qual;
 
         /*
-         * The HBase Javadoc API for some reason does not include a description for
-         * CellUtil#cloneFamily or for CellUtil#cloneQualifier, but the implementation shows that
-         * the value is *copied* from the original, so there is no need to make an additional
-         * defensive copy, regardless of the value of this.copyStrategy.
+         * Family and qualifier models are interned directly from the cell's backing arrays: the
+         * cells of a read share one (canonical) model per distinct family/qualifier, and the bytes
+         * are copied only the first time a given name is seen (see ModelInterner).
          */
-        cellFamily = CellUtil.cloneFamily(resCell);
-        cellQual = CellUtil.cloneQualifier(resCell);
-        /*
-         * TODO
-         * Using DefensiveCopyStrategy.NEVER here rather than the provided copy strategy
-         * (this.copyStrategy), because assuming that the clone operations in
-         * CellUtil#cloneFamily and CellUtil#cloneQualifier are sufficient. Leaving a to-do marker
-         * here for the time being just in case; may want to return and validate that assumption
-         * before declaring this code base Production-ready.
-         */
-        family = FamilyModel.of(Name.of(cellFamily, DefensiveCopyStrategy.NEVER));
-        qual = QualModel.of(Name.of(cellQual, DefensiveCopyStrategy.NEVER));
+        family = ModelInterner.family(resCell.getFamilyArray(),
+                                      resCell.getFamilyOffset(),
+                                      resCell.getFamilyLength());
+        qual = ModelInterner.qual(resCell.getQualifierArray(),
+                                  resCell.getQualifierOffset(),
+                                  resCell.getQualifierLength());
         return FamilyQualifierPair.of(family, qual);
     }
 
-    private void addToResultBuilderIndexedToColumn(final ReadOpResultBuilder readResBuild, final ColSpecReadFrozen colSpec, final Datum datum, final FamilyQualifierPair fqp, final int logCellIndex, final int logCellTotalCount, final Object logAssoc, final String logMethodName) {
+    private static void addToResultBuilderIndexedToColumn(final ReadOpResultBuilder readResBuild, final ColSpecReadFrozen colSpec, final Datum datum, final FamilyQualifierPair fqp, final int logCellIndex, final int logCellTotalCount, final Object logAssoc, final String logMethodName) {
         readResBuild.add(colSpec, fqp, datum);
         LOG.trace(logMethodName,
                  ()->"cell ",
@@ -101,7 +99,7 @@ public class OpResultSet implements Serializable {
                  ()->colSpec);
     }
 
-    private ParsedVersionQualifier extractVersion(final ColSpecReadFrozen colSpec, final byte[] qualBytes, final long ts) {
+    private static ParsedVersionQualifier extractVersion(final ColSpecReadFrozen colSpec, final byte[] qualBytes, final long ts) {
         return
             HBaseUtil
                 .parseQualifierSeparateVersion(qualBytes,
@@ -109,7 +107,7 @@ public class OpResultSet implements Serializable {
                                                SpecUtil.determineVersioningScheme(colSpec));
     }
 
-    private Datum buildDatum(final byte[] content, final long contentTS, final ParsedVersionQualifier pvq) {
+    private static Datum buildDatum(final byte[] content, final long contentTS, final ParsedVersionQualifier pvq) {
         final Datum.Builder datumBuild;
 
         datumBuild = Datum.with().value(content, DefensiveCopyStrategy.ALWAYS).ts(contentTS);
@@ -119,7 +117,7 @@ public class OpResultSet implements Serializable {
         return datumBuild.build();
     }
 
-    private void populateContentForCell(final ReadOpResultBuilder readResBuild, final ReadOpSpecDefault readSpec, final Cell resCell, final int cellIndex, final int cellTotalCount, final String logMethodName) {
+    private static void populateContentForCell(final ReadOpResultBuilder readResBuild, final ReadOpSpecDefault readSpec, final Cell resCell, final int cellIndex, final int cellTotalCount, final String logMethodName) {
         Datum datum = null;
         byte[] content;
         final byte[] qualBytes;
@@ -243,7 +241,7 @@ public class OpResultSet implements Serializable {
                   ()->datumForLog);
     }
 
-    private void populateContent(final ReadOpResultBuilder readResBuild, final ReadOpSpecDefault readSpec, final Result res) {
+    private static void populateContent(final ReadOpResultBuilder readResBuild, final ReadOpSpecDefault readSpec, final Result res) {
         final String logMethodName;
         final Cell[] resCells;
         final int resCellCount;
@@ -270,26 +268,28 @@ public class OpResultSet implements Serializable {
         }
     }
     
-    private <O extends TableRowOpSpec<O>> void storeResult(final O origin, final OpResult<O> opRes) {
+    <O extends TableRowOpSpec<O>> void storeResult(final O origin, final OpResult<O> opRes) {
         this.dataBySpec.put(origin, opRes);
         this.dataByHandle.put(origin.getHandle(), opRes);
     }
 
     /**
-     * TODO
-     * @param readSpec
-     * @param resList
+     * Build the result of a READ from the HBase results it produced.
+     * @param readSpec the (frozen) READ spec which was executed
+     * @param tableRow the row which was read; ordinarily the row specified by the spec, but
+     * supplied separately so that a spec compiled once (see
+     * {@link com.liaison.shachi.api.request.impl.PreparedRead}) may be executed against many rows
+     * @param resList the HBase results of the READ
+     * @return the result of the READ
      * @throws HBaseTableRowException
      */
-    public void assimilate(final ReadOpSpecDefault readSpec, final Iterable<Result> resList) throws HBaseTableRowException {
+    public static ReadOpResult buildReadResult(final ReadOpSpecDefault readSpec, final RowRef tableRow, final Iterable<Result> resList) throws HBaseTableRowException {
         String logMsg;
         final ReadOpResultBuilder opResBuild;
-        final RowSpec<ReadOpSpecDefault> rowSpec;
         SpecCellResultSet readColSpecResult;
 
-        rowSpec = readSpec.getTableRow();
         try {
-            opResBuild = ReadOpResult.getBuilder().origin(readSpec);
+            opResBuild = ReadOpResult.getBuilder().origin(readSpec, tableRow);
             for (Result res : resList) {
                 populateContent(opResBuild, readSpec, res);
             }
@@ -301,16 +301,16 @@ public class OpResultSet implements Serializable {
                     logMsg = "READ (handle:'"
                              + readSpec.getHandle()
                              + "') returned no Cell for table/row "
-                             + rowSpec
+                             + tableRow
                              + " and required column "
                              + readColSpec;
                     opResBuild.add(readColSpec,
-                                   new HBaseNoCellException(rowSpec, readColSpec, logMsg));
+                                   new HBaseNoCellException(tableRow, readColSpec, logMsg));
                 }
             }
-            storeResult(readSpec, opResBuild.build());
+            return opResBuild.build();
         } catch (Exception exc) {
-            throw new HBaseTableRowException(rowSpec,
+            throw new HBaseTableRowException(tableRow,
                                              "Unexpected failure extracting READ (handle:'"
                                              + readSpec.getHandle()
                                              + "') query results; "
@@ -318,6 +318,153 @@ public class OpResultSet implements Serializable {
                                              exc);
         }
     }
+
+    private static <K> List<K> keysAssociatedWith(final Map<K, Set<ColSpecReadFrozen>> assoc, final ColSpecReadFrozen colSpec) {
+        final List<K> keys;
+        keys = new ArrayList<>();
+        for (Map.Entry<K, Set<ColSpecReadFrozen>> assocEntry : assoc.entrySet()) {
+            if (assocEntry.getValue().contains(colSpec)) {
+                keys.add(assocEntry.getKey());
+            }
+        }
+        return keys;
+    }
+
+    private static byte[] nameBytes(final FamilyHB family) {
+        return family.getName().getValue(DefensiveCopyStrategy.NEVER);
+    }
+
+    private static boolean cellMatches(final Cell resCell, final List<byte[]> fullFamilies, final List<FamilyQualifierPair> columns, final List<ColumnRange> ranges) {
+        for (byte[] family : fullFamilies) {
+            if (CellUtil.matchingFamily(resCell, family)) {
+                return true;
+            }
+        }
+        for (FamilyQualifierPair fqp : columns) {
+            if ((CellUtil.matchingFamily(resCell, nameBytes(fqp.getFamily())))
+                && (CellUtil.matchingQualifier(resCell,
+                                               fqp
+                                                   .getColumn()
+                                                   .getName()
+                                                   .getValue(DefensiveCopyStrategy.NEVER)))) {
+                return true;
+            }
+        }
+        for (ColumnRange range : ranges) {
+            if ((CellUtil.matchingFamily(resCell, nameBytes(range.getFamily())))
+                && (range.contains(resCell.getQualifierArray(),
+                                   resCell.getQualifierOffset(),
+                                   resCell.getQualifierLength()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Build the packed form of the cells a READ returned for one of its column specs, straight
+     * from the HBase results, without building the per-cell objects of a {@link ReadOpResult}.
+     * Cells are associated with the column spec exactly as they would be for a ReadOpResult (by
+     * full family, by family and qualifier, or by column range), and, as there, cells with empty
+     * values are omitted.
+     * @param readSpec the (frozen, executed) READ spec
+     * @param colSpec the column spec for which to gather cells; ordinarily a full-family or
+     * multi-version read, for which the packed form pays off
+     * @param tableRow the row which was read
+     * @param resList the HBase results of the READ
+     * @return the packed cells for the column spec
+     * @throws HBaseNoCellException if the column spec is not optional, and no cell was read for it
+     * @throws HBaseTableRowException if the cells cannot be extracted from the results
+     */
+    public static PackedCellSet buildPackedResult(final ReadOpSpecDefault readSpec, final ColSpecReadFrozen colSpec, final RowRef tableRow, final Iterable<Result> resList) throws HBaseNoCellException, HBaseTableRowException {
+        final List<byte[]> fullFamilies;
+        final List<FamilyQualifierPair> columns;
+        final List<ColumnRange> ranges;
+        final VersioningModel verModel;
+        final PackedCellSet.Builder packedBuild;
+        final PackedCellSet packed;
+        ParsedVersionQualifier pvq;
+        byte[] qualWithoutVersion;
+
+        fullFamilies = new ArrayList<>();
+        for (FamilyHB family : keysAssociatedWith(readSpec.getFullFamilyAssoc(), colSpec)) {
+            fullFamilies.add(nameBytes(family));
+        }
+        columns = keysAssociatedWith(readSpec.getFamilyQualifierAssoc(), colSpec);
+        ranges = keysAssociatedWith(readSpec.getColumnRangeAssoc(), colSpec);
+        verModel = SpecUtil.determineVersioningScheme(colSpec);
+        packedBuild =
+            PackedCellSet.getBuilder((verModel != null),
+                                     SpecUtil.identifyPrimitiveDeserializers(null,
+                                                                             colSpec.getColumn(),
+                                                                             colSpec.getFamily()));
+        try {
+            for (Result res : resList) {
+                for (Cell resCell : res.rawCells()) {
+                    if ((resCell == null)
+                        || (resCell.getValueLength() == 0)
+                        || (!cellMatches(resCell, fullFamilies, columns, ranges))) {
+                        continue;
+                    }
+                    if (verModel == null) {
+                        packedBuild.add(resCell.getQualifierArray(),
+                                        resCell.getQualifierOffset(),
+                                        resCell.getQualifierLength(),
+                                        resCell.getValueArray(),
+                                        resCell.getValueOffset(),
+                                        resCell.getValueLength(),
+                                        resCell.getTimestamp(),
+                                        0L);
+                    } else {
+                        pvq =
+                            HBaseUtil.parseQualifierSeparateVersion(CellUtil.cloneQualifier(resCell),
+                                                                    resCell.getTimestamp(),
+                                                                    verModel);
+                        qualWithoutVersion = pvq.getQualWithoutVersion();
+                        packedBuild.add(qualWithoutVersion,
+                                        0,
+                                        qualWithoutVersion.length,
+                                        resCell.getValueArray(),
+                                        resCell.getValueOffset(),
+                                        resCell.getValueLength(),
+                                        resCell.getTimestamp(),
+                                        pvq.getVersion().longValue());
+                    }
+                }
+            }
+            packed = packedBuild.build();
+        } catch (Exception exc) {
+            throw new HBaseTableRowException(tableRow,
+                                             "Unexpected failure extracting packed READ (handle:'"
+                                             + readSpec.getHandle()
+                                             + "') query results for column "
+                                             + colSpec
+                                             + "; "
+                                             + exc,
+                                             exc);
+        }
+        if ((!colSpec.isOptional()) && (packed.isEmpty())) {
+            throw new HBaseNoCellException(tableRow,
+                                           colSpec,
+                                           ("READ (handle:'"
+                                            + readSpec.getHandle()
+                                            + "') returned no Cell for table/row "
+                                            + tableRow
+                                            + " and required column "
+                                            + colSpec));
+        }
+        return packed;
+    }
+
+    /**
+     * TODO
+     * @param readSpec
+     * @param resList
+     * @throws HBaseTableRowException
+     */
+    public void assimilate(final ReadOpSpecDefault readSpec, final Iterable<Result> resList) throws HBaseTableRowException {
+        storeResult(readSpec, buildReadResult(readSpec, readSpec.getTableRow(), resList));
+    }
     
     /**
      * TODO
@@ -26,15 +26,25 @@ import com.liaison.shachi.dto.Datum;
 import com.liaison.shachi.dto.FamilyQualifierPair;
 import com.liaison.shachi.dto.SingleCellResult;
 import com.liaison.shachi.dto.SpecCellResultSet;
+import com.liaison.shachi.exception.CellDeserializationException;
 import com.liaison.shachi.exception.HBaseException;
+import com.liaison.shachi.exception.HBaseNoCellException;
 import com.liaison.shachi.util.SpecUtil;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * TODO: javadoc
@@ -43,6 +53,53 @@ public class ReadOpResult extends OpResult<ReadOpSpecDefault> {
 
     private static final long serialVersionUID = 8027722441667395989L;
 
+    /**
+     * Default number of cells deserialized by a single task in
+     * {@link #deserializeParallel(Object)}; results with no more cells than this are deserialized
+     * on the calling thread.
+     */
+    public static final int DEFAULT_DESERIALIZE_CHUNK_SIZE = 64;
+
+    /**
+     * Fork-join task which resolves (and memoizes) {@link CellDatum#getContent()} for a range of
+     * cells, splitting the range in half until it holds no more than chunkSize cells.
+     */
+    private static final class DeserializeChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = -3190634431327866817L;
+
+        private final CellDatum[] cells;
+        private final int fromIndex;
+        private final int toIndex;
+        private final int chunkSize;
+
+        @Override
+        protected void compute() {
+            final int midIndex;
+            if ((this.toIndex - this.fromIndex) <= this.chunkSize) {
+                deserializeRange(this.cells, this.fromIndex, this.toIndex);
+            } else {
+                midIndex = (this.fromIndex + this.toIndex) >>> 1;
+                invokeAll(new DeserializeChunkTask(this.cells, this.fromIndex, midIndex, this.chunkSize),
+                          new DeserializeChunkTask(this.cells, midIndex, this.toIndex, this.chunkSize));
+            }
+        }
+
+        DeserializeChunkTask(final CellDatum[] cells, final int fromIndex, final int toIndex, final int chunkSize) {
+            this.cells = cells;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    private static void deserializeRange(final CellDatum[] cells, final int fromIndex, final int toIndex) throws CellDeserializationException {
+        for (int cellIndex = fromIndex; cellIndex < toIndex; cellIndex++) {
+            if (cells[cellIndex].hasDeserializer()) {
+                cells[cellIndex].getContent();
+            }
+        }
+    }
+
     /**
      * TODO: javadoc
      */
@@ -174,6 +231,12 @@ public class ReadOpResult extends OpResult<ReadOpSpecDefault> {
                                                         colSpec.getColumn(),
                                                         colSpec.getFamily(),
                                                         getTableRow().getTable()))
+                                                .primitiveDeserializers(
+                                                    SpecUtil.identifyPrimitiveDeserializers(
+                                                        fqp,
+                                                        colSpec.getColumn(),
+                                                        colSpec.getFamily(),
+                                                        getTableRow().getTable()))
                                                 .row(getTableRow())
                                                 .build())
                                      .build());
@@ -387,6 +450,167 @@ public class ReadOpResult extends OpResult<ReadOpSpecDefault> {
         return getFirst(getData(handle));
     }
 
+    /**
+     * Find the first cell read for the column spec with the given handle, without building the
+     * intermediate list that {@link #getSingleData(Object)} does.
+     * @param handle handle of the column spec
+     * @return the first cell read for the spec
+     * @throws HBaseNoCellException if no cell was read for the spec
+     * @throws HBaseException if reading the cell failed
+     */
+    private CellDatum requireSingleData(final Object handle) throws HBaseException {
+        final List<SingleCellResult> cellResList;
+        CellDatum content;
+
+        cellResList = toContent(this.dataBySpecHandle.get(handle));
+        if (cellResList != null) {
+            for (SingleCellResult cellRes : cellResList) {
+                content = toContent(cellRes);
+                if (content != null) {
+                    return content;
+                }
+            }
+        }
+        throw new HBaseNoCellException(getTableRow(),
+                                       null,
+                                       ("No cell was read for column spec with handle: "
+                                        + handle));
+    }
+
+    /**
+     * Decode the first cell read for the column spec with the given handle as a long, without
+     * boxing or copying the value; see {@link CellDatum#getLong()}.
+     * @param handle handle of the column spec
+     * @return the cell value as a long
+     * @throws HBaseNoCellException if no cell was read for the spec
+     * @throws HBaseException if reading the cell failed
+     * @throws CellDeserializationException if the cell value cannot be decoded as a long
+     */
+    public long getLong(final Object handle) throws HBaseException, CellDeserializationException {
+        return requireSingleData(handle).getLong();
+    }
+    /**
+     * Decode the first cell read for the column spec with the given handle as an int; see
+     * {@link #getLong(Object)}.
+     */
+    public int getInt(final Object handle) throws HBaseException, CellDeserializationException {
+        return requireSingleData(handle).getInt();
+    }
+    /**
+     * Decode the first cell read for the column spec with the given handle as a double; see
+     * {@link #getLong(Object)}.
+     */
+    public double getDouble(final Object handle) throws HBaseException, CellDeserializationException {
+        return requireSingleData(handle).getDouble();
+    }
+    /**
+     * Decode the first cell read for the column spec with the given handle as a boolean; see
+     * {@link #getLong(Object)}.
+     */
+    public boolean getBoolean(final Object handle) throws HBaseException, CellDeserializationException {
+        return requireSingleData(handle).getBoolean();
+    }
+
+    private <K> CellDatum[] getDataArrayBy(final K key, final Map<K, SpecCellResultSet> dataMap) throws HBaseException {
+        final List<CellDatum> dataList;
+        final List<SingleCellResult> cellResList;
+        CellDatum content;
+
+        cellResList = toContent(dataMap.get(key));
+        if (cellResList == null) {
+            return new CellDatum[0];
+        }
+        dataList = new ArrayList<>(cellResList.size());
+        for (SingleCellResult cellRes : cellResList) {
+            content = toContent(cellRes);
+            if (content != null) {
+                dataList.add(content);
+            }
+        }
+        return dataList.toArray(new CellDatum[dataList.size()]);
+    }
+
+    private static List<CellDatum> deserializeCells(final CellDatum[] cells, final ForkJoinPool pool, final int chunkSize) throws IllegalArgumentException, CellDeserializationException {
+        Util.ensureNotNull(pool, "deserializeCells", "pool", ForkJoinPool.class);
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        if (cells.length <= chunkSize) {
+            deserializeRange(cells, 0, cells.length);
+        } else {
+            pool.invoke(new DeserializeChunkTask(cells, 0, cells.length, chunkSize));
+        }
+        return Collections.unmodifiableList(Arrays.asList(cells));
+    }
+
+    private static Stream<CellDatum> streamOf(final CellDatum[] cells, final boolean parallel) {
+        return StreamSupport.stream(Spliterators.spliterator(cells,
+                                                             Spliterator.ORDERED
+                                                             | Spliterator.IMMUTABLE
+                                                             | Spliterator.NONNULL),
+                                    parallel);
+    }
+
+    /**
+     * Opt-in parallel deserialization: resolve {@link CellDatum#getContent()} for every cell read
+     * for the given column spec, across the given fork-join pool, in chunks of at most chunkSize
+     * cells. The deserialized content is memoized in each CellDatum, so subsequent calls to
+     * getContent (from any thread) return immediately. Cells for which the schema declares no
+     * deserializer are skipped.
+     * @param colSpec the column spec
+     * @param pool the pool in which to run the deserializers
+     * @param chunkSize maximum number of cells deserialized by a single task
+     * @return the cells read for the spec, in the order retrieved, with content resolved
+     * @throws HBaseException if reading the cells failed
+     * @throws CellDeserializationException if any deserializer fails
+     */
+    public List<CellDatum> deserializeParallel(final ColSpecReadFrozen colSpec, final ForkJoinPool pool, final int chunkSize) throws HBaseException, IllegalArgumentException, CellDeserializationException {
+        return deserializeCells(getDataArrayBy(colSpec, this.dataBySpec), pool, chunkSize);
+    }
+    public List<CellDatum> deserializeParallel(final ColSpecReadFrozen colSpec) throws HBaseException, CellDeserializationException {
+        return deserializeParallel(colSpec, ForkJoinPool.commonPool(), DEFAULT_DESERIALIZE_CHUNK_SIZE);
+    }
+    /**
+     * Opt-in parallel deserialization of the cells read for the column spec with the given
+     * handle; see {@link #deserializeParallel(ColSpecReadFrozen, ForkJoinPool, int)}.
+     */
+    public List<CellDatum> deserializeParallel(final Object handle, final ForkJoinPool pool, final int chunkSize) throws HBaseException, IllegalArgumentException, CellDeserializationException {
+        return deserializeCells(getDataArrayBy(handle, this.dataBySpecHandle), pool, chunkSize);
+    }
+    public List<CellDatum> deserializeParallel(final Object handle) throws HBaseException, CellDeserializationException {
+        return deserializeParallel(handle, ForkJoinPool.commonPool(), DEFAULT_DESERIALIZE_CHUNK_SIZE);
+    }
+
+    /**
+     * Stream the cells read for the given column spec, in the order retrieved. The stream is
+     * backed by an array, so it splits evenly (and with exact sizes) when run in parallel.
+     * @param colSpec the column spec
+     * @param parallel whether to return a parallel stream
+     * @return stream of the cells read for the spec
+     * @throws HBaseException if reading the cells failed
+     */
+    public Stream<CellDatum> streamData(final ColSpecReadFrozen colSpec, final boolean parallel) throws HBaseException {
+        return streamOf(getDataArrayBy(colSpec, this.dataBySpec), parallel);
+    }
+    public Stream<CellDatum> streamData(final Object handle, final boolean parallel) throws HBaseException {
+        return streamOf(getDataArrayBy(handle, this.dataBySpecHandle), parallel);
+    }
+
+    /**
+     * Stream the deserialized content of the cells read for the given column spec; when parallel,
+     * each cell is deserialized (and its content memoized) on whichever pool thread processes it.
+     * @param colSpec the column spec
+     * @param parallel whether to return a parallel stream
+     * @return stream of the deserialized content of the cells read for the spec
+     * @throws HBaseException if reading the cells failed
+     */
+    public Stream<Object> streamContent(final ColSpecReadFrozen colSpec, final boolean parallel) throws HBaseException {
+        return streamData(colSpec, parallel).map(CellDatum::getContent);
+    }
+    public Stream<Object> streamContent(final Object handle, final boolean parallel) throws HBaseException {
+        return streamData(handle, parallel).map(CellDatum::getContent);
+    }
+
     /**
      * TODO: javadoc
      * @param otherOpResult
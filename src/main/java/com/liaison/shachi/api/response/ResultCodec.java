@@ -0,0 +1,695 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.liaison.shachi.api.response;
+
+import com.liaison.javabasics.commons.Uninstantiable;
+import com.liaison.javabasics.commons.Util;
+import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
+import com.liaison.shachi.api.request.frozen.ColSpecReadFrozen;
+import com.liaison.shachi.api.request.impl.ColSpecRead;
+import com.liaison.shachi.api.request.impl.OperationSpec;
+import com.liaison.shachi.api.request.impl.ReadOpSpecDefault;
+import com.liaison.shachi.api.request.impl.WriteOpSpecDefault;
+import com.liaison.shachi.dto.CellDatum;
+import com.liaison.shachi.dto.Datum;
+import com.liaison.shachi.dto.FamilyQualifierPair;
+import com.liaison.shachi.dto.RowKey;
+import com.liaison.shachi.dto.SingleCellResult;
+import com.liaison.shachi.dto.SpecCellResultSet;
+import com.liaison.shachi.dto.TableRow;
+import com.liaison.shachi.exception.HBaseColumnException;
+import com.liaison.shachi.exception.HBaseException;
+import com.liaison.shachi.exception.HBaseNoCellException;
+import com.liaison.shachi.exception.HBaseTableRowException;
+import com.liaison.shachi.model.FamilyModel;
+import com.liaison.shachi.model.Name;
+import com.liaison.shachi.model.QualModel;
+import com.liaison.shachi.model.TableModel;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Compact binary encoding of READ and WRITE results, for shipping results between JVMs or
+ * spilling them to a local cache, as an alternative to Java serialization (which writes the
+ * entire spec tree and table model graph along with every result).
+ * <br><br>
+ * The encoding carries only the data of a result; the schema is referenced, not written. The
+ * spec which produced a result (and from it, the table model and the column specs) is supplied
+ * again when decoding, and column specs are referred to by their position within it. Lengths and
+ * numbers are written as varints, and (optionally) each distinct family and qualifier name is
+ * written once per encoded message, and thereafter referred to by number; the decoder likewise
+ * shares a single family/qualifier model instance between all of the cells which name it.
+ * <br><br>
+ * Exceptions recorded in a result are carried as their message only, and are decoded as
+ * {@link HBaseNoCellException} (if that was the original type), {@link HBaseColumnException}
+ * (for any other column-level failure), or {@link HBaseTableRowException} (for an operation-level
+ * failure). Decoding reads exactly the bytes of one encoded message, so messages may be written
+ * back to back on a single stream.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public final class ResultCodec extends Uninstantiable {
+
+    private static final byte MAGIC = (byte) 0x53;
+    private static final byte FORMAT_VERSION = 1;
+    private static final int FLAG_DICTIONARY = 0x01;
+
+    private static final byte PAYLOAD_READ_RESULT = 1;
+    private static final byte PAYLOAD_RESULT_SET = 2;
+
+    private static final byte RESULT_ABSENT = 0;
+    private static final byte RESULT_READ = 1;
+    private static final byte RESULT_WRITE = 2;
+
+    private static final byte CELL_DATUM = 0;
+    private static final byte CELL_NO_CELL_EXC = 1;
+    private static final byte CELL_COLUMN_EXC = 2;
+
+    /**
+     * Name reference indicating that a literal name follows (and, if dictionary encoding is in
+     * use, is assigned the next number); any other reference n refers to the (n-1)th literal.
+     */
+    private static final int NAME_LITERAL = 0;
+
+    private static final class Encoder {
+        private final OutputStream out;
+        private final boolean dictionary;
+        private final Map<ByteBuffer, Integer> familyDict;
+        private final Map<ByteBuffer, Integer> qualDict;
+
+        private void writeByte(final int value) throws IOException {
+            this.out.write(value);
+        }
+        private void writeVarInt(final int value) throws IOException {
+            int remaining;
+            remaining = value;
+            while ((remaining & ~0x7F) != 0) {
+                this.out.write((remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            this.out.write(remaining);
+        }
+        private void writeVarLong(final long value) throws IOException {
+            long remaining;
+            // zig-zag, so that small negative values also encode compactly
+            remaining = (value << 1) ^ (value >> 63);
+            while ((remaining & ~0x7FL) != 0) {
+                this.out.write((int) ((remaining & 0x7F) | 0x80));
+                remaining >>>= 7;
+            }
+            this.out.write((int) remaining);
+        }
+        private void writeBytes(final byte[] value) throws IOException {
+            writeVarInt(value.length);
+            this.out.write(value);
+        }
+        private void writeString(final String value) throws IOException {
+            final byte[] encoded;
+            if (value == null) {
+                writeVarInt(0);
+            } else {
+                encoded = value.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(encoded.length + 1);
+                this.out.write(encoded);
+            }
+        }
+        private void writeName(final Name name, final Map<ByteBuffer, Integer> dict) throws IOException {
+            final byte[] nameBytes;
+            final ByteBuffer key;
+            final Integer ref;
+
+            nameBytes = name.getValue(DefensiveCopyStrategy.NEVER);
+            if (this.dictionary) {
+                key = ByteBuffer.wrap(nameBytes);
+                ref = dict.get(key);
+                if (ref != null) {
+                    writeVarInt(ref.intValue());
+                    return;
+                }
+                dict.put(key, Integer.valueOf(dict.size() + 1));
+            }
+            writeVarInt(NAME_LITERAL);
+            writeBytes(nameBytes);
+        }
+        private void writeColumn(final FamilyQualifierPair fqp) throws IOException {
+            writeName(fqp.getFamily().getName(), this.familyDict);
+            writeName(fqp.getColumn().getName(), this.qualDict);
+        }
+
+        private void writeHeader(final byte payload) throws IOException {
+            writeByte(MAGIC);
+            writeByte(FORMAT_VERSION);
+            writeByte(this.dictionary ? FLAG_DICTIONARY : 0);
+            writeByte(payload);
+        }
+
+        private void writeOpResult(final OpResult<?> opRes) throws IOException {
+            final TableRow tableRow;
+            final HBaseException hbExc;
+
+            tableRow = opRes.getTableRow();
+            writeBytes(tableRow.getRowKey().getValue(DefensiveCopyStrategy.NEVER));
+            writeString(tableRow.getDescription());
+            hbExc = opRes.getException();
+            if (hbExc == null) {
+                writeByte(0);
+            } else {
+                writeByte(1);
+                writeString(hbExc.getMessage());
+            }
+        }
+
+        private void writeCellException(final HBaseException exc, final FamilyQualifierPair fqp) throws IOException {
+            writeByte((exc instanceof HBaseNoCellException) ? CELL_NO_CELL_EXC : CELL_COLUMN_EXC);
+            if (fqp == null) {
+                writeByte(0);
+            } else {
+                writeByte(1);
+                writeColumn(fqp);
+            }
+            writeString(exc.getMessage());
+        }
+
+        private void writeCell(final SingleCellResult cellRes) throws IOException {
+            final CellDatum cellDatum;
+            final Datum datum;
+            final Long version;
+
+            if (!cellRes.isSuccess()) {
+                writeCellException(cellRes.getExc(), cellRes.getTableColumn());
+                return;
+            }
+            cellDatum = cellRes.getContent();
+            datum = cellDatum.getDatum();
+            writeByte(CELL_DATUM);
+            writeColumn(cellDatum.getTableColumn());
+            writeBytes(datum.getValue(DefensiveCopyStrategy.NEVER));
+            writeVarLong(datum.getTS());
+            version = datum.getVersion();
+            if (version == null) {
+                writeByte(0);
+            } else {
+                writeByte(1);
+                writeVarLong(version.longValue());
+            }
+        }
+
+        private void writeReadResult(final ReadOpResult readRes) throws IOException {
+            final List<? extends ColSpecReadFrozen> colSpecList;
+            final Map<ColSpecReadFrozen, SpecCellResultSet> dataBySpec;
+            SpecCellResultSet specCells;
+            int colIndex;
+
+            writeOpResult(readRes);
+            colSpecList = readRes.getOrigin().getWithColumn();
+            dataBySpec = readRes.getDataBySpec();
+            writeVarInt(dataBySpec.size());
+            for (Map.Entry<ColSpecReadFrozen, SpecCellResultSet> specEntry : dataBySpec.entrySet()) {
+                colIndex = colSpecList.indexOf(specEntry.getKey());
+                if (colIndex < 0) {
+                    throw new IOException("Result for column "
+                                          + specEntry.getKey()
+                                          + " does not correspond to any column of its origin spec");
+                }
+                writeVarInt(colIndex);
+                specCells = specEntry.getValue();
+                if (!specCells.isSuccess()) {
+                    writeVarInt(1);
+                    writeCellException(specCells.getExc(), null);
+                } else {
+                    writeVarInt(specCells.getContent().size());
+                    for (SingleCellResult cellRes : specCells.getContent()) {
+                        writeCell(cellRes);
+                    }
+                }
+            }
+        }
+
+        private void writeWriteResult(final WriteOpResult writeRes) throws IOException {
+            writeOpResult(writeRes);
+            writeByte(writeRes.isMutationPerformed() ? 1 : 0);
+        }
+
+        private Encoder(final OutputStream out, final boolean dictionary) {
+            this.out = out;
+            this.dictionary = dictionary;
+            this.familyDict = new HashMap<>();
+            this.qualDict = new HashMap<>();
+        }
+    }
+
+    private static final class Decoder {
+        private final InputStream in;
+        private final List<FamilyModel> familyDict;
+        private final List<QualModel> qualDict;
+        private boolean dictionary;
+
+        private int readByte() throws IOException {
+            final int value;
+            value = this.in.read();
+            if (value < 0) {
+                throw new EOFException("Encoded result truncated");
+            }
+            return value;
+        }
+        private int readVarInt() throws IOException {
+            int value;
+            int shift;
+            int next;
+
+            value = 0;
+            shift = 0;
+            do {
+                if (shift > 28) {
+                    throw new IOException("Malformed varint in encoded result");
+                }
+                next = readByte();
+                value |= (next & 0x7F) << shift;
+                shift += 7;
+            } while ((next & 0x80) != 0);
+            return value;
+        }
+        private long readVarLong() throws IOException {
+            long zigZag;
+            int shift;
+            int next;
+
+            zigZag = 0;
+            shift = 0;
+            do {
+                if (shift > 63) {
+                    throw new IOException("Malformed varlong in encoded result");
+                }
+                next = readByte();
+                zigZag |= ((long) (next & 0x7F)) << shift;
+                shift += 7;
+            } while ((next & 0x80) != 0);
+            return (zigZag >>> 1) ^ -(zigZag & 1);
+        }
+        private byte[] readFully(final int length) throws IOException {
+            final byte[] value;
+            int offset;
+            int count;
+
+            if (length < 0) {
+                throw new IOException("Malformed length in encoded result: " + length);
+            }
+            value = new byte[length];
+            offset = 0;
+            while (offset < length) {
+                count = this.in.read(value, offset, length - offset);
+                if (count < 0) {
+                    throw new EOFException("Encoded result truncated");
+                }
+                offset += count;
+            }
+            return value;
+        }
+        private byte[] readBytes() throws IOException {
+            return readFully(readVarInt());
+        }
+        private String readString() throws IOException {
+            final int lengthPlusOne;
+            lengthPlusOne = readVarInt();
+            if (lengthPlusOne == 0) {
+                return null;
+            }
+            return new String(readFully(lengthPlusOne - 1), StandardCharsets.UTF_8);
+        }
+        private boolean readFlag() throws IOException {
+            return (readByte() != 0);
+        }
+        private <M> M readName(final List<M> dict, final Function<Name, M> modelFactory) throws IOException {
+            final int ref;
+            final M model;
+
+            ref = readVarInt();
+            if (ref == NAME_LITERAL) {
+                model = modelFactory.apply(Name.of(readBytes(), DefensiveCopyStrategy.NEVER));
+                if (this.dictionary) {
+                    dict.add(model);
+                }
+                return model;
+            }
+            if (ref > dict.size()) {
+                throw new IOException("Encoded result refers to undefined name #" + ref);
+            }
+            return dict.get(ref - 1);
+        }
+        private FamilyQualifierPair readColumn() throws IOException {
+            return FamilyQualifierPair.of(readName(this.familyDict, FamilyModel::of),
+                                          readName(this.qualDict, QualModel::of));
+        }
+
+        private void readHeader(final byte expectedPayload) throws IOException {
+            final int flags;
+            if (readByte() != (MAGIC & 0xFF)) {
+                throw new IOException("Not an encoded result (bad magic number)");
+            }
+            if (readByte() != FORMAT_VERSION) {
+                throw new IOException("Unsupported encoded result format version");
+            }
+            flags = readByte();
+            this.dictionary = ((flags & FLAG_DICTIONARY) != 0);
+            if (readByte() != expectedPayload) {
+                throw new IOException("Unexpected payload type in encoded result");
+            }
+        }
+
+        private TableRow readTableRow(final TableModel table) throws IOException {
+            final RowKey rowKey;
+            rowKey = RowKey.of(readBytes(), DefensiveCopyStrategy.NEVER);
+            return TableRow.of(table, rowKey, readString());
+        }
+
+        private HBaseException readCellException(final int cellTag, final TableRow tableRow, final ColSpecReadFrozen colSpec, final FamilyQualifierPair[] fqpHolder) throws IOException {
+            final String message;
+
+            fqpHolder[0] = (readFlag() ? readColumn() : null);
+            message = readString();
+            if (cellTag == CELL_NO_CELL_EXC) {
+                return new HBaseNoCellException(tableRow, colSpec, message);
+            }
+            return new HBaseColumnException(tableRow, colSpec, message);
+        }
+
+        private ReadOpResult readReadResult(final ReadOpSpecDefault readSpec) throws IOException {
+            final TableRow tableRow;
+            final ReadOpResult.ReadOpResultBuilder readResBuild;
+            final List<ColSpecRead<ReadOpSpecDefault>> colSpecList;
+            final FamilyQualifierPair[] fqpHolder;
+            final int specCount;
+            int colIndex;
+            int cellCount;
+            int cellTag;
+            ColSpecReadFrozen colSpec;
+            FamilyQualifierPair fqp;
+            HBaseException cellExc;
+            Datum.Builder datumBuild;
+
+            tableRow = readTableRow(readSpec.getTableRow().getTable());
+            readResBuild = ReadOpResult.getBuilder().origin(readSpec, tableRow);
+            if (readFlag()) {
+                readResBuild.exception(new HBaseTableRowException(tableRow, readString()));
+            }
+            colSpecList = readSpec.getWithColumn();
+            fqpHolder = new FamilyQualifierPair[1];
+            specCount = readVarInt();
+            for (int specIndex = 0; specIndex < specCount; specIndex++) {
+                colIndex = readVarInt();
+                if (colIndex >= colSpecList.size()) {
+                    throw new IOException("Encoded result refers to column #"
+                                          + colIndex
+                                          + ", but spec has only "
+                                          + colSpecList.size());
+                }
+                colSpec = colSpecList.get(colIndex);
+                cellCount = readVarInt();
+                for (int cellIndex = 0; cellIndex < cellCount; cellIndex++) {
+                    cellTag = readByte();
+                    if (cellTag == CELL_DATUM) {
+                        fqp = readColumn();
+                        datumBuild =
+                            Datum
+                                .with()
+                                .value(readBytes(), DefensiveCopyStrategy.NEVER)
+                                .ts(readVarLong());
+                        if (readFlag()) {
+                            datumBuild.version(readVarLong());
+                        }
+                        readResBuild.add(colSpec, fqp, datumBuild.build());
+                    } else if ((cellTag == CELL_NO_CELL_EXC) || (cellTag == CELL_COLUMN_EXC)) {
+                        cellExc = readCellException(cellTag, tableRow, colSpec, fqpHolder);
+                        if (fqpHolder[0] == null) {
+                            readResBuild.add(colSpec, cellExc);
+                        } else {
+                            readResBuild.add(colSpec, fqpHolder[0], cellExc);
+                        }
+                    } else {
+                        throw new IOException("Unknown cell type in encoded result: " + cellTag);
+                    }
+                }
+            }
+            return readResBuild.build();
+        }
+
+        private WriteOpResult readWriteResult(final WriteOpSpecDefault writeSpec) throws IOException {
+            final TableRow tableRow;
+            final WriteOpResult.WriteOpResultBuilder writeResBuild;
+
+            tableRow = readTableRow(writeSpec.getTableRow().getTable());
+            writeResBuild = WriteOpResult.getBuilder().origin(writeSpec, tableRow);
+            if (readFlag()) {
+                writeResBuild.exception(new HBaseTableRowException(tableRow, readString()));
+            }
+            return writeResBuild.mutationPerformed(readFlag()).build();
+        }
+
+        private Decoder(final InputStream in) {
+            this.in = in;
+            this.familyDict = new ArrayList<>();
+            this.qualDict = new ArrayList<>();
+            this.dictionary = false;
+        }
+    }
+
+    private static final class ByteBufferOutput extends OutputStream {
+        private final ByteBuffer buffer;
+        @Override
+        public void write(final int value) {
+            this.buffer.put((byte) value);
+        }
+        @Override
+        public void write(final byte[] value, final int offset, final int length) {
+            this.buffer.put(value, offset, length);
+        }
+        private ByteBufferOutput(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+
+    private static final class ByteBufferInput extends InputStream {
+        private final ByteBuffer buffer;
+        @Override
+        public int read() {
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+            return (this.buffer.get() & 0xFF);
+        }
+        @Override
+        public int read(final byte[] value, final int offset, final int length) {
+            final int count;
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+            count = Math.min(length, this.buffer.remaining());
+            this.buffer.get(value, offset, count);
+            return count;
+        }
+        private ByteBufferInput(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+
+    // ||========================================================================================||
+    // ||    READ RESULTS                                                                        ||
+    // ||----------------------------------------------------------------------------------------||
+
+    /**
+     * Encode a READ result to the given stream. The stream is flushed, but not closed.
+     * @param readRes the result to encode
+     * @param out the stream to which to write
+     * @param useDictionary whether to write each distinct family/qualifier name only once
+     * @throws IOException if the result cannot be written
+     */
+    public static void encode(final ReadOpResult readRes, final OutputStream out, final boolean useDictionary) throws IOException {
+        final BufferedOutputStream bufOut;
+        final Encoder enc;
+
+        Util.ensureNotNull(readRes, "encode", "readRes", ReadOpResult.class);
+        Util.ensureNotNull(out, "encode", "out", OutputStream.class);
+        bufOut = new BufferedOutputStream(out);
+        enc = new Encoder(bufOut, useDictionary);
+        enc.writeHeader(PAYLOAD_READ_RESULT);
+        enc.writeReadResult(readRes);
+        bufOut.flush();
+    }
+    public static void encode(final ReadOpResult readRes, final OutputStream out) throws IOException {
+        encode(readRes, out, true);
+    }
+
+    /**
+     * Encode a READ result into the given buffer, starting at its current position.
+     * @param readRes the result to encode
+     * @param buffer the buffer to which to write
+     * @throws IOException if the result cannot be encoded
+     * @throws java.nio.BufferOverflowException if the buffer has insufficient space remaining
+     */
+    public static void encode(final ReadOpResult readRes, final ByteBuffer buffer) throws IOException {
+        Util.ensureNotNull(buffer, "encode", "buffer", ByteBuffer.class);
+        encode(readRes, new ByteBufferOutput(buffer), true);
+    }
+
+    public static byte[] encode(final ReadOpResult readRes) throws IOException {
+        final ByteArrayOutputStream bytesOut;
+        bytesOut = new ByteArrayOutputStream();
+        encode(readRes, bytesOut, true);
+        return bytesOut.toByteArray();
+    }
+
+    /**
+     * Decode a READ result from the given stream.
+     * @param readSpec the (frozen) spec which produced the encoded result
+     * @param in the stream from which to read; reads are byte-at-a-time, so the stream should be
+     * buffered
+     * @return the decoded result
+     * @throws IOException if the stream cannot be read, or does not hold an encoded READ result
+     * compatible with the given spec
+     */
+    public static ReadOpResult decode(final ReadOpSpecDefault readSpec, final InputStream in) throws IOException {
+        final Decoder dec;
+
+        Util.ensureNotNull(readSpec, "decode", "readSpec", ReadOpSpecDefault.class);
+        Util.ensureNotNull(in, "decode", "in", InputStream.class);
+        dec = new Decoder(in);
+        dec.readHeader(PAYLOAD_READ_RESULT);
+        return dec.readReadResult(readSpec);
+    }
+    public static ReadOpResult decode(final ReadOpSpecDefault readSpec, final ByteBuffer buffer) throws IOException {
+        Util.ensureNotNull(buffer, "decode", "buffer", ByteBuffer.class);
+        return decode(readSpec, new ByteBufferInput(buffer));
+    }
+    public static ReadOpResult decode(final ReadOpSpecDefault readSpec, final byte[] encoded) throws IOException {
+        Util.ensureNotNull(encoded, "decode", "encoded", byte[].class);
+        return decode(readSpec, ByteBuffer.wrap(encoded));
+    }
+
+    // ||----(read results)----------------------------------------------------------------------||
+
+    // ||========================================================================================||
+    // ||    RESULT SETS                                                                         ||
+    // ||----------------------------------------------------------------------------------------||
+
+    /**
+     * Encode the results of the given operations from a result set. The same list of specs (or an
+     * equivalent one, in the same order) must be supplied to decode it.
+     * @param opResSet the result set
+     * @param specs the READ and WRITE specs whose results to encode; a spec with no result in the
+     * set is recorded as such
+     * @param out the stream to which to write; flushed, but not closed
+     * @param useDictionary whether to write each distinct family/qualifier name only once
+     * @throws IllegalArgumentException if any spec is neither a READ nor a WRITE
+     * @throws IOException if the results cannot be written
+     */
+    public static void encode(final OpResultSet opResSet, final List<? extends OperationSpec<?>> specs, final OutputStream out, final boolean useDictionary) throws IllegalArgumentException, IOException {
+        final BufferedOutputStream bufOut;
+        final Encoder enc;
+        OpResult<?> opRes;
+
+        Util.ensureNotNull(opResSet, "encode", "opResSet", OpResultSet.class);
+        Util.ensureNotNull(specs, "encode", "specs", List.class);
+        Util.ensureNotNull(out, "encode", "out", OutputStream.class);
+        bufOut = new BufferedOutputStream(out);
+        enc = new Encoder(bufOut, useDictionary);
+        enc.writeHeader(PAYLOAD_RESULT_SET);
+        enc.writeVarInt(specs.size());
+        for (OperationSpec<?> spec : specs) {
+            opRes = opResSet.getResult(spec);
+            if (opRes == null) {
+                enc.writeByte(RESULT_ABSENT);
+            } else if (spec instanceof ReadOpSpecDefault) {
+                enc.writeByte(RESULT_READ);
+                enc.writeReadResult((ReadOpResult) opRes);
+            } else if (spec instanceof WriteOpSpecDefault) {
+                enc.writeByte(RESULT_WRITE);
+                enc.writeWriteResult((WriteOpResult) opRes);
+            } else {
+                throw new IllegalArgumentException("Cannot encode result of operation type: "
+                                                   + spec.getClass().getName());
+            }
+        }
+        bufOut.flush();
+    }
+    public static void encode(final OpResultSet opResSet, final List<? extends OperationSpec<?>> specs, final OutputStream out) throws IllegalArgumentException, IOException {
+        encode(opResSet, specs, out, true);
+    }
+
+    /**
+     * Decode a result set encoded by {@link #encode(OpResultSet, List, OutputStream, boolean)}.
+     * @param specs the specs supplied to encode the result set, in the same order
+     * @param in the stream from which to read; should be buffered
+     * @return the decoded result set
+     * @throws IOException if the stream cannot be read, or does not hold an encoded result set
+     * compatible with the given specs
+     */
+    public static OpResultSet decode(final List<? extends OperationSpec<?>> specs, final InputStream in) throws IOException {
+        final Decoder dec;
+        final OpResultSet opResSet;
+        final int specCount;
+        OperationSpec<?> spec;
+        int resultType;
+
+        Util.ensureNotNull(specs, "decode", "specs", List.class);
+        Util.ensureNotNull(in, "decode", "in", InputStream.class);
+        dec = new Decoder(in);
+        dec.readHeader(PAYLOAD_RESULT_SET);
+        specCount = dec.readVarInt();
+        if (specCount != specs.size()) {
+            throw new IOException("Encoded result set holds "
+                                  + specCount
+                                  + " operation(s), but "
+                                  + specs.size()
+                                  + " spec(s) were supplied");
+        }
+        opResSet = new OpResultSet();
+        for (int specIndex = 0; specIndex < specCount; specIndex++) {
+            spec = specs.get(specIndex);
+            resultType = dec.readByte();
+            if ((resultType == RESULT_READ) && (spec instanceof ReadOpSpecDefault)) {
+                opResSet.storeResult((ReadOpSpecDefault) spec,
+                                     dec.readReadResult((ReadOpSpecDefault) spec));
+            } else if ((resultType == RESULT_WRITE) && (spec instanceof WriteOpSpecDefault)) {
+                opResSet.storeResult((WriteOpSpecDefault) spec,
+                                     dec.readWriteResult((WriteOpSpecDefault) spec));
+            } else if (resultType != RESULT_ABSENT) {
+                throw new IOException("Encoded result #"
+                                      + specIndex
+                                      + " does not match the type of spec: "
+                                      + spec);
+            }
+        }
+        return opResSet;
+    }
+    public static OpResultSet decode(final List<? extends OperationSpec<?>> specs, final ByteBuffer buffer) throws IOException {
+        Util.ensureNotNull(buffer, "decode", "buffer", ByteBuffer.class);
+        return decode(specs, new ByteBufferInput(buffer));
+    }
+
+    // ||----(result sets)-----------------------------------------------------------------------||
+}
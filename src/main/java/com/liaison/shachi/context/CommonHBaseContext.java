@@ -16,13 +16,29 @@
 package com.liaison.shachi.context;
 
 import com.liaison.javabasics.commons.Util;
+import com.liaison.javabasics.logging.JitLog;
 import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
 import com.liaison.shachi.context.async.AsyncConfig;
 import com.liaison.shachi.context.async.AsyncConfigDefault;
+import com.liaison.shachi.context.batch.MicroBatchPolicy;
+import com.liaison.shachi.context.breaker.CircuitBreakerPolicy;
+import com.liaison.shachi.context.hedge.HedgingPolicy;
+import com.liaison.shachi.context.pool.ResourcePoolPolicy;
 import com.liaison.shachi.resmgr.ResourceConnectTolerance;
+import com.liaison.shachi.resmgr.VerifiedTableRegistry;
+import com.liaison.shachi.resmgr.metrics.JmxResourceMetricsRegistry;
+import com.liaison.shachi.resmgr.metrics.ResourceMetricsRegistry;
 import com.liaison.shachi.util.AbstractSelfRefBuilder;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.HConnection;
+import org.apache.hadoop.hbase.client.HConnectionManager;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.util.Threads;
 
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 public abstract class CommonHBaseContext implements HBaseContext {
@@ -30,9 +46,15 @@ public abstract class CommonHBaseContext implements HBaseContext {
     protected abstract static class AbstractHBaseContextBuilder<T, B extends AbstractSelfRefBuilder<T, B>> extends AbstractSelfRefBuilder<T, B> {
         private Object id;
         private AsyncConfig asyncConfig;
+        private HedgingPolicy hedgingPolicy;
+        private MicroBatchPolicy microBatchPolicy;
+        private CircuitBreakerPolicy circuitBreakerPolicy;
+        private ResourcePoolPolicy resourcePoolPolicy;
+        private ResourceMetricsRegistry resourceMetricsRegistry;
         private ResourceConnectTolerance resConnTol;
         private DefensiveCopyStrategy defensiveCopyStrategy;
         private Boolean createAbsentTables;
+        private Boolean coalesceReads;
         private TableNamingStrategy tableNamingStrategy;
         private Supplier<Configuration> configProvider;
 
@@ -44,6 +66,29 @@ public abstract class CommonHBaseContext implements HBaseContext {
             this.asyncConfig = asyncConfig;
             return self();
         }
+        public B hedgingPolicy(final HedgingPolicy hedgingPolicy) {
+            this.hedgingPolicy = hedgingPolicy;
+            return self();
+        }
+        public B microBatchPolicy(final MicroBatchPolicy microBatchPolicy) {
+            this.microBatchPolicy = microBatchPolicy;
+            return self();
+        }
+        public B circuitBreakerPolicy(final CircuitBreakerPolicy circuitBreakerPolicy) {
+            this.circuitBreakerPolicy = circuitBreakerPolicy;
+            return self();
+        }
+        public B resourcePoolPolicy(final ResourcePoolPolicy resourcePoolPolicy) {
+            this.resourcePoolPolicy = resourcePoolPolicy;
+            return self();
+        }
+        /**
+         * Publish resource pool metrics to the given registry, rather than to JMX (the default).
+         */
+        public B resourceMetricsRegistry(final ResourceMetricsRegistry resourceMetricsRegistry) {
+            this.resourceMetricsRegistry = resourceMetricsRegistry;
+            return self();
+        }
         public B resourceConnectTolerance(final ResourceConnectTolerance resConnTol) {
             this.resConnTol = resConnTol;
             return self();
@@ -52,6 +97,14 @@ public abstract class CommonHBaseContext implements HBaseContext {
             this.createAbsentTables = Boolean.valueOf(createAbsentTables);
             return self();
         }
+        /**
+         * Enable single-flight coalescing of identical concurrent READs (see
+         * {@link com.liaison.shachi.exec.ReadCoalescer}).
+         */
+        public B coalesceReads(final boolean coalesceReads) {
+            this.coalesceReads = Boolean.valueOf(coalesceReads);
+            return self();
+        }
         public B defensiveCopyStrategy(final DefensiveCopyStrategy defensiveCopyStrategy) {
             this.defensiveCopyStrategy = defensiveCopyStrategy;
             return self();
@@ -67,9 +120,15 @@ public abstract class CommonHBaseContext implements HBaseContext {
         protected AbstractHBaseContextBuilder() {
             this.id = null;
             this.asyncConfig = null;
+            this.hedgingPolicy = null;
+            this.microBatchPolicy = null;
+            this.circuitBreakerPolicy = null;
+            this.resourcePoolPolicy = null;
+            this.resourceMetricsRegistry = null;
             this.resConnTol = null;
             this.defensiveCopyStrategy = null;
             this.createAbsentTables = null;
+            this.coalesceReads = null;
             this.tableNamingStrategy = null;
             this.configProvider = null;
         }
@@ -78,14 +137,50 @@ public abstract class CommonHBaseContext implements HBaseContext {
     public static final DefensiveCopyStrategy DEFAULT_DEFENSIVE_COPY_STRATEGY = 
         DefensiveCopyStrategy.ALWAYS;
     public static final boolean DEFAULT_CREATE_ABSENT_TABLES = true;
+    public static final boolean DEFAULT_COALESCE_READS = false;
+    
+    /**
+     * Configuration key for the maximum size of the batch thread pool shared by all tables of the
+     * shared connection (the same key, and default, used by HBase when a connection creates its
+     * own pool).
+     */
+    public static final String CONFIGKEY_BATCHPOOL_MAXTHREADS = "hbase.hconnection.threads.max";
+    public static final int DEFAULT_BATCHPOOL_MAXTHREADS = 256;
+    private static final long BATCHPOOL_KEEPALIVE_SECONDS = 60L;
+    
+    private static final JitLog LOG = new JitLog(CommonHBaseContext.class);
+    
+    /**
+     * A connection together with the batch thread pool given to it (and to its tables); both are
+     * established, and closed, together.
+     */
+    private static final class SharedConnection {
+        private final HConnection connection;
+        private final ExecutorService batchPool;
+        private SharedConnection(final HConnection connection, final ExecutorService batchPool) {
+            this.connection = connection;
+            this.batchPool = batchPool;
+        }
+    }
     
     private final Object id;
     private final AsyncConfig asyncConfig;
+    private final HedgingPolicy hedgingPolicy;
+    private final MicroBatchPolicy microBatchPolicy;
+    private final CircuitBreakerPolicy circuitBreakerPolicy;
+    private final ResourcePoolPolicy resourcePoolPolicy;
+    private final ResourceMetricsRegistry resourceMetricsRegistry;
     private final ResourceConnectTolerance resConnTol;
     private final DefensiveCopyStrategy defensiveCopyStrategy;
     private final boolean createAbsentTables;
+    private final boolean coalesceReads;
     private final TableNamingStrategy tableNamingStrategy;
     private final Supplier<Configuration> configProvider;
+    private final VerifiedTableRegistry verifiedTableRegistry;
+    private final Object connectionLock;
+    private volatile SharedConnection sharedConnection;
+    private int connectionUsers;
+    private volatile long connectionGeneration;
     
     protected abstract TableNamingStrategy getDefaultTableNamingStrategy();
     
@@ -98,6 +193,26 @@ public abstract class CommonHBaseContext implements HBaseContext {
         return this.asyncConfig;
     }
     @Override
+    public HedgingPolicy getHedgingPolicy() {
+        return this.hedgingPolicy;
+    }
+    @Override
+    public MicroBatchPolicy getMicroBatchPolicy() {
+        return this.microBatchPolicy;
+    }
+    @Override
+    public CircuitBreakerPolicy getCircuitBreakerPolicy() {
+        return this.circuitBreakerPolicy;
+    }
+    @Override
+    public ResourcePoolPolicy getResourcePoolPolicy() {
+        return this.resourcePoolPolicy;
+    }
+    @Override
+    public ResourceMetricsRegistry getResourceMetricsRegistry() {
+        return this.resourceMetricsRegistry;
+    }
+    @Override
     public ResourceConnectTolerance getResourceConnectTolerance() {
         return this.resConnTol;
     }
@@ -114,15 +229,166 @@ public abstract class CommonHBaseContext implements HBaseContext {
         return this.createAbsentTables;
     }
     @Override
+    public boolean doCoalesceReads() {
+        return this.coalesceReads;
+    }
+    @Override
+    public VerifiedTableRegistry getVerifiedTableRegistry() {
+        return this.verifiedTableRegistry;
+    }
+    @Override
     public Configuration getHBaseConfiguration() {
         return this.configProvider.get();
     }
     
+    /**
+     * Establish a new connection, to be shared by all table handles obtained via this context.
+     * @param config
+     * @param batchPool the thread pool to be used by the connection (and its tables) for batch
+     * operations
+     * @return the new connection
+     * @throws IOException if the connection cannot be established
+     */
+    protected HConnection createConnection(final Configuration config, final ExecutorService batchPool) throws IOException {
+        return HConnectionManager.createConnection(config, batchPool);
+    }
+    
+    /**
+     * Obtain the shared connection and its batch pool, establishing them if this is the first
+     * use (or the previous connection was closed).
+     * @return
+     * @throws IOException
+     */
+    private SharedConnection obtainSharedConnection() throws IOException {
+        SharedConnection shared;
+        final Configuration config;
+        final ExecutorService batchPool;
+        
+        shared = this.sharedConnection;
+        if ((shared != null) && (!shared.connection.isClosed())) {
+            return shared;
+        }
+        synchronized (this.connectionLock) {
+            shared = this.sharedConnection;
+            if ((shared == null) || (shared.connection.isClosed())) {
+                if (shared != null) {
+                    // closed externally; handles built from it must not be reused
+                    shared.batchPool.shutdown();
+                    this.connectionGeneration++;
+                }
+                config = getHBaseConfiguration();
+                batchPool =
+                    Threads.getBoundedCachedThreadPool(
+                        config.getInt(CONFIGKEY_BATCHPOOL_MAXTHREADS, DEFAULT_BATCHPOOL_MAXTHREADS),
+                        BATCHPOOL_KEEPALIVE_SECONDS,
+                        TimeUnit.SECONDS,
+                        Threads.newDaemonThreadFactory("shachi-" + this.id + "-batch"));
+                try {
+                    shared = new SharedConnection(createConnection(config, batchPool), batchPool);
+                } catch (IOException | RuntimeException exc) {
+                    batchPool.shutdown();
+                    throw exc;
+                }
+                this.sharedConnection = shared;
+            }
+        }
+        return shared;
+    }
+    @Override
+    public HConnection getConnection() throws IOException {
+        return obtainSharedConnection().connection;
+    }
+    @Override
+    public HTable buildTable(final byte[] tableName) throws IOException {
+        final SharedConnection shared;
+        shared = obtainSharedConnection();
+        /*
+         * Equivalent to HConnection#getTable, but retaining the HTable type (which is what the
+         * resource managers pool) rather than HTableInterface.
+         */
+        return new HTable(TableName.valueOf(tableName), shared.connection, shared.batchPool);
+    }
+    /**
+     * Detach the shared connection (if established) so that no further handles are built from
+     * it, advancing the connection generation. Must be called while holding the connection lock.
+     * @return the detached connection, or null if none was established
+     */
+    private SharedConnection detachConnection() {
+        final SharedConnection shared;
+        shared = this.sharedConnection;
+        this.sharedConnection = null;
+        if (shared != null) {
+            this.connectionGeneration++;
+        }
+        return shared;
+    }
+    /**
+     * Close a connection detached by {@link #detachConnection()}, and its batch pool.
+     * @param shared the detached connection, or null
+     */
+    private void closeDetached(final SharedConnection shared) {
+        final String logMsg;
+        if (shared != null) {
+            try {
+                shared.connection.close();
+            } catch (IOException ioExc) {
+                // nothing further can be done with the connection, but do not fail silently
+                logMsg = "Failed to close the shared connection for context with ID '"
+                         + this.id
+                         + "'; "
+                         + ioExc.toString();
+                LOG.error(logMsg, ioExc);
+            } finally {
+                shared.batchPool.shutdown();
+            }
+        }
+    }
+    @Override
+    public void closeConnection() {
+        final SharedConnection shared;
+        synchronized (this.connectionLock) {
+            shared = detachConnection();
+        }
+        closeDetached(shared);
+    }
+    @Override
+    public void retainConnection() {
+        synchronized (this.connectionLock) {
+            this.connectionUsers++;
+        }
+    }
+    @Override
+    public boolean releaseConnection() {
+        final SharedConnection shared;
+        synchronized (this.connectionLock) {
+            if (this.connectionUsers <= 0) {
+                // unbalanced release; the connection is left to its remaining (unregistered) users
+                return false;
+            }
+            this.connectionUsers--;
+            if (this.connectionUsers > 0) {
+                return false;
+            }
+            shared = detachConnection();
+        }
+        closeDetached(shared);
+        return true;
+    }
+    @Override
+    public long getConnectionGeneration() {
+        return this.connectionGeneration;
+    }
+    
     protected CommonHBaseContext(final AbstractHBaseContextBuilder<?,?> build) {
         Util.ensureNotNull(build.id, this, "id");
         this.id = build.id;
         Util.ensureNotNull(build.configProvider, this, "configProvider", Supplier.class);
         this.configProvider = build.configProvider;
+        this.verifiedTableRegistry = new VerifiedTableRegistry();
+        this.connectionLock = new Object();
+        this.sharedConnection = null;
+        this.connectionUsers = 0;
+        this.connectionGeneration = 0L;
         
         // Asynchronous execution is disabled by default
         if (build.asyncConfig == null) {
@@ -130,6 +396,37 @@ public abstract class CommonHBaseContext implements HBaseContext {
         } else {
             this.asyncConfig = build.asyncConfig;
         }
+
+        if (build.hedgingPolicy == null) {
+            this.hedgingPolicy = ContextDefaults.HEDGING_POLICY;
+        } else {
+            this.hedgingPolicy = build.hedgingPolicy;
+        }
+
+        if (build.microBatchPolicy == null) {
+            this.microBatchPolicy = ContextDefaults.MICRO_BATCH_POLICY;
+        } else {
+            this.microBatchPolicy = build.microBatchPolicy;
+        }
+
+        if (build.circuitBreakerPolicy == null) {
+            this.circuitBreakerPolicy = ContextDefaults.CIRCUIT_BREAKER_POLICY;
+        } else {
+            this.circuitBreakerPolicy = build.circuitBreakerPolicy;
+        }
+
+        if (build.resourcePoolPolicy == null) {
+            this.resourcePoolPolicy = ContextDefaults.RESOURCE_POOL_POLICY;
+        } else {
+            this.resourcePoolPolicy = build.resourcePoolPolicy;
+        }
+
+        // Pool metrics are published via JMX by default
+        if (build.resourceMetricsRegistry == null) {
+            this.resourceMetricsRegistry = JmxResourceMetricsRegistry.INSTANCE;
+        } else {
+            this.resourceMetricsRegistry = build.resourceMetricsRegistry;
+        }
         
         if (build.resConnTol == null) {
             this.resConnTol = ResourceConnectTolerance.DEFAULT;
@@ -151,5 +448,10 @@ public abstract class CommonHBaseContext implements HBaseContext {
         } else {
             this.createAbsentTables = build.createAbsentTables.booleanValue();
         }
+        if (build.coalesceReads == null) {
+            this.coalesceReads = DEFAULT_COALESCE_READS;
+        } else {
+            this.coalesceReads = build.coalesceReads.booleanValue();
+        }
     }
 }
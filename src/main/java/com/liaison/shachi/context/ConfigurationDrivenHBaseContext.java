@@ -27,7 +27,8 @@ import java.io.IOException;
 public abstract class ConfigurationDrivenHBaseContext extends CommonHBaseContext {
 
     public HBaseAdmin buildAdmin() throws IOException {
-        return new HBaseAdmin(getHBaseConfiguration());
+        // an admin built on the shared connection does not close it when the admin is closed
+        return new HBaseAdmin(getConnection());
     }
     protected ConfigurationDrivenHBaseContext(AbstractHBaseContextBuilder<?, ?> build) {
         super(build);
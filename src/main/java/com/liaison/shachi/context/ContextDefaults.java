@@ -0,0 +1,47 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.context;
+
+import com.liaison.shachi.context.batch.MicroBatchPolicy;
+import com.liaison.shachi.context.batch.MicroBatchPolicyDefault;
+import com.liaison.shachi.context.breaker.CircuitBreakerPolicy;
+import com.liaison.shachi.context.breaker.CircuitBreakerPolicyDefault;
+import com.liaison.shachi.context.hedge.HedgingPolicy;
+import com.liaison.shachi.context.hedge.HedgingPolicyDefault;
+import com.liaison.shachi.context.pool.ResourcePoolPolicy;
+import com.liaison.shachi.context.pool.ResourcePoolPolicyDefault;
+
+/**
+ * Policies in effect for a context which does not specify its own: those of
+ * {@link CommonHBaseContext}, and of the default methods of {@link HBaseContext}.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+final class ContextDefaults {
+
+    // Hedged reads are disabled by default
+    static final HedgingPolicy HEDGING_POLICY =
+        HedgingPolicyDefault.getBuilder().disabled().build();
+    // Micro-batching is disabled by default
+    static final MicroBatchPolicy MICRO_BATCH_POLICY =
+        MicroBatchPolicyDefault.getBuilder().disabled().build();
+    // Circuit breaking is disabled by default
+    static final CircuitBreakerPolicy CIRCUIT_BREAKER_POLICY =
+        CircuitBreakerPolicyDefault.getBuilder().disabled().build();
+    static final ResourcePoolPolicy RESOURCE_POOL_POLICY =
+        ResourcePoolPolicyDefault.getBuilder().build();
+
+    private ContextDefaults() { }
+}
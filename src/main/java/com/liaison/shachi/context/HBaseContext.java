@@ -17,19 +17,152 @@ package com.liaison.shachi.context;
 
 import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
 import com.liaison.shachi.context.async.AsyncConfig;
+import com.liaison.shachi.context.batch.MicroBatchPolicy;
+import com.liaison.shachi.context.breaker.CircuitBreakerPolicy;
+import com.liaison.shachi.context.hedge.HedgingPolicy;
+import com.liaison.shachi.context.pool.ResourcePoolPolicy;
 import com.liaison.shachi.resmgr.ResourceConnectTolerance;
+import com.liaison.shachi.resmgr.VerifiedTableRegistry;
+import com.liaison.shachi.resmgr.metrics.JmxResourceMetricsRegistry;
+import com.liaison.shachi.resmgr.metrics.ResourceMetricsRegistry;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.client.HBaseAdmin;
+import org.apache.hadoop.hbase.client.HConnection;
+import org.apache.hadoop.hbase.client.HConnectionManager;
+import org.apache.hadoop.hbase.client.HTable;
 
 import java.io.IOException;
 
+/**
+ * Configuration, and the means of connecting to HBase, for the operations of an HBaseControl.
+ * Methods added since the original definition of this interface have default implementations
+ * which preserve the prior behavior (and match the defaults of {@link CommonHBaseContext}), so
+ * that existing implementations need not be changed.
+ */
 public interface HBaseContext {
     Object getId();
     AsyncConfig getAsyncConfig();    
+    /**
+     * @return hedged-read configuration for this context; by default, hedging is disabled
+     */
+    default HedgingPolicy getHedgingPolicy() {
+        return ContextDefaults.HEDGING_POLICY;
+    }
+    /**
+     * @return micro-batching configuration for this context; by default, micro-batching is
+     * disabled
+     */
+    default MicroBatchPolicy getMicroBatchPolicy() {
+        return ContextDefaults.MICRO_BATCH_POLICY;
+    }
+    /**
+     * Configuration for the per-table circuit breakers which fail operations fast while a table
+     * is unhealthy, rather than waiting for resource acquisition and client retries to time out.
+     * By default, circuit breaking is disabled.
+     * @return circuit breaker configuration for this context
+     */
+    default CircuitBreakerPolicy getCircuitBreakerPolicy() {
+        return ContextDefaults.CIRCUIT_BREAKER_POLICY;
+    }
+    /**
+     * Sizing and timeouts for the resource pools maintained for this context by a pooling
+     * resource manager; individual tables may override the sizing via their model. By default,
+     * the default sizing and timeouts of {@link com.liaison.shachi.context.pool.ResourcePoolPolicyDefault}.
+     * @return resource pool configuration for this context
+     */
+    default ResourcePoolPolicy getResourcePoolPolicy() {
+        return ContextDefaults.RESOURCE_POOL_POLICY;
+    }
+    /**
+     * The registry to which the metrics of each resource pool created for this context are
+     * published; by default, JMX.
+     * @return resource metrics registry, or null if pool metrics are not published
+     */
+    default ResourceMetricsRegistry getResourceMetricsRegistry() {
+        return JmxResourceMetricsRegistry.INSTANCE;
+    }
     ResourceConnectTolerance getResourceConnectTolerance();
     Configuration getHBaseConfiguration();
     DefensiveCopyStrategy getDefensiveCopyStrategy();
     TableNamingStrategy getTableNamingStrategy();
     boolean doCreateAbsentTables();
+    /**
+     * @return true if identical concurrent READs are coalesced into a single request; by default,
+     * false
+     */
+    default boolean doCoalesceReads() {
+        return CommonHBaseContext.DEFAULT_COALESCE_READS;
+    }
+    /**
+     * The registry of tables already verified to exist (or created) via this context, so that the
+     * existence check is performed once per table rather than for every new table resource. The
+     * default implementation returns a new (empty) registry on each call, so that every table
+     * resource is verified as it is built, as before the registry was introduced.
+     * @return the verified-table registry for this context
+     */
+    default VerifiedTableRegistry getVerifiedTableRegistry() {
+        return new VerifiedTableRegistry();
+    }
     HBaseAdmin buildAdmin()  throws IOException;
+    /**
+     * The HBase connection (ZooKeeper session, region location cache, RPC clients) shared by all
+     * table handles obtained via this context, established upon first use. The default
+     * implementation returns the connection which the HBase client manages (and shares) per
+     * configuration, as used by table handles built directly from a configuration.
+     * @return the shared connection
+     * @throws IOException if the connection cannot be established
+     */
+    @SuppressWarnings("deprecation")
+    default HConnection getConnection() throws IOException {
+        return HConnectionManager.getConnection(getHBaseConfiguration());
+    }
+    /**
+     * Obtain a lightweight handle for the table with the given (fully-generated) name, backed by
+     * the shared connection (see {@link #getConnection()}). Closing the handle does not close the
+     * shared connection. The default implementation builds the handle from the configuration of
+     * this context, i.e. upon the connection managed by the HBase client for that configuration.
+     * @param tableName
+     * @return a new handle for the table
+     * @throws IOException
+     */
+    default HTable buildTable(final byte[] tableName) throws IOException {
+        return new HTable(getHBaseConfiguration(), tableName);
+    }
+    /**
+     * Close the shared connection and its batch thread pool, if established, regardless of how
+     * many users have registered with {@link #retainConnection()}. Any table handles obtained
+     * from it become unusable; a subsequent call to {@link #getConnection()} establishes a new
+     * connection. The default implementation does nothing, as the connection managed by the HBase
+     * client is not owned by this context.
+     */
+    default void closeConnection() {
+        // provide a default implementation which does nothing
+    }
+    /**
+     * Register a user (e.g. an HBaseControl) of the shared connection. The connection is closed
+     * when the last registered user calls {@link #releaseConnection()}. Does not itself establish
+     * the connection. The default implementation does nothing.
+     */
+    default void retainConnection() {
+        // provide a default implementation which does nothing
+    }
+    /**
+     * Deregister a user previously registered via {@link #retainConnection()}, closing the
+     * shared connection (as {@link #closeConnection()}) if no registered users remain.
+     * @return true if no registered users remain (the shared connection, if established, having
+     * been closed); the default implementation, which closes no connection, returns false
+     */
+    default boolean releaseConnection() {
+        return false;
+    }
+    /**
+     * A counter identifying the shared connection, which changes each time the connection is
+     * closed; a table or admin handle built when the generation differed from the current
+     * generation may refer to a closed connection, and should be discarded rather than reused.
+     * @return the current connection generation; by default, always 0, as the default
+     * implementation never closes the connection
+     */
+    default long getConnectionGeneration() {
+        return 0L;
+    }
 }
@@ -62,6 +62,23 @@ public interface AsyncConfig {
      * <strong>may be null</strong>, per the rules indicated above (null is equivalent to zero).
      */
     Integer getAsyncPoolMaxSize();
+    /**
+     * The number of serial lanes on which asynchronous operation chains containing WRITEs are
+     * executed, in order to guarantee that WRITEs to the same row apply in the order in which they
+     * were submitted. Each row (table plus literalized row key) hashes onto exactly one lane; the
+     * chains on a given lane execute one at a time, in submission order, while chains on different
+     * lanes execute in parallel. Chains which contain no WRITEs are unaffected, and execute in the
+     * asynchronous thread pool as usual. Must return one of the following:
+     * <ul>
+     * <li><strong>0</strong>: Ordered WRITE lanes are disabled; all asynchronous chains execute
+     * in the asynchronous thread pool, which offers no ordering guarantee.</li>
+     * <li><strong>positive integer</strong>: The number of lanes (each of which is backed by a
+     * single dedicated thread, in addition to the asynchronous thread pool).</li>
+     * </ul>
+     * Ignored if {@link #isAsyncEnabled()} returns false.
+     * @return the number of ordered WRITE lanes, or 0 if ordered WRITE lanes are disabled
+     */
+    int getWriteLaneCount();
     int getMinSizeForThreadPool();
     int getMaxSizeForThreadPool();
 }
@@ -26,6 +26,7 @@ public class AsyncConfigDefault implements AsyncConfig {
         private boolean asyncEnabled;
         private Integer asyncPoolMinSize;
         private Integer asyncPoolMaxSize;
+        private Integer writeLaneCount;
         public Builder enabled() {
             this.asyncEnabled = true;
             return this;
@@ -42,6 +43,13 @@ public class AsyncConfigDefault implements AsyncConfig {
             this.asyncPoolMaxSize = Integer.valueOf(asyncPoolMaxSize);
             return this;
         }
+        public Builder orderedWriteLanes(final int writeLaneCount) {
+            this.writeLaneCount = Integer.valueOf(writeLaneCount);
+            return this;
+        }
+        public Builder orderedWrites() {
+            return orderedWriteLanes(Runtime.getRuntime().availableProcessors());
+        }
         public AsyncConfigDefault build() {
             return new AsyncConfigDefault(this);
         }
@@ -49,6 +57,7 @@ public class AsyncConfigDefault implements AsyncConfig {
             this.asyncEnabled = false;
             this.asyncPoolMinSize = null;
             this.asyncPoolMaxSize = null;
+            this.writeLaneCount = null;
         }
     }
     
@@ -59,6 +68,7 @@ public class AsyncConfigDefault implements AsyncConfig {
     private final boolean asyncEnabled;
     private final Integer asyncPoolMinSize;
     private final Integer asyncPoolMaxSize;
+    private final int writeLaneCount;
     
     private Integer hc;
     private String strRep;
@@ -76,6 +86,10 @@ public class AsyncConfigDefault implements AsyncConfig {
         return this.asyncPoolMaxSize;
     }
     @Override
+    public int getWriteLaneCount() {
+        return this.writeLaneCount;
+    }
+    @Override
     public int getMinSizeForThreadPool() {
         return (this.asyncPoolMinSize == null)?0:this.asyncPoolMinSize.intValue();
     }
@@ -94,7 +108,8 @@ public class AsyncConfigDefault implements AsyncConfig {
             otherAsyncConf = (AsyncConfig) otherObj;
             return ((this.asyncEnabled == otherAsyncConf.isAsyncEnabled())
                     && (getMinSizeForThreadPool() == otherAsyncConf.getMinSizeForThreadPool())
-                    && (getMaxSizeForThreadPool() == otherAsyncConf.getMaxSizeForThreadPool()));
+                    && (getMaxSizeForThreadPool() == otherAsyncConf.getMaxSizeForThreadPool())
+                    && (this.writeLaneCount == otherAsyncConf.getWriteLaneCount()));
         }
         return false;
     }
@@ -105,6 +120,7 @@ public class AsyncConfigDefault implements AsyncConfig {
             hCode = Boolean.hashCode(this.asyncEnabled);
             hCode ^= getMinSizeForThreadPool();
             hCode ^= getMaxSizeForThreadPool();
+            hCode ^= (31 * this.writeLaneCount);
             this.hc = Integer.valueOf(hCode);
         }
         return this.hc.intValue();
@@ -125,6 +141,10 @@ public class AsyncConfigDefault implements AsyncConfig {
                 } else {
                     strGen.append(this.asyncPoolMaxSize);
                 }
+                if (this.writeLaneCount > 0) {
+                    strGen.append(",write-lanes=");
+                    strGen.append(this.writeLaneCount);
+                }
                 strGen.append(")");
             } else {
                 strGen.append("DISABLED");
@@ -164,9 +184,19 @@ public class AsyncConfigDefault implements AsyncConfig {
                          + this.asyncPoolMaxSize;
                 throw new IllegalArgumentException(logMsg);
             }
+            if (build.writeLaneCount == null) {
+                this.writeLaneCount = 0;
+            } else if (build.writeLaneCount.intValue() < 0) {
+                logMsg = "Ordered write lane count must be non-negative for async-enabled; was: "
+                         + build.writeLaneCount;
+                throw new IllegalArgumentException(logMsg);
+            } else {
+                this.writeLaneCount = build.writeLaneCount.intValue();
+            }
         } else {
             this.asyncPoolMaxSize = null;
             this.asyncPoolMinSize = null;
+            this.writeLaneCount = 0;
         }
     }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.context.batch;
+
+/**
+ * Configuration governing whether (and how) operations submitted concurrently from many threads
+ * are <em>micro-batched</em>: rather than each issuing its own RPC, READs and unconditional WRITEs
+ * arriving at about the same time are collected per table and sent to HBase together as a single
+ * batch call, after which each caller receives its own result.
+ * <br><br>
+ * The collection window adapts to load. A batch is sent immediately if the previous batch for the
+ * same table contained only a single operation (i.e. at low load, no latency is added); as load
+ * rises, the window grows towards {@link #getMaxDelayMicros()} in proportion to the size of the
+ * previous batch relative to {@link #getMaxBatchSize()}. Operations also accumulate naturally
+ * while earlier batches are in flight.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public interface MicroBatchPolicy {
+    /**
+     * Indicates whether operations are micro-batched. Other settings are ignored if this returns
+     * false.
+     * @return true if micro-batching is enabled; false otherwise
+     */
+    boolean isMicroBatchingEnabled();
+    /**
+     * The maximum number of HBase actions (GETs, PUTs, and DELETEs) sent in a single batch call.
+     * Once this many actions are waiting, a batch is sent without waiting out the window. (The
+     * actions of a single operation are never split across batches, so a batch containing one
+     * large operation may exceed this size.)
+     * @return maximum batch size (actions)
+     */
+    int getMaxBatchSize();
+    /**
+     * The upper bound, in microseconds, on the time a batch waits for further operations to
+     * arrive before it is sent.
+     * @return maximum collection window (microseconds)
+     */
+    long getMaxDelayMicros();
+    /**
+     * The maximum number of batch calls which may be in flight concurrently against a single
+     * table.
+     * @return maximum concurrent batches per table
+     */
+    int getMaxConcurrentBatches();
+    /**
+     * Indicates whether each batch is partitioned by the region server hosting each action's row
+     * (per the region locations cached by the table handle), with each server's share of the
+     * batch sent as a separate call, in parallel. This bounds the number of calls in flight
+     * against any one server (see {@link #getMaxConcurrentPerServer()}), so that a slow server
+     * cannot absorb all of the batch capacity for a table.
+     * @return true if batches are partitioned by region server; false if each batch is sent as a
+     * single call
+     */
+    boolean isRegionAwareDispatch();
+    /**
+     * The maximum number of per-server sub-batch calls which may be in flight concurrently against
+     * a single region server, across all tables. Ignored unless {@link #isRegionAwareDispatch()}.
+     * @return maximum concurrent sub-batches per region server
+     */
+    int getMaxConcurrentPerServer();
+}
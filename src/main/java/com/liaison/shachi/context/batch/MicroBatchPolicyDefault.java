@@ -0,0 +1,209 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.context.batch;
+
+/**
+ * TODO
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public class MicroBatchPolicyDefault implements MicroBatchPolicy {
+
+    public static final class Builder {
+        private boolean microBatchingEnabled;
+        private Integer maxBatchSize;
+        private Long maxDelayMicros;
+        private Integer maxConcurrentBatches;
+        private boolean regionAwareDispatch;
+        private Integer maxConcurrentPerServer;
+        public Builder enabled() {
+            this.microBatchingEnabled = true;
+            return this;
+        }
+        public Builder disabled() {
+            this.microBatchingEnabled = false;
+            return this;
+        }
+        public Builder maxBatchSize(final int maxBatchSize) {
+            this.maxBatchSize = Integer.valueOf(maxBatchSize);
+            return this;
+        }
+        public Builder maxDelayMicros(final long maxDelayMicros) {
+            this.maxDelayMicros = Long.valueOf(maxDelayMicros);
+            return this;
+        }
+        public Builder maxConcurrentBatches(final int maxConcurrentBatches) {
+            this.maxConcurrentBatches = Integer.valueOf(maxConcurrentBatches);
+            return this;
+        }
+        public Builder regionAwareDispatch(final boolean regionAwareDispatch) {
+            this.regionAwareDispatch = regionAwareDispatch;
+            return this;
+        }
+        public Builder maxConcurrentPerServer(final int maxConcurrentPerServer) {
+            this.maxConcurrentPerServer = Integer.valueOf(maxConcurrentPerServer);
+            return this;
+        }
+        public MicroBatchPolicyDefault build() {
+            return new MicroBatchPolicyDefault(this);
+        }
+        private Builder() {
+            this.microBatchingEnabled = false;
+            this.maxBatchSize = null;
+            this.maxDelayMicros = null;
+            this.maxConcurrentBatches = null;
+            this.regionAwareDispatch = false;
+            this.maxConcurrentPerServer = null;
+        }
+    }
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 128;
+    public static final long DEFAULT_MAX_DELAY_MICROS = 500L;
+    public static final int DEFAULT_MAX_CONCURRENT_BATCHES = 4;
+    public static final int DEFAULT_MAX_CONCURRENT_PER_SERVER = 4;
+
+    public static Builder getBuilder() {
+        return new Builder();
+    }
+
+    private final boolean microBatchingEnabled;
+    private final int maxBatchSize;
+    private final long maxDelayMicros;
+    private final int maxConcurrentBatches;
+    private final boolean regionAwareDispatch;
+    private final int maxConcurrentPerServer;
+
+    private Integer hc;
+    private String strRep;
+
+    @Override
+    public boolean isMicroBatchingEnabled() {
+        return this.microBatchingEnabled;
+    }
+    @Override
+    public int getMaxBatchSize() {
+        return this.maxBatchSize;
+    }
+    @Override
+    public long getMaxDelayMicros() {
+        return this.maxDelayMicros;
+    }
+    @Override
+    public int getMaxConcurrentBatches() {
+        return this.maxConcurrentBatches;
+    }
+    @Override
+    public boolean isRegionAwareDispatch() {
+        return this.regionAwareDispatch;
+    }
+    @Override
+    public int getMaxConcurrentPerServer() {
+        return this.maxConcurrentPerServer;
+    }
+
+    @Override
+    public boolean equals(final Object otherObj) {
+        final MicroBatchPolicy otherPolicy;
+        if (this == otherObj) {
+            return true;
+        }
+        if (otherObj instanceof MicroBatchPolicy) {
+            otherPolicy = (MicroBatchPolicy) otherObj;
+            return ((this.microBatchingEnabled == otherPolicy.isMicroBatchingEnabled())
+                    && (this.maxBatchSize == otherPolicy.getMaxBatchSize())
+                    && (this.maxDelayMicros == otherPolicy.getMaxDelayMicros())
+                    && (this.maxConcurrentBatches == otherPolicy.getMaxConcurrentBatches())
+                    && (this.regionAwareDispatch == otherPolicy.isRegionAwareDispatch())
+                    && (this.maxConcurrentPerServer == otherPolicy.getMaxConcurrentPerServer()));
+        }
+        return false;
+    }
+    @Override
+    public int hashCode() {
+        int hCode;
+        if (this.hc == null) {
+            hCode = Boolean.hashCode(this.microBatchingEnabled);
+            hCode ^= this.maxBatchSize;
+            hCode ^= Long.hashCode(this.maxDelayMicros);
+            hCode ^= (31 * this.maxConcurrentBatches);
+            hCode ^= Boolean.hashCode(this.regionAwareDispatch);
+            hCode ^= (961 * this.maxConcurrentPerServer);
+            this.hc = Integer.valueOf(hCode);
+        }
+        return this.hc.intValue();
+    }
+    @Override
+    public String toString() {
+        final StringBuilder strGen;
+        if (this.strRep == null) {
+            strGen = new StringBuilder();
+            strGen.append(MicroBatchPolicy.class.getSimpleName());
+            strGen.append(":");
+            if (this.microBatchingEnabled) {
+                strGen.append("ENABLED:(max-batch=");
+                strGen.append(this.maxBatchSize);
+                strGen.append(",max-delay=");
+                strGen.append(this.maxDelayMicros);
+                strGen.append("us,max-concurrent=");
+                strGen.append(this.maxConcurrentBatches);
+                if (this.regionAwareDispatch) {
+                    strGen.append(",region-aware,max-per-server=");
+                    strGen.append(this.maxConcurrentPerServer);
+                }
+                strGen.append(")");
+            } else {
+                strGen.append("DISABLED");
+            }
+            this.strRep = strGen.toString();
+        }
+        return this.strRep;
+    }
+
+    private static int validatePositive(final Integer value, final int defaultValue, final String paramName) throws IllegalArgumentException {
+        final String logMsg;
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value.intValue() <= 0) {
+            logMsg = "Micro-batch policy parameter '"
+                     + paramName
+                     + "' must be at least 1; was: "
+                     + value;
+            throw new IllegalArgumentException(logMsg);
+        }
+        return value.intValue();
+    }
+
+    private MicroBatchPolicyDefault(final Builder build) throws IllegalArgumentException {
+        this.microBatchingEnabled = build.microBatchingEnabled;
+        this.maxBatchSize =
+            validatePositive(build.maxBatchSize, DEFAULT_MAX_BATCH_SIZE, "maxBatchSize");
+        this.maxConcurrentBatches =
+            validatePositive(build.maxConcurrentBatches,
+                             DEFAULT_MAX_CONCURRENT_BATCHES,
+                             "maxConcurrentBatches");
+        this.regionAwareDispatch = build.regionAwareDispatch;
+        this.maxConcurrentPerServer =
+            validatePositive(build.maxConcurrentPerServer,
+                             DEFAULT_MAX_CONCURRENT_PER_SERVER,
+                             "maxConcurrentPerServer");
+        // Assume that any negative delay is equivalent to zero (never wait for further operations)
+        if (build.maxDelayMicros == null) {
+            this.maxDelayMicros = DEFAULT_MAX_DELAY_MICROS;
+        } else {
+            this.maxDelayMicros = Math.max(0L, build.maxDelayMicros.longValue());
+        }
+    }
+}
@@ -0,0 +1,316 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.context.breaker;
+
+import com.liaison.javabasics.commons.Util;
+import com.liaison.shachi.model.TableModel;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker guarding the operations executed against a single table, following the states
+ * and transitions described by {@link CircuitBreakerPolicy}. Callers obtain permission via
+ * {@link #tryAcquirePermission()} before executing an operation, and report its outcome via
+ * exactly one of {@link #recordSuccess()}, {@link #recordFailure()}, or {@link #recordIgnored()}.
+ * <br><br>
+ * Outcomes are tallied over a tumbling window of {@link CircuitBreakerPolicy#getWindowSize()}
+ * operations using lock-free counters, so the failure rate observed under heavy concurrency is
+ * approximate; this is acceptable for the purpose of detecting an unhealthy table, and keeps the
+ * breaker off the critical path of every operation.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public final class CircuitBreaker {
+
+    /**
+     * Value of {@link #openedAtNanos} whenever the breaker is not known to have an open period in
+     * progress (including the brief interval after a thread has opened the breaker but before it
+     * has recorded when); an OPEN breaker with this value rejects operations.
+     */
+    private static final long NOT_OPENED = Long.MIN_VALUE;
+
+    public enum State {
+        /**
+         * Operations execute normally, and their outcomes are tallied.
+         */
+        CLOSED,
+        /**
+         * Operations are rejected without being attempted.
+         */
+        OPEN,
+        /**
+         * A limited number of trial operations are admitted to determine whether the table has
+         * recovered.
+         */
+        HALF_OPEN;
+    }
+
+    private final TableModel model;
+    private final CircuitBreakerPolicy policy;
+    private final CircuitBreakerListener listener;
+    private final long openDurationNanos;
+    private final AtomicReference<State> state;
+    private final AtomicInteger windowCalls;
+    private final AtomicInteger windowFailures;
+    private final AtomicInteger trialPermits;
+    private final AtomicInteger trialSuccesses;
+    private final AtomicLong openedCount;
+    private final AtomicLong rejectedCount;
+    private final AtomicLong openedAtNanos;
+
+    /**
+     * Change the breaker from the given state to the given state, if it is still in the former,
+     * and notify the listener if so.
+     * @param fromState
+     * @param toState
+     * @return true if this call performed the transition; false if the breaker had already left
+     * fromState
+     */
+    private boolean transition(final State fromState, final State toState) {
+        if (this.state.compareAndSet(fromState, toState)) {
+            if (this.listener != null) {
+                this.listener.onStateTransition(this, fromState, toState);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Open the breaker if it is currently in the given state. Only the thread which performs the
+     * transition withdraws the trial permits and records when the breaker opened, so that a thread
+     * arriving late (after another has already moved the breaker on) cannot disturb a period
+     * which it did not begin.
+     * @param fromState
+     */
+    private void trip(final State fromState) {
+        if (transition(fromState, State.OPEN)) {
+            this.trialPermits.set(0);
+            this.openedAtNanos.set(System.nanoTime());
+            this.openedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Move the breaker from OPEN to HALF_OPEN, if it is still in the open period which began at
+     * the given time. The open time is claimed first, so that exactly one thread ends each open
+     * period, and a thread which observed an earlier period cannot end a later one. Only that
+     * thread resets the trial counters, so that a thread arriving late (after the trial period has
+     * begun, and permits have been taken) cannot restore permits already used; as in
+     * {@link #transition(State, State)}, the listener is notified after the state has changed.
+     * @param openedAt the open time observed by the caller
+     */
+    private void halfOpen(final long openedAt) {
+        if (this.openedAtNanos.compareAndSet(openedAt, NOT_OPENED)
+            && this.state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            this.trialSuccesses.set(0);
+            this.trialPermits.set(this.policy.getHalfOpenTrialCalls());
+            if (this.listener != null) {
+                this.listener.onStateTransition(this, State.OPEN, State.HALF_OPEN);
+            }
+        }
+    }
+
+    private void resetWindow() {
+        this.windowCalls.set(0);
+        this.windowFailures.set(0);
+    }
+
+    private void recordInWindow(final boolean failed) {
+        final int calls;
+        final int failures;
+        calls = this.windowCalls.incrementAndGet();
+        if (failed) {
+            failures = this.windowFailures.incrementAndGet();
+            if ((calls >= this.policy.getMinimumCalls())
+                && (failures >= (this.policy.getFailureRateThreshold() * calls))) {
+                trip(State.CLOSED);
+                return;
+            }
+        }
+        if ((calls >= this.policy.getWindowSize()) && (this.windowCalls.compareAndSet(calls, 0))) {
+            this.windowFailures.set(0);
+        }
+    }
+
+    /**
+     * Determine whether an operation against the table may be attempted. If the breaker is OPEN
+     * and the open duration has elapsed, it becomes HALF_OPEN, and this call may obtain one of the
+     * trial permits.
+     * @return true if the operation may proceed; false if it must be rejected
+     */
+    public boolean tryAcquirePermission() {
+        int permits;
+        long openedAt;
+        while (true) {
+            switch (this.state.get()) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                openedAt = this.openedAtNanos.get();
+                if ((openedAt == NOT_OPENED)
+                    || ((System.nanoTime() - openedAt) < this.openDurationNanos)) {
+                    this.rejectedCount.incrementAndGet();
+                    return false;
+                }
+                halfOpen(openedAt);
+                // whether or not this thread performed the transition, re-evaluate
+                break;
+            case HALF_OPEN:
+                do {
+                    permits = this.trialPermits.get();
+                    if (permits <= 0) {
+                        this.rejectedCount.incrementAndGet();
+                        return false;
+                    }
+                } while (!this.trialPermits.compareAndSet(permits, permits - 1));
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Record that a permitted operation completed successfully.
+     */
+    public void recordSuccess() {
+        switch (this.state.get()) {
+        case CLOSED:
+            recordInWindow(false);
+            break;
+        case HALF_OPEN:
+            if (this.trialSuccesses.incrementAndGet() >= this.policy.getHalfOpenTrialCalls()) {
+                resetWindow();
+                transition(State.HALF_OPEN, State.CLOSED);
+            }
+            break;
+        case OPEN:
+            // admitted before the breaker opened; has no bearing on the open period
+            break;
+        }
+    }
+
+    /**
+     * Record that a permitted operation failed in a manner indicating that the table or cluster
+     * is unhealthy.
+     */
+    public void recordFailure() {
+        switch (this.state.get()) {
+        case CLOSED:
+            recordInWindow(true);
+            break;
+        case HALF_OPEN:
+            trip(State.HALF_OPEN);
+            break;
+        case OPEN:
+            break;
+        }
+    }
+
+    /**
+     * Record that a permitted operation completed with an outcome which says nothing about the
+     * health of the table (e.g. its input was invalid, or it was interrupted). If the breaker is
+     * HALF_OPEN, the trial permit is returned so that another operation may take its place.
+     */
+    public void recordIgnored() {
+        int permits;
+        if (this.state.get() == State.HALF_OPEN) {
+            do {
+                permits = this.trialPermits.get();
+                if (permits >= this.policy.getHalfOpenTrialCalls()) {
+                    return;
+                }
+            } while (!this.trialPermits.compareAndSet(permits, permits + 1));
+        }
+    }
+
+    public TableModel getTable() {
+        return this.model;
+    }
+    public CircuitBreakerPolicy getPolicy() {
+        return this.policy;
+    }
+    public State getState() {
+        return this.state.get();
+    }
+    /**
+     * @return the number of times this breaker has opened
+     */
+    public long getOpenedCount() {
+        return this.openedCount.get();
+    }
+    /**
+     * @return the number of operations rejected because this breaker was OPEN or had no
+     * remaining HALF_OPEN trial permits
+     */
+    public long getRejectedCount() {
+        return this.rejectedCount.get();
+    }
+    /**
+     * @return the (approximate) failure rate within the current window, or 0.0 if no operations
+     * have been recorded within it
+     */
+    public double getFailureRate() {
+        final int calls;
+        calls = this.windowCalls.get();
+        if (calls <= 0) {
+            return 0.0;
+        }
+        return Math.min(1.0, ((double) this.windowFailures.get()) / calls);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder strGen;
+        strGen = new StringBuilder();
+        strGen.append(CircuitBreaker.class.getSimpleName());
+        strGen.append("(table=");
+        strGen.append(this.model.getName());
+        strGen.append(",state=");
+        strGen.append(this.state.get());
+        strGen.append(",failure-rate=");
+        strGen.append(getFailureRate());
+        strGen.append(",opened=");
+        strGen.append(this.openedCount.get());
+        strGen.append(",rejected=");
+        strGen.append(this.rejectedCount.get());
+        strGen.append(")");
+        return strGen.toString();
+    }
+
+    /**
+     * @param model the table guarded by this breaker
+     * @param policy the enabled policy governing this breaker
+     * @param listener listener notified of state transitions; may be null
+     */
+    public CircuitBreaker(final TableModel model, final CircuitBreakerPolicy policy, final CircuitBreakerListener listener) {
+        Util.ensureNotNull(model, this, "model", TableModel.class);
+        Util.ensureNotNull(policy, this, "policy", CircuitBreakerPolicy.class);
+        this.model = model;
+        this.policy = policy;
+        this.listener = listener;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(policy.getOpenDurationMillis());
+        this.state = new AtomicReference<>(State.CLOSED);
+        this.windowCalls = new AtomicInteger(0);
+        this.windowFailures = new AtomicInteger(0);
+        this.trialPermits = new AtomicInteger(0);
+        this.trialSuccesses = new AtomicInteger(0);
+        this.openedCount = new AtomicLong(0L);
+        this.rejectedCount = new AtomicLong(0L);
+        this.openedAtNanos = new AtomicLong(NOT_OPENED);
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.context.breaker;
+
+/**
+ * Receives notification each time a {@link CircuitBreaker} changes state, e.g. in order to raise
+ * an alert when a table's breaker opens, or to export breaker state to a monitoring system.
+ * Listeners are invoked synchronously on the thread whose operation caused the transition, so
+ * they should return quickly; a listener which throws does not affect the operation.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+@FunctionalInterface
+public interface CircuitBreakerListener {
+    /**
+     * Invoked after the given breaker has changed from one state to another.
+     * @param breaker the breaker which changed state
+     * @param fromState the state prior to the transition
+     * @param toState the state after the transition
+     */
+    void onStateTransition(CircuitBreaker breaker, CircuitBreaker.State fromState, CircuitBreaker.State toState);
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.context.breaker;
+
+/**
+ * Configuration governing the per-table circuit breakers maintained by
+ * {@link com.liaison.shachi.HBaseControl}. While a table's breaker is <em>closed</em>, operations
+ * execute normally and their outcomes are tallied; once the failure rate over a window of recent
+ * operations reaches the threshold, the breaker <em>opens</em>, and operations against the table
+ * fail immediately (without borrowing a table resource or contacting the cluster) until the open
+ * duration elapses. The breaker then becomes <em>half-open</em>, admitting a limited number of
+ * trial operations: if all succeed the breaker closes again, and if any fails it re-opens.
+ * <br><br>
+ * Only failures indicating that the cluster or connection is unhealthy count toward the failure
+ * rate: failure to acquire a table resource, I/O failure, and deadline expiration. Invalid input
+ * and interruption do not.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public interface CircuitBreakerPolicy {
+    /**
+     * Indicates whether operations governed by this policy are protected by a circuit breaker.
+     * Other settings are ignored if this returns false.
+     * @return true if circuit breaking is enabled; false otherwise
+     */
+    boolean isCircuitBreakingEnabled();
+    /**
+     * The failure rate (exclusive range 0.0 to 1.0) over the current window at or above which a
+     * closed breaker opens.
+     * @return failure rate threshold
+     */
+    double getFailureRateThreshold();
+    /**
+     * The number of operations which must be recorded within the current window before the
+     * failure rate is evaluated, so that a handful of early failures does not open the breaker.
+     * @return minimum number of operations per window before the breaker may open
+     */
+    int getMinimumCalls();
+    /**
+     * The number of operations after which the tallies for the current window are discarded and a
+     * new window begins.
+     * @return number of operations per window
+     */
+    int getWindowSize();
+    /**
+     * The time, in milliseconds, for which an open breaker rejects all operations before
+     * admitting trial operations.
+     * @return open duration (milliseconds)
+     */
+    long getOpenDurationMillis();
+    /**
+     * The number of trial operations admitted while the breaker is half-open; all must succeed
+     * for the breaker to close.
+     * @return number of half-open trial operations
+     */
+    int getHalfOpenTrialCalls();
+}
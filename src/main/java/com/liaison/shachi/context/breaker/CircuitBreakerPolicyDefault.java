@@ -0,0 +1,233 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.context.breaker;
+
+/**
+ * TODO
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public class CircuitBreakerPolicyDefault implements CircuitBreakerPolicy {
+
+    public static final class Builder {
+        private boolean circuitBreakingEnabled;
+        private Double failureRateThreshold;
+        private Integer minimumCalls;
+        private Integer windowSize;
+        private Long openDurationMillis;
+        private Integer halfOpenTrialCalls;
+        public Builder enabled() {
+            this.circuitBreakingEnabled = true;
+            return this;
+        }
+        public Builder disabled() {
+            this.circuitBreakingEnabled = false;
+            return this;
+        }
+        public Builder failureRateThreshold(final double failureRateThreshold) {
+            this.failureRateThreshold = Double.valueOf(failureRateThreshold);
+            return this;
+        }
+        public Builder minimumCalls(final int minimumCalls) {
+            this.minimumCalls = Integer.valueOf(minimumCalls);
+            return this;
+        }
+        public Builder windowSize(final int windowSize) {
+            this.windowSize = Integer.valueOf(windowSize);
+            return this;
+        }
+        public Builder openDurationMillis(final long openDurationMillis) {
+            this.openDurationMillis = Long.valueOf(openDurationMillis);
+            return this;
+        }
+        public Builder halfOpenTrialCalls(final int halfOpenTrialCalls) {
+            this.halfOpenTrialCalls = Integer.valueOf(halfOpenTrialCalls);
+            return this;
+        }
+        public CircuitBreakerPolicyDefault build() {
+            return new CircuitBreakerPolicyDefault(this);
+        }
+        private Builder() {
+            this.circuitBreakingEnabled = false;
+            this.failureRateThreshold = null;
+            this.minimumCalls = null;
+            this.windowSize = null;
+            this.openDurationMillis = null;
+            this.halfOpenTrialCalls = null;
+        }
+    }
+
+    public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+    public static final int DEFAULT_MINIMUM_CALLS = 20;
+    public static final int DEFAULT_WINDOW_SIZE = 100;
+    public static final long DEFAULT_OPEN_DURATION_MILLIS = 30000L;
+    public static final int DEFAULT_HALF_OPEN_TRIAL_CALLS = 3;
+
+    public static Builder getBuilder() {
+        return new Builder();
+    }
+
+    private final boolean circuitBreakingEnabled;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final int windowSize;
+    private final long openDurationMillis;
+    private final int halfOpenTrialCalls;
+
+    private Integer hc;
+    private String strRep;
+
+    @Override
+    public boolean isCircuitBreakingEnabled() {
+        return this.circuitBreakingEnabled;
+    }
+    @Override
+    public double getFailureRateThreshold() {
+        return this.failureRateThreshold;
+    }
+    @Override
+    public int getMinimumCalls() {
+        return this.minimumCalls;
+    }
+    @Override
+    public int getWindowSize() {
+        return this.windowSize;
+    }
+    @Override
+    public long getOpenDurationMillis() {
+        return this.openDurationMillis;
+    }
+    @Override
+    public int getHalfOpenTrialCalls() {
+        return this.halfOpenTrialCalls;
+    }
+
+    @Override
+    public boolean equals(final Object otherObj) {
+        final CircuitBreakerPolicy otherPolicy;
+        if (this == otherObj) {
+            return true;
+        }
+        if (otherObj instanceof CircuitBreakerPolicy) {
+            otherPolicy = (CircuitBreakerPolicy) otherObj;
+            return ((this.circuitBreakingEnabled == otherPolicy.isCircuitBreakingEnabled())
+                    && (this.failureRateThreshold == otherPolicy.getFailureRateThreshold())
+                    && (this.minimumCalls == otherPolicy.getMinimumCalls())
+                    && (this.windowSize == otherPolicy.getWindowSize())
+                    && (this.openDurationMillis == otherPolicy.getOpenDurationMillis())
+                    && (this.halfOpenTrialCalls == otherPolicy.getHalfOpenTrialCalls()));
+        }
+        return false;
+    }
+    @Override
+    public int hashCode() {
+        int hCode;
+        if (this.hc == null) {
+            hCode = Boolean.hashCode(this.circuitBreakingEnabled);
+            hCode ^= Double.hashCode(this.failureRateThreshold);
+            hCode ^= this.minimumCalls;
+            hCode ^= this.windowSize;
+            hCode ^= Long.hashCode(this.openDurationMillis);
+            hCode ^= this.halfOpenTrialCalls;
+            this.hc = Integer.valueOf(hCode);
+        }
+        return this.hc.intValue();
+    }
+    @Override
+    public String toString() {
+        final StringBuilder strGen;
+        if (this.strRep == null) {
+            strGen = new StringBuilder();
+            strGen.append(CircuitBreakerPolicy.class.getSimpleName());
+            strGen.append(":");
+            if (this.circuitBreakingEnabled) {
+                strGen.append("ENABLED:(failure-rate=");
+                strGen.append(this.failureRateThreshold);
+                strGen.append(",min-calls=");
+                strGen.append(this.minimumCalls);
+                strGen.append(",window=");
+                strGen.append(this.windowSize);
+                strGen.append(",open=");
+                strGen.append(this.openDurationMillis);
+                strGen.append("ms,half-open-trials=");
+                strGen.append(this.halfOpenTrialCalls);
+                strGen.append(")");
+            } else {
+                strGen.append("DISABLED");
+            }
+            this.strRep = strGen.toString();
+        }
+        return this.strRep;
+    }
+
+    private static int validateCount(final Integer value, final int defaultValue, final int minValue, final String paramName) throws IllegalArgumentException {
+        final String logMsg;
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value.intValue() < minValue) {
+            logMsg = "Circuit breaker policy parameter '"
+                     + paramName
+                     + "' must be at least "
+                     + minValue
+                     + "; was: "
+                     + value;
+            throw new IllegalArgumentException(logMsg);
+        }
+        return value.intValue();
+    }
+
+    private CircuitBreakerPolicyDefault(final Builder build) throws IllegalArgumentException {
+        String logMsg;
+        this.circuitBreakingEnabled = build.circuitBreakingEnabled;
+        if (build.failureRateThreshold == null) {
+            this.failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+        } else if ((build.failureRateThreshold.doubleValue() <= 0.0)
+                   || (build.failureRateThreshold.doubleValue() > 1.0)) {
+            logMsg = "Circuit breaker policy parameter 'failureRateThreshold' must be within the"
+                     + " range (0.0, 1.0]; was: "
+                     + build.failureRateThreshold;
+            throw new IllegalArgumentException(logMsg);
+        } else {
+            this.failureRateThreshold = build.failureRateThreshold.doubleValue();
+        }
+        this.windowSize =
+            validateCount(build.windowSize, DEFAULT_WINDOW_SIZE, 1, "windowSize");
+        if (build.minimumCalls == null) {
+            this.minimumCalls = Math.min(DEFAULT_MINIMUM_CALLS, this.windowSize);
+        } else {
+            this.minimumCalls = validateCount(build.minimumCalls, 0, 1, "minimumCalls");
+            if (this.minimumCalls > this.windowSize) {
+                logMsg = "Circuit breaker policy minimum call count must not exceed the window"
+                         + " size ("
+                         + this.windowSize
+                         + "); was: "
+                         + this.minimumCalls;
+                throw new IllegalArgumentException(logMsg);
+            }
+        }
+        this.halfOpenTrialCalls =
+            validateCount(build.halfOpenTrialCalls,
+                          DEFAULT_HALF_OPEN_TRIAL_CALLS,
+                          1,
+                          "halfOpenTrialCalls");
+        // Assume that any negative duration is equivalent to zero (trial immediately)
+        if (build.openDurationMillis == null) {
+            this.openDurationMillis = DEFAULT_OPEN_DURATION_MILLIS;
+        } else {
+            this.openDurationMillis = Math.max(0L, build.openDurationMillis.longValue());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.context.hedge;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Running counters describing hedged-read activity for a single
+ * {@link com.liaison.shachi.HBaseControl}, which also enforce the hedge-rate cap described by
+ * {@link HedgingPolicy#getMaxHedgeRatio()}.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public final class HedgeMetrics {
+
+    private final AtomicLong hedgeableReads;
+    private final AtomicLong hedgesFired;
+    private final AtomicLong hedgesWon;
+    private final AtomicLong hedgesSuppressed;
+
+    /**
+     * Record that a GET was executed under an enabled hedging policy.
+     */
+    public void recordHedgeableRead() {
+        this.hedgeableReads.incrementAndGet();
+    }
+
+    /**
+     * Record that a hedge request completed successfully before the original request.
+     */
+    public void recordHedgeWon() {
+        this.hedgesWon.incrementAndGet();
+    }
+
+    /**
+     * Attempt to reserve permission to issue a hedge request. Permission is denied (and the
+     * suppression is counted) if issuing the hedge would push the ratio of hedges fired to
+     * hedge-eligible reads above the given cap.
+     * @param maxHedgeRatio maximum ratio of hedges fired to hedge-eligible reads
+     * @return true if the caller may issue a hedge request; false otherwise
+     */
+    public boolean tryAcquireHedge(final double maxHedgeRatio) {
+        long fired;
+        do {
+            fired = this.hedgesFired.get();
+            if ((fired + 1) > (maxHedgeRatio * this.hedgeableReads.get())) {
+                this.hedgesSuppressed.incrementAndGet();
+                return false;
+            }
+        } while (!this.hedgesFired.compareAndSet(fired, fired + 1));
+        return true;
+    }
+
+    public long getHedgeableReadCount() {
+        return this.hedgeableReads.get();
+    }
+    public long getHedgesFiredCount() {
+        return this.hedgesFired.get();
+    }
+    public long getHedgesWonCount() {
+        return this.hedgesWon.get();
+    }
+    public long getHedgesSuppressedCount() {
+        return this.hedgesSuppressed.get();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder strGen;
+        strGen = new StringBuilder();
+        strGen.append(HedgeMetrics.class.getSimpleName());
+        strGen.append("(reads=");
+        strGen.append(getHedgeableReadCount());
+        strGen.append(",fired=");
+        strGen.append(getHedgesFiredCount());
+        strGen.append(",won=");
+        strGen.append(getHedgesWonCount());
+        strGen.append(",suppressed=");
+        strGen.append(getHedgesSuppressedCount());
+        strGen.append(")");
+        return strGen.toString();
+    }
+
+    public HedgeMetrics() {
+        this.hedgeableReads = new AtomicLong(0L);
+        this.hedgesFired = new AtomicLong(0L);
+        this.hedgesWon = new AtomicLong(0L);
+        this.hedgesSuppressed = new AtomicLong(0L);
+    }
+}
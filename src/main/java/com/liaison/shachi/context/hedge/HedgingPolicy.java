@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.context.hedge;
+
+/**
+ * Configuration governing whether (and how aggressively) READ operations are <em>hedged</em>: if a
+ * GET has not completed within a delay derived from recently-observed read latency, a duplicate
+ * GET is issued against a separately-borrowed table resource, and whichever completes first is
+ * used. Reads are idempotent, so the losing request is simply discarded.
+ * <br><br>
+ * A policy may be assigned to an {@link com.liaison.shachi.context.HBaseContext} (applying to all
+ * tables) and/or to an individual {@link com.liaison.shachi.model.TableModel} (overriding the
+ * context-level policy for that table).
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public interface HedgingPolicy {
+    /**
+     * Indicates whether READ operations governed by this policy are hedged. Other settings are
+     * ignored if this returns false.
+     * @return true if hedged reads are enabled; false otherwise
+     */
+    boolean isHedgingEnabled();
+    /**
+     * The percentile (exclusive range 0.0 to 1.0) of recently-observed GET latency after which a
+     * hedge request is issued. For example, 0.95 issues a hedge for any GET which is still
+     * outstanding after the 95th-percentile latency has elapsed.
+     * @return latency percentile used to derive the hedge delay
+     */
+    double getDelayPercentile();
+    /**
+     * The lower bound on the hedge delay, in milliseconds, regardless of observed latency. Protects
+     * the cluster against hedging nearly every request when latency is uniformly very low.
+     * @return minimum hedge delay (milliseconds)
+     */
+    long getMinDelayMillis();
+    /**
+     * The hedge delay, in milliseconds, used until at least {@link #getMinSamples()} latency
+     * samples have been observed for the table being read.
+     * @return hedge delay (milliseconds) in effect before the latency window is populated
+     */
+    long getInitialDelayMillis();
+    /**
+     * The number of latency samples which must be observed for a table before the
+     * percentile-derived delay is used in place of {@link #getInitialDelayMillis()}.
+     * @return minimum number of samples for a percentile-derived delay
+     */
+    int getMinSamples();
+    /**
+     * The number of most-recent latency samples retained per table for the purpose of deriving the
+     * hedge delay.
+     * @return size of the latency sample window
+     */
+    int getSampleWindowSize();
+    /**
+     * The maximum ratio (0.0 to 1.0) of hedge requests to hedge-eligible reads. Once reached,
+     * further hedges are suppressed until enough un-hedged reads bring the ratio back below the
+     * cap; this protects an already-struggling cluster from a flood of duplicate requests.
+     * @return maximum fraction of hedge-eligible reads which may be hedged
+     */
+    double getMaxHedgeRatio();
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.context.hedge;
+
+/**
+ * Default {@link HedgingPolicy}. While hedging is enabled, a GET which has not completed within
+ * the {@link #DEFAULT_DELAY_PERCENTILE 95th} percentile of the table's recently observed read
+ * latency (taken over a sliding window of the last {@link #DEFAULT_SAMPLE_WINDOW_SIZE 1024}
+ * reads, and never less than {@link #DEFAULT_MIN_DELAY_MILLIS 1ms}) is duplicated as a hedge
+ * request, and whichever response arrives first is used. Until
+ * {@link #DEFAULT_MIN_SAMPLES 100} reads have been observed, the fixed
+ * {@link #DEFAULT_INITIAL_DELAY_MILLIS 10ms} delay is used instead of the percentile. Hedges are
+ * capped at {@link #DEFAULT_MAX_HEDGE_RATIO 5%} of hedge-eligible reads, so that a slow cluster
+ * does not receive up to twice its normal read load; reads beyond the cap simply wait for the
+ * original request. Each default may be overridden via the {@link Builder}.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public class HedgingPolicyDefault implements HedgingPolicy {
+
+    public static final class Builder {
+        private boolean hedgingEnabled;
+        private Double delayPercentile;
+        private Long minDelayMillis;
+        private Long initialDelayMillis;
+        private Integer minSamples;
+        private Integer sampleWindowSize;
+        private Double maxHedgeRatio;
+        public Builder enabled() {
+            this.hedgingEnabled = true;
+            return this;
+        }
+        public Builder disabled() {
+            this.hedgingEnabled = false;
+            return this;
+        }
+        public Builder delayPercentile(final double delayPercentile) {
+            this.delayPercentile = Double.valueOf(delayPercentile);
+            return this;
+        }
+        public Builder minDelayMillis(final long minDelayMillis) {
+            this.minDelayMillis = Long.valueOf(minDelayMillis);
+            return this;
+        }
+        public Builder initialDelayMillis(final long initialDelayMillis) {
+            this.initialDelayMillis = Long.valueOf(initialDelayMillis);
+            return this;
+        }
+        public Builder minSamples(final int minSamples) {
+            this.minSamples = Integer.valueOf(minSamples);
+            return this;
+        }
+        public Builder sampleWindowSize(final int sampleWindowSize) {
+            this.sampleWindowSize = Integer.valueOf(sampleWindowSize);
+            return this;
+        }
+        public Builder maxHedgeRatio(final double maxHedgeRatio) {
+            this.maxHedgeRatio = Double.valueOf(maxHedgeRatio);
+            return this;
+        }
+        public HedgingPolicyDefault build() {
+            return new HedgingPolicyDefault(this);
+        }
+        private Builder() {
+            this.hedgingEnabled = false;
+            this.delayPercentile = null;
+            this.minDelayMillis = null;
+            this.initialDelayMillis = null;
+            this.minSamples = null;
+            this.sampleWindowSize = null;
+            this.maxHedgeRatio = null;
+        }
+    }
+
+    public static final double DEFAULT_DELAY_PERCENTILE = 0.95;
+    public static final long DEFAULT_MIN_DELAY_MILLIS = 1L;
+    public static final long DEFAULT_INITIAL_DELAY_MILLIS = 10L;
+    public static final int DEFAULT_MIN_SAMPLES = 100;
+    public static final int DEFAULT_SAMPLE_WINDOW_SIZE = 1024;
+    public static final double DEFAULT_MAX_HEDGE_RATIO = 0.05;
+
+    public static Builder getBuilder() {
+        return new Builder();
+    }
+
+    private final boolean hedgingEnabled;
+    private final double delayPercentile;
+    private final long minDelayMillis;
+    private final long initialDelayMillis;
+    private final int minSamples;
+    private final int sampleWindowSize;
+    private final double maxHedgeRatio;
+
+    private Integer hc;
+    private String strRep;
+
+    @Override
+    public boolean isHedgingEnabled() {
+        return this.hedgingEnabled;
+    }
+    @Override
+    public double getDelayPercentile() {
+        return this.delayPercentile;
+    }
+    @Override
+    public long getMinDelayMillis() {
+        return this.minDelayMillis;
+    }
+    @Override
+    public long getInitialDelayMillis() {
+        return this.initialDelayMillis;
+    }
+    @Override
+    public int getMinSamples() {
+        return this.minSamples;
+    }
+    @Override
+    public int getSampleWindowSize() {
+        return this.sampleWindowSize;
+    }
+    @Override
+    public double getMaxHedgeRatio() {
+        return this.maxHedgeRatio;
+    }
+
+    @Override
+    public boolean equals(final Object otherObj) {
+        final HedgingPolicy otherPolicy;
+        if (this == otherObj) {
+            return true;
+        }
+        if (otherObj instanceof HedgingPolicy) {
+            otherPolicy = (HedgingPolicy) otherObj;
+            return ((this.hedgingEnabled == otherPolicy.isHedgingEnabled())
+                    && (this.delayPercentile == otherPolicy.getDelayPercentile())
+                    && (this.minDelayMillis == otherPolicy.getMinDelayMillis())
+                    && (this.initialDelayMillis == otherPolicy.getInitialDelayMillis())
+                    && (this.minSamples == otherPolicy.getMinSamples())
+                    && (this.sampleWindowSize == otherPolicy.getSampleWindowSize())
+                    && (this.maxHedgeRatio == otherPolicy.getMaxHedgeRatio()));
+        }
+        return false;
+    }
+    @Override
+    public int hashCode() {
+        int hCode;
+        if (this.hc == null) {
+            hCode = Boolean.hashCode(this.hedgingEnabled);
+            hCode ^= Double.hashCode(this.delayPercentile);
+            hCode ^= Long.hashCode(this.minDelayMillis);
+            hCode ^= Long.hashCode(this.initialDelayMillis);
+            hCode ^= this.minSamples;
+            hCode ^= this.sampleWindowSize;
+            hCode ^= Double.hashCode(this.maxHedgeRatio);
+            this.hc = Integer.valueOf(hCode);
+        }
+        return this.hc.intValue();
+    }
+    @Override
+    public String toString() {
+        final StringBuilder strGen;
+        if (this.strRep == null) {
+            strGen = new StringBuilder();
+            strGen.append(HedgingPolicy.class.getSimpleName());
+            strGen.append(":");
+            if (this.hedgingEnabled) {
+                strGen.append("ENABLED:(percentile=");
+                strGen.append(this.delayPercentile);
+                strGen.append(",min-delay=");
+                strGen.append(this.minDelayMillis);
+                strGen.append("ms,initial-delay=");
+                strGen.append(this.initialDelayMillis);
+                strGen.append("ms,min-samples=");
+                strGen.append(this.minSamples);
+                strGen.append(",window=");
+                strGen.append(this.sampleWindowSize);
+                strGen.append(",max-ratio=");
+                strGen.append(this.maxHedgeRatio);
+                strGen.append(")");
+            } else {
+                strGen.append("DISABLED");
+            }
+            this.strRep = strGen.toString();
+        }
+        return this.strRep;
+    }
+
+    private static double validateRatio(final Double value, final double defaultValue, final String paramName, final boolean allowZero) throws IllegalArgumentException {
+        final String logMsg;
+        final double result;
+        if (value == null) {
+            return defaultValue;
+        }
+        result = value.doubleValue();
+        if ((result > 1.0) || (result < 0.0) || ((!allowZero) && (result == 0.0))) {
+            logMsg = "Hedging policy parameter '"
+                     + paramName
+                     + "' must be within the range "
+                     + (allowZero?"[":"(")
+                     + "0.0, 1.0]; was: "
+                     + result;
+            throw new IllegalArgumentException(logMsg);
+        }
+        return result;
+    }
+
+    private HedgingPolicyDefault(final Builder build) throws IllegalArgumentException {
+        String logMsg;
+        this.hedgingEnabled = build.hedgingEnabled;
+        this.delayPercentile =
+            validateRatio(build.delayPercentile, DEFAULT_DELAY_PERCENTILE, "delayPercentile", false);
+        this.maxHedgeRatio =
+            validateRatio(build.maxHedgeRatio, DEFAULT_MAX_HEDGE_RATIO, "maxHedgeRatio", true);
+        // Assume that any negative delay is equivalent to zero (no minimum)
+        if (build.minDelayMillis == null) {
+            this.minDelayMillis = DEFAULT_MIN_DELAY_MILLIS;
+        } else {
+            this.minDelayMillis = Math.max(0L, build.minDelayMillis.longValue());
+        }
+        if (build.initialDelayMillis == null) {
+            this.initialDelayMillis = DEFAULT_INITIAL_DELAY_MILLIS;
+        } else {
+            this.initialDelayMillis = Math.max(0L, build.initialDelayMillis.longValue());
+        }
+        if (build.sampleWindowSize == null) {
+            this.sampleWindowSize = DEFAULT_SAMPLE_WINDOW_SIZE;
+        } else if (build.sampleWindowSize.intValue() <= 0) {
+            logMsg = "Hedging policy sample window size must be at least 1; was: "
+                     + build.sampleWindowSize;
+            throw new IllegalArgumentException(logMsg);
+        } else {
+            this.sampleWindowSize = build.sampleWindowSize.intValue();
+        }
+        if (build.minSamples == null) {
+            this.minSamples = Math.min(DEFAULT_MIN_SAMPLES, this.sampleWindowSize);
+        } else if ((build.minSamples.intValue() < 0)
+                   || (build.minSamples.intValue() > this.sampleWindowSize)) {
+            logMsg = "Hedging policy minimum sample count must be between 0 and the sample window"
+                     + " size ("
+                     + this.sampleWindowSize
+                     + "); was: "
+                     + build.minSamples;
+            throw new IllegalArgumentException(logMsg);
+        } else {
+            this.minSamples = build.minSamples.intValue();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.context.hedge;
+
+import com.liaison.javabasics.commons.Util;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-size ring of the most recent GET latencies observed for a single table, from which the
+ * hedge delay for that table is derived per its {@link HedgingPolicy}. The percentile is not
+ * recomputed on every sample; it is refreshed after every {@link #recomputeInterval} samples, and
+ * the most-recently computed value is read without locking.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public final class ReadLatencyWindow {
+
+    /**
+     * Refresh the cached percentile after this fraction of the window has been replaced
+     */
+    private static final int RECOMPUTE_DIVISOR = 16;
+
+    private final HedgingPolicy policy;
+    private final long[] samples;
+    private final int recomputeInterval;
+    private final long minDelayNanos;
+    private final long initialDelayNanos;
+    private int nextIndex;
+    private int count;
+    private int sinceRecompute;
+    private volatile long percentileNanos;
+    private volatile boolean populated;
+
+    private long computePercentile() {
+        final long[] sorted;
+        final int index;
+
+        sorted = Arrays.copyOf(this.samples, this.count);
+        Arrays.sort(sorted);
+        index = (int) Math.min(this.count - 1, Math.ceil(this.policy.getDelayPercentile() * this.count) - 1);
+        return sorted[Math.max(0, index)];
+    }
+
+    /**
+     * Record the latency of a completed GET.
+     * @param latencyNanos elapsed time (nanoseconds)
+     */
+    public synchronized void record(final long latencyNanos) {
+        this.samples[this.nextIndex] = latencyNanos;
+        this.nextIndex = (this.nextIndex + 1) % this.samples.length;
+        if (this.count < this.samples.length) {
+            this.count++;
+        }
+        this.sinceRecompute++;
+        if ((this.count >= this.policy.getMinSamples())
+            && ((!this.populated) || (this.sinceRecompute >= this.recomputeInterval))) {
+            this.percentileNanos = computePercentile();
+            this.sinceRecompute = 0;
+            this.populated = true;
+        }
+    }
+
+    /**
+     * Determine how long to wait for a GET to complete before issuing a hedge request: the
+     * configured percentile of the sample window (floored at the configured minimum delay), or
+     * the initial delay if the window does not yet contain the minimum number of samples.
+     * @return hedge delay (nanoseconds)
+     */
+    public long getHedgeDelayNanos() {
+        if (this.populated) {
+            return Math.max(this.minDelayNanos, this.percentileNanos);
+        }
+        return this.initialDelayNanos;
+    }
+
+    public HedgingPolicy getPolicy() {
+        return this.policy;
+    }
+
+    public ReadLatencyWindow(final HedgingPolicy policy) {
+        Util.ensureNotNull(policy, this, "policy", HedgingPolicy.class);
+        this.policy = policy;
+        this.samples = new long[policy.getSampleWindowSize()];
+        this.recomputeInterval = Math.max(1, this.samples.length / RECOMPUTE_DIVISOR);
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(policy.getMinDelayMillis());
+        this.initialDelayNanos = TimeUnit.MILLISECONDS.toNanos(policy.getInitialDelayMillis());
+        this.nextIndex = 0;
+        this.count = 0;
+        this.sinceRecompute = 0;
+        this.percentileNanos = 0L;
+        this.populated = false;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.context.pool;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Sizing for a pool of HBase resources: the maximum number of resources outstanding at once, and
+ * the maximum and minimum number kept idle. Any of the three may be left unspecified (null), in
+ * which case the corresponding value from the enclosing configuration applies; thus a table may
+ * override (via {@link com.liaison.shachi.model.TableModel.Builder#poolSizing(PoolSizing)}) only
+ * the values it needs to, e.g. a larger minimum idle size for a hot table.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public final class PoolSizing implements Serializable {
+
+    private static final long serialVersionUID = -3316502046393431885L;
+
+    public static final class Builder {
+        private Integer maxTotal;
+        private Integer maxIdle;
+        private Integer minIdle;
+        public Builder maxTotal(final int maxTotal) {
+            this.maxTotal = Integer.valueOf(maxTotal);
+            return this;
+        }
+        public Builder maxIdle(final int maxIdle) {
+            this.maxIdle = Integer.valueOf(maxIdle);
+            return this;
+        }
+        public Builder minIdle(final int minIdle) {
+            this.minIdle = Integer.valueOf(minIdle);
+            return this;
+        }
+        public PoolSizing build() {
+            return new PoolSizing(this);
+        }
+        private Builder() {
+            this.maxTotal = null;
+            this.maxIdle = null;
+            this.minIdle = null;
+        }
+    }
+
+    public static Builder getBuilder() {
+        return new Builder();
+    }
+
+    private static int resolve(final Integer override, final int base) {
+        if (override == null) {
+            return base;
+        }
+        return override.intValue();
+    }
+
+    private final Integer maxTotal;
+    private final Integer maxIdle;
+    private final Integer minIdle;
+
+    private Integer hc;
+    private String strRep;
+
+    /**
+     * @return maximum number of resources outstanding at once, or null if unspecified
+     */
+    public Integer getMaxTotal() {
+        return this.maxTotal;
+    }
+    /**
+     * @return maximum number of idle resources retained, or null if unspecified
+     */
+    public Integer getMaxIdle() {
+        return this.maxIdle;
+    }
+    /**
+     * @return minimum number of idle resources to maintain (and to establish when the pool is
+     * pre-warmed), or null if unspecified
+     */
+    public Integer getMinIdle() {
+        return this.minIdle;
+    }
+
+    /**
+     * Produce a fully-specified sizing, taking each value from this sizing if it is specified, or
+     * from the given (fully-specified) base sizing otherwise. The maximum idle size taken from the
+     * base is adjusted, if necessary, to remain consistent with the values specified here.
+     * @param base fully-specified sizing supplying the unspecified values
+     * @return fully-specified sizing
+     * @throws IllegalArgumentException if the resulting sizing is inconsistent
+     */
+    public PoolSizing resolveAgainst(final PoolSizing base) throws IllegalArgumentException {
+        final int resolvedMaxTotal;
+        final int resolvedMaxIdle;
+        final int resolvedMinIdle;
+        resolvedMaxTotal = resolve(this.maxTotal, base.maxTotal.intValue());
+        resolvedMaxIdle =
+            resolve(this.maxIdle,
+                    Math.min(resolvedMaxTotal,
+                             Math.max(base.maxIdle.intValue(), resolve(this.minIdle, 0))));
+        resolvedMinIdle = resolve(this.minIdle, Math.min(resolvedMaxIdle, base.minIdle.intValue()));
+        return getBuilder()
+               .maxTotal(resolvedMaxTotal)
+               .maxIdle(resolvedMaxIdle)
+               .minIdle(resolvedMinIdle)
+               .build();
+    }
+
+    @Override
+    public boolean equals(final Object otherObj) {
+        final PoolSizing otherSizing;
+        if (this == otherObj) {
+            return true;
+        }
+        if (otherObj instanceof PoolSizing) {
+            otherSizing = (PoolSizing) otherObj;
+            return (Objects.equals(this.maxTotal, otherSizing.maxTotal)
+                    && Objects.equals(this.maxIdle, otherSizing.maxIdle)
+                    && Objects.equals(this.minIdle, otherSizing.minIdle));
+        }
+        return false;
+    }
+    @Override
+    public int hashCode() {
+        if (this.hc == null) {
+            this.hc = Integer.valueOf(Objects.hash(this.maxTotal, this.maxIdle, this.minIdle));
+        }
+        return this.hc.intValue();
+    }
+    @Override
+    public String toString() {
+        final StringBuilder strGen;
+        if (this.strRep == null) {
+            strGen = new StringBuilder();
+            strGen.append(PoolSizing.class.getSimpleName());
+            strGen.append(":(max=");
+            strGen.append(this.maxTotal);
+            strGen.append(",max-idle=");
+            strGen.append(this.maxIdle);
+            strGen.append(",min-idle=");
+            strGen.append(this.minIdle);
+            strGen.append(")");
+            this.strRep = strGen.toString();
+        }
+        return this.strRep;
+    }
+
+    private static void validateMinimum(final Integer value, final int minimum, final String paramName) throws IllegalArgumentException {
+        final String logMsg;
+        if ((value != null) && (value.intValue() < minimum)) {
+            logMsg = "Pool sizing parameter '"
+                     + paramName
+                     + "' must be at least "
+                     + minimum
+                     + "; was: "
+                     + value;
+            throw new IllegalArgumentException(logMsg);
+        }
+    }
+
+    private PoolSizing(final Builder build) throws IllegalArgumentException {
+        final String logMsg;
+        validateMinimum(build.maxTotal, 1, "maxTotal");
+        validateMinimum(build.maxIdle, 0, "maxIdle");
+        validateMinimum(build.minIdle, 0, "minIdle");
+        if ((build.minIdle != null)
+            && (build.maxIdle != null)
+            && (build.minIdle.intValue() > build.maxIdle.intValue())) {
+            logMsg = "Pool sizing minIdle ("
+                     + build.minIdle
+                     + ") may not exceed maxIdle ("
+                     + build.maxIdle
+                     + ")";
+            throw new IllegalArgumentException(logMsg);
+        }
+        this.maxTotal = build.maxTotal;
+        this.maxIdle = build.maxIdle;
+        this.minIdle = build.minIdle;
+    }
+}
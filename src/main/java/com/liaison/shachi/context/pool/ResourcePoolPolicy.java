@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.context.pool;
+
+/**
+ * Configuration for the pools of table and admin resources maintained for a context by a pooling
+ * resource manager (see {@link com.liaison.shachi.resmgr.PoolingHBaseResourceManager}). Tables
+ * whose model specifies its own {@link PoolSizing} are pooled separately, with any sizing values
+ * left unspecified by the model taken from {@link #getTableSizing()}.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public interface ResourcePoolPolicy {
+    /**
+     * The maximum time, in milliseconds, to wait for a resource to become available when a pool
+     * is exhausted. Callers may wait less, but never longer.
+     * @return maximum wait (milliseconds)
+     */
+    long getMaxWaitMillis();
+    /**
+     * The time, in milliseconds, after which an idle resource in excess of the minimum idle size
+     * becomes eligible for eviction.
+     * @return idle eviction threshold (milliseconds)
+     */
+    long getEvictAfterMillis();
+    /**
+     * The maximum number of table resources outstanding at once across all tables sharing the
+     * context-level table pool, or null if unbounded (tables pooled separately due to a
+     * table-level {@link PoolSizing} are not counted).
+     * @return overall table pool bound, or null
+     */
+    Integer getTableMaxTotalOverall();
+    /**
+     * The sizing applied to each table in the context-level table pool; fully specified.
+     * @return per-table pool sizing
+     */
+    PoolSizing getTableSizing();
+    /**
+     * The sizing applied to the admin resource pool; fully specified.
+     * @return admin pool sizing
+     */
+    PoolSizing getAdminSizing();
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.context.pool;
+
+import java.util.Objects;
+
+/**
+ * TODO
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public class ResourcePoolPolicyDefault implements ResourcePoolPolicy {
+
+    public static final class Builder {
+        private Long maxWaitMillis;
+        private Long evictAfterMillis;
+        private Integer tableMaxTotalOverall;
+        private PoolSizing tableSizing;
+        private PoolSizing adminSizing;
+        public Builder maxWaitMillis(final long maxWaitMillis) {
+            this.maxWaitMillis = Long.valueOf(maxWaitMillis);
+            return this;
+        }
+        public Builder evictAfterMillis(final long evictAfterMillis) {
+            this.evictAfterMillis = Long.valueOf(evictAfterMillis);
+            return this;
+        }
+        public Builder tableMaxTotalOverall(final int tableMaxTotalOverall) {
+            this.tableMaxTotalOverall = Integer.valueOf(tableMaxTotalOverall);
+            return this;
+        }
+        /**
+         * Sizing for each table in the context-level table pool; values left unspecified take
+         * the defaults.
+         */
+        public Builder tableSizing(final PoolSizing tableSizing) {
+            this.tableSizing = tableSizing;
+            return this;
+        }
+        /**
+         * Sizing for the admin pool; values left unspecified take the defaults.
+         */
+        public Builder adminSizing(final PoolSizing adminSizing) {
+            this.adminSizing = adminSizing;
+            return this;
+        }
+        public ResourcePoolPolicyDefault build() {
+            return new ResourcePoolPolicyDefault(this);
+        }
+        private Builder() {
+            this.maxWaitMillis = null;
+            this.evictAfterMillis = null;
+            this.tableMaxTotalOverall = null;
+            this.tableSizing = null;
+            this.adminSizing = null;
+        }
+    }
+
+    public static final long DEFAULT_MAX_WAIT_MILLIS = 30000L; // 30 seconds
+    public static final long DEFAULT_EVICT_AFTER_MILLIS = 60000L; // 1 minute
+    public static final int DEFAULT_TABLE_POOL_MAXTOTAL = 25;
+    public static final int DEFAULT_TABLE_POOL_MAXIDLE = 5;
+    public static final int DEFAULT_TABLE_POOL_MINIDLE = 2;
+    public static final int DEFAULT_ADMIN_POOL_MAXTOTAL = 10;
+    public static final int DEFAULT_ADMIN_POOL_MAXIDLE = 5;
+    public static final int DEFAULT_ADMIN_POOL_MINIDLE = 1;
+
+    public static Builder getBuilder() {
+        return new Builder();
+    }
+
+    private final long maxWaitMillis;
+    private final long evictAfterMillis;
+    private final Integer tableMaxTotalOverall;
+    private final PoolSizing tableSizing;
+    private final PoolSizing adminSizing;
+
+    private Integer hc;
+    private String strRep;
+
+    @Override
+    public long getMaxWaitMillis() {
+        return this.maxWaitMillis;
+    }
+    @Override
+    public long getEvictAfterMillis() {
+        return this.evictAfterMillis;
+    }
+    @Override
+    public Integer getTableMaxTotalOverall() {
+        return this.tableMaxTotalOverall;
+    }
+    @Override
+    public PoolSizing getTableSizing() {
+        return this.tableSizing;
+    }
+    @Override
+    public PoolSizing getAdminSizing() {
+        return this.adminSizing;
+    }
+
+    @Override
+    public boolean equals(final Object otherObj) {
+        final ResourcePoolPolicy otherPolicy;
+        if (this == otherObj) {
+            return true;
+        }
+        if (otherObj instanceof ResourcePoolPolicy) {
+            otherPolicy = (ResourcePoolPolicy) otherObj;
+            return ((this.maxWaitMillis == otherPolicy.getMaxWaitMillis())
+                    && (this.evictAfterMillis == otherPolicy.getEvictAfterMillis())
+                    && Objects.equals(this.tableMaxTotalOverall, otherPolicy.getTableMaxTotalOverall())
+                    && Objects.equals(this.tableSizing, otherPolicy.getTableSizing())
+                    && Objects.equals(this.adminSizing, otherPolicy.getAdminSizing()));
+        }
+        return false;
+    }
+    @Override
+    public int hashCode() {
+        int hCode;
+        if (this.hc == null) {
+            hCode = Long.hashCode(this.maxWaitMillis);
+            hCode ^= Long.hashCode(this.evictAfterMillis);
+            hCode ^= Objects.hashCode(this.tableMaxTotalOverall);
+            hCode ^= (31 * this.tableSizing.hashCode());
+            hCode ^= (17 * this.adminSizing.hashCode());
+            this.hc = Integer.valueOf(hCode);
+        }
+        return this.hc.intValue();
+    }
+    @Override
+    public String toString() {
+        final StringBuilder strGen;
+        if (this.strRep == null) {
+            strGen = new StringBuilder();
+            strGen.append(ResourcePoolPolicy.class.getSimpleName());
+            strGen.append(":(max-wait=");
+            strGen.append(this.maxWaitMillis);
+            strGen.append("ms,evict-after=");
+            strGen.append(this.evictAfterMillis);
+            strGen.append("ms,table-max-overall=");
+            strGen.append(this.tableMaxTotalOverall);
+            strGen.append(",table=");
+            strGen.append(this.tableSizing);
+            strGen.append(",admin=");
+            strGen.append(this.adminSizing);
+            strGen.append(")");
+            this.strRep = strGen.toString();
+        }
+        return this.strRep;
+    }
+
+    private static PoolSizing resolveSizing(final PoolSizing sizing, final int defaultMaxTotal, final int defaultMaxIdle, final int defaultMinIdle) throws IllegalArgumentException {
+        final PoolSizing defaultSizing;
+        defaultSizing =
+            PoolSizing.getBuilder()
+                      .maxTotal(defaultMaxTotal)
+                      .maxIdle(defaultMaxIdle)
+                      .minIdle(defaultMinIdle)
+                      .build();
+        if (sizing == null) {
+            return defaultSizing;
+        }
+        return sizing.resolveAgainst(defaultSizing);
+    }
+
+    private ResourcePoolPolicyDefault(final Builder build) throws IllegalArgumentException {
+        final String logMsg;
+        if (build.maxWaitMillis == null) {
+            this.maxWaitMillis = DEFAULT_MAX_WAIT_MILLIS;
+        } else {
+            // a negative wait would mean "wait indefinitely" to the underlying pool
+            this.maxWaitMillis = Math.max(0L, build.maxWaitMillis.longValue());
+        }
+        if (build.evictAfterMillis == null) {
+            this.evictAfterMillis = DEFAULT_EVICT_AFTER_MILLIS;
+        } else {
+            this.evictAfterMillis = build.evictAfterMillis.longValue();
+        }
+        if ((build.tableMaxTotalOverall != null) && (build.tableMaxTotalOverall.intValue() <= 0)) {
+            logMsg = "Resource pool parameter 'tableMaxTotalOverall' must be at least 1; was: "
+                     + build.tableMaxTotalOverall;
+            throw new IllegalArgumentException(logMsg);
+        }
+        this.tableMaxTotalOverall = build.tableMaxTotalOverall;
+        this.tableSizing =
+            resolveSizing(build.tableSizing,
+                          DEFAULT_TABLE_POOL_MAXTOTAL,
+                          DEFAULT_TABLE_POOL_MAXIDLE,
+                          DEFAULT_TABLE_POOL_MINIDLE);
+        this.adminSizing =
+            resolveSizing(build.adminSizing,
+                          DEFAULT_ADMIN_POOL_MAXTOTAL,
+                          DEFAULT_ADMIN_POOL_MAXIDLE,
+                          DEFAULT_ADMIN_POOL_MINIDLE);
+    }
+}
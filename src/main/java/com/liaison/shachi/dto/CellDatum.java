@@ -20,6 +20,7 @@ import com.liaison.javabasics.commons.Util;
 import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
 import com.liaison.shachi.exception.CellDeserializationException;
 import com.liaison.shachi.model.ser.CellDeserializer;
+import com.liaison.shachi.model.ser.PrimitiveDeserializers;
 
 import java.io.Serializable;
 
@@ -43,6 +44,7 @@ public class CellDatum implements Serializable {
         private TableRow tableRow;
         private FamilyQualifierPair tableColumn;
         private CellDeserializer deserializer;
+        private PrimitiveDeserializers primitiveDeserializers;
 
         public Builder datum(final Datum datum) {
             this.datum = datum;
@@ -60,6 +62,10 @@ public class CellDatum implements Serializable {
             this.deserializer = deserializer;
             return this;
         }
+        public Builder primitiveDeserializers(final PrimitiveDeserializers primitiveDeserializers) {
+            this.primitiveDeserializers = primitiveDeserializers;
+            return this;
+        }
 
         public CellDatum build() {
             return new CellDatum(this);
@@ -69,6 +75,7 @@ public class CellDatum implements Serializable {
             this.tableRow = null;
             this.tableColumn = null;
             this.deserializer = null;
+            this.primitiveDeserializers = null;
         }
     }
 
@@ -87,8 +94,20 @@ public class CellDatum implements Serializable {
      */
     private final FamilyQualifierPair tableColumn;
     private final CellDeserializer deserializer;
+    /**
+     * Primitive-specialized deserializers declared by the schema for this cell; if null, the
+     * primitive accessors decode the standard HBase encoding (see
+     * {@link PrimitiveDeserializers#STANDARD}).
+     */
+    private final PrimitiveDeserializers primitiveDeserializers;
 
-    private Object content;
+    /**
+     * Memoized result of the deserializer; volatile, as the content of the cells of a result may
+     * be resolved in parallel (see ReadOpResult#deserializeParallel) and then read by the caller.
+     * Two threads racing to resolve the same cell both run the (stateless) deserializer, and
+     * publish equivalent results.
+     */
+    private volatile Object content;
 
     private Integer hc;
     private String strRep;
@@ -124,19 +143,80 @@ public class CellDatum implements Serializable {
      * qualifier model tree does not define any deserializers
      */
     public Object getContent() throws CellDeserializationException, IllegalStateException {
+        Object result;
         String logMsg;
-        if (this.content == null) {
+        result = this.content;
+        if (result == null) {
             if (this.deserializer == null) {
                 logMsg = "No deserializer is defined for field ("
                          + toString()
                          + ")";
                 throw new IllegalStateException(logMsg);
             } else {
-                this.content =
+                result =
                     deserializer.deserialize(this.datum.getValue(DefensiveCopyStrategy.ALWAYS));
+                this.content = result;
             }
         }
-        return this.content;
+        return result;
+    }
+
+    /**
+     * @return true if the schema defines a deserializer for this cell, i.e. if
+     * {@link #getContent()} may be invoked
+     */
+    public boolean hasDeserializer() {
+        return (this.deserializer != null);
+    }
+
+    private PrimitiveDeserializers resolvePrimitiveDeserializers() {
+        if (this.primitiveDeserializers == null) {
+            return PrimitiveDeserializers.STANDARD;
+        }
+        return this.primitiveDeserializers;
+    }
+
+    /**
+     * Decode the content of the enclosed Datum as a long, directly from the cell bytes (without
+     * copying or boxing), using the {@link com.liaison.shachi.model.ser.LongCellDeserializer}
+     * declared by the schema, or the standard 8-byte HBase encoding if none is declared.
+     * @return Contents of the cell as a long
+     * @throws CellDeserializationException If the cell contents cannot be decoded as a long
+     */
+    public long getLong() throws CellDeserializationException {
+        final byte[] value;
+        value = this.datum.getValue(DefensiveCopyStrategy.NEVER);
+        return resolvePrimitiveDeserializers().deserializeLong(value, 0, value.length);
+    }
+    /**
+     * Decode the content of the enclosed Datum as an int; see {@link #getLong()}.
+     * @return Contents of the cell as an int
+     * @throws CellDeserializationException If the cell contents cannot be decoded as an int
+     */
+    public int getInt() throws CellDeserializationException {
+        final byte[] value;
+        value = this.datum.getValue(DefensiveCopyStrategy.NEVER);
+        return resolvePrimitiveDeserializers().deserializeInt(value, 0, value.length);
+    }
+    /**
+     * Decode the content of the enclosed Datum as a double; see {@link #getLong()}.
+     * @return Contents of the cell as a double
+     * @throws CellDeserializationException If the cell contents cannot be decoded as a double
+     */
+    public double getDouble() throws CellDeserializationException {
+        final byte[] value;
+        value = this.datum.getValue(DefensiveCopyStrategy.NEVER);
+        return resolvePrimitiveDeserializers().deserializeDouble(value, 0, value.length);
+    }
+    /**
+     * Decode the content of the enclosed Datum as a boolean; see {@link #getLong()}.
+     * @return Contents of the cell as a boolean
+     * @throws CellDeserializationException If the cell contents cannot be decoded as a boolean
+     */
+    public boolean getBoolean() throws CellDeserializationException {
+        final byte[] value;
+        value = this.datum.getValue(DefensiveCopyStrategy.NEVER);
+        return resolvePrimitiveDeserializers().deserializeBoolean(value, 0, value.length);
     }
 
     @Override
@@ -195,5 +275,6 @@ public class CellDatum implements Serializable {
         this.tableRow = build.tableRow;
         this.tableColumn = build.tableColumn;
         this.deserializer = build.deserializer;
+        this.primitiveDeserializers = build.primitiveDeserializers;
     }
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.dto;
+
+import com.liaison.shachi.exception.HBaseDeadlineExceededException;
+import com.liaison.shachi.exception.HBaseOperationAbortedException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time (per {@link System#nanoTime()}) by which the execution of an operation chain must
+ * complete. A bounded deadline caps the time spent waiting to borrow table resources and the
+ * HBase client operation timeout (RPC plus retries) for each operation in the chain, and causes
+ * the chain to be aborted between operations once it has expired. {@link #NONE} imposes no bound.
+ * <br><br>
+ * As the nanoTime origin is arbitrary, a deadline is meaningful only within the JVM which
+ * established it; it is therefore not serializable.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public final class Deadline {
+
+    public static final Deadline NONE = new Deadline(null);
+
+    /**
+     * Establish a deadline which expires the given amount of time from now.
+     * @param timeout time allotted
+     * @param unit unit of the time allotted
+     * @return a bounded deadline
+     * @throws IllegalArgumentException if the timeout is not positive
+     */
+    public static Deadline after(final long timeout, final TimeUnit unit) throws IllegalArgumentException {
+        final String logMsg;
+        if (timeout <= 0) {
+            logMsg = "Deadline timeout must be positive; was: " + timeout + " " + unit;
+            throw new IllegalArgumentException(logMsg);
+        }
+        return new Deadline(Long.valueOf(System.nanoTime() + unit.toNanos(timeout)));
+    }
+
+    private final Long expiresAtNanos;
+
+    private String strRep;
+
+    public boolean isBounded() {
+        return (this.expiresAtNanos != null);
+    }
+
+    /**
+     * @return time remaining (nanoseconds) before this deadline expires, which is zero or negative
+     * if it has already expired, or {@link Long#MAX_VALUE} if unbounded
+     */
+    public long remainingNanos() {
+        if (this.expiresAtNanos == null) {
+            return Long.MAX_VALUE;
+        }
+        return (this.expiresAtNanos.longValue() - System.nanoTime());
+    }
+
+    /**
+     * @return time remaining (milliseconds, rounded up) before this deadline expires, which is zero
+     * if it has already expired, or {@link Long#MAX_VALUE} if unbounded
+     */
+    public long remainingMillis() {
+        final long remaining;
+        if (this.expiresAtNanos == null) {
+            return Long.MAX_VALUE;
+        }
+        remaining = remainingNanos();
+        if (remaining <= 0) {
+            return 0L;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(remaining + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+    }
+
+    /**
+     * Cap the given timeout to the time remaining before this deadline, if bounded; e.g. to bound
+     * the HBase client operation timeout of a table.
+     * @param timeoutMillis timeout (milliseconds)
+     * @return the lesser of the given timeout and the time remaining (milliseconds, at least 1) if
+     * this deadline is bounded; otherwise, the given timeout
+     */
+    public int capMillis(final int timeoutMillis) {
+        if (this.expiresAtNanos == null) {
+            return timeoutMillis;
+        }
+        return (int) Math.max(1L, Math.min(timeoutMillis, remainingMillis()));
+    }
+
+    public boolean isExpired() {
+        return ((this.expiresAtNanos != null) && (remainingNanos() <= 0));
+    }
+
+    /**
+     * Verify that work on behalf of the given operation may (still) proceed: the deadline has not
+     * expired, and the current thread has not been interrupted (as it would be if the future for
+     * an asynchronous chain were cancelled).
+     * @param opDescription identifies the operation, for the exception message
+     * @throws HBaseDeadlineExceededException if this deadline has expired
+     * @throws HBaseOperationAbortedException if the current thread has been interrupted
+     */
+    public void ensureActive(final Object opDescription) throws HBaseDeadlineExceededException, HBaseOperationAbortedException {
+        final String logMsg;
+        if (Thread.currentThread().isInterrupted()) {
+            logMsg = "Operation ("
+                     + opDescription
+                     + ") aborted; executing thread was interrupted (operation cancelled)";
+            throw new HBaseOperationAbortedException(logMsg);
+        }
+        if (isExpired()) {
+            logMsg = "Operation ("
+                     + opDescription
+                     + ") aborted; deadline expired "
+                     + TimeUnit.NANOSECONDS.toMillis(-remainingNanos())
+                     + "ms ago";
+            throw new HBaseDeadlineExceededException(logMsg);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder strGen;
+        if (this.strRep == null) {
+            strGen = new StringBuilder();
+            strGen.append(Deadline.class.getSimpleName());
+            strGen.append(":");
+            if (this.expiresAtNanos == null) {
+                strGen.append("NONE");
+            } else {
+                strGen.append("nanoTime=");
+                strGen.append(this.expiresAtNanos);
+            }
+            this.strRep = strGen.toString();
+        }
+        return this.strRep;
+    }
+
+    private Deadline(final Long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+}
@@ -119,6 +119,15 @@ public class FamilyQualifierPair implements ColRef, Serializable {
         }
         if (otherObj instanceof FamilyQualifierPair) {
             otherFQP = (FamilyQualifierPair) otherObj;
+            /*
+             * Pairs built on the read path share interned (canonical) family and qualifier models
+             * (see ModelInterner), so identity is the common case. (Hash codes are NOT compared as
+             * a shortcut: a FamilyModel's hash covers its declared qualifiers, but its equality
+             * does not.)
+             */
+            if ((this.family == otherFQP.family) && (this.column == otherFQP.column)) {
+                return true;
+            }
             return (Util.refEquals(this.family, otherFQP.family)
                     && Util.refEquals(this.column, otherFQP.column));
         }
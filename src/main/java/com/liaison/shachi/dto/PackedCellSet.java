@@ -0,0 +1,499 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.liaison.shachi.dto;
+
+import com.liaison.javabasics.commons.Util;
+import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
+import com.liaison.shachi.exception.CellDeserializationException;
+import com.liaison.shachi.model.ser.PrimitiveDeserializers;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * Packed, read-only form of the cells read for a single column spec, intended for wide reads
+ * (full families and column ranges) where building a {@link SingleCellResult}, {@link CellDatum},
+ * {@link Datum}, and {@link FamilyQualifierPair} per cell would dwarf the data itself. The
+ * qualifier and value of every cell are stored back to back in one shared byte array, with
+ * parallel arrays of offsets, timestamps, and (if the source schema is versioned) version numbers,
+ * so that the memory retained per cell is its raw content plus 24 bytes.
+ * <br><br>
+ * Cells are ordered by qualifier (ascending, with any version suffix removed), then by version or,
+ * if unversioned, timestamp (both descending, i.e. newest first), so cells may be looked up by
+ * qualifier, or by qualifier and version, using binary search. Instances are immutable.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public final class PackedCellSet {
+
+    private static final int INITIAL_CELL_CAPACITY = 16;
+    private static final int INITIAL_SLAB_CAPACITY = 1024;
+
+    /**
+     * Accumulates cells (in any order) for a PackedCellSet. The regions passed to {@link #add} are
+     * copied immediately, so they may refer directly to the backing arrays of HBase Cells.
+     */
+    public static final class Builder {
+        private final boolean versioned;
+        private final PrimitiveDeserializers primitiveDeserializers;
+        private byte[] slab;
+        private int slabLength;
+        private int[] cellStart;
+        private int[] qualLength;
+        private long[] timestamps;
+        private long[] versions;
+        private int cellCount;
+
+        private void ensureCellCapacity() {
+            final int newCapacity;
+            if (this.cellCount == this.qualLength.length) {
+                newCapacity = this.qualLength.length * 2;
+                this.cellStart = Arrays.copyOf(this.cellStart, newCapacity + 1);
+                this.qualLength = Arrays.copyOf(this.qualLength, newCapacity);
+                this.timestamps = Arrays.copyOf(this.timestamps, newCapacity);
+                if (this.versioned) {
+                    this.versions = Arrays.copyOf(this.versions, newCapacity);
+                }
+            }
+        }
+        private void ensureSlabCapacity(final int additional) {
+            if (this.slabLength + additional > this.slab.length) {
+                this.slab =
+                    Arrays.copyOf(this.slab,
+                                  Math.max(this.slab.length * 2, this.slabLength + additional));
+            }
+        }
+
+        /**
+         * Add a cell to the set.
+         * @param qualBuffer array containing the qualifier, without any version suffix
+         * @param qualOffset index of the first byte of the qualifier
+         * @param qualLen number of bytes in the qualifier
+         * @param valueBuffer array containing the value
+         * @param valueOffset index of the first byte of the value
+         * @param valueLen number of bytes in the value
+         * @param ts timestamp of the cell
+         * @param version version number of the cell; ignored if the set is unversioned
+         * @return this builder
+         */
+        public Builder add(final byte[] qualBuffer, final int qualOffset, final int qualLen, final byte[] valueBuffer, final int valueOffset, final int valueLen, final long ts, final long version) {
+            ensureCellCapacity();
+            ensureSlabCapacity(qualLen + valueLen);
+            System.arraycopy(qualBuffer, qualOffset, this.slab, this.slabLength, qualLen);
+            System.arraycopy(valueBuffer, valueOffset, this.slab, this.slabLength + qualLen, valueLen);
+            this.cellStart[this.cellCount] = this.slabLength;
+            this.qualLength[this.cellCount] = qualLen;
+            this.timestamps[this.cellCount] = ts;
+            if (this.versioned) {
+                this.versions[this.cellCount] = version;
+            }
+            this.slabLength += (qualLen + valueLen);
+            this.cellCount++;
+            this.cellStart[this.cellCount] = this.slabLength;
+            return this;
+        }
+
+        private int compareCells(final int left, final int right) {
+            final int compare;
+            compare =
+                Bytes.compareTo(this.slab, this.cellStart[left], this.qualLength[left],
+                                this.slab, this.cellStart[right], this.qualLength[right]);
+            if (compare != 0) {
+                return compare;
+            }
+            if (this.versioned) {
+                return Long.compare(this.versions[right], this.versions[left]);
+            }
+            return Long.compare(this.timestamps[right], this.timestamps[left]);
+        }
+
+        private boolean isSorted() {
+            for (int index = 1; index < this.cellCount; index++) {
+                if (compareCells(index - 1, index) > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public PackedCellSet build() {
+            final Integer[] order;
+            final byte[] packedSlab;
+            final int[] packedStart;
+            final int[] packedQualLength;
+            final long[] packedTS;
+            final long[] packedVersions;
+            int slabPos;
+            int source;
+            int cellLength;
+
+            /*
+             * HBase returns the cells of each GET in qualifier order, so re-ordering is only needed
+             * where cells came from more than one GET, or where removing qualifier-based version
+             * suffixes changed the relative order of qualifiers.
+             */
+            if (isSorted()) {
+                return new PackedCellSet(Arrays.copyOf(this.slab, this.slabLength),
+                                         Arrays.copyOf(this.cellStart, this.cellCount + 1),
+                                         Arrays.copyOf(this.qualLength, this.cellCount),
+                                         Arrays.copyOf(this.timestamps, this.cellCount),
+                                         (this.versioned
+                                          ? Arrays.copyOf(this.versions, this.cellCount)
+                                          : null),
+                                         this.primitiveDeserializers);
+            }
+            order = new Integer[this.cellCount];
+            for (int index = 0; index < this.cellCount; index++) {
+                order[index] = Integer.valueOf(index);
+            }
+            Arrays.sort(order, Comparator.comparing(Integer::intValue, this::compareCells));
+            packedSlab = new byte[this.slabLength];
+            packedStart = new int[this.cellCount + 1];
+            packedQualLength = new int[this.cellCount];
+            packedTS = new long[this.cellCount];
+            packedVersions = (this.versioned ? new long[this.cellCount] : null);
+            slabPos = 0;
+            for (int index = 0; index < this.cellCount; index++) {
+                source = order[index].intValue();
+                cellLength = this.cellStart[source + 1] - this.cellStart[source];
+                System.arraycopy(this.slab, this.cellStart[source], packedSlab, slabPos, cellLength);
+                packedStart[index] = slabPos;
+                packedQualLength[index] = this.qualLength[source];
+                packedTS[index] = this.timestamps[source];
+                if (packedVersions != null) {
+                    packedVersions[index] = this.versions[source];
+                }
+                slabPos += cellLength;
+            }
+            packedStart[this.cellCount] = slabPos;
+            return new PackedCellSet(packedSlab,
+                                     packedStart,
+                                     packedQualLength,
+                                     packedTS,
+                                     packedVersions,
+                                     this.primitiveDeserializers);
+        }
+
+        private Builder(final boolean versioned, final PrimitiveDeserializers primitiveDeserializers) {
+            this.versioned = versioned;
+            this.primitiveDeserializers = primitiveDeserializers;
+            this.slab = new byte[INITIAL_SLAB_CAPACITY];
+            this.slabLength = 0;
+            this.cellStart = new int[INITIAL_CELL_CAPACITY + 1];
+            this.qualLength = new int[INITIAL_CELL_CAPACITY];
+            this.timestamps = new long[INITIAL_CELL_CAPACITY];
+            this.versions = (versioned ? new long[INITIAL_CELL_CAPACITY] : null);
+            this.cellCount = 0;
+        }
+    }
+
+    /**
+     * Forward-only cursor over the cells of a PackedCellSet, in order. A single cursor instance is
+     * repositioned on each call to {@link #next()}, so iterating allocates nothing per cell.
+     */
+    public final class Cursor {
+        private int index;
+
+        /**
+         * Advance to the next cell.
+         * @return true if positioned on a cell; false if there are no more cells
+         */
+        public boolean next() {
+            if (this.index < size()) {
+                this.index++;
+            }
+            return (this.index < size());
+        }
+        private int current() throws NoSuchElementException {
+            if ((this.index < 0) || (this.index >= size())) {
+                throw new NoSuchElementException("Cursor is not positioned on a cell");
+            }
+            return this.index;
+        }
+        public int getIndex() {
+            return current();
+        }
+        public byte[] getQualifier() {
+            return PackedCellSet.this.getQualifier(current());
+        }
+        public byte[] getValue() {
+            return PackedCellSet.this.getValue(current());
+        }
+        public long getTimestamp() {
+            return PackedCellSet.this.getTimestamp(current());
+        }
+        public long getVersion() throws IllegalStateException {
+            return PackedCellSet.this.getVersion(current());
+        }
+        public long getLong() throws CellDeserializationException {
+            return PackedCellSet.this.getLong(current());
+        }
+        public int getInt() throws CellDeserializationException {
+            return PackedCellSet.this.getInt(current());
+        }
+        public double getDouble() throws CellDeserializationException {
+            return PackedCellSet.this.getDouble(current());
+        }
+        public boolean getBoolean() throws CellDeserializationException {
+            return PackedCellSet.this.getBoolean(current());
+        }
+        private Cursor() {
+            this.index = -1;
+        }
+    }
+
+    /**
+     * @param versioned whether the cells carry version numbers (i.e. the source column is
+     * governed by a versioning scheme)
+     * @param primitiveDeserializers primitive-specialized deserializers declared for the source
+     * column, or null to decode the standard HBase encoding
+     * @return a new builder
+     */
+    public static Builder getBuilder(final boolean versioned, final PrimitiveDeserializers primitiveDeserializers) {
+        return new Builder(versioned, primitiveDeserializers);
+    }
+
+    private final byte[] slab;
+    /**
+     * Start of each cell (qualifier, then value) in the slab; one longer than the cell count, so
+     * that the end of cell i is cellStart[i + 1].
+     */
+    private final int[] cellStart;
+    private final int[] qualLength;
+    private final long[] timestamps;
+    /**
+     * Version number of each cell; null if the set is unversioned.
+     */
+    private final long[] versions;
+    private final PrimitiveDeserializers primitiveDeserializers;
+
+    private String strRep;
+
+    public int size() {
+        return this.qualLength.length;
+    }
+    public boolean isEmpty() {
+        return (size() == 0);
+    }
+    public boolean isVersioned() {
+        return (this.versions != null);
+    }
+
+    /**
+     * @return the total number of qualifier and value bytes held
+     */
+    public int getDataLength() {
+        return this.slab.length;
+    }
+
+    private int valueOffset(final int index) {
+        return this.cellStart[index] + this.qualLength[index];
+    }
+    private int valueLength(final int index) {
+        return this.cellStart[index + 1] - valueOffset(index);
+    }
+
+    /**
+     * @param index position of the cell
+     * @return a copy of the qualifier of the cell (without any version suffix)
+     */
+    public byte[] getQualifier(final int index) {
+        return Arrays.copyOfRange(this.slab,
+                                  this.cellStart[index],
+                                  this.cellStart[index] + this.qualLength[index]);
+    }
+    /**
+     * @param index position of the cell
+     * @return a copy of the value of the cell
+     */
+    public byte[] getValue(final int index) {
+        return Arrays.copyOfRange(this.slab, valueOffset(index), this.cellStart[index + 1]);
+    }
+    public long getTimestamp(final int index) {
+        return this.timestamps[index];
+    }
+    /**
+     * @param index position of the cell
+     * @return the version number of the cell
+     * @throws IllegalStateException if the set is unversioned
+     */
+    public long getVersion(final int index) throws IllegalStateException {
+        if (this.versions == null) {
+            throw new IllegalStateException("Cells of an unversioned column carry no version");
+        }
+        return this.versions[index];
+    }
+
+    private PrimitiveDeserializers resolvePrimitiveDeserializers() {
+        if (this.primitiveDeserializers == null) {
+            return PrimitiveDeserializers.STANDARD;
+        }
+        return this.primitiveDeserializers;
+    }
+
+    /**
+     * Decode the value of a cell as a long, directly from the packed bytes; see
+     * {@link CellDatum#getLong()}.
+     * @param index position of the cell
+     * @return the cell value as a long
+     * @throws CellDeserializationException if the value cannot be decoded as a long
+     */
+    public long getLong(final int index) throws CellDeserializationException {
+        return resolvePrimitiveDeserializers().deserializeLong(this.slab,
+                                                               valueOffset(index),
+                                                               valueLength(index));
+    }
+    public int getInt(final int index) throws CellDeserializationException {
+        return resolvePrimitiveDeserializers().deserializeInt(this.slab,
+                                                              valueOffset(index),
+                                                              valueLength(index));
+    }
+    public double getDouble(final int index) throws CellDeserializationException {
+        return resolvePrimitiveDeserializers().deserializeDouble(this.slab,
+                                                                 valueOffset(index),
+                                                                 valueLength(index));
+    }
+    public boolean getBoolean(final int index) throws CellDeserializationException {
+        return resolvePrimitiveDeserializers().deserializeBoolean(this.slab,
+                                                                  valueOffset(index),
+                                                                  valueLength(index));
+    }
+
+    /**
+     * Build a standalone Datum from a cell, e.g. for interoperation with code written against
+     * {@link CellDatum}; this copies the value.
+     * @param index position of the cell
+     * @return Datum holding the value, timestamp, and (if versioned) version of the cell
+     */
+    public Datum toDatum(final int index) {
+        final Datum.Builder datumBuild;
+        datumBuild =
+            Datum.with()
+                 .value(getValue(index), DefensiveCopyStrategy.NEVER)
+                 .ts(this.timestamps[index]);
+        if (this.versions != null) {
+            datumBuild.version(this.versions[index]);
+        }
+        return datumBuild.build();
+    }
+
+    private int compareQualifier(final int index, final byte[] qual) {
+        return Bytes.compareTo(this.slab, this.cellStart[index], this.qualLength[index],
+                               qual, 0, qual.length);
+    }
+
+    /**
+     * Find the first (i.e. newest) cell with the given qualifier.
+     * @param qual qualifier (without any version suffix)
+     * @return the position of the cell, if present; otherwise, (-(insertion point) - 1), per the
+     * convention of {@link Arrays#binarySearch(int[], int)}
+     */
+    public int indexOf(final byte[] qual) {
+        int low;
+        int high;
+        int mid;
+
+        Util.ensureNotNull(qual, this, "qual", byte[].class);
+        low = 0;
+        high = size();
+        while (low < high) {
+            mid = (low + high) >>> 1;
+            if (compareQualifier(mid, qual) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if ((low < size()) && (compareQualifier(low, qual) == 0)) {
+            return low;
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Find the cell with the given qualifier and version.
+     * @param qual qualifier (without any version suffix)
+     * @param version version number
+     * @return the position of the cell, if present; otherwise, a negative number
+     * @throws IllegalStateException if the set is unversioned
+     */
+    public int indexOf(final byte[] qual, final long version) throws IllegalStateException {
+        int low;
+        int high;
+        int mid;
+
+        if (this.versions == null) {
+            throw new IllegalStateException("Cells of an unversioned column carry no version");
+        }
+        low = indexOf(qual);
+        if (low < 0) {
+            return low;
+        }
+        high = low;
+        while ((high < size()) && (compareQualifier(high, qual) == 0)) {
+            high++;
+        }
+        // within the qualifier, versions are descending
+        while (low < high) {
+            mid = (low + high) >>> 1;
+            if (this.versions[mid] > version) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if ((low < size())
+            && (compareQualifier(low, qual) == 0)
+            && (this.versions[low] == version)) {
+            return low;
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * @return a new cursor, positioned before the first cell
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    @Override
+    public String toString() {
+        if (this.strRep == null) {
+            this.strRep =
+                PackedCellSet.class.getSimpleName()
+                + "(cells="
+                + size()
+                + ",bytes="
+                + this.slab.length
+                + ",versioned="
+                + isVersioned()
+                + ")";
+        }
+        return this.strRep;
+    }
+
+    private PackedCellSet(final byte[] slab, final int[] cellStart, final int[] qualLength, final long[] timestamps, final long[] versions, final PrimitiveDeserializers primitiveDeserializers) {
+        this.slab = slab;
+        this.cellStart = cellStart;
+        this.qualLength = qualLength;
+        this.timestamps = timestamps;
+        this.versions = versions;
+        this.primitiveDeserializers = primitiveDeserializers;
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.liaison.shachi.dto;
 
+import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
 import com.liaison.shachi.model.TableModel;
 
 /**
@@ -25,5 +26,16 @@ import com.liaison.shachi.model.TableModel;
 public interface RowRef {
     TableModel getTable();
     RowKey getRowKey();
+    /**
+     * @return a copy of the row key as literalized by the table model (e.g. salted)
+     */
     byte[] getLiteralizedRowKeyBytes() throws IllegalStateException;
+    /**
+     * The row key as literalized by the table model, computed once and cached; with
+     * {@link DefensiveCopyStrategy#NEVER}, the cached array itself is returned, and must not be
+     * modified.
+     * @param copyStrategy whether to return a copy of the cached array
+     * @return the literalized row key
+     */
+    byte[] getLiteralizedRowKeyBytes(DefensiveCopyStrategy copyStrategy) throws IllegalStateException;
 }
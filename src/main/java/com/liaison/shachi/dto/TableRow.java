@@ -17,6 +17,8 @@
 package com.liaison.shachi.dto;
 
 import com.liaison.javabasics.commons.Util;
+import com.liaison.javabasics.serialization.BytesUtil;
+import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
 import com.liaison.shachi.model.TableModel;
 
 import java.io.Serializable;
@@ -31,6 +33,7 @@ public class TableRow implements RowRef, Serializable {
         private TableModel table;
         private RowKey row;
         private String description;
+        private byte[] literalizedRowKey;
 
         public Builder table(final TableModel table) {
             this.table = table;
@@ -44,6 +47,16 @@ public class TableRow implements RowRef, Serializable {
             this.description = description;
             return this;
         }
+        /**
+         * Supply the row key as already literalized by the table model (e.g. by a frozen row
+         * spec), so that it is not computed again; the array is adopted, not copied.
+         * @param literalizedRowKey the literalized row key
+         * @return this builder
+         */
+        public Builder literalizedRowKey(final byte[] literalizedRowKey) {
+            this.literalizedRowKey = literalizedRowKey;
+            return this;
+        }
         public TableRow build() throws IllegalArgumentException {
             return new TableRow(this);
         }
@@ -51,6 +64,7 @@ public class TableRow implements RowRef, Serializable {
             this.table = null;
             this.row = null;
             this.description = null;
+            this.literalizedRowKey = null;
         }
     }
 
@@ -72,6 +86,11 @@ public class TableRow implements RowRef, Serializable {
      * differing descriptions) are judged equal when used as map keys, etc.
      */
     private final String description;
+    /**
+     * Row key as literalized by the table model; supplied at build time, or computed upon
+     * construction, so that the instance is immutable and may be shared between threads
+     */
+    private final byte[] literalizedRowKey;
 
     private Integer hc;
     private String strRep;
@@ -85,8 +104,12 @@ public class TableRow implements RowRef, Serializable {
         return this.row;
     }
     @Override
+    public byte[] getLiteralizedRowKeyBytes(final DefensiveCopyStrategy copyStrategy) {
+        return BytesUtil.getInternalByteArray(this.literalizedRowKey, copyStrategy);
+    }
+    @Override
     public byte[] getLiteralizedRowKeyBytes() {
-        return this.table.literalize(this.row);
+        return getLiteralizedRowKeyBytes(DefensiveCopyStrategy.ALWAYS);
     }
     public String getDescription() {
         return this.description;
@@ -139,5 +162,10 @@ public class TableRow implements RowRef, Serializable {
         this.table = build.table;
         this.row = build.row;
         this.description = build.description;
+        if (build.literalizedRowKey == null) {
+            this.literalizedRowKey = this.table.literalize(this.row);
+        } else {
+            this.literalizedRowKey = build.literalizedRowKey;
+        }
     }
 }
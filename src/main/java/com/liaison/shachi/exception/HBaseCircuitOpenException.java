@@ -0,0 +1,38 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.exception;
+
+/**
+ * Indicates that an operation was rejected without being attempted because the circuit breaker
+ * for its table is open: recent operations against the table failed at a rate exceeding the
+ * threshold configured by the context's
+ * {@link com.liaison.shachi.context.breaker.CircuitBreakerPolicy}.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public class HBaseCircuitOpenException extends HBaseException {
+
+    private static final long serialVersionUID = 2230916384927465520L;
+
+    public HBaseCircuitOpenException(final String message) {
+        super(message);
+    }
+    public HBaseCircuitOpenException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+    public HBaseCircuitOpenException(final String message, final Throwable cause, final boolean enableSuppression, final boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+}
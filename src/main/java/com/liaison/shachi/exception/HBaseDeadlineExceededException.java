@@ -0,0 +1,36 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.exception;
+
+/**
+ * Indicates that the deadline assigned to an operation chain expired before all operations in the
+ * chain completed.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public class HBaseDeadlineExceededException extends HBaseOperationAbortedException {
+
+    private static final long serialVersionUID = -7406522946393183361L;
+
+    public HBaseDeadlineExceededException(final String message) {
+        super(message);
+    }
+    public HBaseDeadlineExceededException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+    public HBaseDeadlineExceededException(final String message, final Throwable cause, final boolean enableSuppression, final boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.exception;
+
+/**
+ * Indicates that the execution of an operation chain was stopped before all operations in the
+ * chain completed, either because the executing thread was interrupted (e.g. the asynchronous
+ * future for the chain was cancelled) or because the deadline for the chain expired.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public class HBaseOperationAbortedException extends HBaseException {
+
+    private static final long serialVersionUID = 3958802171846395212L;
+
+    public HBaseOperationAbortedException(final String message) {
+        super(message);
+    }
+    public HBaseOperationAbortedException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+    public HBaseOperationAbortedException(final String message, final Throwable cause, final boolean enableSuppression, final boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+}
@@ -0,0 +1,379 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.exec;
+
+import com.liaison.javabasics.commons.Util;
+import com.liaison.shachi.context.batch.MicroBatchPolicy;
+import com.liaison.shachi.dto.Deadline;
+import com.liaison.shachi.exception.HBaseDeadlineExceededException;
+import com.liaison.shachi.exception.HBaseException;
+import com.liaison.shachi.exception.HBaseOperationAbortedException;
+import com.liaison.shachi.exception.HBaseRuntimeException;
+import com.liaison.shachi.model.TableModel;
+import org.apache.hadoop.hbase.client.Row;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Collects HBase actions submitted concurrently by many threads and sends them to HBase per table
+ * as batch calls, completing each submitter's result independently. Submitters block until their
+ * own actions complete (or their own deadline expires); batch calls are executed in a separate
+ * pool, so that a submitter which gives up does not abandon the other operations in its batch.
+ * <br><br>
+ * For each table, at most {@link MicroBatchPolicy#getMaxConcurrentBatches()} batch calls are in
+ * flight at once, and operations arriving meanwhile accumulate for the next batch. Before sending
+ * a batch, the sender waits for further operations for a window proportional to the size of the
+ * previous batch for the same table, so the window is zero at low load (see
+ * {@link MicroBatchPolicy}).
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public final class MicroBatcher {
+
+    /**
+     * Sends one batch of actions against the given table, populating the results array per
+     * {@link org.apache.hadoop.hbase.client.HTable#batch(List, Object[])}: on return (or
+     * failure), each element is either the result of the corresponding action, a Throwable if
+     * that action failed, or null if it was never attempted. The given deadline is the earliest
+     * of those of the operations in the batch; it should bound both the wait to borrow a table
+     * resource and the operation timeout of the batch call.
+     */
+    @FunctionalInterface
+    public interface BatchPerformer {
+        void perform(TableModel model, List<Row> actions, Object[] results, Deadline deadline) throws HBaseException, IOException, InterruptedException;
+    }
+
+    private static final class Pending {
+        private final List<? extends Row> actions;
+        private final Deadline deadline;
+        private final CompletableFuture<Object[]> outcome;
+        private Pending(final List<? extends Row> actions, final Deadline deadline) {
+            this.actions = actions;
+            this.deadline = deadline;
+            this.outcome = new CompletableFuture<>();
+        }
+    }
+
+    private final class TableBatchQueue {
+        private final TableModel model;
+        private final ConcurrentLinkedQueue<Pending> queue;
+        private final AtomicInteger queuedActions;
+        private final AtomicInteger inFlight;
+        private volatile int lastBatchSize;
+
+        /**
+         * Start another sender for this table if any operations are waiting and fewer than the
+         * maximum number of batches are in flight.
+         */
+        private void schedule() {
+            int current;
+            current = this.inFlight.get();
+            while ((current < MicroBatcher.this.policy.getMaxConcurrentBatches())
+                   && (!this.queue.isEmpty())) {
+                if (this.inFlight.compareAndSet(current, current + 1)) {
+                    try {
+                        MicroBatcher.this.sendPool.execute(this::send);
+                    } catch (RejectedExecutionException rejExc) {
+                        this.inFlight.decrementAndGet();
+                        failAll(rejExc);
+                    }
+                    return;
+                }
+                current = this.inFlight.get();
+            }
+        }
+
+        private void failAll(final Throwable cause) {
+            Pending pending;
+            while ((pending = this.queue.poll()) != null) {
+                this.queuedActions.addAndGet(-pending.actions.size());
+                pending.outcome.completeExceptionally(cause);
+            }
+        }
+
+        /**
+         * Wait for further operations to arrive, for a window proportional to the size of the
+         * previous batch, unless a full batch is already waiting.
+         */
+        private void linger() {
+            final int maxBatchSize;
+            final long windowNanos;
+            maxBatchSize = MicroBatcher.this.policy.getMaxBatchSize();
+            if ((this.lastBatchSize <= 1) || (this.queuedActions.get() >= maxBatchSize)) {
+                return;
+            }
+            windowNanos =
+                (TimeUnit.MICROSECONDS.toNanos(MicroBatcher.this.policy.getMaxDelayMicros())
+                 * Math.min(this.lastBatchSize, maxBatchSize))
+                / maxBatchSize;
+            if (windowNanos > 0) {
+                LockSupport.parkNanos(windowNanos);
+            }
+        }
+
+        private List<Pending> drain() {
+            final List<Pending> batch;
+            final int maxBatchSize;
+            int batchActions;
+            Pending pending;
+            batch = new ArrayList<>();
+            maxBatchSize = MicroBatcher.this.policy.getMaxBatchSize();
+            batchActions = 0;
+            // always take at least one operation, even if it alone exceeds the maximum batch size
+            while ((batch.isEmpty()) || (batchActions < maxBatchSize)) {
+                pending = this.queue.peek();
+                if ((pending == null)
+                    || ((!batch.isEmpty())
+                        && (batchActions + pending.actions.size() > maxBatchSize))) {
+                    break;
+                }
+                if (this.queue.remove(pending)) {
+                    this.queuedActions.addAndGet(-pending.actions.size());
+                    batch.add(pending);
+                    batchActions += pending.actions.size();
+                }
+            }
+            return batch;
+        }
+
+        private void send() {
+            List<Pending> batch;
+            try {
+                while (true) {
+                    linger();
+                    batch = drain();
+                    if (batch.isEmpty()) {
+                        break;
+                    }
+                    this.lastBatchSize = batch.size();
+                    MicroBatcher.this.batchCount.incrementAndGet();
+                    sendBatch(this.model, batch);
+                }
+            } finally {
+                this.inFlight.decrementAndGet();
+                // an operation may have been queued after the final drain, but before the above
+                schedule();
+            }
+        }
+
+        private TableBatchQueue(final TableModel model) {
+            this.model = model;
+            this.queue = new ConcurrentLinkedQueue<>();
+            this.queuedActions = new AtomicInteger(0);
+            this.inFlight = new AtomicInteger(0);
+            this.lastBatchSize = 0;
+        }
+    }
+
+    private final MicroBatchPolicy policy;
+    private final BatchPerformer performer;
+    private final Executor sendPool;
+    private final ConcurrentHashMap<TableModel, TableBatchQueue> queues;
+    private final AtomicLong requestCount;
+    private final AtomicLong batchCount;
+
+    private void sendBatch(final TableModel model, final List<Pending> drained) {
+        final List<Pending> batch;
+        final List<Row> actions;
+        final Object[] results;
+        Deadline batchDeadline;
+        Throwable failure;
+        Object[] ownResults;
+        int offset;
+
+        batch = new ArrayList<>(drained.size());
+        batchDeadline = Deadline.NONE;
+        for (Pending pending : drained) {
+            if (pending.deadline.isExpired()) {
+                // its submitter has given up (or is about to); do not let it cut the batch short
+                pending.outcome.completeExceptionally(
+                    new HBaseDeadlineExceededException("Operation aborted; deadline expired awaiting batch"));
+            } else {
+                batch.add(pending);
+                if (pending.deadline.remainingNanos() < batchDeadline.remainingNanos()) {
+                    batchDeadline = pending.deadline;
+                }
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        actions = new ArrayList<>();
+        for (Pending pending : batch) {
+            actions.addAll(pending.actions);
+        }
+        results = new Object[actions.size()];
+        failure = null;
+        try {
+            this.performer.perform(model, actions, results, batchDeadline);
+        } catch (InterruptedException intExc) {
+            Thread.currentThread().interrupt();
+            failure = new InterruptedIOException("Batch interrupted; " + intExc);
+            failure.initCause(intExc);
+        } catch (HBaseException | IOException | RuntimeException | Error exc) {
+            failure = exc;
+        }
+        offset = 0;
+        for (Pending pending : batch) {
+            ownResults =
+                Arrays.copyOfRange(results, offset, offset + pending.actions.size());
+            offset += pending.actions.size();
+            if ((failure != null) && (Arrays.asList(ownResults).contains(null))) {
+                pending.outcome.completeExceptionally(failure);
+            } else {
+                pending.outcome.complete(ownResults);
+            }
+        }
+    }
+
+    private static Object[] await(final CompletableFuture<Object[]> outcome, final Deadline deadline) throws HBaseException, IOException {
+        final String logMsg;
+        final Throwable cause;
+        try {
+            if (deadline.isBounded()) {
+                return outcome.get(Math.max(0L, deadline.remainingNanos()), TimeUnit.NANOSECONDS);
+            }
+            return outcome.get();
+        } catch (InterruptedException intExc) {
+            Thread.currentThread().interrupt();
+            logMsg = "Operation aborted; interrupted while awaiting batch result; " + intExc;
+            throw new HBaseOperationAbortedException(logMsg, intExc);
+        } catch (TimeoutException timeoutExc) {
+            logMsg = "Operation aborted; deadline expired awaiting batch result";
+            throw new HBaseDeadlineExceededException(logMsg, timeoutExc);
+        } catch (ExecutionException execExc) {
+            cause = execExc.getCause();
+            if (cause instanceof HBaseException) {
+                throw (HBaseException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof HBaseRuntimeException) {
+                throw (HBaseRuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new HBaseException("Batched operation failed; " + cause, cause);
+        }
+    }
+
+    /**
+     * Submit the given actions for inclusion in the next batch for the given table, and wait for
+     * them to complete.
+     * @param model the table against which the actions are to be performed
+     * @param actions the actions of a single operation
+     * @param deadline the deadline of the calling operation chain; the batch containing the
+     * actions is sent subject to the earliest deadline of the operations in it, and, if the
+     * deadline expires, the caller stops waiting, but the actions may still be performed
+     * @return one element per action, in the same order: either the result of the action (per
+     * {@link org.apache.hadoop.hbase.client.HTable#batch(List, Object[])}) or a Throwable if that
+     * action failed
+     * @throws HBaseException
+     * @throws IOException if the batch as a whole failed before the given actions completed
+     */
+    public Object[] execute(final TableModel model, final List<? extends Row> actions, final Deadline deadline) throws HBaseException, IOException {
+        final Pending pending;
+        final TableBatchQueue tableQueue;
+
+        Util.ensureNotNull(model, this, "model", TableModel.class);
+        Util.ensureNotNull(actions, this, "actions", List.class);
+        Util.ensureNotNull(deadline, this, "deadline", Deadline.class);
+
+        deadline.ensureActive(model);
+        if (actions.isEmpty()) {
+            return new Object[0];
+        }
+        this.requestCount.incrementAndGet();
+        pending = new Pending(actions, deadline);
+        tableQueue = this.queues.computeIfAbsent(model, TableBatchQueue::new);
+        tableQueue.queuedActions.addAndGet(actions.size());
+        tableQueue.queue.add(pending);
+        tableQueue.schedule();
+        return await(pending.outcome, deadline);
+    }
+
+    /**
+     * @return the number of operations submitted to this batcher
+     */
+    public long getRequestCount() {
+        return this.requestCount.get();
+    }
+    /**
+     * @return the number of batch calls sent by this batcher
+     */
+    public long getBatchCount() {
+        return this.batchCount.get();
+    }
+    /**
+     * @return the mean number of operations per batch call (0.0 if no batches have been sent)
+     */
+    public double getMeanBatchSize() {
+        final long batches;
+        batches = getBatchCount();
+        if (batches <= 0) {
+            return 0.0;
+        }
+        return ((double) getRequestCount()) / batches;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder strGen;
+        strGen = new StringBuilder();
+        strGen.append(MicroBatcher.class.getSimpleName());
+        strGen.append("(requests=");
+        strGen.append(getRequestCount());
+        strGen.append(",batches=");
+        strGen.append(getBatchCount());
+        strGen.append(",policy=");
+        strGen.append(this.policy);
+        strGen.append(")");
+        return strGen.toString();
+    }
+
+    /**
+     * @param policy
+     * @param performer sends each batch to HBase
+     * @param sendPool the pool in which batches are sent; should permit at least
+     * {@link MicroBatchPolicy#getMaxConcurrentBatches()} concurrent tasks per table, and should
+     * run tasks it cannot accommodate in the submitting thread (or reject them, failing the
+     * operations waiting for the table) rather than queueing them
+     */
+    public MicroBatcher(final MicroBatchPolicy policy, final BatchPerformer performer, final Executor sendPool) {
+        Util.ensureNotNull(policy, this, "policy", MicroBatchPolicy.class);
+        Util.ensureNotNull(performer, this, "performer", BatchPerformer.class);
+        Util.ensureNotNull(sendPool, this, "sendPool", Executor.class);
+        this.policy = policy;
+        this.performer = performer;
+        this.sendPool = sendPool;
+        this.queues = new ConcurrentHashMap<>();
+        this.requestCount = new AtomicLong(0L);
+        this.batchCount = new AtomicLong(0L);
+    }
+}
@@ -0,0 +1,379 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.exec;
+
+import com.google.protobuf.ByteString;
+import com.liaison.javabasics.commons.Util;
+import com.liaison.shachi.dto.Deadline;
+import com.liaison.shachi.exception.HBaseDeadlineExceededException;
+import com.liaison.shachi.exception.HBaseException;
+import com.liaison.shachi.exception.HBaseOperationAbortedException;
+import com.liaison.shachi.exception.HBaseRuntimeException;
+import com.liaison.shachi.model.TableModel;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.protobuf.ProtobufUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight de-duplication of identical concurrent READs: while a READ is in flight, any other
+ * READ which would send exactly the same GET(s) to the same table attaches to the in-flight READ
+ * and shares its results, rather than issuing its own RPC(s). Nothing is retained once the
+ * in-flight READ completes, so there is nothing to configure (no size, no expiry).
+ * <br><br>
+ * The key for a READ is its {@link ReadShape} (the table plus the wire (protobuf) encoding of each
+ * GET with the row omitted, which captures the requested families/qualifiers, filters (column
+ * ranges), time range, and maximum versions) and the row key of each GET it sends; READs built
+ * from different but equivalent specs therefore coalesce. The shape does not depend upon the row,
+ * so it is computed once per frozen spec (or prepared READ) and reused by every execution thereof;
+ * only the row keys are hashed per READ. A READ of several rows may send the GETs of a single
+ * shape once per row; since its key includes the row of every GET, it coalesces only with a READ
+ * of the same rows, in the same order.
+ * The raw HBase {@link Result}s (which are not modified after construction) are shared; each
+ * caller decodes them against its own spec, since a decoded result is bound to the handles and
+ * column specs of the spec which produced it.
+ * <br><br>
+ * <strong>Note:</strong> a READ which attaches to an in-flight READ may observe results as of the
+ * time that READ started, which may precede a WRITE completed by the attaching caller just before
+ * its READ was issued.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public final class ReadCoalescer {
+
+    @FunctionalInterface
+    public interface ReadPerformer {
+        List<Result> perform() throws HBaseException, IOException;
+    }
+
+    /**
+     * Everything which identifies a READ except the row being read: the table, and the GET(s)
+     * encoded without their row key. Immutable, with its hash code computed upon construction, so
+     * that it may be computed once and reused for every READ of the same shape.
+     */
+    public static final class ReadShape {
+        private final TableModel model;
+        private final byte[] encodedGets;
+        private final int getCount;
+        private final int hc;
+
+        /**
+         * Compute the shape of the READ performed by the given GET(s). All GETs of a READ target
+         * the same row, which is not part of the shape.
+         * @param model the table to be read
+         * @param gets the GET(s) which constitute the READ
+         * @return the shape of the READ
+         * @throws IOException if the GETs cannot be encoded
+         */
+        public static ReadShape of(final TableModel model, final List<Get> gets) throws IOException {
+            final ByteArrayOutputStream encoded;
+
+            Util.ensureNotNull(model, "ReadShape#of", "model", TableModel.class);
+            Util.ensureNotNull(gets, "ReadShape#of", "gets", List.class);
+            encoded = new ByteArrayOutputStream();
+            for (Get get : gets) {
+                ProtobufUtil
+                    .toGet(get)
+                    .toBuilder()
+                    .setRow(ByteString.EMPTY)
+                    .build()
+                    .writeDelimitedTo(encoded);
+            }
+            return new ReadShape(model, encoded.toByteArray(), gets.size());
+        }
+
+        /**
+         * @return the number of GETs which constitute a READ of this shape
+         */
+        public int getGetCount() {
+            return this.getCount;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hc;
+        }
+        @Override
+        public boolean equals(final Object otherObj) {
+            final ReadShape otherShape;
+            if (this == otherObj) {
+                return true;
+            }
+            if (otherObj instanceof ReadShape) {
+                otherShape = (ReadShape) otherObj;
+                return ((this.hc == otherShape.hc)
+                        && (this.getCount == otherShape.getCount)
+                        && (Arrays.equals(this.encodedGets, otherShape.encodedGets))
+                        && ((this.model == otherShape.model)
+                            || (this.model.equals(otherShape.model))));
+            }
+            return false;
+        }
+
+        private ReadShape(final TableModel model, final byte[] encodedGets, final int getCount) {
+            this.model = model;
+            this.encodedGets = encodedGets;
+            this.getCount = getCount;
+            this.hc = model.hashCode() ^ Arrays.hashCode(this.encodedGets);
+        }
+    }
+
+    /**
+     * The shape of a READ plus the row key of each GET it sends, in order.
+     */
+    private static final class ReadKey {
+        private final ReadShape shape;
+        private final byte[][] rowKeys;
+        private final int hc;
+
+        @Override
+        public int hashCode() {
+            return this.hc;
+        }
+        @Override
+        public boolean equals(final Object otherObj) {
+            final ReadKey otherKey;
+            if (this == otherObj) {
+                return true;
+            }
+            if (otherObj instanceof ReadKey) {
+                otherKey = (ReadKey) otherObj;
+                return ((this.hc == otherKey.hc)
+                        && (Arrays.deepEquals(this.rowKeys, otherKey.rowKeys))
+                        && (this.shape.equals(otherKey.shape)));
+            }
+            return false;
+        }
+
+        private ReadKey(final ReadShape shape, final byte[][] rowKeys) {
+            this.shape = shape;
+            this.rowKeys = rowKeys;
+            this.hc = (31 * shape.hashCode()) + Arrays.deepHashCode(rowKeys);
+        }
+    }
+
+    private final ConcurrentHashMap<ReadKey, CompletableFuture<List<Result>>> inFlight;
+    private final AtomicLong requestCount;
+    private final AtomicLong coalescedCount;
+
+    private static void rethrow(final Throwable cause) throws HBaseException {
+        if (cause instanceof HBaseException) {
+            throw (HBaseException) cause;
+        } else if (cause instanceof HBaseRuntimeException) {
+            throw (HBaseRuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new HBaseException("Coalesced READ failed; " + cause, cause);
+    }
+
+    /**
+     * Wait for the in-flight READ to complete, but no longer than the caller's own deadline.
+     * @param leader
+     * @param deadline
+     * @return the results of the in-flight READ, or null if it was aborted on behalf of its own
+     * caller (in which case the waiting caller should perform the READ itself)
+     * @throws HBaseException
+     */
+    private static List<Result> await(final CompletableFuture<List<Result>> leader, final Deadline deadline) throws HBaseException {
+        final String logMsg;
+        try {
+            if (deadline.isBounded()) {
+                return leader.get(Math.max(0L, deadline.remainingNanos()), TimeUnit.NANOSECONDS);
+            }
+            return leader.get();
+        } catch (InterruptedException intExc) {
+            Thread.currentThread().interrupt();
+            logMsg = "READ aborted; interrupted while awaiting coalesced result; " + intExc;
+            throw new HBaseOperationAbortedException(logMsg, intExc);
+        } catch (TimeoutException timeoutExc) {
+            logMsg = "READ aborted; deadline expired awaiting coalesced result";
+            throw new HBaseDeadlineExceededException(logMsg, timeoutExc);
+        } catch (ExecutionException execExc) {
+            /*
+             * An abort (deadline or cancellation) applies only to the caller which was performing
+             * the READ, not to those waiting on it.
+             */
+            if (execExc.getCause() instanceof HBaseOperationAbortedException) {
+                return null;
+            }
+            rethrow(execExc.getCause());
+            return null;
+        }
+    }
+
+    /**
+     * Perform the given READ, or attach to an identical READ which is already in flight.
+     * @param model the table to be read
+     * @param gets the GET(s) which constitute the READ
+     * @param deadline the deadline of the calling operation chain
+     * @param performer performs the READ, if no identical READ is in flight
+     * @return the results of the READ
+     * @throws HBaseException
+     * @throws IOException
+     */
+    public List<Result> execute(final TableModel model, final List<Get> gets, final Deadline deadline, final ReadPerformer performer) throws HBaseException, IOException {
+        Util.ensureNotNull(gets, this, "gets", List.class);
+        return execute(ReadShape.of(model, gets), gets, deadline, performer);
+    }
+
+    /**
+     * Perform the given READ, or attach to an identical READ which is already in flight.
+     * @param shape the shape of the GETs sent for each row read, as computed by
+     * {@link ReadShape#of(TableModel, List)}
+     * @param gets the GET(s) which constitute the READ: the GETs of the given shape, bound to
+     * each row read in turn
+     * @param deadline the deadline of the calling operation chain
+     * @param performer performs the READ, if no identical READ is in flight
+     * @return the results of the READ
+     * @throws IllegalArgumentException if the number of GETs is not a multiple of the number of
+     * GETs of the given shape
+     * @throws HBaseException
+     * @throws IOException
+     */
+    public List<Result> execute(final ReadShape shape, final List<Get> gets, final Deadline deadline, final ReadPerformer performer) throws IllegalArgumentException, HBaseException, IOException {
+        final int getsPerRow;
+        final int getCount;
+        final byte[][] rowKeys;
+
+        Util.ensureNotNull(shape, this, "shape", ReadShape.class);
+        Util.ensureNotNull(gets, this, "gets", List.class);
+        getsPerRow = shape.getGetCount();
+        getCount = gets.size();
+        if (((getsPerRow == 0) && (getCount != 0))
+            || ((getsPerRow > 0) && ((getCount % getsPerRow) != 0))) {
+            throw new IllegalArgumentException("READ of "
+                                               + getCount
+                                               + " GET(s) does not consist of GETs of a shape of "
+                                               + getsPerRow
+                                               + " GET(s) per row");
+        }
+        rowKeys = new byte[getCount][];
+        for (int index = 0; index < getCount; index++) {
+            rowKeys[index] = gets.get(index).getRow();
+        }
+        return execute(new ReadKey(shape, rowKeys), deadline, performer);
+    }
+
+    /**
+     * Perform the given READ of a single row, or attach to an identical READ which is already in
+     * flight.
+     * @param shape the shape of the READ, as computed by {@link ReadShape#of(TableModel, List)}
+     * @param rowKey the literalized key of the row being read, which all of its GETs target
+     * @param deadline the deadline of the calling operation chain
+     * @param performer performs the READ, if no identical READ is in flight
+     * @return the results of the READ
+     * @throws HBaseException
+     * @throws IOException
+     */
+    public List<Result> execute(final ReadShape shape, final byte[] rowKey, final Deadline deadline, final ReadPerformer performer) throws HBaseException, IOException {
+        final byte[][] rowKeys;
+
+        Util.ensureNotNull(shape, this, "shape", ReadShape.class);
+        Util.ensureNotNull(rowKey, this, "rowKey", byte[].class);
+        rowKeys = new byte[shape.getGetCount()][];
+        Arrays.fill(rowKeys, rowKey);
+        return execute(new ReadKey(shape, rowKeys), deadline, performer);
+    }
+
+    private List<Result> execute(final ReadKey key, final Deadline deadline, final ReadPerformer performer) throws HBaseException, IOException {
+        CompletableFuture<List<Result>> leader;
+        final CompletableFuture<List<Result>> ownFlight;
+        List<Result> resList;
+
+        Util.ensureNotNull(deadline, this, "deadline", Deadline.class);
+        Util.ensureNotNull(performer, this, "performer", ReadPerformer.class);
+
+        this.requestCount.incrementAndGet();
+        ownFlight = new CompletableFuture<>();
+        leader = this.inFlight.putIfAbsent(key, ownFlight);
+        while (leader != null) {
+            this.coalescedCount.incrementAndGet();
+            resList = await(leader, deadline);
+            if (resList != null) {
+                return resList;
+            }
+            // the in-flight READ was aborted; take over, unless another caller already has
+            this.coalescedCount.decrementAndGet();
+            leader = this.inFlight.putIfAbsent(key, ownFlight);
+        }
+        try {
+            resList = performer.perform();
+            ownFlight.complete(resList);
+            return resList;
+        } catch (HBaseException | IOException | RuntimeException | Error exc) {
+            ownFlight.completeExceptionally(exc);
+            throw exc;
+        } finally {
+            this.inFlight.remove(key, ownFlight);
+        }
+    }
+
+    /**
+     * @return the number of READs submitted to this coalescer
+     */
+    public long getRequestCount() {
+        return this.requestCount.get();
+    }
+    /**
+     * @return the number of READs which were satisfied by attaching to an identical in-flight READ
+     */
+    public long getCoalescedCount() {
+        return this.coalescedCount.get();
+    }
+    /**
+     * @return the fraction of READs satisfied by attaching to an identical in-flight READ (0.0 if
+     * no READs have been submitted)
+     */
+    public double getCoalescingRatio() {
+        final long requests;
+        requests = getRequestCount();
+        if (requests <= 0) {
+            return 0.0;
+        }
+        return ((double) getCoalescedCount()) / requests;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder strGen;
+        strGen = new StringBuilder();
+        strGen.append(ReadCoalescer.class.getSimpleName());
+        strGen.append("(requests=");
+        strGen.append(getRequestCount());
+        strGen.append(",coalesced=");
+        strGen.append(getCoalescedCount());
+        strGen.append(",in-flight=");
+        strGen.append(this.inFlight.size());
+        strGen.append(")");
+        return strGen.toString();
+    }
+
+    public ReadCoalescer() {
+        this.inFlight = new ConcurrentHashMap<>();
+        this.requestCount = new AtomicLong(0L);
+        this.coalescedCount = new AtomicLong(0L);
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.exec;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.liaison.javabasics.commons.Util;
+import com.liaison.shachi.context.batch.MicroBatchPolicy;
+import com.liaison.shachi.dto.Deadline;
+import com.liaison.shachi.exception.HBaseDeadlineExceededException;
+import com.liaison.shachi.exception.HBaseException;
+import com.liaison.shachi.model.TableModel;
+import com.liaison.shachi.resmgr.res.ManagedTable;
+import org.apache.hadoop.hbase.HRegionLocation;
+import org.apache.hadoop.hbase.ServerName;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.Row;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link MicroBatcher.BatchPerformer} which partitions each batch by the region server hosting
+ * the row of each action, as given by the region locations cached by the table handle, and sends
+ * each server's sub-batch as a separate call, in parallel. The number of sub-batch calls in flight
+ * against any one server is bounded by {@link MicroBatchPolicy#getMaxConcurrentPerServer()}, so
+ * that a slow server holds up only the sub-batches destined for it, rather than the batch capacity
+ * of every table it hosts regions for.
+ * <br><br>
+ * The sub-batch for one server is sent on the calling thread; the others are sent in the given
+ * pool. Each sub-batch borrows its own table resource, and the resource borrowed to look up region
+ * locations is released before any sub-batch is sent, so that no thread holds one table resource
+ * while waiting for another: otherwise, more concurrent batches than the resource manager allows
+ * resources for the table could each hold one and wait indefinitely for a second. If the region
+ * locations cannot be determined (e.g. a region is in transition), the batch is sent as a single
+ * call, leaving the HBase client to locate and retry each action.
+ * <br><br>
+ * The deadline of the batch bounds the wait to borrow each table resource, the wait for a permit
+ * for each server, and the operation timeout of each call.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public final class RegionAwareBatchPerformer implements MicroBatcher.BatchPerformer {
+
+    /**
+     * Borrows a table resource with which to send (part of) a batch, waiting no longer than the
+     * time remaining before the given deadline (if bounded).
+     */
+    @FunctionalInterface
+    public interface TableSource {
+        ManagedTable borrow(TableModel model, Deadline deadline) throws HBaseException;
+    }
+
+    private final MicroBatchPolicy policy;
+    private final TableSource tableSource;
+    private final ExecutorService dispatchPool;
+    private final ConcurrentHashMap<ServerName, Semaphore> serverPermits;
+    private final AtomicLong batchCount;
+    private final AtomicLong subBatchCount;
+
+    /**
+     * Group the indices of the given actions by the server hosting the row of each, per the
+     * region locations cached by the given table (which are looked up if not cached).
+     * @param table
+     * @param actions
+     * @return action indices per server, in order of first appearance; null if the location of
+     * any row could not be determined
+     */
+    private static Map<ServerName, List<Integer>> partitionByServer(final HTable table, final List<Row> actions) {
+        final Map<ServerName, List<Integer>> partitions;
+        HRegionLocation location;
+        List<Integer> serverIndices;
+
+        partitions = new LinkedHashMap<>();
+        try {
+            for (int index = 0; index < actions.size(); index++) {
+                location = table.getRegionLocation(actions.get(index).getRow(), false);
+                if ((location == null) || (location.getServerName() == null)) {
+                    return null;
+                }
+                serverIndices = partitions.get(location.getServerName());
+                if (serverIndices == null) {
+                    serverIndices = new ArrayList<>();
+                    partitions.put(location.getServerName(), serverIndices);
+                }
+                serverIndices.add(Integer.valueOf(index));
+            }
+        } catch (IOException ioExc) {
+            return null;
+        }
+        return partitions;
+    }
+
+    /**
+     * Send the given actions as a single batch call, with the operation timeout of the table
+     * capped to the time remaining before the given deadline.
+     */
+    private static void batch(final HTable table, final List<Row> actions, final Object[] results, final Deadline deadline) throws IOException, InterruptedException {
+        final int prevOpTimeout;
+
+        prevOpTimeout = table.getOperationTimeout();
+        table.setOperationTimeout(deadline.capMillis(prevOpTimeout));
+        try {
+            table.batch(actions, results);
+        } finally {
+            table.setOperationTimeout(prevOpTimeout);
+        }
+    }
+
+    /**
+     * Send the actions with the given indices to the given server as a single batch call, once a
+     * permit for the server is available, and copy their results into the corresponding elements
+     * of the full results array.
+     */
+    private void sendToServer(final ServerName server, final HTable table, final List<Row> actions, final List<Integer> indices, final Object[] results, final Deadline deadline) throws HBaseException, IOException, InterruptedException {
+        final Semaphore permits;
+        final List<Row> subActions;
+        final Object[] subResults;
+
+        permits =
+            this.serverPermits.computeIfAbsent(server,
+                                               (key)->new Semaphore(this.policy.getMaxConcurrentPerServer()));
+        subActions = new ArrayList<>(indices.size());
+        for (Integer index : indices) {
+            subActions.add(actions.get(index.intValue()));
+        }
+        subResults = new Object[subActions.size()];
+        if (!deadline.isBounded()) {
+            permits.acquire();
+        } else if (!permits.tryAcquire(Math.max(0L, deadline.remainingNanos()), TimeUnit.NANOSECONDS)) {
+            throw new HBaseDeadlineExceededException("Sub-batch for server "
+                                                     + server
+                                                     + " aborted; deadline expired awaiting permit");
+        }
+        try {
+            this.subBatchCount.incrementAndGet();
+            batch(table, subActions, subResults, deadline);
+        } finally {
+            permits.release();
+            for (int subIndex = 0; subIndex < subResults.length; subIndex++) {
+                results[indices.get(subIndex).intValue()] = subResults[subIndex];
+            }
+        }
+    }
+
+    /**
+     * Send the actions with the given indices to the given server, using a table resource borrowed
+     * for the purpose (and released upon completion).
+     */
+    private void borrowAndSend(final TableModel model, final ServerName server, final List<Row> actions, final List<Integer> indices, final Object[] results, final Deadline deadline) throws HBaseException, IOException, InterruptedException {
+        try (ManagedTable subBatchTable = this.tableSource.borrow(model, deadline)) {
+            sendToServer(server, subBatchTable.use(), actions, indices, results, deadline);
+        }
+    }
+
+    /**
+     * Send the actions with the given indices to the given server in the dispatch pool.
+     */
+    private Future<?> dispatch(final TableModel model, final ServerName server, final List<Row> actions, final List<Integer> indices, final Object[] results, final Deadline deadline) {
+        return this.dispatchPool.submit(()->{
+            borrowAndSend(model, server, actions, indices, results, deadline);
+            return null;
+        });
+    }
+
+    private static void rethrow(final Throwable failure) throws HBaseException, IOException, InterruptedException {
+        if (failure instanceof HBaseException) {
+            throw (HBaseException) failure;
+        } else if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure instanceof InterruptedException) {
+            throw (InterruptedException) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        throw new IOException("Sub-batch failed; " + failure, failure);
+    }
+
+    @Override
+    public void perform(final TableModel model, final List<Row> actions, final Object[] results, final Deadline deadline) throws HBaseException, IOException, InterruptedException {
+        final Map<ServerName, List<Integer>> partitions;
+        final Iterator<Map.Entry<ServerName, List<Integer>>> partitionIter;
+        final Map.Entry<ServerName, List<Integer>> localPartition;
+        final List<Future<?>> dispatched;
+        Map.Entry<ServerName, List<Integer>> remotePartition;
+        Throwable failure;
+
+        this.batchCount.incrementAndGet();
+        try (ManagedTable lookupTable = this.tableSource.borrow(model, deadline)) {
+            partitions = partitionByServer(lookupTable.use(), actions);
+            if ((partitions == null) || (partitions.size() <= 1)) {
+                this.subBatchCount.incrementAndGet();
+                batch(lookupTable.use(), actions, results, deadline);
+                return;
+            }
+        }
+        // the lookup table has been released; each sub-batch borrows (and releases) its own
+
+        partitionIter = partitions.entrySet().iterator();
+        localPartition = partitionIter.next();
+        dispatched = new ArrayList<>(partitions.size() - 1);
+        failure = null;
+        try {
+            while (partitionIter.hasNext()) {
+                remotePartition = partitionIter.next();
+                dispatched.add(dispatch(model,
+                                        remotePartition.getKey(),
+                                        actions,
+                                        remotePartition.getValue(),
+                                        results,
+                                        deadline));
+            }
+            borrowAndSend(model,
+                          localPartition.getKey(),
+                          actions,
+                          localPartition.getValue(),
+                          results,
+                          deadline);
+        } catch (HBaseException | IOException | InterruptedException | RuntimeException exc) {
+            // includes rejection by the dispatch pool, in which case the sub-batches for this and
+            // the remaining servers are left unattempted
+            failure = exc;
+        }
+        // wait for every sub-batch, so that no results are written after this method returns
+        for (Future<?> subBatch : dispatched) {
+            try {
+                Uninterruptibles.getUninterruptibly(subBatch);
+            } catch (ExecutionException execExc) {
+                if (failure == null) {
+                    failure = execExc.getCause();
+                }
+            }
+        }
+        if (failure != null) {
+            rethrow(failure);
+        }
+    }
+
+    /**
+     * @return the number of batches sent via this performer
+     */
+    public long getBatchCount() {
+        return this.batchCount.get();
+    }
+    /**
+     * @return the number of calls made to send those batches; exceeds the batch count to the
+     * extent that batches spanned multiple region servers
+     */
+    public long getSubBatchCount() {
+        return this.subBatchCount.get();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder strGen;
+        strGen = new StringBuilder();
+        strGen.append(RegionAwareBatchPerformer.class.getSimpleName());
+        strGen.append("(batches=");
+        strGen.append(getBatchCount());
+        strGen.append(",sub-batches=");
+        strGen.append(getSubBatchCount());
+        strGen.append(",servers=");
+        strGen.append(this.serverPermits.size());
+        strGen.append(")");
+        return strGen.toString();
+    }
+
+    /**
+     * @param policy
+     * @param tableSource borrows the table resources with which batches are sent
+     * @param dispatchPool the pool in which the sub-batches for all but one server of each batch
+     * are sent; must not queue tasks it cannot start immediately (e.g. behind busy senders), but
+     * may run them in the submitting thread
+     */
+    public RegionAwareBatchPerformer(final MicroBatchPolicy policy, final TableSource tableSource, final ExecutorService dispatchPool) {
+        Util.ensureNotNull(policy, this, "policy", MicroBatchPolicy.class);
+        Util.ensureNotNull(tableSource, this, "tableSource", TableSource.class);
+        Util.ensureNotNull(dispatchPool, this, "dispatchPool", ExecutorService.class);
+        this.policy = policy;
+        this.tableSource = tableSource;
+        this.dispatchPool = dispatchPool;
+        this.serverPermits = new ConcurrentHashMap<>();
+        this.batchCount = new AtomicLong(0L);
+        this.subBatchCount = new AtomicLong(0L);
+    }
+}
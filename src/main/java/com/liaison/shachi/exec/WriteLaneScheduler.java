@@ -0,0 +1,205 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.exec;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.liaison.javabasics.commons.Util;
+import com.liaison.shachi.model.TableModel;
+import org.apache.hadoop.hbase.util.Threads;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes asynchronous operation chains on a fixed set of serial lanes, such that chains which
+ * WRITE to the same row execute in the order in which they were submitted. Each row (table name
+ * plus literalized row key) hashes onto exactly one lane; each lane is a single thread consuming its
+ * own FIFO queue, so chains on the same lane run one at a time in submission order, while chains
+ * on different lanes run in parallel.
+ * <br><br>
+ * A chain which WRITEs to rows on more than one lane is enqueued on every one of those lanes, and
+ * executes (on the lowest-numbered of them) only once it has reached the head of all of them;
+ * the other lanes are held until it completes. Multi-lane chains are enqueued under a common lock
+ * so that every lane sees them in the same relative order, which rules out deadlock between two
+ * multi-lane chains.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public final class WriteLaneScheduler {
+
+    private final ExecutorService[] lanes;
+    private final Object multiLaneLock;
+
+    /**
+     * Spread the bits of the combined hash code (MurmurHash3 finalizer), so that row keys which
+     * differ only in their high-order bytes still distribute evenly across a small number of lanes.
+     * @param hCode
+     * @return
+     */
+    private static int spread(final int hCode) {
+        int h;
+        h = hCode;
+        h ^= (h >>> 16);
+        h *= 0x85ebca6b;
+        h ^= (h >>> 13);
+        h *= 0xc2b2ae35;
+        h ^= (h >>> 16);
+        return h;
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException intExc) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the number of serial lanes maintained by this scheduler
+     */
+    public int getLaneCount() {
+        return this.lanes.length;
+    }
+
+    /**
+     * Determine the lane onto which WRITEs to the given row are scheduled. Only the name of the
+     * table is hashed (its hash code is cached by the name), rather than the full table model.
+     * @param table
+     * @param literalizedRowKey
+     * @return the lane index, in the range [0, {@link #getLaneCount()})
+     */
+    public int laneFor(final TableModel table, final byte[] literalizedRowKey) {
+        final int hCode;
+        Util.ensureNotNull(table, this, "table", TableModel.class);
+        Util.ensureNotNull(literalizedRowKey, this, "literalizedRowKey", byte[].class);
+        hCode = (31 * table.getName().hashCode()) + Arrays.hashCode(literalizedRowKey);
+        return Math.floorMod(spread(hCode), this.lanes.length);
+    }
+
+    /**
+     * Enqueue a task on each of the given lanes; the task executes once all previously-submitted
+     * tasks on all of those lanes have completed.
+     * @param laneSet the lanes (per {@link #laneFor(TableModel, byte[])}) to which the task must
+     * be ordered; must contain at least one lane
+     * @param task
+     * @return a future representing the completion of the task
+     * @throws RejectedExecutionException if this scheduler has been shut down
+     */
+    public <X> ListenableFuture<X> submit(final BitSet laneSet, final Callable<X> task) throws RejectedExecutionException {
+        final ListenableFutureTask<X> futureTask;
+        final int runLane;
+        final CountDownLatch arrived;
+        final CountDownLatch finished;
+        int lane;
+
+        Util.ensureNotNull(laneSet, this, "laneSet", BitSet.class);
+        Util.ensureNotNull(task, this, "task", Callable.class);
+        runLane = laneSet.nextSetBit(0);
+        if ((runLane < 0) || (laneSet.length() > this.lanes.length)) {
+            throw new IllegalArgumentException("Lane set must contain at least one lane in the range [0,"
+                                               + this.lanes.length
+                                               + "); was: "
+                                               + laneSet);
+        }
+        futureTask = ListenableFutureTask.create(task);
+        if (laneSet.cardinality() == 1) {
+            this.lanes[runLane].execute(futureTask);
+            return futureTask;
+        }
+        arrived = new CountDownLatch(laneSet.cardinality());
+        finished = new CountDownLatch(1);
+        synchronized (this.multiLaneLock) {
+            lane = runLane;
+            try {
+                this.lanes[lane].execute(()->{
+                    arrived.countDown();
+                    try {
+                        arrived.await();
+                        futureTask.run();
+                    } catch (InterruptedException intExc) {
+                        futureTask.cancel(false);
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        finished.countDown();
+                    }
+                });
+                for (lane = laneSet.nextSetBit(runLane + 1); lane >= 0; lane = laneSet.nextSetBit(lane + 1)) {
+                    this.lanes[lane].execute(()->{
+                        arrived.countDown();
+                        awaitQuietly(finished);
+                    });
+                }
+            } catch (RejectedExecutionException rejExc) {
+                // release whichever lanes were already holding for this task
+                futureTask.cancel(false);
+                while (arrived.getCount() > 0) {
+                    arrived.countDown();
+                }
+                finished.countDown();
+                throw rejExc;
+            }
+        }
+        return futureTask;
+    }
+
+    /**
+     * Stop accepting new tasks; tasks which have already been submitted are completed.
+     */
+    public void shutdown() {
+        for (ExecutorService lane : this.lanes) {
+            lane.shutdown();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return WriteLaneScheduler.class.getSimpleName() + "(lanes=" + this.lanes.length + ")";
+    }
+
+    /**
+     * @param laneCount the number of serial lanes
+     * @param threadNamePrefix prefix of the names of the (daemon) lane threads
+     * @throws IllegalArgumentException if laneCount is not positive, or threadNamePrefix is null
+     */
+    public WriteLaneScheduler(final int laneCount, final String threadNamePrefix) throws IllegalArgumentException {
+        final ThreadFactory threadFactory;
+        if (laneCount <= 0) {
+            throw new IllegalArgumentException("Write lane count must be positive; was: " + laneCount);
+        }
+        Util.ensureNotNull(threadNamePrefix, this, "threadNamePrefix", String.class);
+        threadFactory = Threads.newDaemonThreadFactory(threadNamePrefix);
+        this.lanes = new ExecutorService[laneCount];
+        for (int index = 0; index < laneCount; index++) {
+            this.lanes[index] =
+                new ThreadPoolExecutor(1,
+                                       1,
+                                       0L,
+                                       TimeUnit.MILLISECONDS,
+                                       new LinkedBlockingQueue<Runnable>(),
+                                       threadFactory);
+        }
+        this.multiLaneLock = new Object();
+    }
+}
@@ -119,9 +119,9 @@ public class ColumnRange implements Serializable {
             return
                 getBuilder()
                     .family(originFamily)
-                    .lower(QualModel.of(Name.of(qualFromLower, DefensiveCopyStrategy.NEVER)))
+                    .lower(ModelInterner.qual(qualFromLower))
                     .lowerComparator(CompareFilter.CompareOp.GREATER_OR_EQUAL)
-                    .higher(QualModel.of(Name.of(qualFromHigher, DefensiveCopyStrategy.NEVER)))
+                    .higher(ModelInterner.qual(qualFromHigher))
                     .higherComparator(CompareFilter.CompareOp.LESS)
                     .build();
         } else {
@@ -129,9 +129,9 @@ public class ColumnRange implements Serializable {
             return
                 getBuilder()
                     .family(originFamily)
-                    .lower(QualModel.of(Name.of(qualFromHigher, DefensiveCopyStrategy.NEVER)))
+                    .lower(ModelInterner.qual(qualFromHigher))
                     .lowerComparator(CompareFilter.CompareOp.GREATER)
-                    .higher(QualModel.of(Name.of(qualFromLower, DefensiveCopyStrategy.NEVER)))
+                    .higher(ModelInterner.qual(qualFromLower))
                     .higherComparator(CompareFilter.CompareOp.LESS_OR_EQUAL)
                     .build();
         }
@@ -151,14 +151,28 @@ public class ColumnRange implements Serializable {
 
     public boolean contains(final QualHB qual) {
         final byte[] qualBytes;
+
+        qualBytes = qual.getName().getValue(DefensiveCopyStrategy.NEVER);
+        return contains(qualBytes, 0, qualBytes.length);
+    }
+
+    /**
+     * Determine whether the qualifier occupying the given region of the given array falls within
+     * this range; equivalent to {@link #contains(QualHB)}, but usable directly against the backing
+     * array of an HBase Cell.
+     * @param qualBuffer array containing the qualifier
+     * @param qualOffset index of the first byte of the qualifier
+     * @param qualLength number of bytes in the qualifier
+     * @return true if the qualifier falls within this range
+     */
+    public boolean contains(final byte[] qualBuffer, final int qualOffset, final int qualLength) {
         final byte[] lowerBytes;
         final byte[] upperBytes;
         int compare;
 
-        qualBytes = qual.getName().getValue(DefensiveCopyStrategy.NEVER);
-
         lowerBytes = this.lower.getName().getValue(DefensiveCopyStrategy.NEVER);
-        compare = Bytes.compareTo(lowerBytes, qualBytes);
+        compare =
+            Bytes.compareTo(lowerBytes, 0, lowerBytes.length, qualBuffer, qualOffset, qualLength);
         // condition: lower < value (exclusive)
         if ((this.lowerComparator == CompareFilter.CompareOp.LESS) && (compare >= 0)) {
             // fail because: lower >= value
@@ -171,7 +185,8 @@ public class ColumnRange implements Serializable {
         }
 
         upperBytes = this.higher.getName().getValue(DefensiveCopyStrategy.NEVER);
-        compare = Bytes.compareTo(upperBytes, qualBytes);
+        compare =
+            Bytes.compareTo(upperBytes, 0, upperBytes.length, qualBuffer, qualOffset, qualLength);
         // condition: upper > value (exclusive)
         if ((this.higherComparator == CompareFilter.CompareOp.GREATER) && (compare <= 0)) {
             // fail because: upper <= value
@@ -0,0 +1,163 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.liaison.shachi.model;
+
+import com.liaison.shachi.model.ser.CellDeserializer;
+import com.liaison.shachi.model.ser.CellSerializer;
+import com.liaison.shachi.model.ser.PrimitiveDeserializers;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Flat table, precomputed when a {@link TableModel} is built, resolving the serializer,
+ * deserializer, and primitive deserializers for each (family, qualifier) declared by the table,
+ * with the family-level and table-level fallbacks already applied; see
+ * {@link com.liaison.shachi.util.SpecUtil#identifySerializer}. Resolving a column is then a pair
+ * of hash lookups keyed by name bytes, rather than a walk of the model hierarchy per column
+ * written or cell read.
+ * <br><br>
+ * The table covers only the family model instances declared by the table itself: for any other
+ * family model (e.g. one built ad hoc, with the same name as a declared family but different
+ * serializers), {@link #resolve(FamilyHB, QualHB)} returns null, and the caller must walk the
+ * models as before. Components declared by the qualifier model of a column spec itself are also
+ * not covered, as that model need not be the one declared by the family.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public final class ColumnSerializationTable implements Serializable {
+
+    private static final long serialVersionUID = 3618022153270145417L;
+
+    /**
+     * Serialization components resolved for a single column (or family default).
+     */
+    public static final class Resolution implements Serializable {
+        private static final long serialVersionUID = -4700951330846815326L;
+
+        private final CellSerializer serializer;
+        private final CellDeserializer deserializer;
+        private final PrimitiveDeserializers primitiveDeserializers;
+
+        public CellSerializer getSerializer() {
+            return this.serializer;
+        }
+        public CellDeserializer getDeserializer() {
+            return this.deserializer;
+        }
+        public PrimitiveDeserializers getPrimitiveDeserializers() {
+            return this.primitiveDeserializers;
+        }
+
+        Resolution(final CellSerializer serializer, final CellDeserializer deserializer, final PrimitiveDeserializers primitiveDeserializers) {
+            this.serializer = serializer;
+            this.deserializer = deserializer;
+            this.primitiveDeserializers = primitiveDeserializers;
+        }
+    }
+
+    private static final class FamilyEntry implements Serializable {
+        private static final long serialVersionUID = 2475960117431591383L;
+
+        private final FamilyHB family;
+        private final Map<Name, Resolution> byQual;
+        private final Resolution fallback;
+
+        FamilyEntry(final FamilyHB family, final Map<Name, Resolution> byQual, final Resolution fallback) {
+            this.family = family;
+            this.byQual = byQual;
+            this.fallback = fallback;
+        }
+    }
+
+    private static <S> S firstNonNull(final S first, final S second) {
+        if (first != null) {
+            return first;
+        }
+        return second;
+    }
+
+    private static FamilyEntry buildEntry(final FamilyModel family, final TableHB table) {
+        final Resolution fallback;
+        final Map<Name, Resolution> byQual;
+        QualModel qual;
+
+        fallback =
+            new Resolution(firstNonNull(family.getSerializer(), table.getSerializer()),
+                           firstNonNull(family.getDeserializer(), table.getDeserializer()),
+                           family.getPrimitiveDeserializers());
+        byQual = new HashMap<>();
+        for (Map.Entry<Name, QualModel> qualEntry : family.getQuals().entrySet()) {
+            qual = qualEntry.getValue();
+            byQual.put(qualEntry.getKey(),
+                       new Resolution(firstNonNull(family.getSerializer(qual),
+                                                   fallback.getSerializer()),
+                                      firstNonNull(family.getDeserializer(qual),
+                                                   fallback.getDeserializer()),
+                                      firstNonNull(family.getPrimitiveDeserializers(qual),
+                                                   fallback.getPrimitiveDeserializers())));
+        }
+        return new FamilyEntry(family, byQual, fallback);
+    }
+
+    /**
+     * Build the resolution table for the given table model.
+     * @param table the table model; its families must already be populated
+     * @return the resolution table
+     */
+    static ColumnSerializationTable of(final TableHB table) {
+        final Map<Name, FamilyEntry> byFamily;
+
+        byFamily = new HashMap<>();
+        for (Map.Entry<Name, FamilyModel> famEntry : table.getFamilies().entrySet()) {
+            byFamily.put(famEntry.getKey(), buildEntry(famEntry.getValue(), table));
+        }
+        return new ColumnSerializationTable(byFamily);
+    }
+
+    private final Map<Name, FamilyEntry> byFamily;
+
+    /**
+     * Resolve the serialization components for a cell in the given family, with the given
+     * (concrete) qualifier, applying the same family-per-qualifier, family, and table fallbacks
+     * as {@link com.liaison.shachi.util.SpecUtil#identifySerializer}.
+     * @param famModel the family model of the column spec
+     * @param cellQual the concrete qualifier of the cell, or null if unknown
+     * @return the resolved components (any of which may be null, if none is declared), or null if
+     * the family model is not one declared by this table
+     */
+    public Resolution resolve(final FamilyHB famModel, final QualHB cellQual) {
+        final FamilyEntry famEntry;
+        Resolution resolved;
+
+        famEntry = this.byFamily.get(famModel.getName());
+        if ((famEntry == null) || (famEntry.family != famModel)) {
+            return null;
+        }
+        if (cellQual != null) {
+            resolved = famEntry.byQual.get(cellQual.getName());
+            if (resolved != null) {
+                return resolved;
+            }
+        }
+        return famEntry.fallback;
+    }
+
+    private ColumnSerializationTable(final Map<Name, FamilyEntry> byFamily) {
+        this.byFamily = byFamily;
+    }
+}
@@ -19,6 +19,7 @@ package com.liaison.shachi.model;
 import com.liaison.shachi.model.ser.CellDeserializer;
 import com.liaison.shachi.model.ser.CellSerializable;
 import com.liaison.shachi.model.ser.CellSerializer;
+import com.liaison.shachi.model.ser.PrimitiveDeserializers;
 
 import java.util.Map;
 
@@ -32,4 +33,6 @@ public interface FamilyHB extends NamedEntity, CellSerializable {
     VersioningModel getVersioning();
     CellSerializer getSerializer(QualHB forQualInstance);
     CellDeserializer getDeserializer(QualHB forQualInstance);
+    PrimitiveDeserializers getPrimitiveDeserializers();
+    PrimitiveDeserializers getPrimitiveDeserializers(QualHB forQualInstance);
 }
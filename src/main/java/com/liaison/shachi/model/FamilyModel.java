@@ -19,6 +19,10 @@ package com.liaison.shachi.model;
 import com.liaison.javabasics.commons.Util;
 import com.liaison.shachi.model.ser.CellDeserializer;
 import com.liaison.shachi.model.ser.CellSerializer;
+import com.liaison.shachi.model.ser.PrimitiveDeserializers;
+import org.apache.hadoop.hbase.io.compress.Compression;
+import org.apache.hadoop.hbase.io.encoding.DataBlockEncoding;
+import org.apache.hadoop.hbase.regionserver.BloomType;
 
 import java.util.Collections;
 import java.util.HashMap;
@@ -34,10 +38,20 @@ public final class FamilyModel extends NamedEntityDefault implements FamilyHB {
         private final LinkedHashMap<Name, QualModel> quals;
         private final Map<QualHB, CellSerializer> qualSerializers;
         private final Map<QualHB, CellDeserializer> qualDeserializers;
+        private final Map<QualHB, PrimitiveDeserializers> qualPrimitiveDeserializers;
         private boolean closedQualSet;
         private VersioningModel versioning;
         private CellSerializer serializer;
         private CellDeserializer deserializer;
+        private PrimitiveDeserializers primitiveDeserializers;
+        private BloomType bloomFilter;
+        private Integer blockSize;
+        private Boolean blockCacheEnabled;
+        private Boolean inMemory;
+        private Compression.Algorithm compression;
+        private DataBlockEncoding dataBlockEncoding;
+        private Integer maxVersions;
+        private Integer ttlSeconds;
 
         public Builder versionWith(final VersioningModel verModel) throws IllegalArgumentException {
             Util.ensureNotNull(verModel, this, "verModel", VersioningModel.class);
@@ -53,6 +67,7 @@ public final class FamilyModel extends NamedEntityDefault implements FamilyHB {
             final Name qualName;
             final CellSerializer cellSer;
             final CellDeserializer cellDeser;
+            final PrimitiveDeserializers primDeser;
 
             Util.ensureNotNull(qual, this, "column", QualModel.class);
 
@@ -69,12 +84,16 @@ public final class FamilyModel extends NamedEntityDefault implements FamilyHB {
 
             cellSer = qual.getSerializer();
             cellDeser = qual.getDeserializer();
+            primDeser = qual.getPrimitiveDeserializers();
             if (cellSer != null) {
                 this.qualSerializers.put(qual, cellSer);
             }
             if (cellDeser != null) {
                 this.qualDeserializers.put(qual, cellDeser);
             }
+            if (primDeser != null) {
+                this.qualPrimitiveDeserializers.put(qual, primDeser);
+            }
 
             return this;
         }
@@ -90,6 +109,54 @@ public final class FamilyModel extends NamedEntityDefault implements FamilyHB {
             this.deserializer = deserializer;
             return this;
         }
+        /**
+         * Declare the default primitive-specialized deserializers for columns in this family,
+         * used where the qualifier does not declare its own.
+         * @param primitiveDeserializers typed deserializers for the family
+         * @return this builder
+         */
+        public Builder primitiveDeserializers(final PrimitiveDeserializers primitiveDeserializers) {
+            this.primitiveDeserializers = primitiveDeserializers;
+            return this;
+        }
+        public Builder bloomFilter(final BloomType bloomFilter) {
+            this.bloomFilter = bloomFilter;
+            return this;
+        }
+        public Builder blockSize(final int blockSize) {
+            this.blockSize = Integer.valueOf(blockSize);
+            return this;
+        }
+        public Builder blockCache(final boolean blockCacheEnabled) {
+            this.blockCacheEnabled = Boolean.valueOf(blockCacheEnabled);
+            return this;
+        }
+        public Builder inMemory(final boolean inMemory) {
+            this.inMemory = Boolean.valueOf(inMemory);
+            return this;
+        }
+        public Builder compression(final Compression.Algorithm compression) {
+            this.compression = compression;
+            return this;
+        }
+        public Builder dataBlockEncoding(final DataBlockEncoding dataBlockEncoding) {
+            this.dataBlockEncoding = dataBlockEncoding;
+            return this;
+        }
+        public Builder maxVersions(final int maxVersions) {
+            this.maxVersions = Integer.valueOf(maxVersions);
+            return this;
+        }
+        /**
+         * Assign the time-to-live of cells in this family, enforced by HBase for every cell
+         * (as opposed to the per-write TTL applied to individual mutations).
+         * @param ttlSeconds family TTL (seconds)
+         * @return this builder
+         */
+        public Builder ttlSeconds(final int ttlSeconds) {
+            this.ttlSeconds = Integer.valueOf(ttlSeconds);
+            return this;
+        }
         
         public FamilyModel build() {
             return new FamilyModel(this);
@@ -100,7 +167,16 @@ public final class FamilyModel extends NamedEntityDefault implements FamilyHB {
             this.quals = new LinkedHashMap<>();
             this.qualSerializers = new HashMap<>();
             this.qualDeserializers = new HashMap<>();
+            this.qualPrimitiveDeserializers = new HashMap<>();
             this.versioning = null;
+            this.bloomFilter = null;
+            this.blockSize = null;
+            this.blockCacheEnabled = null;
+            this.inMemory = null;
+            this.compression = null;
+            this.dataBlockEncoding = null;
+            this.maxVersions = null;
+            this.ttlSeconds = null;
         }
     }
     
@@ -116,10 +192,20 @@ public final class FamilyModel extends NamedEntityDefault implements FamilyHB {
     private final Map<Name, QualModel> quals;
     private final Map<QualHB, CellSerializer> qualSerializers;
     private final Map<QualHB, CellDeserializer> qualDeserializers;
+    private final Map<QualHB, PrimitiveDeserializers> qualPrimitiveDeserializers;
     private final boolean closedQualSet;
     private final VersioningModel versioning;
     private final CellSerializer serializer;
     private final CellDeserializer deserializer;
+    private final PrimitiveDeserializers primitiveDeserializers;
+    private final BloomType bloomFilter;
+    private final Integer blockSize;
+    private final Boolean blockCacheEnabled;
+    private final Boolean inMemory;
+    private final Compression.Algorithm compression;
+    private final DataBlockEncoding dataBlockEncoding;
+    private final Integer maxVersions;
+    private final Integer ttlSeconds;
 
     private <S> S getSerializationComponentDeferToQual(final QualHB forQualInstance, final Map<QualHB, S> qualSerComponentMap, final S defaultComponentForFamily) {
         S serComponent;
@@ -139,6 +225,11 @@ public final class FamilyModel extends NamedEntityDefault implements FamilyHB {
                                                     this.qualDeserializers,
                                                     this.deserializer);
     }
+    public PrimitiveDeserializers getPrimitiveDeserializers(final QualHB forQualInstance) {
+        return getSerializationComponentDeferToQual(forQualInstance,
+                                                    this.qualPrimitiveDeserializers,
+                                                    this.primitiveDeserializers);
+    }
 
     @Override
     public CellSerializer getSerializer() {
@@ -149,6 +240,10 @@ public final class FamilyModel extends NamedEntityDefault implements FamilyHB {
         return this.deserializer;
     }
     @Override
+    public PrimitiveDeserializers getPrimitiveDeserializers() {
+        return this.primitiveDeserializers;
+    }
+    @Override
     public Map<Name, QualModel> getQuals() {
         return this.quals;
     }
@@ -160,6 +255,36 @@ public final class FamilyModel extends NamedEntityDefault implements FamilyHB {
     public VersioningModel getVersioning() {
         return this.versioning;
     }
+
+    /*
+     * Storage settings, applied to the column family descriptor when the table is created (or
+     * reconciled; see HBaseControl#reconcileSchema). Each returns null if unspecified, in which
+     * case the HBase default applies.
+     */
+    public BloomType getBloomFilter() {
+        return this.bloomFilter;
+    }
+    public Integer getBlockSize() {
+        return this.blockSize;
+    }
+    public Boolean getBlockCacheEnabled() {
+        return this.blockCacheEnabled;
+    }
+    public Boolean getInMemory() {
+        return this.inMemory;
+    }
+    public Compression.Algorithm getCompression() {
+        return this.compression;
+    }
+    public DataBlockEncoding getDataBlockEncoding() {
+        return this.dataBlockEncoding;
+    }
+    public Integer getMaxVersions() {
+        return this.maxVersions;
+    }
+    public Integer getTTLSeconds() {
+        return this.ttlSeconds;
+    }
     
     @Override
     protected String getEntityTitle() {
@@ -207,6 +332,14 @@ public final class FamilyModel extends NamedEntityDefault implements FamilyHB {
         */
     }
     
+    private static void validatePositive(final Integer value, final String paramName) throws IllegalArgumentException {
+        final String excMsg;
+        if ((value != null) && (value.intValue() <= 0)) {
+            excMsg = "Family storage parameter '" + paramName + "' must be at least 1; was: " + value;
+            throw new IllegalArgumentException(excMsg);
+        }
+    }
+    
     private FamilyModel(final Builder build) throws IllegalArgumentException {
         super(build.name);
 
@@ -218,10 +351,25 @@ public final class FamilyModel extends NamedEntityDefault implements FamilyHB {
         this.qualSerializers = Collections.unmodifiableMap(build.qualSerializers);
         Util.ensureNotNull(build.qualDeserializers, this, "qualDeserializers", HashMap.class);
         this.qualDeserializers = Collections.unmodifiableMap(build.qualDeserializers);
+        Util.ensureNotNull(build.qualPrimitiveDeserializers, this, "qualPrimitiveDeserializers", HashMap.class);
+        this.qualPrimitiveDeserializers = Collections.unmodifiableMap(build.qualPrimitiveDeserializers);
 
         this.versioning = build.versioning;
 
         this.serializer = build.serializer;
         this.deserializer = build.deserializer;
+        this.primitiveDeserializers = build.primitiveDeserializers;
+
+        validatePositive(build.blockSize, "blockSize");
+        validatePositive(build.maxVersions, "maxVersions");
+        validatePositive(build.ttlSeconds, "ttlSeconds");
+        this.bloomFilter = build.bloomFilter;
+        this.blockSize = build.blockSize;
+        this.blockCacheEnabled = build.blockCacheEnabled;
+        this.inMemory = build.inMemory;
+        this.compression = build.compression;
+        this.dataBlockEncoding = build.dataBlockEncoding;
+        this.maxVersions = build.maxVersions;
+        this.ttlSeconds = build.ttlSeconds;
     }
 }
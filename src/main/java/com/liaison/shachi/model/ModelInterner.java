@@ -0,0 +1,229 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.liaison.shachi.model;
+
+import com.liaison.javabasics.commons.Uninstantiable;
+import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Flyweight interning of the {@link Name}, {@link QualModel}, and {@link FamilyModel} instances
+ * generated on the read path from the raw family/qualifier bytes of each cell (and for the bounds
+ * of each version range), so that the thousands of cells of a wide read share one (immutable,
+ * schema-less) model instance per distinct name, rather than allocating a new Name, model, and
+ * their cached string/hash forms per cell.
+ * <br><br>
+ * Each canonical map is keyed by raw bytes, safe for concurrent use, and holds its instances
+ * weakly, so that names which fall out of use are reclaimed; each is also bounded in size. Once
+ * a map is full, lookups which miss return a new (equal, but not canonical) instance rather than
+ * growing the map, so interning is purely an optimization: callers must continue to compare
+ * instances with equals, for which identity is the fast path.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public final class ModelInterner extends Uninstantiable {
+
+    /**
+     * Maximum number of live entries held by each canonical map.
+     */
+    public static final int MAX_ENTRIES = 8192;
+
+    /**
+     * Key over a range of a byte array. Lookup keys wrap the caller's buffer without copying; the
+     * keys stored in a map always wrap a private copy.
+     */
+    private static final class BytesKey {
+        private final byte[] buf;
+        private final int offset;
+        private final int length;
+        private final int hc;
+
+        @Override
+        public int hashCode() {
+            return this.hc;
+        }
+        @Override
+        public boolean equals(final Object otherObj) {
+            final BytesKey otherKey;
+            if (this == otherObj) {
+                return true;
+            }
+            if (otherObj instanceof BytesKey) {
+                otherKey = (BytesKey) otherObj;
+                if ((this.hc != otherKey.hc) || (this.length != otherKey.length)) {
+                    return false;
+                }
+                for (int byteIndex = 0; byteIndex < this.length; byteIndex++) {
+                    if (this.buf[this.offset + byteIndex]
+                        != otherKey.buf[otherKey.offset + byteIndex]) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            return false;
+        }
+
+        BytesKey(final byte[] buf, final int offset, final int length) {
+            int hcTemp;
+            this.buf = buf;
+            this.offset = offset;
+            this.length = length;
+            hcTemp = 1;
+            for (int byteIndex = offset; byteIndex < (offset + length); byteIndex++) {
+                hcTemp = (31 * hcTemp) + buf[byteIndex];
+            }
+            this.hc = hcTemp;
+        }
+    }
+
+    private static final class CanonicalRef<T> extends WeakReference<T> {
+        private final BytesKey key;
+
+        CanonicalRef(final T referent, final BytesKey key, final ReferenceQueue<? super T> queue) {
+            super(referent, queue);
+            this.key = key;
+        }
+    }
+
+    private static final class CanonicalMap<T> {
+        private final ConcurrentHashMap<BytesKey, CanonicalRef<T>> map;
+        private final ReferenceQueue<T> queue;
+        private final Function<byte[], T> factory;
+
+        private void purge() {
+            CanonicalRef<?> cleared;
+            while ((cleared = (CanonicalRef<?>) this.queue.poll()) != null) {
+                this.map.remove(cleared.key, cleared);
+            }
+        }
+
+        T intern(final byte[] buf, final int offset, final int length, final boolean adopt) {
+            final byte[] ownBytes;
+            final BytesKey ownKey;
+            final CanonicalRef<T> ownRef;
+            final T created;
+            CanonicalRef<T> existingRef;
+            T existing;
+
+            purge();
+            existingRef = this.map.get(new BytesKey(buf, offset, length));
+            if (existingRef != null) {
+                existing = existingRef.get();
+                if (existing != null) {
+                    return existing;
+                }
+            }
+
+            if (adopt && (offset == 0) && (length == buf.length)) {
+                ownBytes = buf;
+            } else {
+                ownBytes = Arrays.copyOfRange(buf, offset, offset + length);
+            }
+            created = this.factory.apply(ownBytes);
+            if (this.map.size() >= MAX_ENTRIES) {
+                return created;
+            }
+            ownKey = new BytesKey(ownBytes, 0, length);
+            ownRef = new CanonicalRef<>(created, ownKey, this.queue);
+            while (true) {
+                existingRef = this.map.putIfAbsent(ownKey, ownRef);
+                if (existingRef == null) {
+                    return created;
+                }
+                existing = existingRef.get();
+                if (existing != null) {
+                    return existing;
+                }
+                if (this.map.replace(ownKey, existingRef, ownRef)) {
+                    return created;
+                }
+            }
+        }
+
+        CanonicalMap(final Function<byte[], T> factory) {
+            this.map = new ConcurrentHashMap<>();
+            this.queue = new ReferenceQueue<>();
+            this.factory = factory;
+        }
+    }
+
+    private static final CanonicalMap<Name> NAMES;
+    private static final CanonicalMap<QualModel> QUALS;
+    private static final CanonicalMap<FamilyModel> FAMILIES;
+
+    static {
+        NAMES = new CanonicalMap<>((nameBytes) -> Name.of(nameBytes, DefensiveCopyStrategy.NEVER));
+        QUALS = new CanonicalMap<>((nameBytes) -> QualModel.of(name(nameBytes)));
+        FAMILIES = new CanonicalMap<>((nameBytes) -> FamilyModel.of(name(nameBytes)));
+    }
+
+    /**
+     * Obtain the canonical Name for the given range of bytes; the bytes are copied if (and only
+     * if) no canonical instance exists yet.
+     * @param buf buffer holding the name
+     * @param offset offset of the name within the buffer
+     * @param length length of the name
+     * @return canonical (or, if the canonical map is full, an equal) Name
+     */
+    public static Name name(final byte[] buf, final int offset, final int length) {
+        return NAMES.intern(buf, offset, length, false);
+    }
+    /**
+     * Obtain the canonical Name for the given bytes. If no canonical instance exists yet, the
+     * array is adopted (not copied) by the new instance, so the caller must not modify it.
+     * @param nameBytes the name
+     * @return canonical (or, if the canonical map is full, an equal) Name
+     */
+    public static Name name(final byte[] nameBytes) {
+        return NAMES.intern(nameBytes, 0, nameBytes.length, true);
+    }
+
+    /**
+     * Obtain the canonical QualModel (with no versioning, serializers, or deserializers) for the
+     * given range of bytes; see {@link #name(byte[], int, int)}.
+     */
+    public static QualModel qual(final byte[] buf, final int offset, final int length) {
+        return QUALS.intern(buf, offset, length, false);
+    }
+    /**
+     * Obtain the canonical QualModel for the given bytes, adopting the array if no canonical
+     * instance exists yet; see {@link #name(byte[])}.
+     */
+    public static QualModel qual(final byte[] nameBytes) {
+        return QUALS.intern(nameBytes, 0, nameBytes.length, true);
+    }
+
+    /**
+     * Obtain the canonical FamilyModel (with no qualifiers, versioning, serializers, or
+     * deserializers) for the given range of bytes; see {@link #name(byte[], int, int)}.
+     */
+    public static FamilyModel family(final byte[] buf, final int offset, final int length) {
+        return FAMILIES.intern(buf, offset, length, false);
+    }
+    /**
+     * Obtain the canonical FamilyModel for the given bytes, adopting the array if no canonical
+     * instance exists yet; see {@link #name(byte[])}.
+     */
+    public static FamilyModel family(final byte[] nameBytes) {
+        return FAMILIES.intern(nameBytes, 0, nameBytes.length, true);
+    }
+}
@@ -43,8 +43,12 @@ public class Name extends Value implements Serializable {
         }
 
         private void setStrBasedOnInputBytes(final byte[] name, final Charset decoding) {
+            /*
+             * With the default decoding, the string form is derived from the bytes on first use
+             * (see Name#getStr), as names built from raw cell bytes are rarely rendered.
+             */
             if (decoding == null) {
-                this.str = BytesUtil.toString(name);
+                this.str = null;
             } else {
                 this.str = BytesUtil.toString(name, decoding);
             }
@@ -98,7 +102,7 @@ public class Name extends Value implements Serializable {
         private Builder() throws IllegalArgumentException {
             super();
             this.str = null;
-            this.alias = new HashSet<String>();
+            this.alias = null;
         }
     }
     
@@ -164,10 +168,9 @@ public class Name extends Value implements Serializable {
     // ||    INSTANCE PROPERTIES                                                                 ||
     // ||----------------------------------------------------------------------------------------||
     
-    private final String str;
+    private String str;
     private final Set<String> alias;
     
-    private Integer hc;
     private String strRep;
     
     // ||----(instance properties)---------------------------------------------------------------||
@@ -177,7 +180,10 @@ public class Name extends Value implements Serializable {
     // ||----------------------------------------------------------------------------------------||
     
     public String getStr() {
-        return str;
+        if (this.str == null) {
+            this.str = BytesUtil.toString(getValue(DefensiveCopyStrategy.NEVER));
+        }
+        return this.str;
     }
     public Set<String> getAlias() {
         return alias;
@@ -202,10 +208,8 @@ public class Name extends Value implements Serializable {
     
     @Override
     public int hashCode() {
-        if (this.hc == null) {
-            this.hc = Integer.valueOf(super.hashCode());
-        }
-        return this.hc.intValue();
+        // cached by NullableValue
+        return super.hashCode();
     }
 
     @Override
@@ -213,7 +217,7 @@ public class Name extends Value implements Serializable {
         if (this.strRep == null) {
             this.strRep =
                 buildStrRep(ENTITY_PREFIX_FOR_TOSTRING, (strGen) -> {
-                    strGen.append(this.str);
+                    strGen.append(getStr());
                     if (this.alias.size() > 0) {
                         strGen.append("|");
                         strGen.append(this.alias.size());
@@ -239,9 +243,12 @@ public class Name extends Value implements Serializable {
             throw new IllegalArgumentException("Non-null name value must be specified");
         }
         this.str = build.str;
-        this.alias = Collections.unmodifiableSet(build.alias);
+        if ((build.alias == null) || (build.alias.isEmpty())) {
+            this.alias = Collections.emptySet();
+        } else {
+            this.alias = Collections.unmodifiableSet(new HashSet<>(build.alias));
+        }
         this.strRep = null;
-        this.hc = null;
     }
     
     // ||----(constructors)----------------------------------------------------------------------||
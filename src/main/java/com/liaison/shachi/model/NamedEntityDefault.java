@@ -66,6 +66,10 @@ public abstract class NamedEntityDefault implements NamedEntity, Serializable {
     @Override
     public final boolean equals(final Object otherObj) {
         final NamedEntityDefault otherNE;
+        if (this == otherObj) {
+            // canonical (interned) instances compare by identity
+            return true;
+        }
         if (otherObj instanceof NamedEntityDefault) {
             otherNE = (NamedEntityDefault) otherObj;
             return (Util.refEquals(this.name, otherNE.name) && deepEquals(otherNE));
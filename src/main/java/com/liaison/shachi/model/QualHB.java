@@ -17,6 +17,7 @@
 package com.liaison.shachi.model;
 
 import com.liaison.shachi.model.ser.CellSerializable;
+import com.liaison.shachi.model.ser.PrimitiveDeserializers;
 
 /**
  * Branden Smith; Liaison Technologies, Inc.
@@ -24,4 +25,5 @@ import com.liaison.shachi.model.ser.CellSerializable;
  */
 public interface QualHB extends NamedEntity, CellSerializable {
     VersioningModel getVersioning();
+    PrimitiveDeserializers getPrimitiveDeserializers();
 }
@@ -18,6 +18,7 @@ package com.liaison.shachi.model;
 import com.liaison.javabasics.commons.Util;
 import com.liaison.shachi.model.ser.CellDeserializer;
 import com.liaison.shachi.model.ser.CellSerializer;
+import com.liaison.shachi.model.ser.PrimitiveDeserializers;
 
 public final class QualModel extends NamedEntityDefault implements QualHB {
     
@@ -28,6 +29,7 @@ public final class QualModel extends NamedEntityDefault implements QualHB {
         private VersioningModel versioning;
         private CellSerializer serializer;
         private CellDeserializer deserializer;
+        private PrimitiveDeserializers primitiveDeserializers;
 
         public Builder versionWith(final VersioningModel verModel) throws IllegalArgumentException {
             Util.ensureNotNull(verModel, this, "verModel", VersioningModel.class);
@@ -47,6 +49,17 @@ public final class QualModel extends NamedEntityDefault implements QualHB {
             this.deserializer = deserializer;
             return this;
         }
+        /**
+         * Declare primitive-specialized deserializers for this column, used by the
+         * <code>getLong</code>/<code>getInt</code>/<code>getDouble</code>/<code>getBoolean</code>
+         * accessors of CellDatum and ReadOpResult.
+         * @param primitiveDeserializers typed deserializers for the column
+         * @return this builder
+         */
+        public Builder primitiveDeserializers(final PrimitiveDeserializers primitiveDeserializers) {
+            this.primitiveDeserializers = primitiveDeserializers;
+            return this;
+        }
 
         public QualModel build() {
             return new QualModel(this);
@@ -69,6 +82,7 @@ public final class QualModel extends NamedEntityDefault implements QualHB {
     private final VersioningModel versioning;
     private final CellSerializer serializer;
     private final CellDeserializer deserializer;
+    private final PrimitiveDeserializers primitiveDeserializers;
 
     @Override
     public CellSerializer getSerializer() {
@@ -79,6 +93,10 @@ public final class QualModel extends NamedEntityDefault implements QualHB {
         return this.deserializer;
     }
     @Override
+    public PrimitiveDeserializers getPrimitiveDeserializers() {
+        return this.primitiveDeserializers;
+    }
+    @Override
     protected String getEntityTitle() {
         return ENTITY_TITLE;
     }
@@ -112,5 +130,6 @@ public final class QualModel extends NamedEntityDefault implements QualHB {
 
         this.serializer = build.serializer;
         this.deserializer = build.deserializer;
+        this.primitiveDeserializers = build.primitiveDeserializers;
     }
 }
@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.model;
+
+import com.liaison.javabasics.commons.Util;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.TreeSet;
+
+/**
+ * The regions into which a table is pre-split when it is created from its
+ * {@link TableModel}, so that writes are spread across region servers from the outset rather
+ * than all landing in a single region until it grows large enough to split. Either:
+ * <ul>
+ * <li>{@link #saltBuckets(int)}: N regions of equal width over the 4-byte salt prefix applied by
+ * {@link TableModel.Builder#saltRows()}, which hashes uniformly over the full 32-bit range; or</li>
+ * <li>{@link #at(byte[]...)}: explicit split points, for tables whose row key distribution is
+ * otherwise known.</li>
+ * </ul>
+ * The split policy applies only when the table is created; it has no effect on an existing table.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public final class SplitPolicy implements Serializable {
+
+    private static final long serialVersionUID = 6157460282312358271L;
+
+    private static final int SALT_BYTES = 4;
+    private static final long SALT_RANGE = 1L << (SALT_BYTES * Byte.SIZE);
+
+    /**
+     * Pre-split a table whose rows are salted with a 4-byte hash prefix into the given number of
+     * regions of equal width over the salt range.
+     * @param bucketCount the number of regions (at least 1; 1 means no pre-splitting)
+     * @return split policy
+     * @throws IllegalArgumentException if bucketCount is less than 1
+     */
+    public static SplitPolicy saltBuckets(final int bucketCount) throws IllegalArgumentException {
+        final String logMsg;
+        final byte[][] splitKeys;
+        long splitPoint;
+
+        if (bucketCount < 1) {
+            logMsg = "Salt bucket count must be at least 1; was: " + bucketCount;
+            throw new IllegalArgumentException(logMsg);
+        }
+        splitKeys = new byte[bucketCount - 1][];
+        for (int index = 1; index < bucketCount; index++) {
+            splitPoint = (SALT_RANGE * index) / bucketCount;
+            splitKeys[index - 1] = Bytes.toBytes((int) splitPoint);
+        }
+        return new SplitPolicy(splitKeys, bucketCount);
+    }
+
+    /**
+     * Pre-split a table at the given row keys (as literalized, i.e. including any salt prefix).
+     * Duplicate and empty split points are discarded, and the rest are sorted.
+     * @param splitKeys split points
+     * @return split policy
+     * @throws IllegalArgumentException if splitKeys, or any split point, is null
+     */
+    public static SplitPolicy at(final byte[]... splitKeys) throws IllegalArgumentException {
+        final TreeSet<byte[]> sortedKeys;
+
+        Util.ensureNotNull(splitKeys, "SplitPolicy#at", "splitKeys", byte[][].class);
+        sortedKeys = new TreeSet<>(Bytes.BYTES_COMPARATOR);
+        for (byte[] splitKey : splitKeys) {
+            Util.ensureNotNull(splitKey, "SplitPolicy#at", "splitKey", byte[].class);
+            if (splitKey.length > 0) {
+                sortedKeys.add(Arrays.copyOf(splitKey, splitKey.length));
+            }
+        }
+        return new SplitPolicy(sortedKeys.toArray(new byte[sortedKeys.size()][]), 0);
+    }
+
+    private final byte[][] splitKeys;
+    private final int saltBucketCount;
+
+    private Integer hc;
+    private String strRep;
+
+    /**
+     * @return a copy of the split points, in ascending order; empty if the table is not
+     * pre-split
+     */
+    public byte[][] getSplitKeys() {
+        final byte[][] keysCopy;
+        keysCopy = new byte[this.splitKeys.length][];
+        for (int index = 0; index < this.splitKeys.length; index++) {
+            keysCopy[index] = Arrays.copyOf(this.splitKeys[index], this.splitKeys[index].length);
+        }
+        return keysCopy;
+    }
+    /**
+     * @return the number of regions the table is pre-split into
+     */
+    public int getRegionCount() {
+        return this.splitKeys.length + 1;
+    }
+
+    @Override
+    public boolean equals(final Object otherObj) {
+        if (this == otherObj) {
+            return true;
+        }
+        if (otherObj instanceof SplitPolicy) {
+            return Arrays.deepEquals(this.splitKeys, ((SplitPolicy) otherObj).splitKeys);
+        }
+        return false;
+    }
+    @Override
+    public int hashCode() {
+        if (this.hc == null) {
+            this.hc = Integer.valueOf(Arrays.deepHashCode(this.splitKeys));
+        }
+        return this.hc.intValue();
+    }
+    @Override
+    public String toString() {
+        final StringBuilder strGen;
+        if (this.strRep == null) {
+            strGen = new StringBuilder();
+            strGen.append(SplitPolicy.class.getSimpleName());
+            if (this.saltBucketCount > 0) {
+                strGen.append(":(salt-buckets=");
+                strGen.append(this.saltBucketCount);
+            } else {
+                strGen.append(":(split-points=");
+                for (int index = 0; index < this.splitKeys.length; index++) {
+                    if (index > 0) {
+                        strGen.append(",");
+                    }
+                    strGen.append(Bytes.toStringBinary(this.splitKeys[index]));
+                }
+            }
+            strGen.append(")");
+            this.strRep = strGen.toString();
+        }
+        return this.strRep;
+    }
+
+    private SplitPolicy(final byte[][] splitKeys, final int saltBucketCount) {
+        this.splitKeys = splitKeys;
+        this.saltBucketCount = saltBucketCount;
+    }
+}
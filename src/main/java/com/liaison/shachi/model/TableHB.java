@@ -27,4 +27,9 @@ import java.util.Map;
 public interface TableHB extends NamedEntity, CellSerializable {
     Map<Name, FamilyModel> getFamilies();
     FamilyModel getFamily(Name famName);
+    /**
+     * @return the serializer/deserializer resolution table for the families declared by this
+     * table, or null if none is available (in which case the models are walked per column)
+     */
+    ColumnSerializationTable getSerializationTable();
 }
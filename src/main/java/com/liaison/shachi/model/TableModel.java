@@ -18,6 +18,8 @@ package com.liaison.shachi.model;
 import com.liaison.javabasics.commons.Util;
 import com.liaison.javabasics.serialization.BytesUtil;
 import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
+import com.liaison.shachi.context.hedge.HedgingPolicy;
+import com.liaison.shachi.context.pool.PoolSizing;
 import com.liaison.shachi.dto.RowKey;
 import com.liaison.shachi.model.ser.CellDeserializer;
 import com.liaison.shachi.model.ser.CellSerializer;
@@ -38,6 +40,9 @@ public final class TableModel extends NamedEntityDefault implements TableHB {
         private CellSerializer serializer;
         private CellDeserializer deserializer;
         private Function<RowKey, byte[]> rowKeyLiteralizer;
+        private HedgingPolicy hedgingPolicy;
+        private PoolSizing poolSizing;
+        private SplitPolicy splitPolicy;
         
         public Builder name(final Name name) {
             this.name = name;
@@ -76,6 +81,46 @@ public final class TableModel extends NamedEntityDefault implements TableHB {
         public Builder saltRows() {
             return saltRows(SALTING_ROWKEY_LITERALIZER_DEFAULT);
         }
+        /**
+         * Salt row keys with the default 4-byte hash prefix, and pre-split the table (when it is
+         * created) into the given number of regions of equal width over the salt range.
+         * @param saltBuckets the number of regions into which the table is pre-split
+         * @return this builder
+         * @throws IllegalArgumentException if saltBuckets is less than 1
+         */
+        public Builder saltRows(final int saltBuckets) throws IllegalArgumentException {
+            return saltRows().splits(SplitPolicy.saltBuckets(saltBuckets));
+        }
+        /**
+         * Assign the regions into which this table is pre-split when it is created.
+         * @param splitPolicy split policy for this table
+         * @return this builder
+         */
+        public Builder splits(final SplitPolicy splitPolicy) {
+            this.splitPolicy = splitPolicy;
+            return this;
+        }
+        /**
+         * Assign a hedged-read policy for this table, overriding the policy (if any) configured
+         * on the {@link com.liaison.shachi.context.HBaseContext} used to read from it.
+         * @param hedgingPolicy hedged-read policy for this table
+         * @return this builder
+         */
+        public Builder hedging(final HedgingPolicy hedgingPolicy) {
+            this.hedgingPolicy = hedgingPolicy;
+            return this;
+        }
+        /**
+         * Assign resource pool sizing for this table, overriding (for any values it specifies)
+         * the table pool sizing configured on the {@link com.liaison.shachi.context.HBaseContext}.
+         * Tables with their own sizing are pooled separately from other tables.
+         * @param poolSizing resource pool sizing for this table
+         * @return this builder
+         */
+        public Builder poolSizing(final PoolSizing poolSizing) {
+            this.poolSizing = poolSizing;
+            return this;
+        }
         
         public TableModel build() {
             return new TableModel(this);
@@ -83,6 +128,9 @@ public final class TableModel extends NamedEntityDefault implements TableHB {
         private Builder() {
             this.name = null;
             this.families = new LinkedHashMap<>();
+            this.hedgingPolicy = null;
+            this.poolSizing = null;
+            this.splitPolicy = null;
         }
     }
     
@@ -106,6 +154,10 @@ public final class TableModel extends NamedEntityDefault implements TableHB {
     private final CellSerializer serializer;
     private final CellDeserializer deserializer;
     private final Function<RowKey, byte[]> rowKeyLiteralizer;
+    private final HedgingPolicy hedgingPolicy;
+    private final PoolSizing poolSizing;
+    private final SplitPolicy splitPolicy;
+    private final ColumnSerializationTable serializationTable;
 
     @Override
     public CellSerializer getSerializer() {
@@ -123,6 +175,34 @@ public final class TableModel extends NamedEntityDefault implements TableHB {
     public FamilyModel getFamily(final Name famName) {
         return this.families.get(famName);
     }
+    @Override
+    public ColumnSerializationTable getSerializationTable() {
+        return this.serializationTable;
+    }
+
+    /**
+     * The hedged-read policy assigned specifically to this table, if any.
+     * @return table-level hedged-read policy, or null if the context-level policy applies
+     */
+    public HedgingPolicy getHedgingPolicy() {
+        return this.hedgingPolicy;
+    }
+
+    /**
+     * The resource pool sizing assigned specifically to this table, if any.
+     * @return table-level pool sizing, or null if the context-level table pool applies
+     */
+    public PoolSizing getPoolSizing() {
+        return this.poolSizing;
+    }
+
+    /**
+     * The regions into which this table is pre-split when it is created, if any.
+     * @return split policy, or null if the table is created with a single region
+     */
+    public SplitPolicy getSplitPolicy() {
+        return this.splitPolicy;
+    }
 
     public byte[] literalize(final RowKey rk) {
         byte[] literalRK;
@@ -173,5 +253,10 @@ public final class TableModel extends NamedEntityDefault implements TableHB {
         } else {
             this.rowKeyLiteralizer = build.rowKeyLiteralizer;
         }
+        this.hedgingPolicy = build.hedgingPolicy;
+        this.poolSizing = build.poolSizing;
+        this.splitPolicy = build.splitPolicy;
+        // families and table-level serializers must be assigned first
+        this.serializationTable = ColumnSerializationTable.of(this);
     }
 }
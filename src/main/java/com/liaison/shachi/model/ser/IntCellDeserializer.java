@@ -0,0 +1,39 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.liaison.shachi.model.ser;
+
+import com.liaison.shachi.exception.CellDeserializationException;
+
+/**
+ * Deserializer which decodes the raw bytes content of a cell directly to a primitive int, as an
+ * alternative to {@link CellDeserializer} for 32-bit integer columns, avoiding both boxing of the result
+ * and a defensive copy of the cell value.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+@FunctionalInterface
+public interface IntCellDeserializer {
+    /**
+     * Decode the cell value occupying the given region of the given array. Implementations must
+     * not modify or retain the array, as it may be the internal (uncopied) value buffer.
+     * @param hbaseCellValue array containing the cell value
+     * @param offset index of the first byte of the cell value
+     * @param length number of bytes in the cell value
+     * @return the decoded value
+     * @throws CellDeserializationException if the bytes retrieved from HBase cannot be decoded
+     */
+    int deserializeInt(byte[] hbaseCellValue, int offset, int length) throws CellDeserializationException;
+}
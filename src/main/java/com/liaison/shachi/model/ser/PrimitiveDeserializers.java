@@ -0,0 +1,158 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.liaison.shachi.model.ser;
+
+import com.liaison.shachi.exception.CellDeserializationException;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * The set of primitive-specialized deserializers ({@link LongCellDeserializer},
+ * {@link IntCellDeserializer}, {@link DoubleCellDeserializer}, and
+ * {@link BooleanCellDeserializer}) declared for a column family or qualifier. Any of them may be
+ * left undeclared, in which case the corresponding accessor falls back to the standard HBase
+ * encoding (as written by {@link Bytes#toBytes(long)} and friends); see {@link #STANDARD}.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public final class PrimitiveDeserializers {
+
+    public static final class Builder {
+        private LongCellDeserializer longDeserializer;
+        private IntCellDeserializer intDeserializer;
+        private DoubleCellDeserializer doubleDeserializer;
+        private BooleanCellDeserializer booleanDeserializer;
+
+        public Builder forLong(final LongCellDeserializer longDeserializer) {
+            this.longDeserializer = longDeserializer;
+            return this;
+        }
+        public Builder forInt(final IntCellDeserializer intDeserializer) {
+            this.intDeserializer = intDeserializer;
+            return this;
+        }
+        public Builder forDouble(final DoubleCellDeserializer doubleDeserializer) {
+            this.doubleDeserializer = doubleDeserializer;
+            return this;
+        }
+        public Builder forBoolean(final BooleanCellDeserializer booleanDeserializer) {
+            this.booleanDeserializer = booleanDeserializer;
+            return this;
+        }
+        public PrimitiveDeserializers build() {
+            return new PrimitiveDeserializers(this);
+        }
+        private Builder() {
+            this.longDeserializer = null;
+            this.intDeserializer = null;
+            this.doubleDeserializer = null;
+            this.booleanDeserializer = null;
+        }
+    }
+
+    private static void ensureLength(final String typeName, final int expected, final int length) throws CellDeserializationException {
+        if (length != expected) {
+            throw new CellDeserializationException("Cannot decode "
+                                                   + typeName
+                                                   + " from cell value of "
+                                                   + length
+                                                   + " byte(s); expected "
+                                                   + expected);
+        }
+    }
+
+    private static long decodeStandardLong(final byte[] value, final int offset, final int length) throws CellDeserializationException {
+        ensureLength("long", Bytes.SIZEOF_LONG, length);
+        return Bytes.toLong(value, offset, length);
+    }
+    private static int decodeStandardInt(final byte[] value, final int offset, final int length) throws CellDeserializationException {
+        ensureLength("int", Bytes.SIZEOF_INT, length);
+        return Bytes.toInt(value, offset, length);
+    }
+    private static double decodeStandardDouble(final byte[] value, final int offset, final int length) throws CellDeserializationException {
+        ensureLength("double", Bytes.SIZEOF_DOUBLE, length);
+        return Bytes.toDouble(value, offset);
+    }
+    private static boolean decodeStandardBoolean(final byte[] value, final int offset, final int length) throws CellDeserializationException {
+        ensureLength("boolean", Bytes.SIZEOF_BOOLEAN, length);
+        return (value[offset] != (byte) 0);
+    }
+
+    /**
+     * Decodes cell values in the standard HBase encoding produced by the {@link Bytes#toBytes}
+     * overloads (big-endian, fixed-width), rejecting values of the wrong width.
+     */
+    public static final PrimitiveDeserializers STANDARD =
+        getBuilder()
+            .forLong(PrimitiveDeserializers::decodeStandardLong)
+            .forInt(PrimitiveDeserializers::decodeStandardInt)
+            .forDouble(PrimitiveDeserializers::decodeStandardDouble)
+            .forBoolean(PrimitiveDeserializers::decodeStandardBoolean)
+            .build();
+
+    public static Builder getBuilder() {
+        return new Builder();
+    }
+
+    private final LongCellDeserializer longDeserializer;
+    private final IntCellDeserializer intDeserializer;
+    private final DoubleCellDeserializer doubleDeserializer;
+    private final BooleanCellDeserializer booleanDeserializer;
+
+    public long deserializeLong(final byte[] value, final int offset, final int length) throws CellDeserializationException {
+        if (this.longDeserializer == null) {
+            return decodeStandardLong(value, offset, length);
+        }
+        return this.longDeserializer.deserializeLong(value, offset, length);
+    }
+    public int deserializeInt(final byte[] value, final int offset, final int length) throws CellDeserializationException {
+        if (this.intDeserializer == null) {
+            return decodeStandardInt(value, offset, length);
+        }
+        return this.intDeserializer.deserializeInt(value, offset, length);
+    }
+    public double deserializeDouble(final byte[] value, final int offset, final int length) throws CellDeserializationException {
+        if (this.doubleDeserializer == null) {
+            return decodeStandardDouble(value, offset, length);
+        }
+        return this.doubleDeserializer.deserializeDouble(value, offset, length);
+    }
+    public boolean deserializeBoolean(final byte[] value, final int offset, final int length) throws CellDeserializationException {
+        if (this.booleanDeserializer == null) {
+            return decodeStandardBoolean(value, offset, length);
+        }
+        return this.booleanDeserializer.deserializeBoolean(value, offset, length);
+    }
+
+    public LongCellDeserializer getLongDeserializer() {
+        return this.longDeserializer;
+    }
+    public IntCellDeserializer getIntDeserializer() {
+        return this.intDeserializer;
+    }
+    public DoubleCellDeserializer getDoubleDeserializer() {
+        return this.doubleDeserializer;
+    }
+    public BooleanCellDeserializer getBooleanDeserializer() {
+        return this.booleanDeserializer;
+    }
+
+    private PrimitiveDeserializers(final Builder build) {
+        this.longDeserializer = build.longDeserializer;
+        this.intDeserializer = build.intDeserializer;
+        this.doubleDeserializer = build.doubleDeserializer;
+        this.booleanDeserializer = build.booleanDeserializer;
+    }
+}
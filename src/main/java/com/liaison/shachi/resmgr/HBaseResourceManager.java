@@ -26,5 +26,34 @@ public interface HBaseResourceManager {
     ManagedAdmin borrowAdmin(HBaseContext context) throws HBaseResourceAcquisitionException;
     void releaseAdmin(ManagedAdmin admin) throws HBaseResourceReleaseException;
     ManagedTable borrow(HBaseContext context, TableModel model) throws HBaseResourceAcquisitionException;
+    /**
+     * Borrow a table resource, waiting no longer than the given time for one to become available
+     * (if the implementation limits the number of resources outstanding). Implementations which
+     * do not wait for resources may ignore the limit.
+     * @param context
+     * @param model
+     * @param maxWaitMillis maximum time (milliseconds) to wait for a resource to become available
+     * @return
+     * @throws HBaseResourceAcquisitionException
+     */
+    ManagedTable borrow(HBaseContext context, TableModel model, long maxWaitMillis) throws HBaseResourceAcquisitionException;
     void release(ManagedTable table) throws HBaseResourceReleaseException;
+    /**
+     * Establish, ahead of first use, whatever resources the implementation keeps ready for the
+     * given table (e.g. fill a pool to its minimum idle size), so that the first operations
+     * against the table do not pay for connection and table setup inline.
+     * @param context
+     * @param model
+     * @throws HBaseResourceAcquisitionException if the resources cannot be established
+     */
+    void prewarm(HBaseContext context, TableModel model) throws HBaseResourceAcquisitionException;
+    /**
+     * Destroy whatever idle resources the implementation keeps for the given context, e.g. after
+     * the context's shared connection has been closed (see
+     * {@link HBaseContext#releaseConnection()}). Resources outstanding at the time are destroyed,
+     * rather than kept, when released, if the connection from which they were built has since
+     * been closed.
+     * @param context
+     */
+    void evict(HBaseContext context);
 }
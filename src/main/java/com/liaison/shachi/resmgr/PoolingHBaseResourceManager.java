@@ -18,10 +18,14 @@ package com.liaison.shachi.resmgr;
 import com.liaison.javabasics.commons.Util;
 import com.liaison.javabasics.logging.JitLog;
 import com.liaison.shachi.context.HBaseContext;
+import com.liaison.shachi.context.pool.PoolSizing;
+import com.liaison.shachi.context.pool.ResourcePoolPolicy;
 import com.liaison.shachi.exception.HBaseInitializationException;
 import com.liaison.shachi.exception.HBaseResourceAcquisitionException;
 import com.liaison.shachi.exception.HBaseResourceReleaseException;
 import com.liaison.shachi.model.TableModel;
+import com.liaison.shachi.resmgr.metrics.ResourceMetricsRegistry;
+import com.liaison.shachi.resmgr.metrics.ResourcePoolMetrics;
 import com.liaison.shachi.resmgr.pool.HBaseKeyedResourcePool;
 import com.liaison.shachi.resmgr.pool.HBaseKeyedResourcePoolDefault;
 import com.liaison.shachi.resmgr.pool.HBaseResourcePool;
@@ -35,7 +39,10 @@ import org.apache.commons.pool2.BasePooledObjectFactory;
 import org.apache.commons.pool2.PooledObject;
 import org.apache.commons.pool2.impl.DefaultPooledObject;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
@@ -91,6 +98,16 @@ public enum PoolingHBaseResourceManager implements HBaseResourceManager {
             }
         }
         
+        /**
+         * A table resource built from a connection which has since been closed is destroyed upon
+         * borrow or return, rather than reused.
+         * @see org.apache.commons.pool2.BaseKeyedPooledObjectFactory#validateObject(java.lang.Object, org.apache.commons.pool2.PooledObject)
+         */
+        @Override
+        public boolean validateObject(final TableModel model, final PooledObject<ManagedTable> poolTable) {
+            return !poolTable.getObject().isConnectionStale();
+        }
+        
         /**
          * 
          * @param context
@@ -101,6 +118,50 @@ public enum PoolingHBaseResourceManager implements HBaseResourceManager {
         }       
     }
     
+    /**
+     * Factory for the table resources of a single table which is pooled separately from the
+     * context-level (keyed) table pool, because its model specifies its own {@link PoolSizing}.
+     * @author Branden Smith; Liaison Technologies, Inc.
+     */
+    private static final class DedicatedTableFactory extends BasePooledObjectFactory<ManagedTable> {
+
+        private final HBaseContext context;
+        private final TableModel model;
+        
+        @Override
+        public ManagedTable create() throws HBaseResourceAcquisitionException {
+            return ResourceManagerUtil.buildTableResource(INSTANCE, this.context, this.model);
+        }
+
+        @Override
+        public PooledObject<ManagedTable> wrap(final ManagedTable value) {
+            return new DefaultPooledObject<>(value);
+        }
+        
+        @Override
+        public void destroyObject(final PooledObject<ManagedTable> poolTable) throws HBaseResourceReleaseException {
+            final ManagedTable mTable;
+            if (poolTable != null) {
+                mTable = poolTable.getObject();
+                if (mTable != null) {
+                    ResourceManagerUtil.destroyTableResource(mTable);
+                }
+            }
+        }
+        
+        @Override
+        public boolean validateObject(final PooledObject<ManagedTable> poolTable) {
+            return !poolTable.getObject().isConnectionStale();
+        }
+        
+        private DedicatedTableFactory(final HBaseContext context, final TableModel model) throws IllegalArgumentException {
+            Util.ensureNotNull(context, this, "context", HBaseContext.class);
+            Util.ensureNotNull(model, this, "model", TableModel.class);
+            this.context = context;
+            this.model = model;
+        }
+    }
+    
     /**
      * 
      * TODO
@@ -144,6 +205,11 @@ public enum PoolingHBaseResourceManager implements HBaseResourceManager {
             }
         }
         
+        @Override
+        public boolean validateObject(final PooledObject<ManagedAdmin> poolAdmin) {
+            return !poolAdmin.getObject().isConnectionStale();
+        }
+        
         /**
          * 
          * @param context
@@ -157,23 +223,16 @@ public enum PoolingHBaseResourceManager implements HBaseResourceManager {
     private static JitLog LOG = new JitLog(PoolingHBaseResourceManager.class);
     
     private static final boolean POOLDEFAULT_BLOCK_ON_POOL_EXHAUSTED = true;
-    private static final int POOLDEFAULT_MAXWAIT_MILLI = 30000; // 30 seconds
-    private static final int POOLDEFAULT_EVICTAFTER_MILLI = 60000; // 1 minute
-    
-    private static final Integer POOLDEFAULT_TABLE_POOL_MAXSIZE_OVERALL = null; // infinite
-    private static final int POOLDEFAULT_TABLE_POOL_MAXSIZE = 25;
-    private static final int POOLDEFAULT_TABLE_POOL_MAXIDLE = 5;
-    private static final int POOLDEFAULT_TABLE_POOL_MINIDLE = 2;
-    
-    private static final int POOLDEFAULT_ADMIN_POOL_MAXSIZE = 10;
-    private static final int POOLDEFAULT_ADMIN_POOL_MAXIDLE = 5;
-    private static final int POOLDEFAULT_ADMIN_POOL_MINIDLE = 1;
     
     private static final String POOLNAME_TABLE_POOL = "table-pool";
     private static final String POOLNAME_ADMIN_POOL = "admin-pool";
+    private static final String POOLNAME_DEDICATED_TABLE_POOL = "dedicated-table-pool";
     
     private final ConcurrentHashMap<HBaseContext, HBaseResourcePool<ManagedAdmin>> adminPoolMap;
     private final ConcurrentHashMap<HBaseContext, HBaseKeyedResourcePool<TableModel, ManagedTable>> tablePoolMap;
+    private final ConcurrentHashMap<HBaseContext, ConcurrentHashMap<TableModel, HBaseResourcePool<ManagedTable>>> dedicatedTablePoolMap;
+    private final ConcurrentHashMap<HBaseContext, ResourcePoolMetrics> adminMetricsMap;
+    private final ConcurrentHashMap<HBaseContext, ConcurrentHashMap<TableModel, ResourcePoolMetrics>> tableMetricsMap;
 
     private static <V> void logPoolStats(final String poolName, final StatsAwareResourcePool<?> pool) {
         try {
@@ -211,42 +270,80 @@ public enum PoolingHBaseResourceManager implements HBaseResourceManager {
     }
     
     private static HBaseKeyedResourcePool<TableModel, ManagedTable> buildTablePool(final HBaseContext context) {
+        final ResourcePoolPolicy policy;
+        final PoolSizing sizing;
         final PooledTableFactory factory;
         final HBaseKeyedResourcePool<TableModel, ManagedTable> pool;
         
+        policy = ResourceManagerUtil.getResourcePoolPolicy(context);
+        sizing = policy.getTableSizing();
         factory = new PooledTableFactory(context);
         pool = new HBaseKeyedResourcePoolDefault<TableModel, ManagedTable>(factory);
         
         pool.setBlockWhenExhausted(POOLDEFAULT_BLOCK_ON_POOL_EXHAUSTED);
-        pool.setMaxWaitMillis(POOLDEFAULT_MAXWAIT_MILLI);
-        pool.setSoftMinEvictableIdleTimeMillis(POOLDEFAULT_EVICTAFTER_MILLI);
-        pool.setMaxIdlePerKey(POOLDEFAULT_TABLE_POOL_MAXIDLE);
-        pool.setMinIdlePerKey(POOLDEFAULT_TABLE_POOL_MINIDLE);
-        pool.setMaxTotalPerKey(POOLDEFAULT_TABLE_POOL_MAXSIZE);
-        if (POOLDEFAULT_TABLE_POOL_MAXSIZE_OVERALL != null) {
-            pool.setMaxTotal(POOLDEFAULT_TABLE_POOL_MAXSIZE_OVERALL.intValue());
+        pool.setMaxWaitMillis(policy.getMaxWaitMillis());
+        pool.setTestOnBorrow(true);
+        pool.setTestOnReturn(true);
+        pool.setSoftMinEvictableIdleTimeMillis(policy.getEvictAfterMillis());
+        pool.setMaxIdlePerKey(sizing.getMaxIdle().intValue());
+        pool.setMinIdlePerKey(sizing.getMinIdle().intValue());
+        pool.setMaxTotalPerKey(sizing.getMaxTotal().intValue());
+        if (policy.getTableMaxTotalOverall() != null) {
+            pool.setMaxTotal(policy.getTableMaxTotalOverall().intValue());
         }
         
-        // TODO: allow the HBaseContext to override pool factory defaults
+        return pool;
+    }
+
+    /**
+     * Build the separate pool for a table whose model specifies its own {@link PoolSizing}; any
+     * values the model leaves unspecified are taken from the context-level table sizing.
+     * @param context
+     * @param model
+     * @return the pool for the table
+     */
+    private static HBaseResourcePool<ManagedTable> buildDedicatedTablePool(final HBaseContext context, final TableModel model) {
+        final ResourcePoolPolicy policy;
+        final PoolSizing sizing;
+        final DedicatedTableFactory factory;
+        final HBaseResourcePool<ManagedTable> pool;
+        
+        policy = ResourceManagerUtil.getResourcePoolPolicy(context);
+        sizing = ResourceManagerUtil.getTableSizing(context, model);
+        factory = new DedicatedTableFactory(context, model);
+        pool = new HBaseResourcePoolDefault<ManagedTable>(factory);
+        
+        pool.setBlockWhenExhausted(POOLDEFAULT_BLOCK_ON_POOL_EXHAUSTED);
+        pool.setMaxWaitMillis(policy.getMaxWaitMillis());
+        pool.setTestOnBorrow(true);
+        pool.setTestOnReturn(true);
+        pool.setSoftMinEvictableIdleTimeMillis(policy.getEvictAfterMillis());
+        pool.setMaxIdle(sizing.getMaxIdle().intValue());
+        pool.setMinIdle(sizing.getMinIdle().intValue());
+        pool.setMaxTotal(sizing.getMaxTotal().intValue());
         
         return pool;
     }
 
     private static HBaseResourcePool<ManagedAdmin> buildAdminPool(final HBaseContext context) {
+        final ResourcePoolPolicy policy;
+        final PoolSizing sizing;
         final PooledAdminFactory factory;
         final HBaseResourcePool<ManagedAdmin> pool;
         
+        policy = ResourceManagerUtil.getResourcePoolPolicy(context);
+        sizing = policy.getAdminSizing();
         factory = new PooledAdminFactory(context);
         pool = new HBaseResourcePoolDefault<ManagedAdmin>(factory);
         
         pool.setBlockWhenExhausted(POOLDEFAULT_BLOCK_ON_POOL_EXHAUSTED);
-        pool.setMaxWaitMillis(POOLDEFAULT_MAXWAIT_MILLI);
-        pool.setSoftMinEvictableIdleTimeMillis(POOLDEFAULT_EVICTAFTER_MILLI);
-        pool.setMaxIdle(POOLDEFAULT_ADMIN_POOL_MAXIDLE);
-        pool.setMinIdle(POOLDEFAULT_ADMIN_POOL_MINIDLE);
-        pool.setMaxTotal(POOLDEFAULT_ADMIN_POOL_MAXSIZE);
-        
-        // TODO: allow the HBaseContext to override pool factory defaults
+        pool.setMaxWaitMillis(policy.getMaxWaitMillis());
+        pool.setTestOnBorrow(true);
+        pool.setTestOnReturn(true);
+        pool.setSoftMinEvictableIdleTimeMillis(policy.getEvictAfterMillis());
+        pool.setMaxIdle(sizing.getMaxIdle().intValue());
+        pool.setMinIdle(sizing.getMinIdle().intValue());
+        pool.setMaxTotal(sizing.getMaxTotal().intValue());
         
         return pool;
     }
@@ -303,27 +400,224 @@ public enum PoolingHBaseResourceManager implements HBaseResourceManager {
         return pool;
     }
     
+    /**
+     * Publish newly-created pool metrics to the context's metrics registry, if any.
+     * @param context
+     * @param metrics
+     * @return the metrics
+     */
+    private static ResourcePoolMetrics publishMetrics(final HBaseContext context, final ResourcePoolMetrics metrics) {
+        final ResourceMetricsRegistry registry;
+        registry = context.getResourceMetricsRegistry();
+        if (registry != null) {
+            registry.register(metrics);
+        }
+        return metrics;
+    }
+    
+    /**
+     * Obtain the metrics for the given table's resources, creating (and publishing) them upon
+     * first use.
+     * @param context
+     * @param model
+     * @param pool the context-level table pool, or null if the table has a dedicated pool
+     * @param dedicatedPool the table's dedicated pool, or null if it uses the context-level pool
+     * @return the metrics for the table
+     */
+    private ResourcePoolMetrics obtainTableMetrics(final HBaseContext context, final TableModel model, final HBaseKeyedResourcePool<TableModel, ManagedTable> pool, final HBaseResourcePool<ManagedTable> dedicatedPool) {
+        final ConcurrentHashMap<TableModel, ResourcePoolMetrics> contextMetricsMap;
+        final ResourcePoolMetrics metrics;
+        
+        contextMetricsMap = this.tableMetricsMap.computeIfAbsent(context, ctx->new ConcurrentHashMap<>());
+        metrics = contextMetricsMap.get(model);
+        if (metrics != null) {
+            return metrics;
+        }
+        return contextMetricsMap.computeIfAbsent(model, mdl->{
+            if (dedicatedPool != null) {
+                return publishMetrics(context,
+                                      new ResourcePoolMetrics(String.valueOf(context.getId()),
+                                                              POOLNAME_DEDICATED_TABLE_POOL,
+                                                              mdl.getName().getStr(),
+                                                              dedicatedPool::getNumActive,
+                                                              dedicatedPool::getNumIdle,
+                                                              dedicatedPool::getMaxTotal));
+            }
+            return publishMetrics(context,
+                                  new ResourcePoolMetrics(String.valueOf(context.getId()),
+                                                          POOLNAME_TABLE_POOL,
+                                                          mdl.getName().getStr(),
+                                                          ()->pool.getNumActive(mdl),
+                                                          ()->pool.getNumIdle(mdl),
+                                                          pool::getMaxTotalPerKey));
+        });
+    }
+    
+    /**
+     * Obtain the metrics for the given context's admin resources, creating (and publishing) them
+     * upon first use.
+     * @param context
+     * @param pool
+     * @return the metrics for the admin pool
+     */
+    private ResourcePoolMetrics obtainAdminMetrics(final HBaseContext context, final HBaseResourcePool<ManagedAdmin> pool) {
+        final ResourcePoolMetrics metrics;
+        metrics = this.adminMetricsMap.get(context);
+        if (metrics != null) {
+            return metrics;
+        }
+        return this.adminMetricsMap.computeIfAbsent(context, ctx->
+            publishMetrics(ctx,
+                           new ResourcePoolMetrics(String.valueOf(ctx.getId()),
+                                                   POOLNAME_ADMIN_POOL,
+                                                   null,
+                                                   pool::getNumActive,
+                                                   pool::getNumIdle,
+                                                   pool::getMaxTotal)));
+    }
+    
+    /**
+     * Record the outcome of a failed borrow in the given metrics: a timeout, if the pool gave up
+     * waiting for a resource, or a failure otherwise.
+     * @param metrics the metrics for the pool (may be null, if the failure occurred before they
+     * were obtained)
+     * @param exc
+     */
+    private static void recordBorrowFailure(final ResourcePoolMetrics metrics, final Exception exc) {
+        if (metrics != null) {
+            if (exc instanceof NoSuchElementException) {
+                metrics.recordTimeout();
+            } else {
+                metrics.recordFailure();
+            }
+        }
+    }
+    
+    /**
+     * The metrics of all pools created for the given context so far (its admin pool, and the
+     * pool of each table used): borrow counts and latency, waits, timeouts, and active/idle
+     * gauges. The same metrics are published via the context's
+     * {@link HBaseContext#getResourceMetricsRegistry() metrics registry}.
+     * @param context
+     * @return the metrics of the pools for the context
+     */
+    public List<ResourcePoolMetrics> getMetrics(final HBaseContext context) {
+        final List<ResourcePoolMetrics> metricsList;
+        final ResourcePoolMetrics adminMetrics;
+        final Map<TableModel, ResourcePoolMetrics> contextMetricsMap;
+        
+        metricsList = new ArrayList<>();
+        adminMetrics = this.adminMetricsMap.get(context);
+        if (adminMetrics != null) {
+            metricsList.add(adminMetrics);
+        }
+        contextMetricsMap = this.tableMetricsMap.get(context);
+        if (contextMetricsMap != null) {
+            metricsList.addAll(contextMetricsMap.values());
+        }
+        return metricsList;
+    }
+    
+    /**
+     * Obtain the separate pool for a table whose model specifies its own {@link PoolSizing},
+     * creating it if it does not yet exist and creation is permitted.
+     * @param context
+     * @param model
+     * @param create whether the pool may be created if it does not exist
+     * @return the pool for the table
+     * @throws HBaseInitializationException if the pool does not exist and may not be created
+     */
+    private HBaseResourcePool<ManagedTable> obtainDedicatedPool(final HBaseContext context, final TableModel model, final boolean create) throws HBaseInitializationException {
+        final String logMsg;
+        final ConcurrentHashMap<TableModel, HBaseResourcePool<ManagedTable>> contextPoolMap;
+        final HBaseResourcePool<ManagedTable> pool;
+        
+        if (create) {
+            contextPoolMap =
+                this.dedicatedTablePoolMap.computeIfAbsent(context, ctx->new ConcurrentHashMap<>());
+            return contextPoolMap.computeIfAbsent(model, mdl->buildDedicatedTablePool(context, mdl));
+        }
+        contextPoolMap = this.dedicatedTablePoolMap.get(context);
+        if (contextPoolMap == null) {
+            pool = null;
+        } else {
+            pool = contextPoolMap.get(model);
+        }
+        if (pool == null) {
+            logMsg = "Object pool for table "
+                     + model
+                     + " of "
+                     + HBaseContext.class.getSimpleName()
+                     + " '"
+                     + context.getId()
+                     + "' does not exist, and invoke context does not permit pool creation";
+            throw new HBaseInitializationException(logMsg);
+        }
+        return pool;
+    }
+    
     @Override
     public ManagedTable borrow(final HBaseContext context, final TableModel model) throws HBaseResourceAcquisitionException, IllegalArgumentException {
+        return borrow(context,
+                      model,
+                      ResourceManagerUtil.getResourcePoolPolicy(context).getMaxWaitMillis());
+    }
+
+    @Override
+    public ManagedTable borrow(final HBaseContext context, final TableModel model, final long maxWaitMillis) throws HBaseResourceAcquisitionException, IllegalArgumentException {
         final String logMethodName;
         final String logMsg;
+        final long poolMaxWaitMillis;
         final HBaseKeyedResourcePool<TableModel, ManagedTable> pool;
+        final HBaseResourcePool<ManagedTable> dedicatedPool;
         final ManagedTable mTable;
+        final boolean exhausted;
+        final long startNanos;
+        ResourcePoolMetrics metrics;
         
         logMethodName =
             LOG.enter(()->"borrow(context.id=",
                       ()->context.getId(),
                       ()->",model=",
                       ()->model,
+                      ()->",maxWait=",
+                      ()->Long.valueOf(maxWaitMillis),
                       ()->")");
         
+        metrics = null;
         try {
-            pool = obtainPool(context, this.tablePoolMap, PoolingHBaseResourceManager::buildTablePool);
-            mTable = pool.borrowObject(model);
-            LOG.trace(logMethodName, ()->"obtained: ", ()->mTable);
-            logPoolStats(POOLNAME_TABLE_POOL, pool, model);
+            /*
+             * Never wait longer than the pool-wide maximum, even if the caller would allow it; to
+             * the pool, a negative wait means "wait indefinitely" and a wait of zero means "do not
+             * wait", so a caller with no time remaining fails fast rather than blocking
+             */
+            poolMaxWaitMillis =
+                Math.max(0L,
+                         Math.min(maxWaitMillis,
+                                  ResourceManagerUtil.getResourcePoolPolicy(context).getMaxWaitMillis()));
+            if (model.getPoolSizing() != null) {
+                dedicatedPool = obtainDedicatedPool(context, model, true);
+                metrics = obtainTableMetrics(context, model, null, dedicatedPool);
+                exhausted = metrics.isExhausted();
+                startNanos = System.nanoTime();
+                mTable = dedicatedPool.borrowObject(poolMaxWaitMillis);
+                metrics.recordBorrow(System.nanoTime() - startNanos, exhausted);
+                LOG.trace(logMethodName, ()->"obtained: ", ()->mTable);
+                logPoolStats(POOLNAME_DEDICATED_TABLE_POOL, dedicatedPool);
+            } else {
+                pool =
+                    obtainPool(context, this.tablePoolMap, PoolingHBaseResourceManager::buildTablePool);
+                metrics = obtainTableMetrics(context, model, pool, null);
+                exhausted = metrics.isExhausted();
+                startNanos = System.nanoTime();
+                mTable = pool.borrowObject(model, poolMaxWaitMillis);
+                metrics.recordBorrow(System.nanoTime() - startNanos, exhausted);
+                LOG.trace(logMethodName, ()->"obtained: ", ()->mTable);
+                logPoolStats(POOLNAME_TABLE_POOL, pool, model);
+            }
             return mTable;
         } catch (Exception exc) {
+            recordBorrowFailure(metrics, exc);
             logMsg = "Failed to obtain "
                      + ManagedTable.class.getSimpleName()
                      + " from pool; "
@@ -341,6 +635,7 @@ public enum PoolingHBaseResourceManager implements HBaseResourceManager {
         final String logMsg;
         final TableModel model;
         final HBaseKeyedResourcePool<TableModel, ManagedTable> pool;
+        final HBaseResourcePool<ManagedTable> dedicatedPool;
         
         logMethodName =
             LOG.enter(()->"release(context.id=",
@@ -348,11 +643,18 @@ public enum PoolingHBaseResourceManager implements HBaseResourceManager {
                       ()->")");
         
         try {
-            pool = obtainPool(mTable.getContext(), this.tablePoolMap);
             model = mTable.getModel();
-            pool.returnObject(model, mTable);
-            LOG.trace(logMethodName, ()->"released: ", ()->mTable);
-            logPoolStats(POOLNAME_TABLE_POOL, pool, model);
+            if (model.getPoolSizing() != null) {
+                dedicatedPool = obtainDedicatedPool(mTable.getContext(), model, false);
+                dedicatedPool.returnObject(mTable);
+                LOG.trace(logMethodName, ()->"released: ", ()->mTable);
+                logPoolStats(POOLNAME_DEDICATED_TABLE_POOL, dedicatedPool);
+            } else {
+                pool = obtainPool(mTable.getContext(), this.tablePoolMap);
+                pool.returnObject(model, mTable);
+                LOG.trace(logMethodName, ()->"released: ", ()->mTable);
+                logPoolStats(POOLNAME_TABLE_POOL, pool, model);
+            }
         } catch (Exception exc) {
             logMsg = "RESOURCE LEAK: Failed to release "
                      + ManagedTable.class.getSimpleName()
@@ -365,12 +667,105 @@ public enum PoolingHBaseResourceManager implements HBaseResourceManager {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <br><br>
+     * Creates idle table resources in the pool for the given table until it reaches its minimum
+     * idle size (from the table's own {@link PoolSizing}, if any, or otherwise from the context's
+     * {@link ResourcePoolPolicy}).
+     */
+    @Override
+    public void prewarm(final HBaseContext context, final TableModel model) throws HBaseResourceAcquisitionException, IllegalArgumentException {
+        final String logMethodName;
+        final String logMsg;
+        final HBaseKeyedResourcePool<TableModel, ManagedTable> pool;
+        final HBaseResourcePool<ManagedTable> dedicatedPool;
+        int idleCount;
+        
+        logMethodName =
+            LOG.enter(()->"prewarm(context.id=",
+                      ()->context.getId(),
+                      ()->",model=",
+                      ()->model,
+                      ()->")");
+        
+        try {
+            if (model.getPoolSizing() != null) {
+                dedicatedPool = obtainDedicatedPool(context, model, true);
+                for (idleCount = dedicatedPool.getNumIdle(); idleCount < dedicatedPool.getMinIdle(); idleCount++) {
+                    dedicatedPool.addObject();
+                }
+                logPoolStats(POOLNAME_DEDICATED_TABLE_POOL, dedicatedPool);
+            } else {
+                pool =
+                    obtainPool(context, this.tablePoolMap, PoolingHBaseResourceManager::buildTablePool);
+                pool.preparePool(model);
+                logPoolStats(POOLNAME_TABLE_POOL, pool, model);
+            }
+        } catch (Exception exc) {
+            logMsg = "Failed to pre-warm "
+                     + ManagedTable.class.getSimpleName()
+                     + " pool for table "
+                     + model
+                     + "; "
+                     + exc.toString();
+            LOG.error(exc, logMethodName, ()->logMsg);
+            throw new HBaseResourceAcquisitionException(logMsg, exc);
+        } finally {
+            LOG.leave(logMethodName);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br><br>
+     * Clears the idle resources from every pool of the context (its admin pool, table pool, and
+     * any dedicated table pools); the pools themselves are kept, and are refilled upon demand.
+     */
+    @Override
+    public void evict(final HBaseContext context) {
+        final String logMethodName;
+        final HBaseResourcePool<ManagedAdmin> adminPool;
+        final HBaseKeyedResourcePool<TableModel, ManagedTable> tablePool;
+        final Map<TableModel, HBaseResourcePool<ManagedTable>> contextPoolMap;
+        
+        logMethodName =
+            LOG.enter(()->"evict(context.id=",
+                      ()->context.getId(),
+                      ()->")");
+        
+        try {
+            adminPool = this.adminPoolMap.get(context);
+            if (adminPool != null) {
+                adminPool.clear();
+            }
+            tablePool = this.tablePoolMap.get(context);
+            if (tablePool != null) {
+                tablePool.clear();
+            }
+            contextPoolMap = this.dedicatedTablePoolMap.get(context);
+            if (contextPoolMap != null) {
+                for (HBaseResourcePool<ManagedTable> dedicatedPool : contextPoolMap.values()) {
+                    dedicatedPool.clear();
+                }
+            }
+        } catch (Exception exc) {
+            // idle resources which could not be cleared are destroyed upon their next borrow
+            LOG.error(exc, logMethodName, ()->"Failed to evict idle resources: ", ()->exc);
+        } finally {
+            LOG.leave(logMethodName);
+        }
+    }
+
     @Override
     public ManagedAdmin borrowAdmin(final HBaseContext context) throws HBaseResourceAcquisitionException, IllegalArgumentException {
         final String logMethodName;
         final String logMsg;
         final HBaseResourcePool<ManagedAdmin> pool;
+        final ResourcePoolMetrics metrics;
         final ManagedAdmin mAdmin;
+        final boolean exhausted;
+        final long startNanos;
         
         logMethodName =
             LOG.enter(()->"borrowAdmin(context.id=",
@@ -378,12 +773,17 @@ public enum PoolingHBaseResourceManager implements HBaseResourceManager {
                       ()->")");
         
         pool = obtainPool(context, this.adminPoolMap, PoolingHBaseResourceManager::buildAdminPool);
+        metrics = obtainAdminMetrics(context, pool);
         try {
+            exhausted = metrics.isExhausted();
+            startNanos = System.nanoTime();
             mAdmin = pool.borrowObject();
+            metrics.recordBorrow(System.nanoTime() - startNanos, exhausted);
             LOG.trace(logMethodName, ()->"obtained: ", ()->mAdmin);
             logPoolStats(POOLNAME_ADMIN_POOL, pool);
             return mAdmin;
         } catch (Exception exc) {
+            recordBorrowFailure(metrics, exc);
             logMsg = "Failed to obtain "
                      + ManagedAdmin.class.getSimpleName()
                      + " from pool; "
@@ -426,5 +826,8 @@ public enum PoolingHBaseResourceManager implements HBaseResourceManager {
     private PoolingHBaseResourceManager() {
         this.adminPoolMap = new ConcurrentHashMap<>();
         this.tablePoolMap = new ConcurrentHashMap<>();
+        this.dedicatedTablePoolMap = new ConcurrentHashMap<>();
+        this.adminMetricsMap = new ConcurrentHashMap<>();
+        this.tableMetricsMap = new ConcurrentHashMap<>();
     }
 }
@@ -18,8 +18,12 @@ package com.liaison.shachi.resmgr;
 import com.liaison.javabasics.commons.Util;
 import com.liaison.javabasics.logging.JitLog;
 import com.liaison.shachi.context.HBaseContext;
+import com.liaison.shachi.context.pool.PoolSizing;
+import com.liaison.shachi.context.pool.ResourcePoolPolicy;
+import com.liaison.shachi.context.pool.ResourcePoolPolicyDefault;
 import com.liaison.shachi.exception.HBaseResourceAcquisitionException;
 import com.liaison.shachi.exception.HBaseResourceReleaseException;
+import com.liaison.shachi.model.Name;
 import com.liaison.shachi.model.TableModel;
 import com.liaison.shachi.resmgr.res.Managed;
 import com.liaison.shachi.resmgr.res.ManagedAdmin;
@@ -52,6 +56,108 @@ public class ResourceManagerUtil {
     private static final String LOGNAME_FULL_DESTROYADMIN =
         ResourceManagerUtil.class.getSimpleName() + LOGNAME_DESTROYADMIN;
     
+    /**
+     * Obtain the resource pool configuration for the given context, using the defaults if the
+     * context does not provide one.
+     * @param context
+     * @return the resource pool configuration for the context
+     */
+    public static ResourcePoolPolicy getResourcePoolPolicy(final HBaseContext context) {
+        final ResourcePoolPolicy policy;
+        policy = context.getResourcePoolPolicy();
+        if (policy == null) {
+            return ResourcePoolPolicyDefault.getBuilder().build();
+        }
+        return policy;
+    }
+    
+    /**
+     * Determine the fully-specified resource sizing for the given table: the table's own
+     * {@link PoolSizing}, if any, with unspecified values taken from the context-level table
+     * sizing; or the context-level table sizing, otherwise.
+     * @param context
+     * @param model
+     * @return the resource sizing for the table
+     */
+    public static PoolSizing getTableSizing(final HBaseContext context, final TableModel model) {
+        final PoolSizing contextSizing;
+        contextSizing = getResourcePoolPolicy(context).getTableSizing();
+        if (model.getPoolSizing() == null) {
+            return contextSizing;
+        }
+        return model.getPoolSizing().resolveAgainst(contextSizing);
+    }
+    
+    /**
+     * Borrow an admin resource and use it to create the table with the given name for the given
+     * model, if it does not already exist.
+     * @param sourceResMgr
+     * @param context
+     * @param model
+     * @param tableName
+     * @throws IOException
+     */
+    private static void createTable(final HBaseResourceManager sourceResMgr, final HBaseContext context, final TableModel model, final Name tableName) throws IOException {
+        try (ManagedAdmin admin = sourceResMgr.borrowAdmin(context)) {
+            HBaseUtil.createTableFromModel(admin.use(),
+                                           model,
+                                           tableName,
+                                           context.getDefensiveCopyStrategy());
+        } catch (HBaseResourceAcquisitionException exc) {
+            throw new IOException("Failed to obtain admin resource to verify table "
+                                  + tableName
+                                  + "; "
+                                  + exc,
+                                  exc);
+        }
+    }
+    
+    /**
+     * Ensure that the table for the given model exists, creating it if necessary. If the context
+     * maintains a registry of verified tables, this is a no-op for a table already verified, and
+     * shares the outcome of any verification of the same table already in progress.
+     * @param sourceResMgr
+     * @param context
+     * @param model
+     * @throws IOException if the table could not be verified or created
+     */
+    public static void ensureTableVerified(final HBaseResourceManager sourceResMgr, final HBaseContext context, final TableModel model) throws IOException {
+        final VerifiedTableRegistry registry;
+        final Name tableName;
+        
+        registry = context.getVerifiedTableRegistry();
+        tableName = context.getTableNamingStrategy().generate(model);
+        if (registry == null) {
+            createTable(sourceResMgr, context, model, tableName);
+        } else {
+            registry.ensureVerified(tableName,
+                                    (unverifiedName)->createTable(sourceResMgr,
+                                                                  context,
+                                                                  model,
+                                                                  unverifiedName));
+        }
+    }
+    
+    /**
+     * Handle a TableNotFoundException encountered during an operation against the table for the
+     * given model: remove the table from the context's registry of verified tables, then verify it
+     * again (recreating it if it is absent), so that subsequent operations using table resources
+     * which have already been built (e.g. pooled) do not continue to fail.
+     * @param sourceResMgr
+     * @param context
+     * @param model
+     * @throws IOException if the table could not be verified again
+     */
+    public static void reverifyTable(final HBaseResourceManager sourceResMgr, final HBaseContext context, final TableModel model) throws IOException {
+        final VerifiedTableRegistry registry;
+        
+        registry = context.getVerifiedTableRegistry();
+        if (registry != null) {
+            registry.invalidate(context.getTableNamingStrategy().generate(model));
+        }
+        ensureTableVerified(sourceResMgr, context, model);
+    }
+    
     /**
      * TODO
      * @param sourceResMgr
@@ -64,6 +170,8 @@ public class ResourceManagerUtil {
     public static ManagedTable buildTableResource(final HBaseResourceManager sourceResMgr, final HBaseContext context, final TableModel model) throws HBaseResourceAcquisitionException, IllegalArgumentException {
         final String logMethodName;
         String logMsg;
+        final VerifiedTableRegistry registry;
+        final long connectionGeneration;
         final HTable table;
         
         Util.ensureNotNull(sourceResMgr,
@@ -81,9 +189,27 @@ public class ResourceManagerUtil {
                       ()->model,
                       ()->")");
 
-        try (ManagedAdmin admin = sourceResMgr.borrowAdmin(context)) {
-            table = HBaseUtil.connectToTable(context, admin.use(), model);
-            return new ManagedTable(sourceResMgr, context, model, table);
+        try {
+            // as of before the table is built, so a concurrent close is never overlooked
+            connectionGeneration = context.getConnectionGeneration();
+            registry = context.getVerifiedTableRegistry();
+            if (registry == null) {
+                try (ManagedAdmin admin = sourceResMgr.borrowAdmin(context)) {
+                    table = HBaseUtil.connectToTable(context, admin.use(), model);
+                }
+            } else {
+                // borrow an admin only if the table has not already been verified
+                table =
+                    HBaseUtil.connectToTable(context,
+                                             model,
+                                             (tableName)->registry.ensureVerified(
+                                                 tableName,
+                                                 (unverifiedName)->createTable(sourceResMgr,
+                                                                               context,
+                                                                               model,
+                                                                               unverifiedName)));
+            }
+            return new ManagedTable(sourceResMgr, context, model, table, connectionGeneration);
         } catch (Exception exc) {
             logMsg = "Failed to connect to table "
                      + model
@@ -109,6 +235,7 @@ public class ResourceManagerUtil {
     public static ManagedAdmin buildAdminResource(final HBaseResourceManager sourceResMgr, final HBaseContext context) throws HBaseResourceAcquisitionException, IllegalArgumentException {
         final String logMethodName;
         final String logMsg;
+        final long connectionGeneration;
         final HBaseAdmin admin;
         
         Util.ensureNotNull(sourceResMgr,
@@ -120,6 +247,7 @@ public class ResourceManagerUtil {
         logMethodName =
             LOG.enter(()->LOGNAME_BUILDADMIN, ()->"(context.id=", ()->context.getId(), ()->")");
         
+        connectionGeneration = context.getConnectionGeneration();
         try {
             admin = HBaseUtil.connectAdmin(context);
         } catch (Exception exc) {
@@ -132,7 +260,7 @@ public class ResourceManagerUtil {
         } finally {
             LOG.leave(logMethodName);
         }
-        return new ManagedAdmin(sourceResMgr, context, admin);
+        return new ManagedAdmin(sourceResMgr, context, admin, connectionGeneration);
     }
     
     private static void destroy(final Managed<? extends Closeable> res, final String resName, final Class<? extends Managed<?>> resType, final String methodName, final String methodNameFull) throws HBaseResourceReleaseException, IllegalArgumentException {
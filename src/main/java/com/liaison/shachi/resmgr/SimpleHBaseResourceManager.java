@@ -33,10 +33,45 @@ public enum SimpleHBaseResourceManager implements HBaseResourceManager {
     public ManagedTable borrow(final HBaseContext context, final TableModel model) throws HBaseResourceAcquisitionException, IllegalArgumentException {
         return ResourceManagerUtil.buildTableResource(this, context, model);
     }
+    /**
+     * {@inheritDoc}
+     * <br><br>
+     * Resources are created on demand (rather than borrowed from a finite supply), so there is no
+     * waiting, and maxWaitMillis is ignored.
+     */
+    @Override
+    public ManagedTable borrow(final HBaseContext context, final TableModel model, final long maxWaitMillis) throws HBaseResourceAcquisitionException, IllegalArgumentException {
+        return borrow(context, model);
+    }
     @Override
     public void release(final ManagedTable mTable) throws HBaseResourceReleaseException, IllegalArgumentException {
         ResourceManagerUtil.destroyTableResource(mTable);
     }
+    /**
+     * {@inheritDoc}
+     * <br><br>
+     * No resources are retained between uses, so a single table resource is built and destroyed;
+     * this establishes the shared connection and verifies (or creates) the table.
+     */
+    @Override
+    public void prewarm(final HBaseContext context, final TableModel model) throws HBaseResourceAcquisitionException, IllegalArgumentException {
+        final ManagedTable mTable;
+        mTable = borrow(context, model);
+        try {
+            release(mTable);
+        } catch (HBaseResourceReleaseException hrrExc) {
+            throw new HBaseResourceAcquisitionException(hrrExc.getMessage(), hrrExc);
+        }
+    }
+    /**
+     * {@inheritDoc}
+     * <br><br>
+     * No resources are retained between uses, so there is nothing to evict.
+     */
+    @Override
+    public void evict(final HBaseContext context) {
+        // no-op
+    }
     @Override
     public ManagedAdmin borrowAdmin(final HBaseContext context) throws HBaseResourceAcquisitionException, IllegalArgumentException {
         return ResourceManagerUtil.buildAdminResource(this, context);
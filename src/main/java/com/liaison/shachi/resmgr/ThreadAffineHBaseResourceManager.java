@@ -0,0 +1,566 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.resmgr;
+
+import com.liaison.javabasics.logging.JitLog;
+import com.liaison.shachi.context.HBaseContext;
+import com.liaison.shachi.context.pool.ResourcePoolPolicy;
+import com.liaison.shachi.exception.HBaseResourceAcquisitionException;
+import com.liaison.shachi.exception.HBaseResourceReleaseException;
+import com.liaison.shachi.model.TableModel;
+import com.liaison.shachi.resmgr.res.ManagedAdmin;
+import com.liaison.shachi.resmgr.res.ManagedTable;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resource manager which caches table resources per thread, rather than in a shared object pool:
+ * each thread keeps (in a thread-local map keyed by model identity) the table resource it last
+ * used for each table, and borrowing it again is a single uncontended compare-and-set, with no
+ * locking and no hashing of the {@link TableModel}. Table resources are lightweight handles over
+ * the connection shared by the context, so caching one per thread per table is inexpensive.
+ * <br><br>
+ * The number of table resources per table (and, optionally, per context) is nonetheless bounded,
+ * by the maximum sizes given by the context's {@link ResourcePoolPolicy} and any table-level
+ * {@link com.liaison.shachi.context.pool.PoolSizing} (the idle sizes do not apply). A thread which
+ * needs a resource when the bound has been reached takes over an idle resource cached by another
+ * thread, if there is one, or otherwise waits for a resource to be reclaimed, up to the maximum
+ * wait. Cached resources idle for longer than the eviction threshold are reclaimed in the
+ * background, including those of threads which have terminated.
+ * <br><br>
+ * Admin resources are rarely used, and are neither cached nor pooled.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public enum ThreadAffineHBaseResourceManager implements HBaseResourceManager {
+    INSTANCE;
+    
+    /**
+     * A table resource, together with its permits and its ownership state. Only the thread
+     * which claims a slot (moving it from IDLE to IN_USE) may use its resource; reclaiming a slot
+     * (moving it from IDLE to RECLAIMED) transfers its resource and permits to the reclaimer.
+     */
+    private static final class Slot {
+        private static final int IDLE = 0;
+        private static final int IN_USE = 1;
+        private static final int RECLAIMED = 2;
+        
+        private final ManagedTable mTable;
+        private final TableState tableState;
+        private final boolean cached;
+        private final AtomicInteger state;
+        private volatile long lastReleasedNanos;
+        
+        private boolean claim() {
+            return this.state.compareAndSet(IDLE, IN_USE);
+        }
+        private boolean reclaim() {
+            return this.state.compareAndSet(IDLE, RECLAIMED);
+        }
+        private boolean isReclaimed() {
+            return (this.state.get() == RECLAIMED);
+        }
+        private void release() {
+            this.lastReleasedNanos = System.nanoTime();
+            this.state.set(IDLE);
+        }
+        private void surrender() {
+            this.state.set(RECLAIMED);
+        }
+        
+        private Slot(final ManagedTable mTable, final TableState tableState, final boolean cached) {
+            this.mTable = mTable;
+            this.tableState = tableState;
+            this.cached = cached;
+            this.state = new AtomicInteger(IN_USE);
+            this.lastReleasedNanos = System.nanoTime();
+        }
+    }
+    
+    /**
+     * The permits bounding the number of resources for one table, the cached resources which
+     * exist for it (which may be taken over, or reclaimed, when idle), and the resources handed
+     * off (with their permits) by releasing threads to threads waiting for one.
+     */
+    private static final class TableState {
+        private final Semaphore permits;
+        private final ConcurrentLinkedQueue<Slot> cachedSlots;
+        private final AtomicInteger waiters;
+        private final LinkedBlockingQueue<ManagedTable> handoff;
+        
+        private TableState(final int maxTotal) {
+            this.permits = new Semaphore(maxTotal);
+            this.cachedSlots = new ConcurrentLinkedQueue<>();
+            this.waiters = new AtomicInteger(0);
+            this.handoff = new LinkedBlockingQueue<>();
+        }
+    }
+    
+    /**
+     * Per-context state: the thread-local caches, the state of each table, and the lookup from
+     * resource to slot used upon release.
+     */
+    private static final class ContextState {
+        private final HBaseContext context;
+        private final ResourcePoolPolicy policy;
+        private final Semaphore overallPermits;
+        private final ThreadLocal<Map<TableModel, Slot>> localSlots;
+        private final ConcurrentHashMap<TableModel, TableState> tableStates;
+        private final ConcurrentHashMap<ManagedTable, Slot> slotsByResource;
+        
+        private TableState obtainTableState(final TableModel model) {
+            return this.tableStates.computeIfAbsent(
+                model,
+                mdl->new TableState(ResourceManagerUtil.getTableSizing(this.context, mdl)
+                                                       .getMaxTotal()
+                                                       .intValue()));
+        }
+        
+        private ContextState(final HBaseContext context) {
+            this.context = context;
+            this.policy = ResourceManagerUtil.getResourcePoolPolicy(context);
+            if (this.policy.getTableMaxTotalOverall() == null) {
+                this.overallPermits = null;
+            } else {
+                this.overallPermits =
+                    new Semaphore(this.policy.getTableMaxTotalOverall().intValue());
+            }
+            this.localSlots = ThreadLocal.withInitial(IdentityHashMap::new);
+            this.tableStates = new ConcurrentHashMap<>();
+            this.slotsByResource = new ConcurrentHashMap<>();
+        }
+    }
+    
+    private static final JitLog LOG = new JitLog(ThreadAffineHBaseResourceManager.class);
+    
+    private static final long MIN_SWEEP_INTERVAL_MILLI = 1000L;
+    /**
+     * While waiting for a resource, the interval at which to check (besides for resources handed
+     * off) for permits returned by reclamation, and for idle resources which may be taken over
+     */
+    private static final long WAIT_POLL_MILLI = 10L;
+    
+    private final ConcurrentHashMap<HBaseContext, ContextState> contextStates;
+    private final Object sweeperLock;
+    private ScheduledExecutorService sweeper;
+    
+    private static void releasePermits(final ContextState ctxState, final TableState tableState) {
+        tableState.permits.release();
+        if (ctxState.overallPermits != null) {
+            ctxState.overallPermits.release();
+        }
+    }
+    
+    /**
+     * Take over an idle resource cached by another thread for the given table, if there is one.
+     * The resource (and its permits) are transferred to a new slot, claimed by the caller.
+     * @return the new slot, or null if no idle resource was found
+     */
+    private static Slot takeOverIdle(final ContextState ctxState, final TableState tableState) {
+        Slot newSlot;
+        
+        for (Slot idleSlot : tableState.cachedSlots) {
+            if (idleSlot.reclaim()) {
+                tableState.cachedSlots.remove(idleSlot);
+                if (idleSlot.mTable.isConnectionStale()) {
+                    ctxState.slotsByResource.remove(idleSlot.mTable);
+                    discard(ctxState, tableState, idleSlot.mTable);
+                    continue;
+                }
+                newSlot = registerSlot(ctxState, tableState, idleSlot.mTable, true);
+                return newSlot;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Register a resource (for which permits are already held) in a new slot, claimed by the
+     * caller.
+     */
+    private static Slot registerSlot(final ContextState ctxState, final TableState tableState, final ManagedTable mTable, final boolean cached) {
+        final Slot slot;
+        slot = new Slot(mTable, tableState, cached);
+        ctxState.slotsByResource.put(mTable, slot);
+        if (cached) {
+            tableState.cachedSlots.add(slot);
+        }
+        return slot;
+    }
+    
+    /**
+     * Destroy a resource which is no longer needed, and return its permits.
+     */
+    private static void discard(final ContextState ctxState, final TableState tableState, final ManagedTable mTable) {
+        try {
+            ResourceManagerUtil.destroyTableResource(mTable);
+        } catch (Exception exc) {
+            // already logged by ResourceManagerUtil; the permits are returned anyway
+            LOG.trace(exc, ()->"Failed to destroy resource: ", ()->mTable);
+        } finally {
+            releasePermits(ctxState, tableState);
+        }
+    }
+    
+    /**
+     * Reclaim (destroy) cached resources which have been idle for longer than the eviction
+     * threshold for the given context, or whose connection has since been closed, returning their
+     * permits.
+     * @param evictAll whether to reclaim every idle resource, regardless of the threshold
+     */
+    private static void sweep(final ContextState ctxState, final boolean evictAll) {
+        final String logMethodName;
+        final long evictBeforeNanos;
+        
+        logMethodName =
+            LOG.enter(()->"sweep(context.id=",
+                      ()->ctxState.context.getId(),
+                      ()->")");
+        evictBeforeNanos =
+            System.nanoTime()
+            - TimeUnit.MILLISECONDS.toNanos(ctxState.policy.getEvictAfterMillis());
+        for (TableState tableState : ctxState.tableStates.values()) {
+            for (Slot slot : tableState.cachedSlots) {
+                if ((evictAll
+                     || ((slot.lastReleasedNanos - evictBeforeNanos) < 0)
+                     || slot.mTable.isConnectionStale())
+                    && slot.reclaim()) {
+                    tableState.cachedSlots.remove(slot);
+                    ctxState.slotsByResource.remove(slot.mTable);
+                    discard(ctxState, tableState, slot.mTable);
+                    LOG.trace(logMethodName, ()->"reclaimed idle: ", ()->slot.mTable);
+                }
+            }
+            // resources handed off after the waiting thread gave up
+            if (tableState.waiters.get() <= 0) {
+                ManagedTable abandoned;
+                while ((abandoned = tableState.handoff.poll()) != null) {
+                    discard(ctxState, tableState, abandoned);
+                }
+            }
+        }
+        LOG.leave(logMethodName);
+    }
+    
+    /**
+     * Obtain the state for the given context, creating it (and scheduling its background
+     * reclamation of idle resources) if it does not yet exist.
+     */
+    private ContextState obtainContextState(final HBaseContext context) {
+        ContextState ctxState;
+        final ContextState newCtxState;
+        final long sweepIntervalMillis;
+        
+        ctxState = this.contextStates.get(context);
+        if (ctxState == null) {
+            newCtxState = new ContextState(context);
+            ctxState = this.contextStates.putIfAbsent(context, newCtxState);
+            if (ctxState == null) {
+                ctxState = newCtxState;
+                sweepIntervalMillis =
+                    Math.max(MIN_SWEEP_INTERVAL_MILLI, newCtxState.policy.getEvictAfterMillis() / 2);
+                synchronized (this.sweeperLock) {
+                    if (this.sweeper == null) {
+                        this.sweeper =
+                            Executors.newSingleThreadScheduledExecutor(runnable->{
+                                final Thread sweeperThread;
+                                sweeperThread =
+                                    new Thread(runnable,
+                                               ThreadAffineHBaseResourceManager.class.getSimpleName()
+                                               + "-sweeper");
+                                sweeperThread.setDaemon(true);
+                                return sweeperThread;
+                            });
+                    }
+                    this.sweeper.scheduleWithFixedDelay(()->sweep(newCtxState, false),
+                                                        sweepIntervalMillis,
+                                                        sweepIntervalMillis,
+                                                        TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+        return ctxState;
+    }
+    
+    /**
+     * Obtain a resource for the given table, in a slot claimed by the caller: one handed off by
+     * a releasing thread, one newly built (if the bounds on the number of resources permit), or
+     * one taken over from another thread's idle cache, waiting for one of these to become
+     * possible if necessary.
+     * @param cached whether the resource is to be cached by the calling thread (false for a
+     * nested borrow of a table whose cached resource the thread is already using)
+     */
+    private Slot acquireSlot(final ContextState ctxState, final TableModel model, final long maxWaitMillis, final boolean cached) throws HBaseResourceAcquisitionException, InterruptedException {
+        String logMsg;
+        final TableState tableState;
+        final long deadlineNanos;
+        final ManagedTable mTable;
+        ManagedTable handedOff;
+        Slot takenOver;
+        long remainingMillis;
+        
+        tableState = ctxState.obtainTableState(model);
+        handedOff = tableState.handoff.poll();
+        if (handedOff != null) {
+            return registerSlot(ctxState, tableState, handedOff, cached);
+        }
+        if (!tableState.permits.tryAcquire()) {
+            if (cached) {
+                takenOver = takeOverIdle(ctxState, tableState);
+                if (takenOver != null) {
+                    return takenOver;
+                }
+            }
+            deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+            tableState.waiters.incrementAndGet();
+            try {
+                while (true) {
+                    remainingMillis =
+                        TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+                    if (remainingMillis <= 0) {
+                        logMsg = "Timed out after "
+                                 + maxWaitMillis
+                                 + "ms waiting for a "
+                                 + ManagedTable.class.getSimpleName()
+                                 + " for "
+                                 + model
+                                 + " to become available";
+                        throw new HBaseResourceAcquisitionException(logMsg);
+                    }
+                    handedOff =
+                        tableState.handoff.poll(Math.min(remainingMillis, WAIT_POLL_MILLI),
+                                                TimeUnit.MILLISECONDS);
+                    if (handedOff != null) {
+                        return registerSlot(ctxState, tableState, handedOff, cached);
+                    }
+                    if (tableState.permits.tryAcquire()) {
+                        break;
+                    }
+                    if (cached) {
+                        takenOver = takeOverIdle(ctxState, tableState);
+                        if (takenOver != null) {
+                            return takenOver;
+                        }
+                    }
+                }
+            } finally {
+                tableState.waiters.decrementAndGet();
+            }
+        }
+        // table permit acquired; acquire the context-wide permit, if any, then build
+        if ((ctxState.overallPermits != null)
+            && (!ctxState.overallPermits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS))) {
+            tableState.permits.release();
+            logMsg = "Timed out after "
+                     + maxWaitMillis
+                     + "ms waiting for any "
+                     + ManagedTable.class.getSimpleName()
+                     + " to become available";
+            throw new HBaseResourceAcquisitionException(logMsg);
+        }
+        try {
+            mTable = ResourceManagerUtil.buildTableResource(this, ctxState.context, model);
+        } catch (HBaseResourceAcquisitionException | RuntimeException exc) {
+            releasePermits(ctxState, tableState);
+            throw exc;
+        }
+        return registerSlot(ctxState, tableState, mTable, cached);
+    }
+    
+    @Override
+    public ManagedTable borrow(final HBaseContext context, final TableModel model) throws HBaseResourceAcquisitionException, IllegalArgumentException {
+        return borrow(context,
+                      model,
+                      ResourceManagerUtil.getResourcePoolPolicy(context).getMaxWaitMillis());
+    }
+    
+    @Override
+    public ManagedTable borrow(final HBaseContext context, final TableModel model, final long maxWaitMillis) throws HBaseResourceAcquisitionException, IllegalArgumentException {
+        final String logMethodName;
+        final String logMsg;
+        final ContextState ctxState;
+        final Map<TableModel, Slot> localSlots;
+        final long poolMaxWaitMillis;
+        Slot slot;
+        
+        logMethodName =
+            LOG.enter(()->"borrow(context.id=",
+                      ()->context.getId(),
+                      ()->",model=",
+                      ()->model,
+                      ()->",maxWait=",
+                      ()->Long.valueOf(maxWaitMillis),
+                      ()->")");
+        
+        try {
+            ctxState = obtainContextState(context);
+            localSlots = ctxState.localSlots.get();
+            slot = localSlots.get(model);
+            if (slot != null) {
+                if (slot.claim()) {
+                    if (!slot.mTable.isConnectionStale()) {
+                        return slot.mTable;
+                    }
+                    // built from a connection which has since been closed; replace it
+                    slot.surrender();
+                    slot.tableState.cachedSlots.remove(slot);
+                    ctxState.slotsByResource.remove(slot.mTable);
+                    discard(ctxState, slot.tableState, slot.mTable);
+                    localSlots.remove(model);
+                    slot = null;
+                } else if (slot.isReclaimed()) {
+                    localSlots.remove(model);
+                    slot = null;
+                }
+            }
+            // Never wait longer than the context-wide maximum, even if the caller would allow it
+            poolMaxWaitMillis =
+                Math.max(0L, Math.min(maxWaitMillis, ctxState.policy.getMaxWaitMillis()));
+            if (slot != null) {
+                // this thread is already using its cached resource for the table (nested borrow)
+                return acquireSlot(ctxState, model, poolMaxWaitMillis, false).mTable;
+            }
+            slot = acquireSlot(ctxState, model, poolMaxWaitMillis, true);
+            localSlots.put(model, slot);
+            return slot.mTable;
+        } catch (InterruptedException iExc) {
+            Thread.currentThread().interrupt();
+            logMsg = "Interrupted while waiting for "
+                     + ManagedTable.class.getSimpleName()
+                     + " for "
+                     + model;
+            LOG.error(iExc, logMethodName, ()->logMsg);
+            throw new HBaseResourceAcquisitionException(logMsg, iExc);
+        } finally {
+            LOG.leave(logMethodName);
+        }
+    }
+    
+    @Override
+    public void release(final ManagedTable mTable) throws HBaseResourceReleaseException, IllegalArgumentException {
+        final String logMethodName;
+        final String logMsg;
+        final ContextState ctxState;
+        final Slot slot;
+        final TableState tableState;
+        final boolean stale;
+        
+        logMethodName =
+            LOG.enter(()->"release(",
+                      ()->mTable,
+                      ()->")");
+        
+        try {
+            ctxState = this.contextStates.get(mTable.getContext());
+            if (ctxState == null) {
+                slot = null;
+            } else {
+                slot = ctxState.slotsByResource.get(mTable);
+            }
+            if (slot == null) {
+                logMsg = "RESOURCE LEAK: "
+                         + ManagedTable.class.getSimpleName()
+                         + " was not obtained from this resource manager, or was already "
+                         + "reclaimed: "
+                         + mTable;
+                LOG.error(logMethodName, logMsg);
+                throw new HBaseResourceReleaseException(logMsg);
+            }
+            tableState = slot.tableState;
+            stale = mTable.isConnectionStale();
+            if (slot.cached && (tableState.waiters.get() <= 0) && (!stale)) {
+                slot.release();
+                return;
+            }
+            /*
+             * Either a nested (uncached) borrow, other threads are waiting for a resource for
+             * this table, or the resource was built from a connection since closed; give the
+             * resource up, handing it (with its permits) directly to a waiting thread if there is
+             * one and it is still usable
+             */
+            slot.surrender();
+            if (slot.cached) {
+                tableState.cachedSlots.remove(slot);
+            }
+            ctxState.slotsByResource.remove(mTable);
+            if ((tableState.waiters.get() > 0) && (!stale)) {
+                tableState.handoff.offer(mTable);
+                LOG.trace(logMethodName, ()->"handed off: ", ()->mTable);
+            } else {
+                discard(ctxState, tableState, mTable);
+            }
+        } finally {
+            LOG.leave(logMethodName);
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <br><br>
+     * Resources are cached per thread, so no resources are cached on behalf of other threads; a
+     * single table resource is built and destroyed, which establishes the shared connection and
+     * verifies (or creates) the table.
+     */
+    @Override
+    public void prewarm(final HBaseContext context, final TableModel model) throws HBaseResourceAcquisitionException, IllegalArgumentException {
+        final ManagedTable mTable;
+        mTable = ResourceManagerUtil.buildTableResource(this, context, model);
+        try {
+            ResourceManagerUtil.destroyTableResource(mTable);
+        } catch (HBaseResourceReleaseException hrrExc) {
+            throw new HBaseResourceAcquisitionException(hrrExc.getMessage(), hrrExc);
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <br><br>
+     * Reclaims every idle cached resource of the context, as the background sweep reclaims those
+     * idle beyond the eviction threshold.
+     */
+    @Override
+    public void evict(final HBaseContext context) {
+        final ContextState ctxState;
+        ctxState = this.contextStates.get(context);
+        if (ctxState != null) {
+            sweep(ctxState, true);
+        }
+    }
+    
+    @Override
+    public ManagedAdmin borrowAdmin(final HBaseContext context) throws HBaseResourceAcquisitionException, IllegalArgumentException {
+        return ResourceManagerUtil.buildAdminResource(this, context);
+    }
+    
+    @Override
+    public void releaseAdmin(final ManagedAdmin mAdmin) throws HBaseResourceReleaseException, IllegalArgumentException {
+        ResourceManagerUtil.destroyAdminResource(mAdmin);
+    }
+    
+    private ThreadAffineHBaseResourceManager() {
+        this.contextStates = new ConcurrentHashMap<>();
+        this.sweeperLock = new Object();
+        this.sweeper = null;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.resmgr;
+
+import com.liaison.javabasics.commons.Util;
+import com.liaison.shachi.model.Name;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Registry of the tables (keyed by fully-generated table {@link Name}) which have already been
+ * verified to exist, or created, by a given context, so that the existence check (and the admin
+ * resource borrowed to perform it) happens once per table per process, rather than every time a
+ * new table resource is built.
+ * <br><br>
+ * If several threads need the same unverified table at once, exactly one of them performs the
+ * verification (and creation, if necessary) while the others wait for it. A table is removed from
+ * the registry if verification fails, or if it is subsequently found to be missing (see
+ * {@link #invalidate(Name)}, driven by TableNotFoundException), so that it is verified again.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public final class VerifiedTableRegistry {
+
+    /**
+     * Verifies that the table with the given name exists, creating it if necessary.
+     */
+    @FunctionalInterface
+    public interface TableVerifier {
+        void verify(Name tableName) throws IOException;
+    }
+
+    private final ConcurrentHashMap<Name, CompletableFuture<Name>> verified;
+
+    private static void await(final CompletableFuture<Name> verification) throws IOException {
+        final Throwable cause;
+        try {
+            verification.get();
+        } catch (InterruptedException intExc) {
+            Thread.currentThread().interrupt();
+            throw (IOException)
+                new InterruptedIOException("Interrupted awaiting table verification").initCause(intExc);
+        } catch (ExecutionException execExc) {
+            cause = execExc.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException("Table verification failed; " + cause, cause);
+        }
+    }
+
+    /**
+     * Ensure that the table with the given name has been verified, invoking the given verifier if
+     * it has not (or waiting for a concurrent verification of the same table to complete).
+     * @param tableName the fully-generated name of the table
+     * @param verifier performs the verification, if needed
+     * @throws IOException if verification failed (in which case the table remains unverified)
+     */
+    public void ensureVerified(final Name tableName, final TableVerifier verifier) throws IOException {
+        CompletableFuture<Name> verification;
+        CompletableFuture<Name> ownVerification;
+
+        Util.ensureNotNull(tableName, this, "tableName", Name.class);
+        Util.ensureNotNull(verifier, this, "verifier", TableVerifier.class);
+
+        ownVerification = null;
+        while (true) {
+            verification = this.verified.get(tableName);
+            if (verification == null) {
+                if (ownVerification == null) {
+                    ownVerification = new CompletableFuture<>();
+                }
+                if (this.verified.putIfAbsent(tableName, ownVerification) == null) {
+                    break;
+                }
+            } else if (!verification.isDone()) {
+                // another thread is verifying the same table; share its outcome
+                await(verification);
+                return;
+            } else if (!verification.isCompletedExceptionally()) {
+                return;
+            } else {
+                this.verified.remove(tableName, verification);
+            }
+        }
+        try {
+            verifier.verify(tableName);
+            ownVerification.complete(tableName);
+        } catch (IOException | RuntimeException | Error exc) {
+            // remove before completing, so that no caller observes the failed verification as current
+            this.verified.remove(tableName, ownVerification);
+            ownVerification.completeExceptionally(exc);
+            throw exc;
+        }
+    }
+
+    /**
+     * Record that the table with the given name is already known to exist (e.g. because it was
+     * included in a listing of the tables in the cluster), so that it is not verified again. Has
+     * no effect if the table is already verified, or its verification is in progress.
+     * @param tableName the fully-generated name of the table
+     */
+    public void markVerified(final Name tableName) {
+        Util.ensureNotNull(tableName, this, "tableName", Name.class);
+        this.verified.putIfAbsent(tableName, CompletableFuture.completedFuture(tableName));
+    }
+
+    /**
+     * @param tableName
+     * @return true if the table with the given name has been verified (and not since invalidated)
+     */
+    public boolean isVerified(final Name tableName) {
+        final CompletableFuture<Name> verification;
+        verification = this.verified.get(tableName);
+        return ((verification != null)
+                && (verification.isDone())
+                && (!verification.isCompletedExceptionally()));
+    }
+
+    /**
+     * Remove the table with the given name from the registry, so that it is verified again upon
+     * next use; invoked when an operation against the table fails with TableNotFoundException.
+     * @param tableName
+     */
+    public void invalidate(final Name tableName) {
+        final CompletableFuture<Name> verification;
+        verification = this.verified.get(tableName);
+        // a verification in progress is left alone; it will reflect the current state of the table
+        if ((verification != null) && (verification.isDone())) {
+            this.verified.remove(tableName, verification);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return VerifiedTableRegistry.class.getSimpleName() + "(" + this.verified.keySet() + ")";
+    }
+
+    public VerifiedTableRegistry() {
+        this.verified = new ConcurrentHashMap<>();
+    }
+}
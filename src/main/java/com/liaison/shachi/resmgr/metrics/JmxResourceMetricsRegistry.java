@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.resmgr.metrics;
+
+import com.liaison.javabasics.logging.JitLog;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Publishes resource pool metrics as MBeans on the platform MBean server, under object names of
+ * the form:
+ * <pre>
+ * com.liaison.shachi:type=ResourcePool,context="&lt;context-id&gt;",pool="&lt;pool&gt;"[,table="&lt;table&gt;"]
+ * </pre>
+ * If an MBean is already registered under the same name (e.g. by another context having the same
+ * ID), it is replaced.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public enum JmxResourceMetricsRegistry implements ResourceMetricsRegistry {
+    INSTANCE;
+    
+    private static final JitLog LOG = new JitLog(JmxResourceMetricsRegistry.class);
+    
+    private static final String OBJECTNAME_DOMAIN = "com.liaison.shachi";
+    private static final String OBJECTNAME_TYPE = "ResourcePool";
+    
+    public static ObjectName buildObjectName(final ResourcePoolMetrics metrics) throws MalformedObjectNameException {
+        final StringBuilder strGen;
+        strGen = new StringBuilder();
+        strGen.append(OBJECTNAME_DOMAIN);
+        strGen.append(":type=");
+        strGen.append(OBJECTNAME_TYPE);
+        strGen.append(",context=");
+        strGen.append(ObjectName.quote(String.valueOf(metrics.getContextId())));
+        strGen.append(",pool=");
+        strGen.append(ObjectName.quote(metrics.getPoolName()));
+        if (metrics.getTableName() != null) {
+            strGen.append(",table=");
+            strGen.append(ObjectName.quote(metrics.getTableName()));
+        }
+        return new ObjectName(strGen.toString());
+    }
+    
+    @Override
+    public void register(final ResourcePoolMetrics metrics) {
+        final String logMethodName;
+        final String logMsg;
+        final MBeanServer mbServer;
+        ObjectName objName;
+        
+        logMethodName =
+            LOG.enter(()->"register(",
+                      ()->metrics,
+                      ()->")");
+        objName = null;
+        try {
+            mbServer = ManagementFactory.getPlatformMBeanServer();
+            objName = buildObjectName(metrics);
+            try {
+                mbServer.registerMBean(metrics, objName);
+            } catch (InstanceAlreadyExistsException iaeExc) {
+                try {
+                    mbServer.unregisterMBean(objName);
+                } catch (InstanceNotFoundException infExc) {
+                    // unregistered concurrently; proceed
+                }
+                mbServer.registerMBean(metrics, objName);
+            }
+            LOG.trace(logMethodName, ()->"registered: ", ()->metrics);
+        } catch (Exception exc) {
+            // metrics are informational; never fail pool creation on their account
+            logMsg = "Failed to register MBean for "
+                     + metrics
+                     + " (name: "
+                     + objName
+                     + "); "
+                     + exc.toString();
+            LOG.error(logMethodName, logMsg, exc);
+        } finally {
+            LOG.leave(logMethodName);
+        }
+    }
+    
+    @Override
+    public void unregister(final ResourcePoolMetrics metrics) {
+        final String logMethodName;
+        final String logMsg;
+        
+        logMethodName =
+            LOG.enter(()->"unregister(",
+                      ()->metrics,
+                      ()->")");
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(buildObjectName(metrics));
+        } catch (InstanceNotFoundException infExc) {
+            // already unregistered (or replaced and unregistered); nothing to do
+        } catch (Exception exc) {
+            logMsg = "Failed to unregister MBean for "
+                     + metrics
+                     + "; "
+                     + exc.toString();
+            LOG.error(logMethodName, logMsg, exc);
+        } finally {
+            LOG.leave(logMethodName);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.resmgr.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies, in power-of-two buckets of microseconds: bucket 0 counts
+ * latencies under 1us, and bucket i (i &gt; 0) those in [2^(i-1), 2^i) us. Percentiles are thus
+ * reported as the upper bound of the bucket containing them (i.e. to within a factor of two),
+ * which is adequate to distinguish e.g. an immediately-available pooled resource from one which
+ * required a connection to be established, or a wait for another thread to release one.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKET_COUNT = 40;
+
+    private final LongAdder[] buckets;
+    private final LongAdder count;
+    private final LongAdder totalMicros;
+    private final LongAccumulator maxMicros;
+
+    private static int bucketFor(final long micros) {
+        if (micros <= 0L) {
+            return 0;
+        }
+        return Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    public void record(final long latencyNanos) {
+        final long micros;
+        micros = TimeUnit.NANOSECONDS.toMicros(latencyNanos);
+        this.buckets[bucketFor(micros)].increment();
+        this.count.increment();
+        this.totalMicros.add(micros);
+        this.maxMicros.accumulate(micros);
+    }
+
+    public long getCount() {
+        return this.count.sum();
+    }
+    public double getMeanMicros() {
+        final long sampleCount;
+        sampleCount = this.count.sum();
+        if (sampleCount <= 0L) {
+            return 0.0;
+        }
+        return ((double) this.totalMicros.sum()) / sampleCount;
+    }
+    public long getMaxMicros() {
+        return this.maxMicros.get();
+    }
+
+    /**
+     * The (approximate) latency at the given percentile: the upper bound of the bucket in which
+     * it falls.
+     * @param percentile percentile, in the range (0.0, 1.0]
+     * @return latency (microseconds) at the percentile, or 0 if nothing has been recorded
+     */
+    public long getPercentileMicros(final double percentile) {
+        final long[] snapshot;
+        final long threshold;
+        long total;
+        long cumulative;
+
+        snapshot = new long[BUCKET_COUNT];
+        total = 0L;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            snapshot[index] = this.buckets[index].sum();
+            total += snapshot[index];
+        }
+        if (total <= 0L) {
+            return 0L;
+        }
+        threshold = (long) Math.ceil(total * Math.min(1.0, Math.max(0.0, percentile)));
+        cumulative = 0L;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            cumulative += snapshot[index];
+            if (cumulative >= threshold) {
+                return (1L << index);
+            }
+        }
+        return (1L << (BUCKET_COUNT - 1));
+    }
+
+    public LatencyHistogram() {
+        this.buckets = new LongAdder[BUCKET_COUNT];
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            this.buckets[index] = new LongAdder();
+        }
+        this.count = new LongAdder();
+        this.totalMicros = new LongAdder();
+        this.maxMicros = new LongAccumulator(Math::max, 0L);
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.resmgr.metrics;
+
+/**
+ * Receives the metrics of each resource pool as the pool is created, so that they may be
+ * published to a monitoring system (e.g. JMX, via {@link JmxResourceMetricsRegistry}, or an
+ * application's own metrics library, by reading the gauges and counters of
+ * {@link ResourcePoolMetrics} periodically).
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public interface ResourceMetricsRegistry {
+    /**
+     * Publish the metrics of a newly-created pool. Implementations should not throw; a failure
+     * to publish metrics must not prevent use of the pool.
+     * @param metrics
+     */
+    void register(ResourcePoolMetrics metrics);
+    /**
+     * Withdraw previously-published metrics.
+     * @param metrics
+     */
+    void unregister(ResourcePoolMetrics metrics);
+}
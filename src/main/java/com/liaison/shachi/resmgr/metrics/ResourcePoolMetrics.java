@@ -0,0 +1,196 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.resmgr.metrics;
+
+import com.liaison.javabasics.commons.Util;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Metrics for one pool of HBase resources (the resources for one table, or the admin resources,
+ * of one context): borrow counts and latency, waits due to pool exhaustion, timeouts, and gauges
+ * of the resources currently borrowed and idle. Borrow latency includes any time spent creating a
+ * resource or waiting for one, so comparing it with the latency of operations distinguishes pool
+ * exhaustion from slowness in HBase itself.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public final class ResourcePoolMetrics implements ResourcePoolMetricsMBean {
+
+    private final String contextId;
+    private final String poolName;
+    private final String tableName;
+    private final IntSupplier numActive;
+    private final IntSupplier numIdle;
+    private final IntSupplier maxTotal;
+    private final LatencyHistogram borrowLatency;
+    private final LongAdder waits;
+    private final LongAdder timeouts;
+    private final LongAdder failures;
+
+    /**
+     * Determine whether a borrow about to be made will find the pool exhausted (and so have to
+     * wait for a resource to be released), per the current gauges.
+     * @return true if all resources are currently borrowed
+     */
+    public boolean isExhausted() {
+        final int max;
+        max = this.maxTotal.getAsInt();
+        return ((max > 0) && (this.numActive.getAsInt() >= max));
+    }
+
+    /**
+     * Record a successful borrow.
+     * @param latencyNanos time taken to obtain the resource
+     * @param waited whether the pool was exhausted when the borrow began
+     */
+    public void recordBorrow(final long latencyNanos, final boolean waited) {
+        this.borrowLatency.record(latencyNanos);
+        if (waited) {
+            this.waits.increment();
+        }
+    }
+    /**
+     * Record a borrow which gave up waiting for a resource.
+     */
+    public void recordTimeout() {
+        this.waits.increment();
+        this.timeouts.increment();
+    }
+    /**
+     * Record a borrow which failed for any reason other than a timeout.
+     */
+    public void recordFailure() {
+        this.failures.increment();
+    }
+
+    @Override
+    public String getContextId() {
+        return this.contextId;
+    }
+    @Override
+    public String getPoolName() {
+        return this.poolName;
+    }
+    @Override
+    public String getTableName() {
+        return this.tableName;
+    }
+    @Override
+    public long getBorrowCount() {
+        return this.borrowLatency.getCount();
+    }
+    @Override
+    public long getWaitCount() {
+        return this.waits.sum();
+    }
+    @Override
+    public long getTimeoutCount() {
+        return this.timeouts.sum();
+    }
+    @Override
+    public long getFailureCount() {
+        return this.failures.sum();
+    }
+    @Override
+    public int getNumActive() {
+        return this.numActive.getAsInt();
+    }
+    @Override
+    public int getNumIdle() {
+        return this.numIdle.getAsInt();
+    }
+    @Override
+    public int getMaxTotal() {
+        return this.maxTotal.getAsInt();
+    }
+    @Override
+    public double getMeanBorrowMicros() {
+        return this.borrowLatency.getMeanMicros();
+    }
+    @Override
+    public long getBorrowMicrosP50() {
+        return this.borrowLatency.getPercentileMicros(0.5);
+    }
+    @Override
+    public long getBorrowMicrosP99() {
+        return this.borrowLatency.getPercentileMicros(0.99);
+    }
+    @Override
+    public long getMaxBorrowMicros() {
+        return this.borrowLatency.getMaxMicros();
+    }
+    public LatencyHistogram getBorrowLatency() {
+        return this.borrowLatency;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder strGen;
+        strGen = new StringBuilder();
+        strGen.append(ResourcePoolMetrics.class.getSimpleName());
+        strGen.append("(context.id=");
+        strGen.append(this.contextId);
+        strGen.append(",pool=");
+        strGen.append(this.poolName);
+        if (this.tableName != null) {
+            strGen.append(",table=");
+            strGen.append(this.tableName);
+        }
+        strGen.append(",borrows=");
+        strGen.append(getBorrowCount());
+        strGen.append(",waits=");
+        strGen.append(getWaitCount());
+        strGen.append(",timeouts=");
+        strGen.append(getTimeoutCount());
+        strGen.append(",failures=");
+        strGen.append(getFailureCount());
+        strGen.append(",active=");
+        strGen.append(getNumActive());
+        strGen.append(",idle=");
+        strGen.append(getNumIdle());
+        strGen.append(",max=");
+        strGen.append(getMaxTotal());
+        strGen.append(")");
+        return strGen.toString();
+    }
+
+    /**
+     * @param contextId
+     * @param poolName
+     * @param tableName the table whose resources are pooled, or null for a pool of admin
+     * resources
+     * @param numActive gauge: resources currently borrowed
+     * @param numIdle gauge: resources currently idle in the pool
+     * @param maxTotal gauge: maximum resources which may be outstanding
+     */
+    public ResourcePoolMetrics(final String contextId, final String poolName, final String tableName, final IntSupplier numActive, final IntSupplier numIdle, final IntSupplier maxTotal) {
+        Util.ensureNotNull(poolName, this, "poolName", String.class);
+        Util.ensureNotNull(numActive, this, "numActive", IntSupplier.class);
+        Util.ensureNotNull(numIdle, this, "numIdle", IntSupplier.class);
+        Util.ensureNotNull(maxTotal, this, "maxTotal", IntSupplier.class);
+        this.contextId = contextId;
+        this.poolName = poolName;
+        this.tableName = tableName;
+        this.numActive = numActive;
+        this.numIdle = numIdle;
+        this.maxTotal = maxTotal;
+        this.borrowLatency = new LatencyHistogram();
+        this.waits = new LongAdder();
+        this.timeouts = new LongAdder();
+        this.failures = new LongAdder();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.resmgr.metrics;
+
+/**
+ * JMX management interface for {@link ResourcePoolMetrics}.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public interface ResourcePoolMetricsMBean {
+    String getContextId();
+    String getPoolName();
+    /**
+     * @return the table whose resources are pooled, or null for a pool of admin resources
+     */
+    String getTableName();
+    long getBorrowCount();
+    /**
+     * @return number of borrows which found the pool exhausted, and so had to wait for a resource
+     * to be released
+     */
+    long getWaitCount();
+    /**
+     * @return number of borrows which gave up waiting for a resource
+     */
+    long getTimeoutCount();
+    /**
+     * @return number of borrows which failed for reasons other than timing out, e.g. because a
+     * new resource could not be created
+     */
+    long getFailureCount();
+    int getNumActive();
+    int getNumIdle();
+    int getMaxTotal();
+    double getMeanBorrowMicros();
+    long getBorrowMicrosP50();
+    long getBorrowMicrosP99();
+    long getMaxBorrowMicros();
+}
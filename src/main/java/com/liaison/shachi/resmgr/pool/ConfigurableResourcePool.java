@@ -22,6 +22,8 @@ package com.liaison.shachi.resmgr.pool;
 public interface ConfigurableResourcePool<R> {
     void setBlockWhenExhausted(boolean blockWhenExhausted);
     void setMaxWaitMillis(long maxWaitMillis);
+    void setTestOnBorrow(boolean testOnBorrow);
+    void setTestOnReturn(boolean testOnReturn);
     void setSoftMinEvictableIdleTimeMillis(long softMinEvictableIdleTimeMillis);
     void setMaxTotal(int maxTotal);
 }
@@ -21,4 +21,12 @@ import org.apache.commons.pool2.KeyedObjectPool;
  * TODO
  * @author Branden Smith; Liaison Technologies, Inc.
  */
-public interface HBaseKeyedResourcePool<K, R> extends ConfigurableKeyedResourcePool<K, R>, StatsAwareKeyedResourcePool<K, R>, KeyedObjectPool<K, R> { }
+public interface HBaseKeyedResourcePool<K, R> extends ConfigurableKeyedResourcePool<K, R>, StatsAwareKeyedResourcePool<K, R>, KeyedObjectPool<K, R> {
+    R borrowObject(K key, long borrowMaxWaitMillis) throws Exception;
+    /**
+     * Create idle resources for the given key, as needed, to reach the minimum idle size.
+     * @param key
+     * @throws Exception
+     */
+    void preparePool(K key) throws Exception;
+}
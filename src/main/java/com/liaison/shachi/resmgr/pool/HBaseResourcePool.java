@@ -22,5 +22,6 @@ import org.apache.commons.pool2.ObjectPool;
  * @author Branden Smith; Liaison Technologies, Inc.
  */
 public interface HBaseResourcePool<R> extends ConfigurableNonKeyedResourcePool<R>, StatsAwareResourcePool<R>, ObjectPool<R> {
-
+    R borrowObject(long borrowMaxWaitMillis) throws Exception;
+    int getMinIdle();
 }
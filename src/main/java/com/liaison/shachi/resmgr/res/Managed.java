@@ -31,6 +31,7 @@ public abstract class Managed<X> implements Closeable {
     private final HBaseResourceManager owner;
     private final HBaseContext context;
     private final X resource;
+    private final long connectionGeneration;
     
     private String strRep;
     
@@ -46,6 +47,15 @@ public abstract class Managed<X> implements Closeable {
     public final X use() {
         return getResource();
     }
+    /**
+     * Check whether the context's shared connection has been closed since this resource was
+     * built (see {@link HBaseContext#getConnectionGeneration()}), in which case the resource may
+     * refer to a closed connection and should be destroyed rather than reused.
+     * @return true if the resource should not be reused
+     */
+    public final boolean isConnectionStale() {
+        return (this.context.getConnectionGeneration() != this.connectionGeneration);
+    }
     
     @Override
     public abstract void close() throws IOException;
@@ -105,13 +115,21 @@ public abstract class Managed<X> implements Closeable {
         return this.strRep;
     }
     
-    public Managed(final HBaseResourceManager owner, final HBaseContext context, final X resource) {
+    /**
+     * @param owner
+     * @param context
+     * @param resource
+     * @param connectionGeneration the context's connection generation as of (no later than) the
+     * time the resource was built
+     */
+    public Managed(final HBaseResourceManager owner, final HBaseContext context, final X resource, final long connectionGeneration) {
         Util.ensureNotNull(owner, this, "owner", HBaseResourceManager.class);
         this.owner = owner;
         Util.ensureNotNull(context, this, "context", HBaseContext.class);
         this.context = context;
         Util.ensureNotNull(resource, this, "resource");
         this.resource = resource;
+        this.connectionGeneration = connectionGeneration;
         this.strRep = null;
     }
 }
@@ -38,7 +38,7 @@ public class ManagedAdmin extends Managed<HBaseAdmin> {
         }
     }
 
-    public ManagedAdmin(final HBaseResourceManager owner, final HBaseContext context, final HBaseAdmin admin) {
-        super(owner, context, admin);
+    public ManagedAdmin(final HBaseResourceManager owner, final HBaseContext context, final HBaseAdmin admin, final long connectionGeneration) {
+        super(owner, context, admin, connectionGeneration);
     }
 }
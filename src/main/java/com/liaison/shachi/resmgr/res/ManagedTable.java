@@ -52,8 +52,8 @@ public class ManagedTable extends Managed<HTable> {
         strGen.append(this.model);
     }
 
-    public ManagedTable(final HBaseResourceManager owner, final HBaseContext context, final TableModel model, final HTable table) {
-        super(owner, context, table);
+    public ManagedTable(final HBaseResourceManager owner, final HBaseContext context, final TableModel model, final HTable table, final long connectionGeneration) {
+        super(owner, context, table, connectionGeneration);
         Util.ensureNotNull(model, this, "model", TableModel.class);
         this.model = model;
     }
@@ -17,9 +17,6 @@ package com.liaison.shachi.util;
 
 import co.paralleluniverse.fibers.SuspendExecution;
 import co.paralleluniverse.strands.Strand;
-import com.google.common.hash.HashCode;
-import com.google.common.hash.HashFunction;
-import com.google.common.hash.Hashing;
 import com.liaison.javabasics.commons.Uninstantiable;
 import com.liaison.javabasics.commons.Util;
 import com.liaison.javabasics.logging.JitLog;
@@ -29,18 +26,22 @@ import com.liaison.shachi.context.HBaseContext;
 import com.liaison.shachi.dto.ParsedVersionQualifier;
 import com.liaison.shachi.dto.RowKey;
 import com.liaison.shachi.exception.HBaseInitializationException;
+import com.liaison.shachi.model.FamilyModel;
 import com.liaison.shachi.model.Name;
 import com.liaison.shachi.model.TableModel;
 import com.liaison.shachi.model.VersioningModel;
 import com.liaison.shachi.resmgr.ResourceConnectTolerance;
+import com.liaison.shachi.resmgr.VerifiedTableRegistry;
 import org.apache.hadoop.hbase.HColumnDescriptor;
 import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.TableExistsException;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.HBaseAdmin;
 import org.apache.hadoop.hbase.client.HTable;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Map;
 
 public final class HBaseUtil extends Uninstantiable {
 
@@ -50,40 +51,86 @@ public final class HBaseUtil extends Uninstantiable {
     private static final int BYTES_PER_LONG;
 
     private static final JitLog LOG;
-    private static final HashFunction HASH_MURMUR3_32;
 
-    private static byte[] buildSaltedRowKeyValue(final byte[] salt, final int saltOffset, final int saltLen, final byte[] rkBytes) {
-        final byte[] saltedRKBytes;
-
-        // build a new byte array to contain the RowKey content, the salt value, and a delimiter to
-        // be placed between them (DELIM_BYTES)
-        saltedRKBytes = new byte[rkBytes.length + saltLen + DELIM_BYTES.length];
-        // copy the specified sub-array of the salt into the beginning of the new array
-        System.arraycopy(salt, saltOffset, saltedRKBytes, 0, saltLen);
-        // copy the delimiter into the new array following the salt
-        System.arraycopy(DELIM_BYTES, 0, saltedRKBytes, saltLen, DELIM_BYTES.length);
-        // copy the original RowKey contents to fill out the rest of the new array
-        System.arraycopy(rkBytes,
-                         0,
-                         saltedRKBytes,
-                         (saltLen + DELIM_BYTES.length),
-                         rkBytes.length);
+    /**
+     * 32-bit MurmurHash3 (x86 variant, seed 0) of the given range of bytes; produces the same value
+     * as Guava's <code>Hashing.murmur3_32().hashBytes(...).asInt()</code>, without allocating a
+     * hasher, HashCode, or byte array.
+     */
+    @SuppressWarnings("fallthrough")
+    private static int murmur3_32(final byte[] buf, final int offset, final int length) {
+        final int blockEnd;
+        int h1;
+        int k1;
+        int index;
 
-        return saltedRKBytes;
+        h1 = 0;
+        blockEnd = offset + (length & ~0x03);
+        for (index = offset; index < blockEnd; index += 4) {
+            k1 = (buf[index] & 0xff)
+                 | ((buf[index + 1] & 0xff) << 8)
+                 | ((buf[index + 2] & 0xff) << 16)
+                 | ((buf[index + 3] & 0xff) << 24);
+            h1 ^= murmur3MixK1(k1);
+            h1 = Integer.rotateLeft(h1, 13);
+            h1 = (h1 * 5) + 0xe6546b64;
+        }
+        k1 = 0;
+        switch (length & 0x03) {
+            case 3:
+                k1 ^= (buf[index + 2] & 0xff) << 16;
+                // fall through
+            case 2:
+                k1 ^= (buf[index + 1] & 0xff) << 8;
+                // fall through
+            case 1:
+                k1 ^= (buf[index] & 0xff);
+                h1 ^= murmur3MixK1(k1);
+                break;
+            default:
+                break;
+        }
+        h1 ^= length;
+        h1 ^= h1 >>> 16;
+        h1 *= 0x85ebca6b;
+        h1 ^= h1 >>> 13;
+        h1 *= 0xc2b2ae35;
+        h1 ^= h1 >>> 16;
+        return h1;
+    }
+    private static int murmur3MixK1(final int k1) {
+        return Integer.rotateLeft(k1 * 0xcc9e2d51, 15) * 0x1b873593;
     }
 
+    /**
+     * Salt the given row key with the (little-endian) 4-byte MurmurHash3 of its contents, followed
+     * by a delimiter (DELIM_BYTES), followed by the row key itself. The hash is written directly
+     * into the salted key, which is the only array allocated.
+     * @param rk the row key
+     * @return salted row key bytes
+     */
     public static byte[] saltRowKeyMurmur3_32(final RowKey rk) {
         final byte[] rkBytes;
-        final HashCode hash;
-        final byte[] hashBytes;
+        final byte[] saltedRKBytes;
+        final int hash;
 
         rkBytes = rk.getValue(DefensiveCopyStrategy.NEVER);
-        hash = HASH_MURMUR3_32.hashBytes(rkBytes);
-        hashBytes = hash.asBytes();
-        return buildSaltedRowKeyValue(hashBytes,
-                                      0,
-                                      Math.min(hashBytes.length, BYTES_PER_INT),
-                                      rkBytes);
+        hash = murmur3_32(rkBytes, 0, rkBytes.length);
+        saltedRKBytes = new byte[BYTES_PER_INT + DELIM_BYTES.length + rkBytes.length];
+        // salt: the hash, in the byte order produced by Guava's HashCode#asBytes
+        saltedRKBytes[0] = (byte) hash;
+        saltedRKBytes[1] = (byte) (hash >>> 8);
+        saltedRKBytes[2] = (byte) (hash >>> 16);
+        saltedRKBytes[3] = (byte) (hash >>> 24);
+        // delimiter, following the salt
+        System.arraycopy(DELIM_BYTES, 0, saltedRKBytes, BYTES_PER_INT, DELIM_BYTES.length);
+        // original RowKey contents, filling out the rest of the array
+        System.arraycopy(rkBytes,
+                         0,
+                         saltedRKBytes,
+                         (BYTES_PER_INT + DELIM_BYTES.length),
+                         rkBytes.length);
+        return saltedRKBytes;
     }
 
     public static ParsedVersionQualifier parseQualifierSeparateVersion(final byte[] storedQual, final long storedTS, final VersioningModel model) throws IllegalArgumentException, ArithmeticException {
@@ -188,10 +235,114 @@ public final class HBaseUtil extends Uninstantiable {
         return BytesUtil.concat(original, DELIM_BYTES, versionBytes);
     }
 
+    /**
+     * Apply the storage settings specified by the given family model (bloom filter, block size,
+     * block cache and in-memory flags, compression, data block encoding, maximum versions, and
+     * TTL) to the given column family descriptor. Settings the model leaves unspecified are not
+     * changed.
+     * @param family
+     * @param colFamDesc
+     * @return true if the descriptor was changed; false if it already reflected the model
+     */
+    public static boolean applyFamilyStorage(final FamilyModel family, final HColumnDescriptor colFamDesc) {
+        final HColumnDescriptor original;
+        
+        original = new HColumnDescriptor(colFamDesc);
+        if (family.getBloomFilter() != null) {
+            colFamDesc.setBloomFilterType(family.getBloomFilter());
+        }
+        if (family.getBlockSize() != null) {
+            colFamDesc.setBlocksize(family.getBlockSize().intValue());
+        }
+        if (family.getBlockCacheEnabled() != null) {
+            colFamDesc.setBlockCacheEnabled(family.getBlockCacheEnabled().booleanValue());
+        }
+        if (family.getInMemory() != null) {
+            colFamDesc.setInMemory(family.getInMemory().booleanValue());
+        }
+        if (family.getCompression() != null) {
+            colFamDesc.setCompressionType(family.getCompression());
+        }
+        if (family.getDataBlockEncoding() != null) {
+            colFamDesc.setDataBlockEncoding(family.getDataBlockEncoding());
+        }
+        if (family.getMaxVersions() != null) {
+            colFamDesc.setMaxVersions(family.getMaxVersions().intValue());
+        }
+        if (family.getTTLSeconds() != null) {
+            colFamDesc.setTimeToLive(family.getTTLSeconds().intValue());
+        }
+        return (!original.equals(colFamDesc));
+    }
+    
+    private static HColumnDescriptor buildFamilyDescriptor(final Name familyName, final FamilyModel family, final DefensiveCopyStrategy dcs) {
+        final HColumnDescriptor colFamDesc;
+        colFamDesc = new HColumnDescriptor(familyName.getValue(dcs));
+        if (family != null) {
+            applyFamilyStorage(family, colFamDesc);
+        }
+        return colFamDesc;
+    }
+    
+    /**
+     * Bring the column families of the existing table with the given name in line with the given
+     * model: families present in the model but absent from the table are added, and the storage
+     * settings specified by the model (see {@link #applyFamilyStorage(FamilyModel,
+     * HColumnDescriptor)}) are applied to families which differ. Families not in the model are
+     * left alone. Modifications are made online, so the cluster must permit online schema
+     * changes (hbase.online.schema.update.enable); new settings take effect for existing data as
+     * its store files are compacted.
+     * @param tableAdmin
+     * @param model
+     * @param tableName the name of the table, or null to use the name of the model
+     * @param dcs
+     * @return the number of families added or modified
+     * @throws IOException if the table does not exist, or could not be modified
+     */
+    public static final int reconcileTableFromModel(final HBaseAdmin tableAdmin, final TableModel model, Name tableName, final DefensiveCopyStrategy dcs) throws IOException {
+        final String logMethodName;
+        final TableName hbTableName;
+        final HTableDescriptor tableDesc;
+        HColumnDescriptor colFamDesc;
+        int changeCount;
+        
+        logMethodName =
+            LOG.enter(()->"reconcileTableFromModel(model=",
+                      ()->model,
+                      ()->")");
+        
+        if (tableName == null) {
+            tableName = model.getName();
+        }
+        hbTableName = TableName.valueOf(tableName.getValue(dcs));
+        tableDesc = tableAdmin.getTableDescriptor(hbTableName);
+        changeCount = 0;
+        for (Map.Entry<Name, FamilyModel> famEntry : model.getFamilies().entrySet()) {
+            colFamDesc = tableDesc.getFamily(famEntry.getKey().getValue(dcs));
+            if (colFamDesc == null) {
+                colFamDesc = buildFamilyDescriptor(famEntry.getKey(), famEntry.getValue(), dcs);
+                LOG.trace(logMethodName, ()->"adding family: ", ()->famEntry.getKey());
+                tableAdmin.addColumn(hbTableName, colFamDesc);
+                changeCount++;
+            } else {
+                colFamDesc = new HColumnDescriptor(colFamDesc);
+                if ((famEntry.getValue() != null)
+                    && (applyFamilyStorage(famEntry.getValue(), colFamDesc))) {
+                    LOG.trace(logMethodName, ()->"modifying family: ", ()->famEntry.getKey());
+                    tableAdmin.modifyColumn(hbTableName, colFamDesc);
+                    changeCount++;
+                }
+            }
+        }
+        LOG.leave(logMethodName);
+        return changeCount;
+    }
+    
     public static final void createTableFromModel(final HBaseAdmin tableAdmin, final TableModel model, Name tableName, final DefensiveCopyStrategy dcs) throws IOException {
         final String logMethodName;
         final HTableDescriptor tableDesc;
         final byte[] tableNameBytes;
+        final byte[][] splitKeys;
         
         logMethodName =
             LOG.enter(()->"generateTableDesc(model=",
@@ -211,23 +362,37 @@ public final class HBaseUtil extends Uninstantiable {
                  .stream()
                  .forEachOrdered((famEntry) -> {
                      final Name familyName;
-                     final byte[] familyNameBytes;
                      final HColumnDescriptor colFamDesc;
 
                      familyName = famEntry.getKey();
-                     familyNameBytes = familyName.getValue(dcs);
-
-                     colFamDesc = new HColumnDescriptor(familyNameBytes);
+                     colFamDesc = buildFamilyDescriptor(familyName, famEntry.getValue(), dcs);
                      tableDesc.addFamily(colFamDesc);
                      
-                     LOG.trace(logMethodName, ()->"added family: ", ()->familyName.getStr());
+                     LOG.trace(logMethodName, ()->"added family: ", ()->colFamDesc);
                  });
-            tableAdmin.createTable(tableDesc);
-            LOG.trace(logMethodName, ()->"table created");
+            if (model.getSplitPolicy() == null) {
+                splitKeys = null;
+            } else {
+                splitKeys = model.getSplitPolicy().getSplitKeys();
+            }
+            try {
+                if ((splitKeys == null) || (splitKeys.length <= 0)) {
+                    tableAdmin.createTable(tableDesc);
+                } else {
+                    LOG.trace(logMethodName,
+                              ()->"pre-splitting per: ",
+                              model::getSplitPolicy);
+                    tableAdmin.createTable(tableDesc, splitKeys);
+                }
+                LOG.trace(logMethodName, ()->"table created");
+            } catch (TableExistsException teExc) {
+                // created concurrently (e.g. by another process bootstrapping the same schema)
+                LOG.trace(logMethodName, ()->"table created concurrently elsewhere");
+            }
         }
     }
     
-    private static HTable attemptConnect(final String logMethodName, final HBaseContext context, final HBaseAdmin tableAdmin, final TableModel model, final Name tableName, final int attemptCount) throws IOException, IllegalArgumentException {
+    private static HTable attemptConnect(final String logMethodName, final HBaseContext context, final VerifiedTableRegistry.TableVerifier verifier, final Name tableName, final int attemptCount) throws IOException, IllegalArgumentException {
         final ResourceConnectTolerance rct;
         final DefensiveCopyStrategy dcs;
         
@@ -244,12 +409,13 @@ public final class HBaseUtil extends Uninstantiable {
                   ()->" starting...");
         /*
          * If a table with the name given by the model does not yet exist, then generate a
-         * descriptor corresponding to that table name, then create it. Then (regardless of
-         * whether or not table creation was necessary in the previous step), return an HTable
-         * handle for the table.
+         * descriptor corresponding to that table name, then create it (or, if the verifier
+         * consults a registry of verified tables, skip this step for a table already verified).
+         * Then (regardless of whether or not table creation was necessary in the previous step),
+         * return an HTable handle for the table.
          */
-        HBaseUtil.createTableFromModel(tableAdmin, model, tableName, dcs);
-        return new HTable(context.getHBaseConfiguration(), tableName.getValue(dcs));
+        verifier.verify(tableName);
+        return context.buildTable(tableName.getValue(dcs));
     }
     
     private static long sleepIfOnRetry(final String logMethodName, final Name tableName, final int attemptCount, final long currentRetryDelay, final ResourceConnectTolerance rct) {
@@ -290,23 +456,34 @@ public final class HBaseUtil extends Uninstantiable {
      * Establish a connection to the HBase table with the given name and set of column families. If
      * the table does not yet exist, create it.
      * 
-     * TODO: This method of connecting to HBase tables is deprecated as of 0.99.0, and has been
-     * replaced by a new method (previously unavailable) wherein a Connection is established first,
-     * then a Table reference is retrieved from the Connection. (See: https://hbase.apache.org/
-     * apidocs/org/apache/hadoop/hbase/client/HTable.html#HTable%28org.apache.hadoop.conf.
-     * Configuration,%20byte[]%29 -AND- https://hbase.apache.org/apidocs/org/apache/hadoop/hbase/
-     * client/Connection.html#getTable%28org.apache.hadoop.hbase.TableName%29)
-     * 
-     * TODO: Investigate using an ExecutorService to pool connections? (see: https://hbase.apache.
-     * org/apidocs/org/apache/hadoop/hbase/client/HTable.html#HTable%28org.apache.hadoop.conf.
-     * Configuration,%20byte[],%20java.util.concurrent.ExecutorService%29 -OR- https://hbase.
-     * apache.org/apidocs/org/apache/hadoop/hbase/client/Connection.html#getTable%28org.apache.
-     * hadoop.hbase.TableName,%20java.util.concurrent.ExecutorService%29)
+     * The returned HTable is a lightweight handle backed by the connection (and batch thread pool)
+     * shared by all tables of the context (see {@link HBaseContext#buildTable(byte[])}), so no
+     * ZooKeeper session or region location cache is established per table.
      *
      * @return
      * @throws HBaseInitializationException
      */
     public static HTable connectToTable(final HBaseContext context, final HBaseAdmin admin, final TableModel model) throws HBaseInitializationException {
+        Util.ensureNotNull(context, "HBaseUtil#connectToTable", "context", HBaseContext.class);
+        Util.ensureNotNull(admin, "HBaseUtil#connectToTable", "admin", HBaseAdmin.class);
+        return connectToTable(context,
+                              model,
+                              (tableName)->createTableFromModel(admin,
+                                                                model,
+                                                                tableName,
+                                                                context.getDefensiveCopyStrategy()));
+    }
+    
+    /**
+     * Establish a connection to the HBase table for the given model, first invoking the given
+     * verifier (which ensures that the table exists, creating it if necessary).
+     * @param context
+     * @param model
+     * @param verifier
+     * @return
+     * @throws HBaseInitializationException
+     */
+    public static HTable connectToTable(final HBaseContext context, final TableModel model, final VerifiedTableRegistry.TableVerifier verifier) throws HBaseInitializationException {
         String logMsg;
         final String logMethodName;
         final Name tableName;
@@ -318,8 +495,11 @@ public final class HBaseUtil extends Uninstantiable {
         Exception lastException = null;
         
         Util.ensureNotNull(context, "HBaseUtil#connectToTable", "context", HBaseContext.class);
-        Util.ensureNotNull(admin, "HBaseUtil#connectToTable", "admin", HBaseAdmin.class);
         Util.ensureNotNull(model, "HBaseUtil#connectToTable", "model", TableModel.class);
+        Util.ensureNotNull(verifier,
+                           "HBaseUtil#connectToTable",
+                           "verifier",
+                           VerifiedTableRegistry.TableVerifier.class);
         
         logMethodName
             = LOG.enter(()->"connectToTable(context=",
@@ -340,7 +520,7 @@ public final class HBaseUtil extends Uninstantiable {
             retryDelay = sleepIfOnRetry(logMethodName, tableName, attemptCount, retryDelay, rct);
             attemptCount++;
             try {
-                tbl = attemptConnect(logMethodName, context, admin, model, tableName, attemptCount);
+                tbl = attemptConnect(logMethodName, context, verifier, tableName, attemptCount);
             } catch (IOException | IllegalArgumentException exc) {
                 LOG.debug(exc,
                           logMethodName,
@@ -372,14 +552,8 @@ public final class HBaseUtil extends Uninstantiable {
     }
     
     /**
-     * Create a new instance of HBaseAdmin using the configuration assigned to this instance.
-     * 
-     * TODO: This method of connecting to the HBase admin client is deprecated as of 0.99.0, and
-     * has been replaced by a new method (previously unavailable) wherein a Connection is
-     * established first, then an Admin reference is retrieved from the Connection. (See:
-     * https://hbase.apache.org/apidocs/index.html?org/apache/hadoop/hbase/client/HBaseAdmin.html
-     * -AND- https://hbase.apache.org/apidocs/org/apache/hadoop/hbase/client/Connection.html#
-     * getAdmin%28%29)
+     * Create a new instance of HBaseAdmin backed by the connection shared by the given context
+     * (see {@link HBaseContext#getConnection()}); closing the admin does not close the connection.
      * 
      * @return HBaseAdmin instance representing the HBase instance referenced by the configuration
      * @throws HBaseInitializationException If an {@link IOException} occurs during
@@ -392,7 +566,7 @@ public final class HBaseUtil extends Uninstantiable {
         
         logMethodName = LOG.enter(()->"connectAdmin");
         try {
-            admin = new HBaseAdmin(context.getHBaseConfiguration());
+            admin = new HBaseAdmin(context.getConnection());
         } catch (IOException ioExc) {
             logMsg = "Failed to establish admin connection";
             LOG.error(ioExc, ()->logMsg);
@@ -410,7 +584,6 @@ public final class HBaseUtil extends Uninstantiable {
         anyLong = 0L;
 
         LOG = new JitLog(HBaseUtil.class);
-        HASH_MURMUR3_32 = Hashing.murmur3_32();
         BYTES_PER_INT = BytesUtil.toBytes(anyInt).length;
         BYTES_PER_LONG = BytesUtil.toBytes(anyLong).length;
     }
@@ -18,6 +18,7 @@ package com.liaison.shachi.util;
 import com.liaison.javabasics.commons.Uninstantiable;
 import com.liaison.shachi.api.request.frozen.LongValueSpecFrozen;
 import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.io.TimeRange;
 
 import java.io.IOException;
 
@@ -53,5 +54,36 @@ public final class ReadUtils extends Uninstantiable {
         }
     }
     
+    /**
+     * Build a GET for the given row which reads the same columns as the given template, with the
+     * same filter, time range, and version/per-family limits. The column qualifier sets of the
+     * template are shared rather than copied, so the template must not be modified afterward.
+     * @param template the GET to reproduce
+     * @param rowKeyBytes the (literalized) row key to read
+     * @return a GET equivalent to the template, but for the given row
+     * @throws IOException if the time range or version limit of the template cannot be applied
+     */
+    public static Get rebind(final Get template, final byte[] rowKeyBytes) throws IOException {
+        final Get get;
+        final TimeRange timeRange;
+
+        get = new Get(rowKeyBytes);
+        get.getFamilyMap().putAll(template.getFamilyMap());
+        if (template.getFilter() != null) {
+            get.setFilter(template.getFilter());
+        }
+        timeRange = template.getTimeRange();
+        if (!timeRange.isAllTime()) {
+            get.setTimeRange(timeRange.getMin(), timeRange.getMax());
+        }
+        if (template.getMaxVersions() != get.getMaxVersions()) {
+            get.setMaxVersions(template.getMaxVersions());
+        }
+        if (template.getMaxResultsPerColumnFamily() >= 0) {
+            get.setMaxResultsPerColumnFamily(template.getMaxResultsPerColumnFamily());
+        }
+        return get;
+    }
+
     private ReadUtils() { }
 }
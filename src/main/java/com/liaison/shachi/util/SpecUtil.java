@@ -22,6 +22,7 @@ import com.liaison.shachi.api.request.impl.SpecState;
 import com.liaison.shachi.api.request.impl.StatefulSpec;
 import com.liaison.shachi.dto.FamilyQualifierPair;
 import com.liaison.shachi.exception.SpecValidationException;
+import com.liaison.shachi.model.ColumnSerializationTable;
 import com.liaison.shachi.model.FamilyHB;
 import com.liaison.shachi.model.QualHB;
 import com.liaison.shachi.model.TableHB;
@@ -29,6 +30,7 @@ import com.liaison.shachi.model.VersioningModel;
 import com.liaison.shachi.model.ser.CellDeserializer;
 import com.liaison.shachi.model.ser.CellSerializable;
 import com.liaison.shachi.model.ser.CellSerializer;
+import com.liaison.shachi.model.ser.PrimitiveDeserializers;
 
 import java.util.Collection;
 import java.util.function.BiFunction;
@@ -93,6 +95,24 @@ public final class SpecUtil extends Uninstantiable {
         return determineVersioningScheme(colSpec.getFamily(), colSpec.getColumn());
     }
 
+    /**
+     * Resolve the family-per-qualifier, family, and table serialization components for a cell in
+     * one lookup against the table's precomputed {@link ColumnSerializationTable}.
+     * @return the resolved components, or null if the table does not cover the given family
+     * model, in which case the caller must walk the models
+     */
+    private static ColumnSerializationTable.Resolution resolveFromTable(final FamilyQualifierPair toUseForCell, final FamilyHB famModel, final TableHB tableModel) {
+        final ColumnSerializationTable serTable;
+        if ((famModel == null) || (tableModel == null)) {
+            return null;
+        }
+        serTable = tableModel.getSerializationTable();
+        if (serTable == null) {
+            return null;
+        }
+        return serTable.resolve(famModel, ((toUseForCell == null)?null:toUseForCell.getColumn()));
+    }
+
     private static <S> S identifySerializationComponent(final FamilyQualifierPair toUseForCell, final QualHB qualModel, final FamilyHB famModel, final TableHB tableModel, final Function<CellSerializable, S> componentGetter, final BiFunction<FamilyHB, QualHB, S> familyQualSpecificComponentGetter) {
         S component = null;
         if (qualModel != null) {
@@ -154,6 +174,14 @@ public final class SpecUtil extends Uninstantiable {
      * if no CellDeserializer could be found.
      */
     public static CellDeserializer identifyDeserializer(final FamilyQualifierPair toUseForCell, final QualHB qualModel, final FamilyHB famModel, final TableHB tableModel) {
+        final ColumnSerializationTable.Resolution resolved;
+        if ((qualModel != null) && (qualModel.getDeserializer() != null)) {
+            return qualModel.getDeserializer();
+        }
+        resolved = resolveFromTable(toUseForCell, famModel, tableModel);
+        if (resolved != null) {
+            return resolved.getDeserializer();
+        }
         return identifySerializationComponent(toUseForCell,
                                               qualModel,
                                               famModel,
@@ -211,6 +239,14 @@ public final class SpecUtil extends Uninstantiable {
      * if no CellSerializer could be found.
      */
     public static CellSerializer identifySerializer(final FamilyQualifierPair toUseForCell, final QualHB qualModel, final FamilyHB famModel, final TableHB tableModel) {
+        final ColumnSerializationTable.Resolution resolved;
+        if ((qualModel != null) && (qualModel.getSerializer() != null)) {
+            return qualModel.getSerializer();
+        }
+        resolved = resolveFromTable(toUseForCell, famModel, tableModel);
+        if (resolved != null) {
+            return resolved.getSerializer();
+        }
         return identifySerializationComponent(toUseForCell,
                                               qualModel,
                                               famModel,
@@ -227,5 +263,50 @@ public final class SpecUtil extends Uninstantiable {
         return identifySerializer(null, qualModel, famModel, tableModel);
     }
 
+    /**
+     * Identifies the primitive-specialized deserializers to be used for a given cell, with the
+     * same priority as {@link #identifyDeserializer(FamilyQualifierPair, QualHB, FamilyHB, TableHB)}
+     * (qualifier model, then family model for the concrete qualifier, then family model default),
+     * except that table models do not declare primitive deserializers. The declared set is taken
+     * as a whole from the most specific model which declares one.
+     * @param toUseForCell FamilyQualifierPair representing the concrete column family and qualifier
+     *                     of a given cell, if available
+     * @param qualModel QualModel for the cell, if available
+     * @param famModel FamilyModel for the cell, if available
+     * @param tableModel TableModel for the cell, if available; consulted only for its precomputed
+     *                   resolution table
+     * @return PrimitiveDeserializers identified per the priority above, or null if none is declared
+     */
+    public static PrimitiveDeserializers identifyPrimitiveDeserializers(final FamilyQualifierPair toUseForCell, final QualHB qualModel, final FamilyHB famModel, final TableHB tableModel) {
+        final ColumnSerializationTable.Resolution resolved;
+        if ((qualModel != null) && (qualModel.getPrimitiveDeserializers() != null)) {
+            return qualModel.getPrimitiveDeserializers();
+        }
+        resolved = resolveFromTable(toUseForCell, famModel, tableModel);
+        if (resolved != null) {
+            return resolved.getPrimitiveDeserializers();
+        }
+        return identifyPrimitiveDeserializers(toUseForCell, qualModel, famModel);
+    }
+    /**
+     * Equivalent to {@link #identifyPrimitiveDeserializers(FamilyQualifierPair, QualHB, FamilyHB,
+     * TableHB)}, without the lookup against the table's precomputed resolution table.
+     */
+    public static PrimitiveDeserializers identifyPrimitiveDeserializers(final FamilyQualifierPair toUseForCell, final QualHB qualModel, final FamilyHB famModel) {
+        PrimitiveDeserializers primDeser = null;
+        if (qualModel != null) {
+            primDeser = qualModel.getPrimitiveDeserializers();
+        }
+        if ((primDeser == null) && (famModel != null)) {
+            if (toUseForCell != null) {
+                primDeser = famModel.getPrimitiveDeserializers(toUseForCell.getColumn());
+            }
+            if (primDeser == null) {
+                primDeser = famModel.getPrimitiveDeserializers();
+            }
+        }
+        return primDeser;
+    }
+
     private SpecUtil() {}
 }
@@ -0,0 +1,280 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.integrationtest;
+
+import com.liaison.javabasics.logging.JitLog;
+import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
+import com.liaison.shachi.HBaseControl;
+import com.liaison.shachi.api.request.impl.PreparedRead;
+import com.liaison.shachi.api.response.OpResultSet;
+import com.liaison.shachi.api.response.ReadOpResult;
+import com.liaison.shachi.context.HBaseContext;
+import com.liaison.shachi.context.MiniClusterTestHBaseContext;
+import com.liaison.shachi.dto.PackedCellSet;
+import com.liaison.shachi.dto.RowKey;
+import com.liaison.shachi.dto.Value;
+import com.liaison.shachi.model.Name;
+import com.liaison.shachi.resmgr.PoolingHBaseResourceManager;
+import org.apache.hadoop.hbase.HBaseTestingUtility;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.TableName;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.FAM_MODEL_a;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.HANDLE_TESTREAD_1;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.HANDLE_TESTWRITE_1;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.QUAL_MODEL_Z;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.TEST_MODEL_A;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.TS_SAMPLE_1;
+
+/**
+ * Comparison of the fluent READ path against a {@link PreparedRead} of the same shape, read
+ * row-by-row and in groups of rows. Each mode reads the same rows repeatedly from a single thread;
+ * the per-READ latency and the heap allocated (per the thread allocation counter, where the JVM
+ * supports it) in each mode are logged (not asserted, as they depend upon the environment). The
+ * results of the two paths are asserted to be identical.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public class TestPreparedReadThroughput {
+
+    private static final JitLog LOG;
+    static {
+        LOG = new JitLog(TestPreparedReadThroughput.class);
+    }
+
+    private static final String COLUMN_HANDLE = "COLUMN-Z";
+    private static final int ROW_COUNT = 200;
+    private static final int ROWS_PER_GROUP = 20;
+    private static final int WARMUP_PASSES = 5;
+    private static final int MEASURED_PASSES = 25;
+
+    @FunctionalInterface
+    private interface ReadPass {
+        void run() throws Exception;
+    }
+
+    private HBaseTestingUtility hbTestUtil;
+    private HBaseContext context;
+    private HBaseControl ctrl;
+    private List<RowKey> rowKeys;
+
+    private static RowKey rowKeyFor(final int rowIndex) {
+        return RowKey.of("prepared-read-" + rowIndex);
+    }
+
+    private static long allocatedBytes() {
+        final java.lang.management.ThreadMXBean threadBean;
+
+        threadBean = java.lang.management.ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadBean)
+                       .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1L;
+    }
+
+    private ReadOpResult readFluent(final RowKey rowKey) throws Exception {
+        final OpResultSet opResSet;
+
+        opResSet =
+            this.ctrl
+                .begin()
+                    .read(HANDLE_TESTREAD_1)
+                        .from()
+                            .tbl(TEST_MODEL_A)
+                            .row(rowKey)
+                            .and()
+                        .with(COLUMN_HANDLE)
+                            .fam(FAM_MODEL_a)
+                            .qual(QUAL_MODEL_Z)
+                            .and()
+                        .atTime()
+                            .gt(TS_SAMPLE_1 - 10)
+                            .lt(TS_SAMPLE_1 + 10)
+                            .and()
+                        .then()
+                    .exec();
+        return opResSet.getReadResult(HANDLE_TESTREAD_1);
+    }
+
+    private PreparedRead prepare() throws Exception {
+        return
+            this.ctrl.prepareRead(HANDLE_TESTREAD_1,
+                                  TEST_MODEL_A,
+                                  (spec)->spec
+                                      .with(COLUMN_HANDLE)
+                                          .fam(FAM_MODEL_a)
+                                          .qual(QUAL_MODEL_Z)
+                                          .and()
+                                      .atTime()
+                                          .gt(TS_SAMPLE_1 - 10)
+                                          .lt(TS_SAMPLE_1 + 10)
+                                          .and());
+    }
+
+    private void measure(final String mode, final ReadPass pass) throws Exception {
+        final long allocStart;
+        final long startNanos;
+        final long elapsedNanos;
+        final long allocEnd;
+        final long reads;
+
+        for (int passIndex = 0; passIndex < WARMUP_PASSES; passIndex++) {
+            pass.run();
+        }
+        allocStart = allocatedBytes();
+        startNanos = System.nanoTime();
+        for (int passIndex = 0; passIndex < MEASURED_PASSES; passIndex++) {
+            pass.run();
+        }
+        elapsedNanos = System.nanoTime() - startNanos;
+        allocEnd = allocatedBytes();
+        reads = ((long) MEASURED_PASSES) * ROW_COUNT;
+        LOG.info(mode
+                 + ": reads="
+                 + reads
+                 + ", elapsed="
+                 + TimeUnit.NANOSECONDS.toMillis(elapsedNanos)
+                 + "ms, mean="
+                 + TimeUnit.NANOSECONDS.toMicros(elapsedNanos / reads)
+                 + "us/read, allocated="
+                 + ((allocStart < 0)?"n/a":(((allocEnd - allocStart) / reads) + " bytes/read")));
+    }
+
+    @BeforeClass
+    public void setup() throws Exception {
+        final DefensiveCopyStrategy dcs;
+        final HTableDescriptor tableDesc;
+
+        LOG.info("Starting mini-cluster...");
+        this.hbTestUtil = new HBaseTestingUtility();
+        this.hbTestUtil.startMiniCluster();
+        this.context =
+            MiniClusterTestHBaseContext
+                .getBuilder()
+                    .id(TestPreparedReadThroughput.class.getSimpleName())
+                    .hbTestUtil(this.hbTestUtil)
+                    .build();
+        dcs = this.context.getDefensiveCopyStrategy();
+        tableDesc =
+            new HTableDescriptor(TableName.valueOf(this.context.getTableNamingStrategy()
+                                                               .generate(TEST_MODEL_A)
+                                                               .getValue(dcs)));
+        for (Name familyName : TEST_MODEL_A.getFamilies().keySet()) {
+            tableDesc.addFamily(new HColumnDescriptor(familyName.getValue(dcs)));
+        }
+        this.hbTestUtil.getHBaseAdmin().createTable(tableDesc);
+        this.ctrl = new HBaseControl(this.context, PoolingHBaseResourceManager.INSTANCE);
+
+        LOG.info("Writing " + ROW_COUNT + " rows...");
+        this.rowKeys = new ArrayList<>(ROW_COUNT);
+        for (int rowIndex = 0; rowIndex < ROW_COUNT; rowIndex++) {
+            this.rowKeys.add(rowKeyFor(rowIndex));
+            this.ctrl
+                .begin()
+                    .write(HANDLE_TESTWRITE_1)
+                        .on()
+                            .tbl(TEST_MODEL_A)
+                            .row(rowKeyFor(rowIndex))
+                            .and()
+                        .with(COLUMN_HANDLE)
+                            .fam(FAM_MODEL_a)
+                            .qual(QUAL_MODEL_Z)
+                            .ts(TS_SAMPLE_1)
+                            .value(Value.of("prepared-read-value-" + rowIndex))
+                            .and()
+                        .then()
+                    .exec();
+        }
+        LOG.info("Rows written");
+    }
+
+    @Test
+    public void preparedMatchesFluent() throws Exception {
+        final PreparedRead prepared;
+        final List<ReadOpResult> groupResults;
+        ReadOpResult fluentRes;
+        ReadOpResult preparedRes;
+
+        prepared = prepare();
+        groupResults = prepared.exec(this.rowKeys);
+        Assert.assertEquals(groupResults.size(), ROW_COUNT);
+        for (int rowIndex = 0; rowIndex < ROW_COUNT; rowIndex++) {
+            fluentRes = readFluent(this.rowKeys.get(rowIndex));
+            preparedRes = prepared.exec(this.rowKeys.get(rowIndex));
+            Assert.assertEquals(preparedRes.getTableRow(), fluentRes.getTableRow());
+            Assert.assertEquals(preparedRes.getSingleData(COLUMN_HANDLE).getDatum(),
+                                fluentRes.getSingleData(COLUMN_HANDLE).getDatum());
+            Assert.assertEquals(groupResults.get(rowIndex).getSingleData(COLUMN_HANDLE).getDatum(),
+                                fluentRes.getSingleData(COLUMN_HANDLE).getDatum());
+        }
+    }
+
+    @Test
+    public void packedMatchesFluent() throws Exception {
+        final PreparedRead prepared;
+        PackedCellSet packed;
+        ReadOpResult fluentRes;
+
+        prepared = prepare();
+        for (int rowIndex = 0; rowIndex < ROW_COUNT; rowIndex++) {
+            fluentRes = readFluent(this.rowKeys.get(rowIndex));
+            packed = prepared.execPacked(this.rowKeys.get(rowIndex), COLUMN_HANDLE);
+            Assert.assertEquals(packed.size(), 1);
+            Assert.assertEquals(packed.toDatum(0),
+                                fluentRes.getSingleData(COLUMN_HANDLE).getDatum());
+        }
+    }
+
+    @Test(dependsOnMethods = "preparedMatchesFluent")
+    public void compareReadPaths() throws Exception {
+        final PreparedRead prepared;
+
+        prepared = prepare();
+        measure("fluent", ()->{
+            for (RowKey rowKey : this.rowKeys) {
+                readFluent(rowKey);
+            }
+        });
+        measure("prepared (row-by-row)", ()->{
+            for (RowKey rowKey : this.rowKeys) {
+                prepared.exec(rowKey);
+            }
+        });
+        measure("prepared (groups of " + ROWS_PER_GROUP + ")", ()->{
+            for (int offset = 0; offset < ROW_COUNT; offset += ROWS_PER_GROUP) {
+                prepared.exec(this.rowKeys.subList(offset, offset + ROWS_PER_GROUP));
+            }
+        });
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        this.ctrl.close();
+        this.context.closeConnection();
+        LOG.info("Shutting down mini-cluster...");
+        this.hbTestUtil.shutdownMiniCluster();
+        LOG.info("Mini-cluster shut down");
+    }
+}
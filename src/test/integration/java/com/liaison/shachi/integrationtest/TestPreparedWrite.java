@@ -0,0 +1,162 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.integrationtest;
+
+import com.liaison.javabasics.logging.JitLog;
+import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
+import com.liaison.shachi.HBaseControl;
+import com.liaison.shachi.api.request.impl.PreparedWrite;
+import com.liaison.shachi.api.response.OpResultSet;
+import com.liaison.shachi.context.HBaseContext;
+import com.liaison.shachi.context.MiniClusterTestHBaseContext;
+import com.liaison.shachi.dto.RowKey;
+import com.liaison.shachi.dto.Value;
+import com.liaison.shachi.model.Name;
+import com.liaison.shachi.resmgr.PoolingHBaseResourceManager;
+import org.apache.hadoop.hbase.HBaseTestingUtility;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.FAM_MODEL_a;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.HANDLE_TESTREAD_1;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.HANDLE_TESTWRITE_1;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.QUAL_MODEL_Z;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.TEST_MODEL_A;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.TS_SAMPLE_1;
+
+/**
+ * Verifies that records bound and written (in a single call) via a {@link PreparedWrite} are read
+ * back by the fluent READ path exactly as written.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public class TestPreparedWrite {
+
+    private static final JitLog LOG;
+    static {
+        LOG = new JitLog(TestPreparedWrite.class);
+    }
+
+    private static final String COLUMN_HANDLE = "COLUMN-Z";
+    private static final int RECORD_COUNT = 50;
+
+    private HBaseTestingUtility hbTestUtil;
+    private HBaseContext context;
+    private HBaseControl ctrl;
+
+    private static RowKey rowKeyFor(final int recordIndex) {
+        return RowKey.of("prepared-write-" + recordIndex);
+    }
+
+    private static Value valueFor(final int recordIndex) {
+        return Value.of("prepared-write-value-" + recordIndex);
+    }
+
+    @BeforeClass
+    public void setup() throws Exception {
+        final DefensiveCopyStrategy dcs;
+        final HTableDescriptor tableDesc;
+
+        LOG.info("Starting mini-cluster...");
+        this.hbTestUtil = new HBaseTestingUtility();
+        this.hbTestUtil.startMiniCluster();
+        this.context =
+            MiniClusterTestHBaseContext
+                .getBuilder()
+                    .id(TestPreparedWrite.class.getSimpleName())
+                    .hbTestUtil(this.hbTestUtil)
+                    .build();
+        dcs = this.context.getDefensiveCopyStrategy();
+        tableDesc =
+            new HTableDescriptor(TableName.valueOf(this.context.getTableNamingStrategy()
+                                                               .generate(TEST_MODEL_A)
+                                                               .getValue(dcs)));
+        for (Name familyName : TEST_MODEL_A.getFamilies().keySet()) {
+            tableDesc.addFamily(new HColumnDescriptor(familyName.getValue(dcs)));
+        }
+        this.hbTestUtil.getHBaseAdmin().createTable(tableDesc);
+        this.ctrl = new HBaseControl(this.context, PoolingHBaseResourceManager.INSTANCE);
+    }
+
+    @Test
+    public void boundRecordsReadBack() throws Exception {
+        final PreparedWrite prepared;
+        final List<RowKey> rowKeys;
+        final List<Object[]> values;
+        final List<Long> timestamps;
+        final List<Put> writePuts;
+        OpResultSet opResSet;
+
+        prepared =
+            this.ctrl
+                .prepareWrite(HANDLE_TESTWRITE_1)
+                    .tbl(TEST_MODEL_A)
+                    .column(FAM_MODEL_a, QUAL_MODEL_Z)
+                    .build();
+
+        rowKeys = new ArrayList<>(RECORD_COUNT);
+        values = new ArrayList<>(RECORD_COUNT);
+        for (int recordIndex = 0; recordIndex < RECORD_COUNT; recordIndex++) {
+            rowKeys.add(rowKeyFor(recordIndex));
+            values.add(new Object[] {valueFor(recordIndex)});
+        }
+        timestamps = Collections.nCopies(RECORD_COUNT, Long.valueOf(TS_SAMPLE_1));
+        writePuts = prepared.bindAll(rowKeys, null, timestamps, values);
+        Assert.assertEquals(writePuts.size(), RECORD_COUNT);
+        prepared.exec(writePuts);
+
+        for (int recordIndex = 0; recordIndex < RECORD_COUNT; recordIndex++) {
+            opResSet =
+                this.ctrl
+                    .begin()
+                        .read(HANDLE_TESTREAD_1)
+                            .from()
+                                .tbl(TEST_MODEL_A)
+                                .row(rowKeyFor(recordIndex))
+                                .and()
+                            .with(COLUMN_HANDLE)
+                                .fam(FAM_MODEL_a)
+                                .qual(QUAL_MODEL_Z)
+                                .and()
+                            .then()
+                        .exec();
+            Assert.assertEquals(opResSet
+                                    .getReadResult(HANDLE_TESTREAD_1)
+                                    .getSingleData(COLUMN_HANDLE)
+                                    .getDatum()
+                                    .getValue(DefensiveCopyStrategy.NEVER),
+                                valueFor(recordIndex).getValue(DefensiveCopyStrategy.NEVER));
+        }
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        this.ctrl.close();
+        this.context.closeConnection();
+        LOG.info("Shutting down mini-cluster...");
+        this.hbTestUtil.shutdownMiniCluster();
+        LOG.info("Mini-cluster shut down");
+    }
+}
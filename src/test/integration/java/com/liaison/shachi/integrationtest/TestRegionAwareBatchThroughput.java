@@ -0,0 +1,213 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.integrationtest;
+
+import com.liaison.javabasics.logging.JitLog;
+import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
+import com.liaison.shachi.HBaseControl;
+import com.liaison.shachi.context.HBaseContext;
+import com.liaison.shachi.context.MiniClusterTestHBaseContext;
+import com.liaison.shachi.context.batch.MicroBatchPolicyDefault;
+import com.liaison.shachi.dto.RowKey;
+import com.liaison.shachi.dto.Value;
+import com.liaison.shachi.model.Name;
+import com.liaison.shachi.resmgr.PoolingHBaseResourceManager;
+import org.apache.hadoop.hbase.HBaseTestingUtility;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.FAM_MODEL_a;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.HANDLE_TESTWRITE_1;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.QUAL_MODEL_Z;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.TEST_MODEL_A;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.TS_SAMPLE_1;
+
+/**
+ * Throughput comparison of micro-batched WRITEs with and without region-aware dispatch, against a
+ * table pre-split into regions spread over several region servers. Many threads write rows whose
+ * keys span all regions, so that each batch touches several servers; the rate achieved in each
+ * mode is logged (not asserted, as it depends upon the environment).
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public class TestRegionAwareBatchThroughput {
+
+    private static final JitLog LOG;
+    static {
+        LOG = new JitLog(TestRegionAwareBatchThroughput.class);
+    }
+
+    private static final int REGION_SERVER_COUNT = 3;
+    private static final int REGION_COUNT = 10;
+    private static final int THREAD_COUNT = 64;
+    private static final int WARMUP_WRITES_PER_THREAD = 100;
+    private static final int MEASURED_WRITES_PER_THREAD = 1000;
+
+    private HBaseTestingUtility hbTestUtil;
+
+    private HBaseContext buildContext(final String contextId, final boolean regionAware) {
+        return MiniClusterTestHBaseContext
+                   .getBuilder()
+                       .id(TestRegionAwareBatchThroughput.class.getSimpleName() + "-" + contextId)
+                       .hbTestUtil(this.hbTestUtil)
+                       .microBatchPolicy(
+                           MicroBatchPolicyDefault
+                               .getBuilder()
+                                   .enabled()
+                                   .regionAwareDispatch(regionAware)
+                                   .build())
+                       .build();
+    }
+
+    /**
+     * Row keys begin with a digit (0 to REGION_COUNT - 1), matching the split points of the
+     * table, so that consecutive writes land in different regions.
+     */
+    private static RowKey rowKeyFor(final int threadIndex, final int writeIndex) {
+        return RowKey.of((writeIndex % REGION_COUNT) + "-" + threadIndex + "-" + writeIndex);
+    }
+
+    private static long runWrites(final HBaseControl ctrl, final int writesPerThread) throws Exception {
+        final ExecutorService threads;
+        final CountDownLatch start;
+        final List<Future<?>> results;
+        final long startNanos;
+        final long elapsedNanos;
+
+        threads = Executors.newFixedThreadPool(THREAD_COUNT);
+        start = new CountDownLatch(1);
+        results = new ArrayList<>(THREAD_COUNT);
+        try {
+            for (int threadIndex = 0; threadIndex < THREAD_COUNT; threadIndex++) {
+                final int ownThreadIndex = threadIndex;
+                results.add(threads.submit(()->{
+                    start.await();
+                    for (int writeIndex = 0; writeIndex < writesPerThread; writeIndex++) {
+                        ctrl
+                            .begin()
+                                .write(HANDLE_TESTWRITE_1)
+                                    .on()
+                                        .tbl(TEST_MODEL_A)
+                                        .row(rowKeyFor(ownThreadIndex, writeIndex))
+                                        .and()
+                                    .with()
+                                        .fam(FAM_MODEL_a)
+                                        .qual(QUAL_MODEL_Z)
+                                        .ts(TS_SAMPLE_1)
+                                        .value(Value.of("batched-write"))
+                                        .and()
+                                    .then()
+                                .exec();
+                    }
+                    return null;
+                }));
+            }
+            startNanos = System.nanoTime();
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+            elapsedNanos = System.nanoTime() - startNanos;
+        } finally {
+            threads.shutdownNow();
+        }
+        return elapsedNanos;
+    }
+
+    private void measure(final boolean regionAware) throws Exception {
+        final String mode;
+        final long elapsedNanos;
+        final long writes;
+
+        mode = (regionAware?"region-aware":"single-call");
+        try (HBaseControl ctrl =
+                 new HBaseControl(buildContext(mode, regionAware),
+                                  PoolingHBaseResourceManager.INSTANCE)) {
+            runWrites(ctrl, WARMUP_WRITES_PER_THREAD);
+            elapsedNanos = runWrites(ctrl, MEASURED_WRITES_PER_THREAD);
+            writes = ((long) THREAD_COUNT) * MEASURED_WRITES_PER_THREAD;
+            LOG.info(mode
+                     + ": threads="
+                     + THREAD_COUNT
+                     + ", writes="
+                     + writes
+                     + ", elapsed="
+                     + TimeUnit.NANOSECONDS.toMillis(elapsedNanos)
+                     + "ms, throughput="
+                     + ((writes * TimeUnit.SECONDS.toNanos(1)) / Math.max(1L, elapsedNanos))
+                     + "/s, mean batch size="
+                     + ctrl.getMicroBatcher().getMeanBatchSize());
+        }
+    }
+
+    @BeforeClass
+    public void setup() throws Exception {
+        final HBaseContext setupContext;
+        final DefensiveCopyStrategy dcs;
+        final HTableDescriptor tableDesc;
+        final byte[][] splitKeys;
+
+        LOG.info("Starting mini-cluster with " + REGION_SERVER_COUNT + " region servers...");
+        this.hbTestUtil = new HBaseTestingUtility();
+        this.hbTestUtil.startMiniCluster(REGION_SERVER_COUNT);
+        LOG.info("Mini-cluster started; creating table "
+                 + TEST_MODEL_A
+                 + " with "
+                 + REGION_COUNT
+                 + " regions...");
+        setupContext = buildContext("setup", false);
+        dcs = setupContext.getDefensiveCopyStrategy();
+        tableDesc =
+            new HTableDescriptor(TableName.valueOf(setupContext.getTableNamingStrategy()
+                                                               .generate(TEST_MODEL_A)
+                                                               .getValue(dcs)));
+        for (Name familyName : TEST_MODEL_A.getFamilies().keySet()) {
+            tableDesc.addFamily(new HColumnDescriptor(familyName.getValue(dcs)));
+        }
+        splitKeys = new byte[REGION_COUNT - 1][];
+        for (int index = 1; index < REGION_COUNT; index++) {
+            splitKeys[index - 1] = Bytes.toBytes(Integer.toString(index));
+        }
+        this.hbTestUtil.getHBaseAdmin().createTable(tableDesc, splitKeys);
+        setupContext.closeConnection();
+        LOG.info("Table created");
+    }
+
+    @Test
+    public void compareBatchDispatch() throws Exception {
+        measure(false);
+        measure(true);
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        LOG.info("Shutting down mini-cluster...");
+        this.hbTestUtil.shutdownMiniCluster();
+        LOG.info("Mini-cluster shut down");
+    }
+}
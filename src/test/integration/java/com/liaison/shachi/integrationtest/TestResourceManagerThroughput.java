@@ -0,0 +1,163 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.integrationtest;
+
+import com.liaison.javabasics.logging.JitLog;
+import com.liaison.shachi.HBaseControl;
+import com.liaison.shachi.context.HBaseContext;
+import com.liaison.shachi.context.MiniClusterTestHBaseContext;
+import com.liaison.shachi.resmgr.HBaseResourceManager;
+import com.liaison.shachi.resmgr.PoolingHBaseResourceManager;
+import com.liaison.shachi.resmgr.SimpleHBaseResourceManager;
+import com.liaison.shachi.resmgr.ThreadAffineHBaseResourceManager;
+import com.liaison.shachi.resmgr.res.ManagedTable;
+import org.apache.hadoop.hbase.HBaseTestingUtility;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.TEST_MODEL_A;
+
+/**
+ * Throughput comparison of the resource managers: many threads repeatedly borrow and release a
+ * table resource, as every operation does, and the rate achieved by each manager is logged (not
+ * asserted, as it depends upon the environment). Each manager is exercised via its own context,
+ * after a warm-up pass, against a table created beforehand.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public class TestResourceManagerThroughput {
+
+    private static final JitLog LOG;
+    static {
+        LOG = new JitLog(TestResourceManagerThroughput.class);
+    }
+
+    private static final int THREAD_COUNT = 64;
+    private static final int WARMUP_CYCLES_PER_THREAD = 1000;
+    private static final int MEASURED_CYCLES_PER_THREAD = 20000;
+
+    private HBaseTestingUtility hbTestUtil;
+
+    private HBaseContext buildContext(final String contextId) {
+        return MiniClusterTestHBaseContext
+                   .getBuilder()
+                       .id(TestResourceManagerThroughput.class.getSimpleName() + "-" + contextId)
+                       .hbTestUtil(this.hbTestUtil)
+                       .build();
+    }
+
+    /**
+     * Run the given number of borrow/release cycles on each of the threads, all starting
+     * together.
+     * @return elapsed time (nanoseconds)
+     */
+    private static long runCycles(final HBaseResourceManager resMgr, final HBaseContext context, final int cyclesPerThread) throws Exception {
+        final ExecutorService threads;
+        final CountDownLatch start;
+        final List<Future<?>> results;
+        final long startNanos;
+        final long elapsedNanos;
+
+        threads = Executors.newFixedThreadPool(THREAD_COUNT);
+        start = new CountDownLatch(1);
+        results = new ArrayList<>(THREAD_COUNT);
+        try {
+            for (int threadIndex = 0; threadIndex < THREAD_COUNT; threadIndex++) {
+                results.add(threads.submit(()->{
+                    start.await();
+                    for (int cycle = 0; cycle < cyclesPerThread; cycle++) {
+                        try (ManagedTable mTable = resMgr.borrow(context, TEST_MODEL_A)) {
+                            Assert.assertNotNull(mTable.use());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            startNanos = System.nanoTime();
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+            elapsedNanos = System.nanoTime() - startNanos;
+        } finally {
+            threads.shutdownNow();
+        }
+        return elapsedNanos;
+    }
+
+    private void measure(final HBaseResourceManager resMgr) throws Exception {
+        final HBaseContext context;
+        final long elapsedNanos;
+        final long cycles;
+
+        context = buildContext(resMgr.getClass().getSimpleName());
+        try {
+            runCycles(resMgr, context, WARMUP_CYCLES_PER_THREAD);
+            elapsedNanos = runCycles(resMgr, context, MEASURED_CYCLES_PER_THREAD);
+            cycles = ((long) THREAD_COUNT) * MEASURED_CYCLES_PER_THREAD;
+            LOG.info(resMgr.getClass().getSimpleName()
+                     + ": threads="
+                     + THREAD_COUNT
+                     + ", borrow/release cycles="
+                     + cycles
+                     + ", elapsed="
+                     + TimeUnit.NANOSECONDS.toMillis(elapsedNanos)
+                     + "ms, throughput="
+                     + ((cycles * TimeUnit.SECONDS.toNanos(1)) / Math.max(1L, elapsedNanos))
+                     + "/s, mean="
+                     + (elapsedNanos * THREAD_COUNT / cycles)
+                     + "ns");
+        } finally {
+            context.closeConnection();
+        }
+    }
+
+    @BeforeClass
+    public void setup() throws Exception {
+        LOG.info("Starting mini-cluster...");
+        this.hbTestUtil = new HBaseTestingUtility();
+        this.hbTestUtil.startMiniCluster();
+        LOG.info("Mini-cluster started; creating table " + TEST_MODEL_A + "...");
+        try (HBaseControl setupCtrl =
+                 new HBaseControl(buildContext("setup"), SimpleHBaseResourceManager.INSTANCE)) {
+            setupCtrl.prewarm(TEST_MODEL_A);
+        }
+        LOG.info("Table created");
+    }
+
+    @Test
+    public void compareResourceManagers() throws Exception {
+        measure(SimpleHBaseResourceManager.INSTANCE);
+        measure(PoolingHBaseResourceManager.INSTANCE);
+        measure(ThreadAffineHBaseResourceManager.INSTANCE);
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        LOG.info("Shutting down mini-cluster...");
+        this.hbTestUtil.shutdownMiniCluster();
+        LOG.info("Mini-cluster shut down");
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.integrationtest;
+
+import com.liaison.javabasics.logging.JitLog;
+import com.liaison.shachi.HBaseControl;
+import com.liaison.shachi.api.request.impl.ReadOpSpecDefault;
+import com.liaison.shachi.context.DefaultHBaseContext;
+import com.liaison.shachi.dto.RowKey;
+import com.liaison.shachi.resmgr.PoolingHBaseResourceManager;
+import org.apache.hadoop.conf.Configuration;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.FAM_MODEL_a;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.HANDLE_TESTREAD_1;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.QUAL_MODEL_Z;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.TEST_MODEL_A;
+
+/**
+ * Measurement of the number of bytes allocated to specify (and freeze) a simple operation, per
+ * the thread allocation counter of the JVM. Nothing is read or written, so no cluster is
+ * required. The result is logged (not asserted, as it depends upon how much of the logging the
+ * JIT compiler eliminates, and therefore upon the JVM and environment); for reference, specifying
+ * and freezing a single-column READ has measured roughly 950-1200 bytes, and eagerly creating the
+ * collections of each spec (lists of subordinates, maps of cached string representations, column
+ * association maps) adds about 600.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public class TestSpecAllocation {
+
+    private static final JitLog LOG;
+    static {
+        LOG = new JitLog(TestSpecAllocation.class);
+    }
+
+    private static final int WARMUP_ITERATIONS = 20000;
+    private static final int MEASURED_ITERATIONS = 20000;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private static long allocatedBytes(final ThreadMXBean threadBean) {
+        return
+            ((com.sun.management.ThreadMXBean) threadBean)
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static ReadOpSpecDefault specifyRead(final HBaseControl ctrl, final RowKey rowKey) {
+        return (ReadOpSpecDefault)
+            ctrl
+                .begin()
+                    .read(HANDLE_TESTREAD_1)
+                        .from()
+                            .tbl(TEST_MODEL_A)
+                            .row(rowKey)
+                            .and()
+                        .with()
+                            .fam(FAM_MODEL_a)
+                            .qual(QUAL_MODEL_Z)
+                            .and();
+    }
+
+    @Test
+    public void testSingleColumnReadAllocation() throws Exception {
+        final ThreadMXBean threadBean;
+        final RowKey rowKey;
+        long startBytes;
+        long bytesPerOp;
+
+        threadBean = ManagementFactory.getThreadMXBean();
+        if ((!(threadBean instanceof com.sun.management.ThreadMXBean))
+            || (!((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported())) {
+            throw new SkipException("Per-thread allocation counter not supported by this JVM");
+        }
+        rowKey = RowKey.of("allocation-row");
+        try (HBaseControl ctrl =
+                 new HBaseControl(DefaultHBaseContext
+                                      .getBuilder()
+                                      .id(TestSpecAllocation.class.getSimpleName())
+                                      .configProvider(Configuration::new)
+                                      .build(),
+                                  PoolingHBaseResourceManager.INSTANCE)) {
+            for (int iteration = 0; iteration < WARMUP_ITERATIONS; iteration++) {
+                specifyRead(ctrl, rowKey).freezeRecursive();
+            }
+            // the least of several rounds, to discount allocations not made by the operations
+            bytesPerOp = Long.MAX_VALUE;
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                startBytes = allocatedBytes(threadBean);
+                for (int iteration = 0; iteration < MEASURED_ITERATIONS; iteration++) {
+                    specifyRead(ctrl, rowKey).freezeRecursive();
+                }
+                bytesPerOp =
+                    Math.min(bytesPerOp,
+                             (allocatedBytes(threadBean) - startBytes) / MEASURED_ITERATIONS);
+            }
+        }
+        LOG.info("Specifying and freezing a single-column READ: allocated="
+                 + bytesPerOp
+                 + " bytes/op");
+    }
+}
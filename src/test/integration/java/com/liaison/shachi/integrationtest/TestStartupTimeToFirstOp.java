@@ -0,0 +1,138 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.integrationtest;
+
+import com.liaison.javabasics.logging.JitLog;
+import com.liaison.shachi.HBaseControl;
+import com.liaison.shachi.context.MiniClusterTestHBaseContext;
+import com.liaison.shachi.context.pool.PoolSizing;
+import com.liaison.shachi.context.pool.ResourcePoolPolicyDefault;
+import com.liaison.shachi.dto.RowKey;
+import com.liaison.shachi.dto.Value;
+import com.liaison.shachi.exception.HBaseException;
+import com.liaison.shachi.resmgr.PoolingHBaseResourceManager;
+import org.apache.hadoop.hbase.HBaseTestingUtility;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.FAM_MODEL_a;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.HANDLE_TESTWRITE_1;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.QUAL_MODEL_Z;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.TEST_MODEL_A;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.TS_SAMPLE_1;
+
+/**
+ * Startup benchmark: measures the time to complete the first operation issued through a newly
+ * built {@link HBaseControl}, with and without first calling {@link HBaseControl#prewarm}. Each
+ * control is built over its own context (and therefore its own connection and pools); the table
+ * is created beforehand, so that neither measurement includes table creation. Timings are
+ * logged, not asserted, as they depend upon the environment.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public class TestStartupTimeToFirstOp {
+
+    private static final JitLog LOG;
+    static {
+        LOG = new JitLog(TestStartupTimeToFirstOp.class);
+    }
+
+    private HBaseTestingUtility hbTestUtil;
+
+    private HBaseControl buildControl(final String contextId) {
+        return new HBaseControl(
+            MiniClusterTestHBaseContext
+                .getBuilder()
+                    .id(TestStartupTimeToFirstOp.class.getSimpleName() + "-" + contextId)
+                    .hbTestUtil(this.hbTestUtil)
+                    .resourcePoolPolicy(
+                        ResourcePoolPolicyDefault
+                            .getBuilder()
+                                .tableSizing(PoolSizing.getBuilder().minIdle(4).build())
+                                .build())
+                    .build(),
+            PoolingHBaseResourceManager.INSTANCE
+        );
+    }
+
+    private static long timeFirstWrite(final HBaseControl ctrl) throws HBaseException {
+        final long startNanos;
+
+        startNanos = System.nanoTime();
+        ctrl
+            .begin()
+                .write(HANDLE_TESTWRITE_1)
+                    .on()
+                        .tbl(TEST_MODEL_A)
+                        .row(RowKey.of(Long.toString(startNanos)))
+                        .and()
+                    .with()
+                        .fam(FAM_MODEL_a)
+                        .qual(QUAL_MODEL_Z)
+                        .ts(TS_SAMPLE_1)
+                        .value(Value.of("first-op"))
+                        .and()
+                    .then()
+                .exec();
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    @BeforeClass
+    public void setup() throws Exception {
+        LOG.info("Starting mini-cluster...");
+        this.hbTestUtil = new HBaseTestingUtility();
+        this.hbTestUtil.startMiniCluster();
+        LOG.info("Mini-cluster started; creating table " + TEST_MODEL_A + "...");
+        try (HBaseControl setupCtrl = buildControl("setup")) {
+            timeFirstWrite(setupCtrl);
+        }
+        LOG.info("Table created");
+    }
+
+    @Test
+    public void timeToFirstOp() throws Exception {
+        final long coldMillis;
+        final long prewarmMillis;
+        final long warmMillis;
+        final long startNanos;
+
+        try (HBaseControl coldCtrl = buildControl("cold")) {
+            coldMillis = timeFirstWrite(coldCtrl);
+        }
+        try (HBaseControl warmCtrl = buildControl("warm")) {
+            startNanos = System.nanoTime();
+            warmCtrl.prewarm(TEST_MODEL_A);
+            prewarmMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            warmMillis = timeFirstWrite(warmCtrl);
+        }
+        LOG.info("time-to-first-op (ms): cold="
+                 + coldMillis
+                 + ", pre-warmed="
+                 + warmMillis
+                 + " (after prewarm of "
+                 + prewarmMillis
+                 + ")");
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        LOG.info("Shutting down mini-cluster...");
+        this.hbTestUtil.shutdownMiniCluster();
+        LOG.info("Mini-cluster shut down");
+    }
+}
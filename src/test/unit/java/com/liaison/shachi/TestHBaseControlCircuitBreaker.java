@@ -0,0 +1,126 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi;
+
+import com.liaison.shachi.api.request.impl.PreparedWrite;
+import com.liaison.shachi.context.DefaultHBaseContext;
+import com.liaison.shachi.context.HBaseContext;
+import com.liaison.shachi.context.breaker.CircuitBreaker;
+import com.liaison.shachi.context.breaker.CircuitBreakerPolicyDefault;
+import com.liaison.shachi.dto.RowKey;
+import com.liaison.shachi.dto.Value;
+import com.liaison.shachi.exception.HBaseException;
+import com.liaison.shachi.testutil.MockupHBaseResourceManager;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.Put;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.FAM_MODEL_a;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.HANDLE_TESTWRITE_1;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.QUAL_MODEL_Z;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.TEST_MODEL_A;
+
+/**
+ * Circuit breaking of operations executed via the controller, with HBase replaced by a mocked
+ * HTable.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public class TestHBaseControlCircuitBreaker {
+
+    private static final int MINIMUM_CALLS = 4;
+
+    private static HBaseContext buildContext(final String contextId) {
+        return
+            DefaultHBaseContext
+                .getBuilder()
+                .id(TestHBaseControlCircuitBreaker.class.getSimpleName() + "-" + contextId)
+                .configProvider(Configuration::new)
+                .circuitBreakerPolicy(CircuitBreakerPolicyDefault
+                                          .getBuilder()
+                                          .enabled()
+                                          .failureRateThreshold(0.5)
+                                          .minimumCalls(MINIMUM_CALLS)
+                                          .windowSize(10)
+                                          .openDurationMillis(0L)
+                                          .halfOpenTrialCalls(1)
+                                          .build())
+                .build();
+    }
+
+    private static void assertWriteFails(final PreparedWrite prepWrite) {
+        try {
+            prepWrite.exec(RowKey.of("circuit-row"), new Object[] {Value.of("circuit-value")});
+            Assert.fail("WRITE should have failed");
+        } catch (HBaseException hbExc) {
+            // expected
+        }
+    }
+
+    /**
+     * A prepared WRITE failing with an unexpected (unchecked, non-HBase) exception during the
+     * HALF_OPEN trial must report its outcome, returning the single trial permit, rather than
+     * leaving the breaker HALF_OPEN with no permits to grant.
+     */
+    @Test
+    public void testPreparedWriteUnexpectedFailureReturnsTrialPermit() throws Exception {
+        final AtomicReference<Exception> failure;
+        final HTable table;
+        final MockupHBaseResourceManager resMgr;
+        final PreparedWrite prepWrite;
+        CircuitBreaker breaker;
+
+        failure = new AtomicReference<>(new IOException("I/O failure"));
+        table = Mockito.mock(HTable.class);
+        Mockito.doAnswer((invocation)->{
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+            return null;
+        }).when(table).put(Mockito.anyListOf(Put.class));
+        resMgr = new MockupHBaseResourceManager(table);
+        try (HBaseControl ctrl = new HBaseControl(buildContext("prepwrite"), resMgr)) {
+            prepWrite =
+                ctrl
+                    .prepareWrite(HANDLE_TESTWRITE_1)
+                    .tbl(TEST_MODEL_A)
+                    .column(FAM_MODEL_a, QUAL_MODEL_Z)
+                    .build();
+            for (int index = 0; index < MINIMUM_CALLS; index++) {
+                assertWriteFails(prepWrite);
+            }
+            breaker = ctrl.getCircuitBreaker(TEST_MODEL_A);
+            Assert.assertNotNull(breaker);
+            Assert.assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+
+            // the trial (permitted at once, as the open duration is zero) fails unexpectedly
+            failure.set(new IllegalStateException("unexpected failure"));
+            assertWriteFails(prepWrite);
+            Assert.assertEquals(breaker.getState(), CircuitBreaker.State.HALF_OPEN);
+
+            // the trial permit was returned, so another trial is permitted, and closes the breaker
+            failure.set(null);
+            prepWrite.exec(RowKey.of("circuit-row"), new Object[] {Value.of("circuit-value")});
+            Assert.assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+            Assert.assertEquals(resMgr.getOutstandingCount(), 0);
+        }
+    }
+}
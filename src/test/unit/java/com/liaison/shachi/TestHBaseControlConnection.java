@@ -0,0 +1,182 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi;
+
+import com.liaison.shachi.context.DefaultHBaseContext;
+import com.liaison.shachi.context.HBaseContext;
+import com.liaison.shachi.dto.RowKey;
+import com.liaison.shachi.resmgr.res.ManagedTable;
+import com.liaison.shachi.testutil.MockupHBaseResourceManager;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.HConnection;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.Result;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.FAM_MODEL_a;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.HANDLE_TESTREAD_1;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.QUAL_MODEL_Z;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.TEST_MODEL_A;
+
+/**
+ * Sharing of a context's HBase connection among the controllers which use the context, with the
+ * connection and HBase tables replaced by mocks.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public class TestHBaseControlConnection {
+
+    private static HBaseContext buildContext(final String contextId, final HConnection conn) {
+        return
+            new DefaultHBaseContext(DefaultHBaseContext
+                                        .getBuilder()
+                                        .id(TestHBaseControlConnection.class.getSimpleName()
+                                            + "-"
+                                            + contextId)
+                                        .configProvider(Configuration::new)) {
+                @Override
+                protected HConnection createConnection(final Configuration config, final ExecutorService batchPool) {
+                    return conn;
+                }
+            };
+    }
+
+    private static HTable mockupTable() throws Exception {
+        final HTable table;
+        table = Mockito.mock(HTable.class);
+        Mockito.when(table.get(Mockito.any(Get.class))).thenReturn(Result.create(new Cell[0]));
+        return table;
+    }
+
+    private static void read(final HBaseControl ctrl) throws Exception {
+        ctrl
+            .begin()
+                .read(HANDLE_TESTREAD_1)
+                    .from()
+                        .tbl(TEST_MODEL_A)
+                        .row(RowKey.of("connection-row"))
+                        .and()
+                    .with()
+                        .fam(FAM_MODEL_a)
+                        .qual(QUAL_MODEL_Z)
+                        .and()
+                .then()
+            .exec();
+    }
+
+    @Test
+    public void testCloseOneOfTwoControls() throws Exception {
+        final HConnection conn;
+        final HBaseContext context;
+        final MockupHBaseResourceManager resMgr;
+        final HBaseControl ctrlA;
+        final HBaseControl ctrlB;
+        final long generation;
+
+        conn = Mockito.mock(HConnection.class);
+        context = buildContext("two", conn);
+        resMgr = new MockupHBaseResourceManager(mockupTable());
+        ctrlA = new HBaseControl(context, resMgr);
+        ctrlB = new HBaseControl(context, resMgr);
+        Assert.assertSame(context.getConnection(), conn);
+        generation = context.getConnectionGeneration();
+
+        ctrlA.close();
+        Mockito.verify(conn, Mockito.never()).close();
+        Assert.assertEquals(resMgr.getEvictCount(), 0);
+        Assert.assertEquals(context.getConnectionGeneration(), generation);
+        Assert.assertSame(context.getConnection(), conn);
+        read(ctrlB);
+        Assert.assertEquals(resMgr.getOutstandingCount(), 0);
+
+        // closing the same controller again must not release the other controller's use
+        ctrlA.close();
+        Mockito.verify(conn, Mockito.never()).close();
+
+        ctrlB.close();
+        Mockito.verify(conn, Mockito.times(1)).close();
+        Assert.assertEquals(resMgr.getEvictCount(), 1);
+        Assert.assertNotEquals(context.getConnectionGeneration(), generation);
+    }
+
+    @Test
+    public void testResourceStaleAfterLastClose() throws Exception {
+        final HBaseContext context;
+        final MockupHBaseResourceManager resMgr;
+        final HBaseControl ctrlA;
+        final HBaseControl ctrlB;
+        final ManagedTable mTable;
+
+        context = buildContext("stale", Mockito.mock(HConnection.class));
+        resMgr = new MockupHBaseResourceManager(mockupTable());
+        ctrlA = new HBaseControl(context, resMgr);
+        ctrlB = new HBaseControl(context, resMgr);
+        context.getConnection();
+        mTable = resMgr.borrow(context, TEST_MODEL_A);
+
+        ctrlA.close();
+        Assert.assertFalse(mTable.isConnectionStale());
+        ctrlB.close();
+        Assert.assertTrue(mTable.isConnectionStale());
+    }
+
+    @Test
+    public void testReopenAfterLastClose() throws Exception {
+        final HConnection conn;
+        final HBaseContext context;
+        final MockupHBaseResourceManager resMgr;
+        final HBaseControl firstCtrl;
+
+        conn = Mockito.mock(HConnection.class);
+        context = buildContext("reopen", conn);
+        resMgr = new MockupHBaseResourceManager(mockupTable());
+        firstCtrl = new HBaseControl(context, resMgr);
+        context.getConnection();
+        firstCtrl.close();
+        Mockito.verify(conn, Mockito.times(1)).close();
+
+        // a controller created afterward establishes the connection anew, and closes it in turn
+        try (HBaseControl ctrl = new HBaseControl(context, resMgr)) {
+            Assert.assertSame(context.getConnection(), conn);
+            read(ctrl);
+        }
+        Mockito.verify(conn, Mockito.times(2)).close();
+    }
+
+    @Test
+    public void testCloseFailureNotPropagated() throws Exception {
+        final HConnection conn;
+        final HBaseContext context;
+        final MockupHBaseResourceManager resMgr;
+        final HBaseControl ctrl;
+
+        conn = Mockito.mock(HConnection.class);
+        Mockito.doThrow(new IOException("close failure")).when(conn).close();
+        context = buildContext("failure", conn);
+        resMgr = new MockupHBaseResourceManager(mockupTable());
+        ctrl = new HBaseControl(context, resMgr);
+        context.getConnection();
+        ctrl.close();
+        Mockito.verify(conn, Mockito.times(1)).close();
+        Assert.assertEquals(resMgr.getEvictCount(), 1);
+    }
+}
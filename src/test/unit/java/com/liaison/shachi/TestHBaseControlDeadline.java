@@ -0,0 +1,228 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi;
+
+import com.liaison.shachi.api.response.OpResultSet;
+import com.liaison.shachi.context.DefaultHBaseContext;
+import com.liaison.shachi.context.HBaseContext;
+import com.liaison.shachi.context.batch.MicroBatchPolicyDefault;
+import com.liaison.shachi.context.hedge.HedgingPolicyDefault;
+import com.liaison.shachi.dto.RowKey;
+import com.liaison.shachi.exception.HBaseDeadlineExceededException;
+import com.liaison.shachi.testutil.MockupHBaseResourceManager;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Row;
+import org.mockito.ArgumentMatcher;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.FAM_MODEL_a;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.HANDLE_TESTREAD_1;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.QUAL_MODEL_Z;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.TEST_MODEL_A;
+
+/**
+ * Deadlines assigned via {@link com.liaison.shachi.api.request.OperationController#timeout}, with
+ * HBase replaced by a mocked HTable.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public class TestHBaseControlDeadline {
+
+    private static final int TABLE_OPERATION_TIMEOUT_MILLIS = 30000;
+
+    private static HBaseContext buildContext(final String contextId, final boolean hedge) {
+        final DefaultHBaseContext.Builder build;
+        build =
+            DefaultHBaseContext
+                .getBuilder()
+                .id(TestHBaseControlDeadline.class.getSimpleName() + "-" + contextId)
+                .configProvider(Configuration::new);
+        if (hedge) {
+            build.hedgingPolicy(HedgingPolicyDefault
+                                    .getBuilder()
+                                    .enabled()
+                                    .initialDelayMillis(1L)
+                                    .build());
+        }
+        return build.build();
+    }
+
+    private static HBaseContext buildBatchingContext(final String contextId) {
+        return
+            DefaultHBaseContext
+                .getBuilder()
+                .id(TestHBaseControlDeadline.class.getSimpleName() + "-" + contextId)
+                .configProvider(Configuration::new)
+                .microBatchPolicy(MicroBatchPolicyDefault.getBuilder().enabled().build())
+                .build();
+    }
+
+    private static HTable mockupTable(final long getDelayMillis) throws Exception {
+        final HTable table;
+        table = Mockito.mock(HTable.class);
+        Mockito.when(table.getOperationTimeout()).thenReturn(TABLE_OPERATION_TIMEOUT_MILLIS);
+        Mockito.when(table.get(Mockito.any(Get.class))).thenAnswer((invocation)->{
+            if (getDelayMillis > 0) {
+                Thread.sleep(getDelayMillis);
+            }
+            return Result.create(new Cell[0]);
+        });
+        return table;
+    }
+
+    private static OpResultSet read(final HBaseControl ctrl, final long timeoutMillis) throws Exception {
+        return
+            ctrl
+                .begin()
+                .timeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                    .read(HANDLE_TESTREAD_1)
+                        .from()
+                            .tbl(TEST_MODEL_A)
+                            .row(RowKey.of("deadline-row"))
+                            .and()
+                        .with()
+                            .fam(FAM_MODEL_a)
+                            .qual(QUAL_MODEL_Z)
+                            .and()
+                    .then()
+                .exec();
+    }
+
+    @Test
+    public void testExpiredBeforeBorrow() throws Exception {
+        final MockupHBaseResourceManager resMgr;
+
+        resMgr = new MockupHBaseResourceManager(mockupTable(0L));
+        try (HBaseControl ctrl = new HBaseControl(buildContext("borrow", false), resMgr)) {
+            Thread.sleep(2L);
+            try {
+                ctrl
+                    .begin()
+                    .timeout(1L, TimeUnit.NANOSECONDS)
+                        .read(HANDLE_TESTREAD_1)
+                            .from()
+                                .tbl(TEST_MODEL_A)
+                                .row(RowKey.of("deadline-row"))
+                                .and()
+                            .with()
+                                .fam(FAM_MODEL_a)
+                                .qual(QUAL_MODEL_Z)
+                                .and()
+                        .then()
+                    .exec();
+                Assert.fail("READ executed despite an expired deadline");
+            } catch (HBaseDeadlineExceededException exc) {
+                // expected
+            }
+            Assert.assertEquals(resMgr.getBorrowCount(),
+                                0,
+                                "Table borrowed after the deadline expired");
+        }
+    }
+
+    @Test
+    public void testExpiredAwaitingHedgedResult() throws Exception {
+        final MockupHBaseResourceManager resMgr;
+        final long startNanos;
+        final long elapsedMillis;
+
+        resMgr = new MockupHBaseResourceManager(mockupTable(2000L));
+        try (HBaseControl ctrl = new HBaseControl(buildContext("hedge", true), resMgr)) {
+            startNanos = System.nanoTime();
+            try {
+                read(ctrl, 100L);
+                Assert.fail("Hedged READ completed despite outliving its deadline");
+            } catch (HBaseDeadlineExceededException exc) {
+                // expected
+            }
+            elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            Assert.assertTrue(elapsedMillis < 1000L,
+                              "Caller not released at the deadline; waited " + elapsedMillis + "ms");
+            Assert.assertEquals(ctrl.getHedgeMetrics().getHedgeableReadCount(), 1L);
+        }
+    }
+
+    @Test
+    public void testOperationTimeoutRestored() throws Exception {
+        final MockupHBaseResourceManager resMgr;
+        final HTable table;
+        final InOrder order;
+
+        table = mockupTable(0L);
+        resMgr = new MockupHBaseResourceManager(table);
+        try (HBaseControl ctrl = new HBaseControl(buildContext("restore", false), resMgr)) {
+            read(ctrl, 5000L);
+        }
+        order = Mockito.inOrder(table);
+        // capped to the time remaining, then restored to the table's own timeout before release
+        order.verify(table).setOperationTimeout(Mockito.intThat(new ArgumentMatcher<Integer>() {
+            @Override
+            public boolean matches(final Object timeout) {
+                return (((Integer) timeout).intValue() > 0)
+                       && (((Integer) timeout).intValue() <= 5000);
+            }
+        }));
+        order.verify(table).get(Mockito.any(Get.class));
+        order.verify(table).setOperationTimeout(TABLE_OPERATION_TIMEOUT_MILLIS);
+        Assert.assertTrue(resMgr.getLastMaxWaitMillis() <= 5000L,
+                          "Borrow wait not bounded by the deadline");
+        Assert.assertEquals(resMgr.getOutstandingCount(), 0, "Table not returned");
+    }
+
+    @Test
+    public void testBatchedOperationTimeoutRestored() throws Exception {
+        final MockupHBaseResourceManager resMgr;
+        final HTable table;
+        final InOrder order;
+
+        table = mockupTable(0L);
+        Mockito.doAnswer((invocation)->{
+            final Object[] results;
+            results = (Object[]) invocation.getArguments()[1];
+            for (int index = 0; index < results.length; index++) {
+                results[index] = Result.create(new Cell[0]);
+            }
+            return null;
+        }).when(table).batch(Mockito.anyListOf(Row.class), Mockito.any(Object[].class));
+        resMgr = new MockupHBaseResourceManager(table);
+        try (HBaseControl ctrl = new HBaseControl(buildBatchingContext("batch"), resMgr)) {
+            read(ctrl, 5000L);
+        }
+        order = Mockito.inOrder(table);
+        // the batch call is subject to the deadline of the (only) operation in the batch
+        order.verify(table).setOperationTimeout(Mockito.intThat(new ArgumentMatcher<Integer>() {
+            @Override
+            public boolean matches(final Object timeout) {
+                return (((Integer) timeout).intValue() > 0)
+                       && (((Integer) timeout).intValue() <= 5000);
+            }
+        }));
+        order.verify(table).batch(Mockito.anyListOf(Row.class), Mockito.any(Object[].class));
+        order.verify(table).setOperationTimeout(TABLE_OPERATION_TIMEOUT_MILLIS);
+        Assert.assertTrue((resMgr.getLastMaxWaitMillis() >= 0L)
+                          && (resMgr.getLastMaxWaitMillis() <= 5000L),
+                          "Borrow wait for batch not bounded by the deadline");
+        Assert.assertEquals(resMgr.getOutstandingCount(), 0, "Table not returned");
+    }
+}
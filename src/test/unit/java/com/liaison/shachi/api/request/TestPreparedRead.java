@@ -0,0 +1,183 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.api.request;
+
+import com.liaison.shachi.HBaseControl;
+import com.liaison.shachi.api.request.impl.PreparedRead;
+import com.liaison.shachi.context.DefaultHBaseContext;
+import com.liaison.shachi.dto.PackedCellSet;
+import com.liaison.shachi.dto.RowKey;
+import com.liaison.shachi.testutil.MockupHBaseResourceManager;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.NavigableSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.COLUMNFAMILY_a;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.COLUMNQUAL_Z;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.FAM_MODEL_a;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.HANDLE_TESTREAD_1;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.QUAL_MODEL_Z;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.TEST_MODEL_A;
+
+/**
+ * GETs issued by a {@link PreparedRead}, with HBase replaced by a mocked HTable.
+ */
+public class TestPreparedRead {
+
+    private static final String COLUMN_HANDLE_QUAL = "qual-Z";
+    private static final String COLUMN_HANDLE_FAMILY = "family-a";
+    private static final long AWAIT_MILLIS = 10000L;
+
+    private static HTable mockupTable() throws Exception {
+        final HTable table;
+        table = Mockito.mock(HTable.class);
+        Mockito.when(table.get(Mockito.any(Get.class))).thenReturn(Result.create(new Cell[0]));
+        return table;
+    }
+
+    private static HBaseControl buildControl(final HTable table, final boolean coalesceReads) {
+        return
+            new HBaseControl(DefaultHBaseContext
+                                 .getBuilder()
+                                 .id(TestPreparedRead.class.getSimpleName())
+                                 .configProvider(Configuration::new)
+                                 .coalesceReads(coalesceReads)
+                                 .build(),
+                             new MockupHBaseResourceManager(table));
+    }
+
+    private static HBaseControl buildControl(final HTable table) {
+        return buildControl(table, false);
+    }
+
+    private static PreparedRead prepareTwoColumns(final HBaseControl ctrl) throws Exception {
+        return
+            ctrl.prepareRead(HANDLE_TESTREAD_1,
+                             TEST_MODEL_A,
+                             (spec)->spec
+                                 .with(COLUMN_HANDLE_QUAL)
+                                     .fam(FAM_MODEL_a)
+                                     .qual(QUAL_MODEL_Z)
+                                     .optional()
+                                     .and()
+                                 .with(COLUMN_HANDLE_FAMILY)
+                                     .fam(FAM_MODEL_a)
+                                     .optional()
+                                     .and());
+    }
+
+    private static Get lastGet(final HTable table) throws Exception {
+        final ArgumentCaptor<Get> getCaptor;
+        getCaptor = ArgumentCaptor.forClass(Get.class);
+        Mockito.verify(table, Mockito.atLeastOnce()).get(getCaptor.capture());
+        return getCaptor.getValue();
+    }
+
+    @Test
+    public void testPackedReadFetchesOnlyItsColumn() throws Exception {
+        final HTable table;
+        final PreparedRead prepared;
+        final Get issued;
+        final NavigableSet<byte[]> qualifiers;
+
+        table = mockupTable();
+        try (HBaseControl ctrl = buildControl(table)) {
+            prepared = prepareTwoColumns(ctrl);
+            prepared.execPacked(RowKey.of("packed-row"), COLUMN_HANDLE_QUAL);
+            issued = lastGet(table);
+        }
+        Assert.assertEquals(issued.getFamilyMap().size(), 1);
+        qualifiers = issued.getFamilyMap().get(Bytes.toBytes(COLUMNFAMILY_a));
+        Assert.assertNotNull(qualifiers, "Packed READ of a single qualifier read the full family");
+        Assert.assertEquals(qualifiers.size(), 1);
+        Assert.assertTrue(Bytes.equals(qualifiers.first(), Bytes.toBytes(COLUMNQUAL_Z)));
+    }
+
+    @Test
+    public void testPackedReadOfFamily() throws Exception {
+        final HTable table;
+        final PreparedRead prepared;
+        final Get issued;
+
+        table = mockupTable();
+        try (HBaseControl ctrl = buildControl(table)) {
+            prepared = prepareTwoColumns(ctrl);
+            prepared.execPacked(RowKey.of("packed-row"), COLUMN_HANDLE_FAMILY);
+            issued = lastGet(table);
+        }
+        Assert.assertEquals(issued.getFamilyMap().size(), 1);
+        Assert.assertNull(issued.getFamilyMap().get(Bytes.toBytes(COLUMNFAMILY_a)),
+                          "Packed READ of a full family restricted to qualifiers");
+    }
+
+    @Test
+    public void testPackedReadDoesNotCoalesceWithFullRead() throws Exception {
+        final HTable table;
+        final AtomicInteger getCount;
+        final CountDownLatch fullReadStarted;
+        final CountDownLatch release;
+        final ExecutorService threads;
+        final PreparedRead prepared;
+        final Future<?> fullRead;
+        final Future<PackedCellSet> packedRead;
+
+        table = Mockito.mock(HTable.class);
+        getCount = new AtomicInteger(0);
+        fullReadStarted = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        Mockito.doAnswer((invocation)->{
+            // hold the first (full) READ in flight until the packed READ has completed
+            if (getCount.incrementAndGet() == 1) {
+                fullReadStarted.countDown();
+                release.await(AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            return Result.create(new Cell[0]);
+        }).when(table).get(Mockito.any(Get.class));
+        threads = Executors.newFixedThreadPool(2);
+        try (HBaseControl ctrl = buildControl(table, true)) {
+            prepared = prepareTwoColumns(ctrl);
+            fullRead = threads.submit(()->prepared.exec(RowKey.of("shared-row")));
+            Assert.assertTrue(fullReadStarted.await(AWAIT_MILLIS, TimeUnit.MILLISECONDS));
+            // the GET for the full family differs from those of the full READ
+            packedRead =
+                threads.submit(()->prepared.execPacked(RowKey.of("shared-row"),
+                                                       COLUMN_HANDLE_FAMILY));
+            // completes while the full READ of the same row is still in flight
+            Assert.assertNotNull(packedRead.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS));
+            release.countDown();
+            fullRead.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+            Assert.assertEquals(ctrl.getReadCoalescer().getCoalescedCount(), 0L);
+        } finally {
+            release.countDown();
+            threads.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.api.request;
+
+import com.liaison.shachi.HBaseControl;
+import com.liaison.shachi.api.request.impl.PreparedWrite;
+import com.liaison.shachi.context.DefaultHBaseContext;
+import com.liaison.shachi.model.FamilyModel;
+import com.liaison.shachi.model.Name;
+import com.liaison.shachi.model.QualModel;
+import com.liaison.shachi.model.TableModel;
+import com.liaison.shachi.testutil.MockupHBaseResourceManager;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.client.HTable;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.FAM_MODEL_a;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.QUAL_MODEL_Z;
+import static com.liaison.shachi.test.e2e.setup.End2EndSuite1.TEST_MODEL_A;
+
+/**
+ * Validation of the column layout of a {@link PreparedWrite} against its table model.
+ */
+public class TestPreparedWrite {
+
+    private static final String HANDLE_TESTWRITE = "TEST-PREPARED-WRITE";
+    private static final QualModel QUAL_MODEL_Y = QualModel.of(Name.of("Y"));
+    private static final FamilyModel FAM_MODEL_CLOSED =
+        FamilyModel
+            .with(Name.of("c"))
+            .qual(QUAL_MODEL_Z)
+            .closedQualSet(true)
+            .build();
+    private static final TableModel TABLE_CLOSED =
+        TableModel
+            .with(Name.of("TEST_TABLE_CLOSED"))
+            .family(FAM_MODEL_CLOSED)
+            .build();
+
+    private static HBaseControl buildControl() {
+        return
+            new HBaseControl(DefaultHBaseContext
+                                 .getBuilder()
+                                 .id(TestPreparedWrite.class.getSimpleName())
+                                 .configProvider(Configuration::new)
+                                 .build(),
+                             new MockupHBaseResourceManager(Mockito.mock(HTable.class)));
+    }
+
+    @Test
+    public void testColumnOfModelAccepted() throws Exception {
+        final PreparedWrite prepared;
+        try (HBaseControl ctrl = buildControl()) {
+            prepared =
+                ctrl.prepareWrite(HANDLE_TESTWRITE)
+                    .tbl(TABLE_CLOSED)
+                    .column(FAM_MODEL_CLOSED, QUAL_MODEL_Z)
+                    .build();
+        }
+        Assert.assertEquals(prepared.getColumnCount(), 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testFamilyNotInModelRejected() throws Exception {
+        try (HBaseControl ctrl = buildControl()) {
+            ctrl.prepareWrite(HANDLE_TESTWRITE)
+                .tbl(TEST_MODEL_A)
+                .column(FAM_MODEL_CLOSED, QUAL_MODEL_Z)
+                .build();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testQualNotInClosedFamilyRejected() throws Exception {
+        try (HBaseControl ctrl = buildControl()) {
+            ctrl.prepareWrite(HANDLE_TESTWRITE)
+                .tbl(TABLE_CLOSED)
+                .column(FAM_MODEL_CLOSED, QUAL_MODEL_Y)
+                .build();
+        }
+    }
+
+    @Test
+    public void testQualOutsideOpenFamilyAccepted() throws Exception {
+        final PreparedWrite prepared;
+        try (HBaseControl ctrl = buildControl()) {
+            prepared =
+                ctrl.prepareWrite(HANDLE_TESTWRITE)
+                    .tbl(TEST_MODEL_A)
+                    .column(FAM_MODEL_a, QUAL_MODEL_Y)
+                    .build();
+        }
+        Assert.assertEquals(prepared.getColumnCount(), 1);
+    }
+}
@@ -16,8 +16,17 @@
 
 package com.liaison.shachi.api.request;
 
+import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
+import com.liaison.shachi.api.request.frozen.RowSpecFrozen;
+import com.liaison.shachi.dto.RowKey;
+import com.liaison.shachi.model.Name;
+import com.liaison.shachi.model.TableModel;
+import com.liaison.shachi.testutil.TestingUtil;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Branden Smith; Liaison Technologies, Inc.
  * Created 2015.08.26 18:38
@@ -68,4 +77,60 @@ public class TestRowSpec {
     public void testGetParent() throws Exception {
 
     }
+
+    @Test
+    public void testLiteralizedRowKeyCachedAtFreeze() throws Exception {
+        final AtomicInteger literalizeCount;
+        final TableModel table;
+        final TestingUtil.MockupConcreteTableRowOpSpec opSpec;
+        final RowSpecFrozen rowSpec;
+        final byte[] cached;
+
+        literalizeCount = new AtomicInteger();
+        table =
+            TableModel
+                .with(Name.of("salted"))
+                .saltRows((rowKey) -> {
+                    literalizeCount.incrementAndGet();
+                    return rowKey.getValue(DefensiveCopyStrategy.ALWAYS);
+                })
+                .build();
+        opSpec = TestingUtil.mockupTableRowOpSec(table, RowKey.of("row1"));
+        rowSpec = opSpec.getTableRow();
+        opSpec.freezeRecursive();
+
+        cached = rowSpec.getLiteralizedRowKeyBytes(DefensiveCopyStrategy.NEVER);
+        Assert.assertSame(rowSpec.getLiteralizedRowKeyBytes(DefensiveCopyStrategy.NEVER), cached);
+        Assert.assertEquals(rowSpec.getLiteralizedRowKeyBytes(), cached);
+        Assert.assertEquals(literalizeCount.get(), 1);
+    }
+
+    @Test
+    public void testFailedLiteralizeLeavesSpecUnfrozen() throws Exception {
+        final TableModel table;
+        final TestingUtil.MockupConcreteTableRowOpSpec opSpec;
+        final RowSpecFrozen rowSpec;
+
+        table =
+            TableModel
+                .with(Name.of("salted"))
+                .saltRows((rowKey) -> {
+                    throw new IllegalStateException("literalize failed");
+                })
+                .build();
+        opSpec = TestingUtil.mockupTableRowOpSec(table, RowKey.of("row1"));
+        rowSpec = opSpec.getTableRow();
+        try {
+            opSpec.freezeRecursive();
+            Assert.fail("Freeze succeeded despite failure to literalize the row key");
+        } catch (IllegalStateException exc) {
+            // expected
+        }
+        try {
+            rowSpec.getLiteralizedRowKeyBytes();
+            Assert.fail("Row spec frozen without a literalized row key");
+        } catch (IllegalStateException exc) {
+            // expected: not frozen
+        }
+    }
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.liaison.shachi.api.response;
+
+import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
+import com.liaison.shachi.api.request.impl.ColSpecRead;
+import com.liaison.shachi.api.request.impl.OperationControllerDefault;
+import com.liaison.shachi.api.request.impl.ReadOpSpecDefault;
+import com.liaison.shachi.context.HBaseContext;
+import com.liaison.shachi.dto.CellDatum;
+import com.liaison.shachi.dto.Datum;
+import com.liaison.shachi.dto.FamilyQualifierPair;
+import com.liaison.shachi.dto.RowKey;
+import com.liaison.shachi.exception.CellDeserializationException;
+import com.liaison.shachi.model.FamilyModel;
+import com.liaison.shachi.model.Name;
+import com.liaison.shachi.model.QualModel;
+import com.liaison.shachi.model.TableModel;
+import com.liaison.shachi.model.ser.CellDeserializer;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+public class TestReadOpResultParallelDeserialization {
+
+    private static final String HANDLE = "PAYLOAD";
+    private static final int CELL_COUNT = 500;
+    private static final int CHUNK_SIZE = 8;
+
+    private ForkJoinPool pool;
+
+    private static ReadOpResult buildResult(final CellDeserializer deserializer) {
+        final FamilyModel family;
+        final QualModel qual;
+        final ReadOpSpecDefault readSpec;
+        final ColSpecRead<ReadOpSpecDefault> colSpec;
+        final ReadOpResult.ReadOpResultBuilder build;
+
+        qual = QualModel.with(Name.of("payload")).deserializer(deserializer).build();
+        family = FamilyModel.with(Name.of("f")).qual(qual).build();
+        readSpec = new ReadOpSpecDefault("READ",
+                                         Mockito.mock(HBaseContext.class),
+                                         Mockito.mock(OperationControllerDefault.class));
+        readSpec
+            .from().tbl(TableModel.with(Name.of("parallel")).family(family).build()).row(RowKey.of("r1")).and()
+            .with(HANDLE).fam(family).qual(qual).and();
+        readSpec.freezeRecursive();
+        colSpec = readSpec.getWithColumn().get(0);
+
+        build = ReadOpResult.getBuilder().origin(readSpec);
+        for (int cellIndex = 0; cellIndex < CELL_COUNT; cellIndex++) {
+            build.add(colSpec,
+                      FamilyQualifierPair.of(family, QualModel.of(Name.of("payload_" + cellIndex))),
+                      Datum.of(Bytes.toBytes(cellIndex), 1000L, DefensiveCopyStrategy.NEVER));
+        }
+        return build.build();
+    }
+
+    @BeforeClass
+    public void setUp() {
+        this.pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public void tearDown() {
+        this.pool.shutdownNow();
+    }
+
+    @Test
+    public void testDeserializeParallelMemoizesEveryCell() throws Exception {
+        final AtomicInteger invocations;
+        final ReadOpResult readRes;
+        final List<CellDatum> cells;
+
+        invocations = new AtomicInteger();
+        readRes = buildResult(value -> {
+            invocations.incrementAndGet();
+            return Integer.valueOf(Bytes.toInt(value));
+        });
+        cells = readRes.deserializeParallel(HANDLE, this.pool, CHUNK_SIZE);
+
+        Assert.assertEquals(cells.size(), CELL_COUNT);
+        Assert.assertEquals(invocations.get(), CELL_COUNT);
+        for (int cellIndex = 0; cellIndex < CELL_COUNT; cellIndex++) {
+            Assert.assertEquals(cells.get(cellIndex).getContent(), Integer.valueOf(cellIndex));
+        }
+        Assert.assertEquals(invocations.get(), CELL_COUNT);
+    }
+
+    @Test
+    public void testParallelStreamPreservesOrder() throws Exception {
+        final ReadOpResult readRes;
+        final List<Object> sequential;
+        final List<Object> parallel;
+
+        readRes = buildResult(value -> Integer.valueOf(Bytes.toInt(value)));
+        sequential = readRes.streamContent(HANDLE, false).collect(Collectors.toList());
+        parallel = readRes.streamContent(HANDLE, true).collect(Collectors.toList());
+
+        Assert.assertEquals(sequential.size(), CELL_COUNT);
+        Assert.assertEquals(parallel, sequential);
+        Assert.assertTrue(readRes.streamData(HANDLE, true).spliterator().trySplit() != null);
+    }
+
+    @Test(expectedExceptions = CellDeserializationException.class)
+    public void testDeserializerFailurePropagates() throws Exception {
+        final ReadOpResult readRes;
+
+        readRes = buildResult(value -> {
+            if (Bytes.toInt(value) == (CELL_COUNT - 1)) {
+                throw new CellDeserializationException("cannot decode last cell");
+            }
+            return Integer.valueOf(Bytes.toInt(value));
+        });
+        readRes.deserializeParallel(HANDLE, this.pool, CHUNK_SIZE);
+    }
+}
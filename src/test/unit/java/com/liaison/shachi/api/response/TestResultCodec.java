@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.liaison.shachi.api.response;
+
+import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
+import com.liaison.shachi.api.request.impl.ColSpecRead;
+import com.liaison.shachi.api.request.impl.OperationControllerDefault;
+import com.liaison.shachi.api.request.impl.ReadOpSpecDefault;
+import com.liaison.shachi.context.HBaseContext;
+import com.liaison.shachi.dto.CellDatum;
+import com.liaison.shachi.dto.Datum;
+import com.liaison.shachi.dto.FamilyQualifierPair;
+import com.liaison.shachi.dto.RowKey;
+import com.liaison.shachi.exception.HBaseException;
+import com.liaison.shachi.exception.HBaseNoCellException;
+import com.liaison.shachi.model.FamilyModel;
+import com.liaison.shachi.model.Name;
+import com.liaison.shachi.model.QualModel;
+import com.liaison.shachi.model.TableModel;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+public class TestResultCodec {
+
+    private static final String HANDLE = "CODEC";
+    private static final int WIDE_QUAL_COUNT = 200;
+
+    private static final FamilyModel FAMILY = FamilyModel.with(Name.of("f")).qual(QualModel.of(Name.of("q"))).build();
+    private static final TableModel TABLE = TableModel.with(Name.of("codec")).family(FAMILY).build();
+
+    private static ReadOpSpecDefault buildReadSpec() {
+        final ReadOpSpecDefault readSpec;
+
+        readSpec = new ReadOpSpecDefault("READ",
+                                         Mockito.mock(HBaseContext.class),
+                                         Mockito.mock(OperationControllerDefault.class));
+        readSpec
+            .from().tbl(TABLE).row(RowKey.of("r1")).and()
+            .with(HANDLE).fam(FAMILY).qual(QualModel.of(Name.of("q"))).and();
+        readSpec.freezeRecursive();
+        return readSpec;
+    }
+
+    private static ReadOpResult buildWideResult(final ReadOpSpecDefault readSpec) {
+        final ReadOpResult.ReadOpResultBuilder build;
+        final ColSpecRead<ReadOpSpecDefault> colSpec;
+        FamilyQualifierPair fqp;
+
+        colSpec = readSpec.getWithColumn().get(0);
+        build = ReadOpResult.getBuilder().origin(readSpec);
+        for (int qualIndex = 0; qualIndex < WIDE_QUAL_COUNT; qualIndex++) {
+            fqp = FamilyQualifierPair.of(FAMILY, QualModel.of(Name.of("qualifier_" + (qualIndex % 10))));
+            build.add(colSpec,
+                      fqp,
+                      Datum.of(Bytes.toBytes((long) qualIndex), 1000L + qualIndex, DefensiveCopyStrategy.NEVER));
+        }
+        return build.build();
+    }
+
+    private static void assertSameData(final ReadOpResult expected, final ReadOpResult actual) throws HBaseException {
+        final Map<FamilyQualifierPair, CellDatum> expectedMap;
+        final Map<FamilyQualifierPair, CellDatum> actualMap;
+
+        expectedMap = expected.getDataMap(HANDLE);
+        actualMap = actual.getDataMap(HANDLE);
+        Assert.assertEquals(actualMap.keySet(), expectedMap.keySet());
+        for (Map.Entry<FamilyQualifierPair, CellDatum> entry : expectedMap.entrySet()) {
+            Assert.assertEquals(actualMap.get(entry.getKey()).getDatum(), entry.getValue().getDatum());
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final ReadOpSpecDefault readSpec;
+        final ReadOpResult original;
+        final ReadOpResult decoded;
+
+        readSpec = buildReadSpec();
+        original =
+            ReadOpResult
+                .getBuilder()
+                .origin(readSpec)
+                .add(readSpec.getWithColumn().get(0),
+                     FamilyQualifierPair.of(FAMILY, QualModel.of(Name.of("q"))),
+                     Datum.of(Bytes.toBytes(42L), 100L, DefensiveCopyStrategy.NEVER))
+                .build();
+        decoded = ResultCodec.decode(readSpec, ResultCodec.encode(original));
+
+        Assert.assertEquals(decoded.getTableRow(), original.getTableRow());
+        Assert.assertEquals(decoded.getLong(HANDLE), 42L);
+        Assert.assertEquals(decoded.getSingleData(HANDLE).getDatum().getTS(), 100L);
+        assertSameData(original, decoded);
+    }
+
+    @Test
+    public void testDictionaryShrinksRepeatedNames() throws Exception {
+        final ReadOpSpecDefault readSpec;
+        final ReadOpResult original;
+        final ByteArrayOutputStream withDict;
+        final ByteArrayOutputStream withoutDict;
+
+        readSpec = buildReadSpec();
+        original = buildWideResult(readSpec);
+        withDict = new ByteArrayOutputStream();
+        withoutDict = new ByteArrayOutputStream();
+        ResultCodec.encode(original, withDict, true);
+        ResultCodec.encode(original, withoutDict, false);
+
+        Assert.assertTrue(withDict.size() < withoutDict.size(),
+                          "dictionary=" + withDict.size() + ", literal=" + withoutDict.size());
+        assertSameData(original, ResultCodec.decode(readSpec, withDict.toByteArray()));
+        assertSameData(original, ResultCodec.decode(readSpec, withoutDict.toByteArray()));
+    }
+
+    @Test
+    public void testCellExceptionRoundTrip() throws Exception {
+        final ReadOpSpecDefault readSpec;
+        final ReadOpResult original;
+        final ReadOpResult decoded;
+
+        readSpec = buildReadSpec();
+        original =
+            ReadOpResult
+                .getBuilder()
+                .origin(readSpec)
+                .add(readSpec.getWithColumn().get(0),
+                     new HBaseNoCellException(null, null, "no such cell"))
+                .build();
+        decoded = ResultCodec.decode(readSpec, ResultCodec.encode(original));
+
+        try {
+            decoded.getSingleData(HANDLE);
+            Assert.fail("expected " + HBaseNoCellException.class.getSimpleName());
+        } catch (HBaseNoCellException exc) {
+            Assert.assertTrue(exc.getMessage().contains("no such cell"), exc.getMessage());
+        }
+    }
+
+    @Test
+    public void testStreamsConsecutiveMessages() throws Exception {
+        final ReadOpSpecDefault readSpec;
+        final ReadOpResult original;
+        final ByteArrayOutputStream out;
+        final ByteArrayInputStream in;
+        final ByteBuffer buffer;
+
+        readSpec = buildReadSpec();
+        original = buildWideResult(readSpec);
+        out = new ByteArrayOutputStream();
+        ResultCodec.encode(original, out);
+        ResultCodec.encode(original, out);
+
+        in = new ByteArrayInputStream(out.toByteArray());
+        assertSameData(original, ResultCodec.decode(readSpec, in));
+        assertSameData(original, ResultCodec.decode(readSpec, in));
+        Assert.assertEquals(in.available(), 0);
+
+        buffer = ByteBuffer.allocate(out.size() + 16);
+        ResultCodec.encode(original, buffer);
+        buffer.flip();
+        assertSameData(original, ResultCodec.decode(readSpec, buffer));
+        Assert.assertFalse(buffer.hasRemaining());
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.context;
+
+import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
+import com.liaison.shachi.HBaseControl;
+import com.liaison.shachi.context.async.AsyncConfig;
+import com.liaison.shachi.context.async.AsyncConfigDefault;
+import com.liaison.shachi.resmgr.ResourceConnectTolerance;
+import com.liaison.shachi.testutil.MockupHBaseResourceManager;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.client.HBaseAdmin;
+import org.apache.hadoop.hbase.client.HTable;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+
+/**
+ * An HBaseContext implementing only the methods of the original interface remains usable, with
+ * the defaults of {@link CommonHBaseContext}.
+ */
+public class TestHBaseContextDefaults {
+
+    private static final class LegacyHBaseContext implements HBaseContext {
+        private final Configuration config = new Configuration();
+        @Override
+        public Object getId() {
+            return TestHBaseContextDefaults.class.getSimpleName();
+        }
+        @Override
+        public AsyncConfig getAsyncConfig() {
+            return AsyncConfigDefault.getBuilder().disabled().build();
+        }
+        @Override
+        public ResourceConnectTolerance getResourceConnectTolerance() {
+            return ResourceConnectTolerance.DEFAULT;
+        }
+        @Override
+        public Configuration getHBaseConfiguration() {
+            return this.config;
+        }
+        @Override
+        public DefensiveCopyStrategy getDefensiveCopyStrategy() {
+            return CommonHBaseContext.DEFAULT_DEFENSIVE_COPY_STRATEGY;
+        }
+        @Override
+        public TableNamingStrategy getTableNamingStrategy() {
+            return new IdentityTableNamingStrategy();
+        }
+        @Override
+        public boolean doCreateAbsentTables() {
+            return false;
+        }
+        @Override
+        public HBaseAdmin buildAdmin() throws IOException {
+            throw new IOException("not connected");
+        }
+    }
+
+    @Test
+    public void testDefaultsMatchCommonContext() throws Exception {
+        final HBaseContext legacy;
+        final HBaseContext common;
+
+        legacy = new LegacyHBaseContext();
+        common =
+            DefaultHBaseContext
+                .getBuilder()
+                .id(TestHBaseContextDefaults.class.getSimpleName())
+                .configProvider(Configuration::new)
+                .build();
+        Assert.assertFalse(legacy.getHedgingPolicy().isHedgingEnabled());
+        Assert.assertFalse(legacy.getMicroBatchPolicy().isMicroBatchingEnabled());
+        Assert.assertFalse(legacy.getCircuitBreakerPolicy().isCircuitBreakingEnabled());
+        Assert.assertSame(legacy.getHedgingPolicy(), common.getHedgingPolicy());
+        Assert.assertSame(legacy.getMicroBatchPolicy(), common.getMicroBatchPolicy());
+        Assert.assertSame(legacy.getCircuitBreakerPolicy(), common.getCircuitBreakerPolicy());
+        Assert.assertSame(legacy.getResourcePoolPolicy(), common.getResourcePoolPolicy());
+        Assert.assertSame(legacy.getResourceMetricsRegistry(), common.getResourceMetricsRegistry());
+        Assert.assertEquals(legacy.doCoalesceReads(), common.doCoalesceReads());
+        Assert.assertNotNull(legacy.getVerifiedTableRegistry());
+    }
+
+    @Test
+    public void testControlLifecycle() throws Exception {
+        final HBaseContext legacy;
+        final MockupHBaseResourceManager resMgr;
+        final HBaseControl ctrl;
+
+        legacy = new LegacyHBaseContext();
+        resMgr = new MockupHBaseResourceManager(Mockito.mock(HTable.class));
+        ctrl = new HBaseControl(legacy, resMgr);
+        ctrl.close();
+        // the connection managed by the HBase client is not the context's to close
+        Assert.assertEquals(legacy.getConnectionGeneration(), 0L);
+        Assert.assertEquals(resMgr.getEvictCount(), 0);
+    }
+}
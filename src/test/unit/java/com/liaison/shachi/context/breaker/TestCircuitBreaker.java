@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.context.breaker;
+
+import com.liaison.shachi.model.Name;
+import com.liaison.shachi.model.TableModel;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestCircuitBreaker {
+
+    private static final TableModel TABLE_TEST = TableModel.of(Name.of("TEST_TABLE"));
+
+    private static CircuitBreakerPolicy buildPolicy(final long openDurationMillis) {
+        return
+            CircuitBreakerPolicyDefault
+                .getBuilder()
+                .enabled()
+                .failureRateThreshold(0.5)
+                .minimumCalls(4)
+                .windowSize(10)
+                .openDurationMillis(openDurationMillis)
+                .halfOpenTrialCalls(2)
+                .build();
+    }
+
+    @Test
+    public void testOpensAtFailureRateThreshold() {
+        final CircuitBreaker breaker;
+        final List<CircuitBreaker.State> transitions;
+
+        transitions = new ArrayList<>();
+        breaker =
+            new CircuitBreaker(TABLE_TEST,
+                               buildPolicy(60000L),
+                               (cb, fromState, toState)->transitions.add(toState));
+        for (int index = 0; index < 2; index++) {
+            Assert.assertTrue(breaker.tryAcquirePermission());
+            breaker.recordSuccess();
+        }
+        Assert.assertTrue(breaker.tryAcquirePermission());
+        breaker.recordFailure();
+        Assert.assertEquals(breaker.getState(),
+                            CircuitBreaker.State.CLOSED,
+                            "Breaker opened before the minimum number of calls was recorded");
+        Assert.assertTrue(breaker.tryAcquirePermission());
+        breaker.recordFailure();
+        Assert.assertEquals(breaker.getState(),
+                            CircuitBreaker.State.OPEN,
+                            "Breaker not opened upon reaching the failure rate threshold");
+        Assert.assertFalse(breaker.tryAcquirePermission(), "Open breaker permitted an operation");
+        Assert.assertEquals(breaker.getRejectedCount(), 1L);
+        Assert.assertEquals(transitions.size(), 1);
+        Assert.assertEquals(transitions.get(0), CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void testHalfOpenTrialsCloseOrReopen() {
+        final CircuitBreaker breaker;
+
+        breaker = new CircuitBreaker(TABLE_TEST, buildPolicy(0L), null);
+        for (int index = 0; index < 4; index++) {
+            Assert.assertTrue(breaker.tryAcquirePermission());
+            breaker.recordFailure();
+        }
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+
+        // open duration of zero: the next request becomes the first half-open trial
+        Assert.assertTrue(breaker.tryAcquirePermission());
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.HALF_OPEN);
+        Assert.assertTrue(breaker.tryAcquirePermission());
+        Assert.assertFalse(breaker.tryAcquirePermission(),
+                           "Half-open breaker permitted more than the configured trial calls");
+        breaker.recordFailure();
+        Assert.assertEquals(breaker.getState(),
+                            CircuitBreaker.State.OPEN,
+                            "Failed half-open trial did not re-open the breaker");
+        Assert.assertEquals(breaker.getOpenedCount(), 2L);
+
+        Assert.assertTrue(breaker.tryAcquirePermission());
+        Assert.assertTrue(breaker.tryAcquirePermission());
+        breaker.recordSuccess();
+        breaker.recordSuccess();
+        Assert.assertEquals(breaker.getState(),
+                            CircuitBreaker.State.CLOSED,
+                            "Successful half-open trials did not close the breaker");
+        Assert.assertEquals(breaker.getFailureRate(), 0.0);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.context.hedge;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class TestReadLatencyWindow {
+
+    private static HedgingPolicy buildPolicy(final int windowSize, final int minSamples) {
+        return
+            HedgingPolicyDefault
+                .getBuilder()
+                .enabled()
+                .delayPercentile(0.9)
+                .minDelayMillis(1)
+                .initialDelayMillis(50)
+                .sampleWindowSize(windowSize)
+                .minSamples(minSamples)
+                .build();
+    }
+
+    @Test
+    public void testInitialDelayBeforeMinSamples() {
+        final ReadLatencyWindow window;
+
+        window = new ReadLatencyWindow(buildPolicy(100, 10));
+        for (int index = 0; index < 9; index++) {
+            window.record(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        Assert.assertEquals(window.getHedgeDelayNanos(),
+                            TimeUnit.MILLISECONDS.toNanos(50),
+                            "Initial delay not applied before minimum sample count reached");
+    }
+
+    @Test
+    public void testPercentileDelay() {
+        final ReadLatencyWindow window;
+
+        window = new ReadLatencyWindow(buildPolicy(100, 10));
+        for (int index = 1; index <= 100; index++) {
+            window.record(TimeUnit.MILLISECONDS.toNanos(index));
+        }
+        Assert.assertEquals(window.getHedgeDelayNanos(),
+                            TimeUnit.MILLISECONDS.toNanos(90),
+                            "Hedge delay does not reflect the configured percentile");
+    }
+
+    @Test
+    public void testMinimumDelayFloor() {
+        final ReadLatencyWindow window;
+
+        window = new ReadLatencyWindow(buildPolicy(16, 1));
+        for (int index = 0; index < 16; index++) {
+            window.record(10L);
+        }
+        Assert.assertEquals(window.getHedgeDelayNanos(),
+                            TimeUnit.MILLISECONDS.toNanos(1),
+                            "Hedge delay not floored at the configured minimum");
+    }
+
+    @Test
+    public void testHedgeRateCap() {
+        final HedgeMetrics metrics;
+
+        metrics = new HedgeMetrics();
+        for (int index = 0; index < 20; index++) {
+            metrics.recordHedgeableRead();
+        }
+        Assert.assertTrue(metrics.tryAcquireHedge(0.1));
+        Assert.assertTrue(metrics.tryAcquireHedge(0.1));
+        Assert.assertFalse(metrics.tryAcquireHedge(0.1),
+                           "Hedge permitted beyond the configured maximum ratio");
+        Assert.assertEquals(metrics.getHedgesFiredCount(), 2L);
+        Assert.assertEquals(metrics.getHedgesSuppressedCount(), 1L);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidPercentile() {
+        HedgingPolicyDefault.getBuilder().enabled().delayPercentile(1.5).build();
+    }
+}
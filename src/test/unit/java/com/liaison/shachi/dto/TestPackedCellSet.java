@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.liaison.shachi.dto;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestPackedCellSet {
+
+    private static void add(final PackedCellSet.Builder build, final String qual, final long value, final long ts, final long version) {
+        final byte[] qualBytes;
+        final byte[] valueBytes;
+
+        qualBytes = Bytes.toBytes(qual);
+        valueBytes = Bytes.toBytes(value);
+        build.add(qualBytes, 0, qualBytes.length, valueBytes, 0, valueBytes.length, ts, version);
+    }
+
+    @Test
+    public void testOrderedByQualifierThenNewestVersion() {
+        final PackedCellSet.Builder build;
+        final PackedCellSet packed;
+
+        build = PackedCellSet.getBuilder(true, null);
+        add(build, "b", 20L, 100L, 1L);
+        add(build, "a", 11L, 100L, 1L);
+        add(build, "b", 22L, 100L, 2L);
+        add(build, "a", 12L, 100L, 2L);
+        packed = build.build();
+
+        Assert.assertEquals(packed.size(), 4);
+        Assert.assertEquals(packed.getDataLength(), 4 * (1 + Bytes.SIZEOF_LONG));
+        Assert.assertEquals(packed.getQualifier(0), Bytes.toBytes("a"));
+        Assert.assertEquals(packed.getVersion(0), 2L);
+        Assert.assertEquals(packed.getLong(0), 12L);
+        Assert.assertEquals(packed.getLong(3), 20L);
+    }
+
+    @Test
+    public void testLookupByQualifierAndVersion() {
+        final PackedCellSet.Builder build;
+        final PackedCellSet packed;
+
+        build = PackedCellSet.getBuilder(true, null);
+        for (int qualIndex = 0; qualIndex < 100; qualIndex++) {
+            for (long version = 1; version <= 3; version++) {
+                add(build, String.format("q%03d", qualIndex), (qualIndex * 10) + version, 1L, version);
+            }
+        }
+        packed = build.build();
+
+        Assert.assertEquals(packed.getLong(packed.indexOf(Bytes.toBytes("q042"))), 423L);
+        Assert.assertEquals(packed.getLong(packed.indexOf(Bytes.toBytes("q042"), 1L)), 421L);
+        Assert.assertTrue(packed.indexOf(Bytes.toBytes("q042"), 4L) < 0);
+        Assert.assertTrue(packed.indexOf(Bytes.toBytes("q100")) < 0);
+        Assert.assertEquals(packed.indexOf(Bytes.toBytes("a")), -1);
+    }
+
+    @Test
+    public void testCursorVisitsEveryCell() {
+        final PackedCellSet.Builder build;
+        final PackedCellSet.Cursor cursor;
+        long sum;
+        int count;
+
+        build = PackedCellSet.getBuilder(false, null);
+        for (int qualIndex = 0; qualIndex < 10; qualIndex++) {
+            add(build, "q" + qualIndex, qualIndex, 1L, 0L);
+        }
+        cursor = build.build().cursor();
+        sum = 0;
+        count = 0;
+        while (cursor.next()) {
+            sum += cursor.getLong();
+            count++;
+        }
+        Assert.assertEquals(count, 10);
+        Assert.assertEquals(sum, 45L);
+        Assert.assertFalse(cursor.next());
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testUnversionedHasNoVersion() {
+        final PackedCellSet.Builder build;
+
+        build = PackedCellSet.getBuilder(false, null);
+        add(build, "a", 1L, 1L, 0L);
+        build.build().getVersion(0);
+    }
+}
@@ -0,0 +1,396 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.exec;
+
+import com.liaison.shachi.context.batch.MicroBatchPolicy;
+import com.liaison.shachi.context.batch.MicroBatchPolicyDefault;
+import com.liaison.shachi.dto.Deadline;
+import com.liaison.shachi.exception.HBaseDeadlineExceededException;
+import com.liaison.shachi.exception.HBaseException;
+import com.liaison.shachi.model.Name;
+import com.liaison.shachi.model.TableModel;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Row;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class TestMicroBatcher {
+
+    private static final TableModel TABLE_TEST = TableModel.of(Name.of("TEST_TABLE"));
+    private static final long AWAIT_MILLIS = 10000L;
+
+    /**
+     * Records the size of each batch it is asked to send, holding the first batch until released,
+     * and completes each action with its own row key (or, for rows beginning with "fail", an
+     * IOException).
+     */
+    private static final class RecordingPerformer implements MicroBatcher.BatchPerformer {
+        private final List<Integer> batchSizes;
+        private final List<Deadline> batchDeadlines;
+        private final CountDownLatch firstBatchStarted;
+        private final CountDownLatch releaseFirstBatch;
+        private volatile IOException batchFailure;
+
+        @Override
+        public void perform(final TableModel model, final List<Row> actions, final Object[] results, final Deadline deadline) throws IOException, InterruptedException {
+            String rowKey;
+            this.batchSizes.add(Integer.valueOf(actions.size()));
+            this.batchDeadlines.add(deadline);
+            if (this.firstBatchStarted.getCount() > 0) {
+                this.firstBatchStarted.countDown();
+                this.releaseFirstBatch.await(AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            for (int index = 0; index < actions.size(); index++) {
+                rowKey = Bytes.toString(actions.get(index).getRow());
+                if (rowKey.startsWith("fail")) {
+                    results[index] = new IOException("action failed: " + rowKey);
+                } else if ((this.batchFailure != null) && (rowKey.startsWith("unsent"))) {
+                    // leave unattempted; the batch as a whole fails below
+                    results[index] = null;
+                } else {
+                    results[index] = rowKey;
+                }
+            }
+            if (this.batchFailure != null) {
+                throw this.batchFailure;
+            }
+        }
+
+        private void awaitFirstBatch() throws InterruptedException {
+            Assert.assertTrue(this.firstBatchStarted.await(AWAIT_MILLIS, TimeUnit.MILLISECONDS),
+                              "First batch never sent");
+        }
+        private void releaseFirstBatch() {
+            this.releaseFirstBatch.countDown();
+        }
+
+        private RecordingPerformer() {
+            this.batchSizes = Collections.synchronizedList(new ArrayList<>());
+            this.batchDeadlines = Collections.synchronizedList(new ArrayList<>());
+            this.firstBatchStarted = new CountDownLatch(1);
+            this.releaseFirstBatch = new CountDownLatch(1);
+            this.batchFailure = null;
+        }
+    }
+
+    private static MicroBatchPolicy buildPolicy(final int maxBatchSize, final long maxDelayMicros) {
+        return
+            MicroBatchPolicyDefault
+                .getBuilder()
+                .enabled()
+                .maxBatchSize(maxBatchSize)
+                .maxDelayMicros(maxDelayMicros)
+                .maxConcurrentBatches(1)
+                .build();
+    }
+
+    private static List<Put> puts(final String... rowKeys) {
+        final List<Put> actions;
+        actions = new ArrayList<>(rowKeys.length);
+        for (String rowKey : rowKeys) {
+            actions.add(new Put(Bytes.toBytes(rowKey)));
+        }
+        return actions;
+    }
+
+    private static Future<Object[]> submit(final ExecutorService callers, final MicroBatcher batcher, final String... rowKeys) {
+        return callers.submit(()->batcher.execute(TABLE_TEST, puts(rowKeys), Deadline.NONE));
+    }
+
+    /**
+     * Wait (bounded) until the given number of operations have been submitted, and allow them a
+     * moment to be queued.
+     */
+    private static void awaitSubmitted(final MicroBatcher batcher, final long requests) throws InterruptedException {
+        final long giveUpNanos;
+        giveUpNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(AWAIT_MILLIS);
+        while (batcher.getRequestCount() < requests) {
+            Assert.assertTrue(System.nanoTime() < giveUpNanos, "Operations not submitted");
+            Thread.sleep(1L);
+        }
+        Thread.sleep(50L);
+    }
+
+    @Test
+    public void testFlushOnSize() throws Exception {
+        final int queuedCount = 10;
+        final int maxBatchSize = 4;
+        final RecordingPerformer performer;
+        final ExecutorService sendPool;
+        final ExecutorService callers;
+        final MicroBatcher batcher;
+        final List<Future<Object[]>> results;
+        int totalActions;
+
+        performer = new RecordingPerformer();
+        sendPool = Executors.newCachedThreadPool();
+        callers = Executors.newCachedThreadPool();
+        batcher = new MicroBatcher(buildPolicy(maxBatchSize, 0L), performer, sendPool);
+        results = new ArrayList<>();
+        try {
+            results.add(submit(callers, batcher, "first"));
+            performer.awaitFirstBatch();
+            // the only permitted batch is in flight; these accumulate for the batches to follow
+            for (int index = 0; index < queuedCount; index++) {
+                results.add(submit(callers, batcher, "queued-" + index));
+            }
+            awaitSubmitted(batcher, queuedCount + 1);
+            performer.releaseFirstBatch();
+            for (Future<Object[]> result : results) {
+                Assert.assertEquals(result.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS).length, 1);
+            }
+        } finally {
+            callers.shutdownNow();
+            sendPool.shutdownNow();
+        }
+        totalActions = 0;
+        for (Integer batchSize : performer.batchSizes) {
+            Assert.assertTrue(batchSize.intValue() <= maxBatchSize,
+                              "Batch exceeded maximum size: " + performer.batchSizes);
+            totalActions += batchSize.intValue();
+        }
+        Assert.assertEquals(totalActions, queuedCount + 1);
+        Assert.assertTrue(performer.batchSizes.contains(Integer.valueOf(maxBatchSize)),
+                          "Queued operations not flushed in full batches: " + performer.batchSizes);
+        Assert.assertEquals(batcher.getBatchCount(), performer.batchSizes.size());
+    }
+
+    @Test
+    public void testFlushOnLinger() throws Exception {
+        final RecordingPerformer performer;
+        final ExecutorService sendPool;
+        final ExecutorService callers;
+        final MicroBatcher batcher;
+        final List<Future<Object[]>> warmup;
+        final Future<Object[]> early;
+        final Future<Object[]> late;
+
+        performer = new RecordingPerformer();
+        sendPool = Executors.newCachedThreadPool();
+        callers = Executors.newCachedThreadPool();
+        // after a batch of 2, the linger window is 2/4 of 2s: long enough to gather a straggler
+        batcher = new MicroBatcher(buildPolicy(4, 2000000L), performer, sendPool);
+        warmup = new ArrayList<>();
+        try {
+            warmup.add(submit(callers, batcher, "first"));
+            performer.awaitFirstBatch();
+            warmup.add(submit(callers, batcher, "warmup-1"));
+            warmup.add(submit(callers, batcher, "warmup-2"));
+            awaitSubmitted(batcher, 3);
+            performer.releaseFirstBatch();
+            for (Future<Object[]> result : warmup) {
+                result.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            Assert.assertEquals(performer.batchSizes, Arrays.asList(1, 2));
+
+            early = submit(callers, batcher, "early");
+            Thread.sleep(100L);
+            Assert.assertFalse(early.isDone(), "Batch sent without lingering");
+            late = submit(callers, batcher, "late");
+            Assert.assertEquals(early.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS), new Object[] {"early"});
+            Assert.assertEquals(late.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS), new Object[] {"late"});
+        } finally {
+            callers.shutdownNow();
+            sendPool.shutdownNow();
+        }
+        // the batch was flushed short of the maximum size, once the window elapsed
+        Assert.assertEquals(performer.batchSizes, Arrays.asList(1, 2, 2));
+    }
+
+    @Test
+    public void testResultsSplitPerCaller() throws Exception {
+        final RecordingPerformer performer;
+        final ExecutorService sendPool;
+        final ExecutorService callers;
+        final MicroBatcher batcher;
+        final Future<Object[]> first;
+        final Future<Object[]> mixed;
+        final Future<Object[]> succeeded;
+        final Object[] mixedResults;
+
+        performer = new RecordingPerformer();
+        sendPool = Executors.newCachedThreadPool();
+        callers = Executors.newCachedThreadPool();
+        batcher = new MicroBatcher(buildPolicy(16, 0L), performer, sendPool);
+        try {
+            first = submit(callers, batcher, "first");
+            performer.awaitFirstBatch();
+            mixed = submit(callers, batcher, "ok-1", "fail-2", "ok-3");
+            awaitSubmitted(batcher, 2);
+            succeeded = submit(callers, batcher, "ok-4", "ok-5");
+            awaitSubmitted(batcher, 3);
+            performer.releaseFirstBatch();
+            Assert.assertEquals(first.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS), new Object[] {"first"});
+            mixedResults = mixed.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+            Assert.assertEquals(succeeded.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS),
+                                new Object[] {"ok-4", "ok-5"});
+        } finally {
+            callers.shutdownNow();
+            sendPool.shutdownNow();
+        }
+        Assert.assertEquals(performer.batchSizes, Arrays.asList(1, 5),
+                            "Queued operations not combined into a single batch");
+        // a failed action is reported in its own slot, without failing the caller's other actions
+        Assert.assertEquals(mixedResults.length, 3);
+        Assert.assertEquals(mixedResults[0], "ok-1");
+        Assert.assertTrue(mixedResults[1] instanceof IOException);
+        Assert.assertEquals(mixedResults[2], "ok-3");
+    }
+
+    @Test
+    public void testBatchFailureOnlyFailsUnfinishedCallers() throws Exception {
+        final RecordingPerformer performer;
+        final ExecutorService sendPool;
+        final ExecutorService callers;
+        final MicroBatcher batcher;
+        final Future<Object[]> first;
+        final Future<Object[]> finished;
+        final Future<Object[]> unfinished;
+        final IOException batchFailure;
+
+        performer = new RecordingPerformer();
+        sendPool = Executors.newCachedThreadPool();
+        callers = Executors.newCachedThreadPool();
+        batcher = new MicroBatcher(buildPolicy(16, 0L), performer, sendPool);
+        batchFailure = new IOException("batch failed");
+        try {
+            first = submit(callers, batcher, "first");
+            performer.awaitFirstBatch();
+            finished = submit(callers, batcher, "ok-1");
+            awaitSubmitted(batcher, 2);
+            unfinished = submit(callers, batcher, "ok-2", "unsent-3");
+            awaitSubmitted(batcher, 3);
+            performer.batchFailure = batchFailure;
+            performer.releaseFirstBatch();
+            first.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+            Assert.assertEquals(finished.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS), new Object[] {"ok-1"});
+            try {
+                unfinished.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+                Assert.fail("Caller with an unattempted action did not observe the batch failure");
+            } catch (ExecutionException execExc) {
+                Assert.assertSame(execExc.getCause(), batchFailure);
+            }
+        } finally {
+            callers.shutdownNow();
+            sendPool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testShutdownDrainsQueuedOperations() throws Exception {
+        final RecordingPerformer performer;
+        final ExecutorService sendPool;
+        final ExecutorService callers;
+        final MicroBatcher batcher;
+        final List<Future<Object[]>> results;
+
+        performer = new RecordingPerformer();
+        sendPool = Executors.newCachedThreadPool();
+        callers = Executors.newCachedThreadPool();
+        batcher = new MicroBatcher(buildPolicy(2, 0L), performer, sendPool);
+        results = new ArrayList<>();
+        try {
+            results.add(submit(callers, batcher, "first"));
+            performer.awaitFirstBatch();
+            for (int index = 0; index < 5; index++) {
+                results.add(submit(callers, batcher, "queued-" + index));
+            }
+            awaitSubmitted(batcher, 6);
+            // as upon HBaseControl#close: no new senders, but the running sender drains its queue
+            sendPool.shutdown();
+            performer.releaseFirstBatch();
+            for (Future<Object[]> result : results) {
+                Assert.assertEquals(result.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS).length, 1);
+            }
+            Assert.assertTrue(sendPool.awaitTermination(AWAIT_MILLIS, TimeUnit.MILLISECONDS));
+            try {
+                batcher.execute(TABLE_TEST, puts("after-shutdown"), Deadline.NONE);
+                Assert.fail("Operation accepted after the send pool was shut down");
+            } catch (HBaseException exc) {
+                Assert.assertTrue(exc.getCause() instanceof RejectedExecutionException);
+            }
+        } finally {
+            callers.shutdownNow();
+            sendPool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBatchSentUnderEarliestDeadline() throws Exception {
+        final RecordingPerformer performer;
+        final ExecutorService sendPool;
+        final ExecutorService callers;
+        final MicroBatcher batcher;
+        final Future<Object[]> expiring;
+        final Future<Object[]> shorter;
+        final Future<Object[]> longer;
+        final Deadline batchDeadline;
+
+        performer = new RecordingPerformer();
+        sendPool = Executors.newCachedThreadPool();
+        callers = Executors.newCachedThreadPool();
+        batcher = new MicroBatcher(buildPolicy(16, 0L), performer, sendPool);
+        try {
+            submit(callers, batcher, "first");
+            performer.awaitFirstBatch();
+            expiring =
+                callers.submit(()->batcher.execute(TABLE_TEST,
+                                                   puts("expiring"),
+                                                   Deadline.after(20L, TimeUnit.MILLISECONDS)));
+            shorter =
+                callers.submit(()->batcher.execute(TABLE_TEST,
+                                                   puts("shorter"),
+                                                   Deadline.after(AWAIT_MILLIS, TimeUnit.MILLISECONDS)));
+            longer =
+                callers.submit(()->batcher.execute(TABLE_TEST,
+                                                   puts("longer"),
+                                                   Deadline.after(AWAIT_MILLIS * 10, TimeUnit.MILLISECONDS)));
+            awaitSubmitted(batcher, 4);
+            try {
+                expiring.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+                Assert.fail("Operation completed despite outliving its deadline");
+            } catch (ExecutionException execExc) {
+                Assert.assertTrue(execExc.getCause() instanceof HBaseDeadlineExceededException);
+            }
+            performer.releaseFirstBatch();
+            Assert.assertEquals(shorter.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS).length, 1);
+            Assert.assertEquals(longer.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS).length, 1);
+        } finally {
+            callers.shutdownNow();
+            sendPool.shutdownNow();
+        }
+        // the expired operation is left out, rather than cutting the batch short
+        Assert.assertEquals(performer.batchSizes, Arrays.asList(1, 2));
+        batchDeadline = performer.batchDeadlines.get(1);
+        Assert.assertTrue(batchDeadline.isBounded());
+        Assert.assertTrue(batchDeadline.remainingMillis() <= AWAIT_MILLIS,
+                          "Batch not sent under the earliest deadline of its operations");
+    }
+}
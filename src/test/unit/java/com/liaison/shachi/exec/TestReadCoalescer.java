@@ -0,0 +1,374 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.exec;
+
+import com.liaison.shachi.dto.Deadline;
+import com.liaison.shachi.exception.HBaseDeadlineExceededException;
+import com.liaison.shachi.exception.HBaseException;
+import com.liaison.shachi.model.Name;
+import com.liaison.shachi.model.TableModel;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestReadCoalescer {
+
+    private static final TableModel TABLE_TEST = TableModel.of(Name.of("TEST_TABLE"));
+    private static final byte[] ROW_1 = Bytes.toBytes("row-1");
+    private static final byte[] ROW_2 = Bytes.toBytes("row-2");
+    private static final byte[] FAMILY = Bytes.toBytes("a");
+    private static final byte[] QUAL = Bytes.toBytes("Z");
+    private static final long AWAIT_MILLIS = 10000L;
+
+    private static List<Get> buildGets(final byte[] row) {
+        return Collections.singletonList(new Get(row).addColumn(FAMILY, QUAL));
+    }
+
+    private static List<Result> emptyResults() {
+        return Collections.singletonList(Result.create(new Cell[0]));
+    }
+
+    /**
+     * Hold a READ in flight until the test releases it.
+     */
+    private static void awaitRelease(final CountDownLatch release) throws InterruptedIOException {
+        try {
+            release.await(AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException intExc) {
+            throw new InterruptedIOException();
+        }
+    }
+
+    /**
+     * Wait (bounded) until the given number of READs have attached to the in-flight READ.
+     */
+    private static void awaitCoalesced(final ReadCoalescer coalescer, final long coalesced) throws InterruptedException {
+        final long giveUpNanos;
+        giveUpNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(AWAIT_MILLIS);
+        while (coalescer.getCoalescedCount() < coalesced) {
+            if (System.nanoTime() > giveUpNanos) {
+                Assert.fail("Only "
+                            + coalescer.getCoalescedCount()
+                            + " of "
+                            + coalesced
+                            + " READs attached to the in-flight READ");
+            }
+            Thread.sleep(1L);
+        }
+    }
+
+    @Test
+    public void testShapeIgnoresRow() throws Exception {
+        final ReadCoalescer.ReadShape shape1;
+        final ReadCoalescer.ReadShape shape2;
+        final ReadCoalescer.ReadShape shapeOtherColumn;
+
+        shape1 = ReadCoalescer.ReadShape.of(TABLE_TEST, buildGets(ROW_1));
+        shape2 = ReadCoalescer.ReadShape.of(TABLE_TEST, buildGets(ROW_2));
+        shapeOtherColumn =
+            ReadCoalescer.ReadShape.of(TABLE_TEST,
+                                       Collections.singletonList(new Get(ROW_1).addFamily(FAMILY)));
+        Assert.assertEquals(shape1, shape2);
+        Assert.assertEquals(shape1.hashCode(), shape2.hashCode());
+        Assert.assertNotEquals(shape1, shapeOtherColumn);
+    }
+
+    @Test
+    public void testConcurrentIdenticalReadsCoalesce() throws Exception {
+        final int readerCount = 8;
+        final ReadCoalescer coalescer;
+        final ReadCoalescer.ReadShape shape;
+        final AtomicInteger performCount;
+        final CountDownLatch release;
+        final List<Result> leaderResults;
+        final ExecutorService threads;
+        final List<Future<List<Result>>> futures;
+
+        coalescer = new ReadCoalescer();
+        shape = ReadCoalescer.ReadShape.of(TABLE_TEST, buildGets(ROW_1));
+        performCount = new AtomicInteger(0);
+        release = new CountDownLatch(1);
+        leaderResults = emptyResults();
+        threads = Executors.newFixedThreadPool(readerCount);
+        futures = new ArrayList<>(readerCount);
+        try {
+            for (int index = 0; index < readerCount; index++) {
+                futures.add(threads.submit(()->coalescer.execute(shape, ROW_1.clone(), Deadline.NONE, ()->{
+                    performCount.incrementAndGet();
+                    awaitRelease(release);
+                    return leaderResults;
+                })));
+            }
+            awaitCoalesced(coalescer, readerCount - 1);
+            release.countDown();
+            for (Future<List<Result>> future : futures) {
+                Assert.assertSame(future.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS), leaderResults);
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        Assert.assertEquals(performCount.get(), 1, "Identical concurrent READs not coalesced");
+        Assert.assertEquals(coalescer.getRequestCount(), readerCount);
+        Assert.assertEquals(coalescer.getCoalescedCount(), readerCount - 1);
+        Assert.assertEquals(coalescer.getCoalescingRatio(),
+                            ((double) (readerCount - 1)) / readerCount,
+                            0.0001);
+    }
+
+    @Test
+    public void testDifferentRowsDoNotCoalesce() throws Exception {
+        final ReadCoalescer coalescer;
+        final ReadCoalescer.ReadShape shape;
+        final CountDownLatch leaderStarted;
+        final CountDownLatch release;
+        final ExecutorService threads;
+        final Future<List<Result>> leader;
+        final List<Result> otherResults;
+
+        coalescer = new ReadCoalescer();
+        shape = ReadCoalescer.ReadShape.of(TABLE_TEST, buildGets(ROW_1));
+        leaderStarted = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        otherResults = emptyResults();
+        threads = Executors.newSingleThreadExecutor();
+        try {
+            leader = threads.submit(()->coalescer.execute(shape, ROW_1, Deadline.NONE, ()->{
+                leaderStarted.countDown();
+                awaitRelease(release);
+                return emptyResults();
+            }));
+            Assert.assertTrue(leaderStarted.await(AWAIT_MILLIS, TimeUnit.MILLISECONDS));
+            // performed immediately despite the same shape being in flight, since the row differs
+            Assert.assertSame(coalescer.execute(shape, ROW_2, Deadline.NONE, ()->otherResults),
+                              otherResults);
+            release.countDown();
+            leader.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } finally {
+            threads.shutdownNow();
+        }
+        Assert.assertEquals(coalescer.getCoalescedCount(), 0L);
+    }
+
+    @Test
+    public void testMultiRowReadDoesNotCoalesceWithFirstRow() throws Exception {
+        final ReadCoalescer coalescer;
+        final ReadCoalescer.ReadShape shape;
+        final List<Get> multiRowGets;
+        final CountDownLatch leaderStarted;
+        final CountDownLatch release;
+        final ExecutorService threads;
+        final Future<List<Result>> leader;
+        final List<Result> multiRowResults;
+
+        coalescer = new ReadCoalescer();
+        shape = ReadCoalescer.ReadShape.of(TABLE_TEST, buildGets(ROW_1));
+        multiRowGets = new ArrayList<>();
+        multiRowGets.addAll(buildGets(ROW_1));
+        multiRowGets.addAll(buildGets(ROW_2));
+        leaderStarted = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        multiRowResults = Arrays.asList(Result.create(new Cell[0]), Result.create(new Cell[0]));
+        threads = Executors.newSingleThreadExecutor();
+        try {
+            leader = threads.submit(()->coalescer.execute(shape, buildGets(ROW_1), Deadline.NONE, ()->{
+                leaderStarted.countDown();
+                awaitRelease(release);
+                return emptyResults();
+            }));
+            Assert.assertTrue(leaderStarted.await(AWAIT_MILLIS, TimeUnit.MILLISECONDS));
+            // performed immediately, although the READ in flight is of its first row
+            Assert.assertSame(coalescer.execute(shape, multiRowGets, Deadline.NONE, ()->multiRowResults),
+                              multiRowResults);
+            Assert.assertSame(coalescer.execute(TABLE_TEST, multiRowGets, Deadline.NONE, ()->multiRowResults),
+                              multiRowResults);
+            release.countDown();
+            leader.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } finally {
+            threads.shutdownNow();
+        }
+        Assert.assertEquals(coalescer.getCoalescedCount(), 0L);
+    }
+
+    @Test
+    public void testShapeMismatchRejected() throws Exception {
+        final ReadCoalescer coalescer;
+        final ReadCoalescer.ReadShape shape;
+        final List<Get> gets;
+
+        coalescer = new ReadCoalescer();
+        shape =
+            ReadCoalescer.ReadShape.of(TABLE_TEST,
+                                       Arrays.asList(new Get(ROW_1).addColumn(FAMILY, QUAL),
+                                                     new Get(ROW_1).addFamily(FAMILY)));
+        gets = buildGets(ROW_1);
+        try {
+            coalescer.execute(shape, gets, Deadline.NONE, TestReadCoalescer::emptyResults);
+            Assert.fail("READ of GETs not matching the given shape was accepted");
+        } catch (IllegalArgumentException iaExc) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testLeaderFailurePropagatesToWaiters() throws Exception {
+        final ReadCoalescer coalescer;
+        final ReadCoalescer.ReadShape shape;
+        final HBaseException failure;
+        final CountDownLatch release;
+        final ExecutorService threads;
+        final Future<List<Result>> leader;
+        final Future<List<Result>> waiter;
+        final AtomicInteger performCount;
+
+        coalescer = new ReadCoalescer();
+        shape = ReadCoalescer.ReadShape.of(TABLE_TEST, buildGets(ROW_1));
+        failure = new HBaseException("READ failed");
+        release = new CountDownLatch(1);
+        performCount = new AtomicInteger(0);
+        threads = Executors.newFixedThreadPool(2);
+        try {
+            leader = threads.submit(()->coalescer.execute(shape, ROW_1, Deadline.NONE, ()->{
+                performCount.incrementAndGet();
+                awaitRelease(release);
+                throw failure;
+            }));
+            while (performCount.get() == 0) {
+                Thread.sleep(1L);
+            }
+            waiter = threads.submit(()->coalescer.execute(shape, ROW_1, Deadline.NONE, ()->{
+                performCount.incrementAndGet();
+                return emptyResults();
+            }));
+            awaitCoalesced(coalescer, 1L);
+            release.countDown();
+            for (Future<List<Result>> future : Arrays.asList(leader, waiter)) {
+                try {
+                    future.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+                    Assert.fail("READ succeeded despite failure of the in-flight READ");
+                } catch (ExecutionException execExc) {
+                    Assert.assertSame(execExc.getCause(), failure);
+                }
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        Assert.assertEquals(performCount.get(), 1, "Waiter retried a failed READ");
+    }
+
+    @Test
+    public void testLeaderDeadlineHandsOffToWaiter() throws Exception {
+        final ReadCoalescer coalescer;
+        final ReadCoalescer.ReadShape shape;
+        final CountDownLatch release;
+        final ExecutorService threads;
+        final Future<List<Result>> leader;
+        final Future<List<Result>> waiter;
+        final AtomicInteger performCount;
+        final List<Result> waiterResults;
+
+        coalescer = new ReadCoalescer();
+        shape = ReadCoalescer.ReadShape.of(TABLE_TEST, buildGets(ROW_1));
+        release = new CountDownLatch(1);
+        performCount = new AtomicInteger(0);
+        waiterResults = emptyResults();
+        threads = Executors.newFixedThreadPool(2);
+        try {
+            leader = threads.submit(()->coalescer.execute(shape, ROW_1, Deadline.NONE, ()->{
+                performCount.incrementAndGet();
+                awaitRelease(release);
+                throw new HBaseDeadlineExceededException("leader deadline expired");
+            }));
+            while (performCount.get() == 0) {
+                Thread.sleep(1L);
+            }
+            waiter = threads.submit(()->coalescer.execute(shape, ROW_1, Deadline.NONE, ()->{
+                performCount.incrementAndGet();
+                return waiterResults;
+            }));
+            awaitCoalesced(coalescer, 1L);
+            release.countDown();
+            try {
+                leader.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+                Assert.fail("Aborted READ succeeded");
+            } catch (ExecutionException execExc) {
+                Assert.assertTrue(execExc.getCause() instanceof HBaseDeadlineExceededException);
+            }
+            // the leader's abort applies only to the leader; the waiter performs the READ itself
+            Assert.assertSame(waiter.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS), waiterResults);
+        } finally {
+            threads.shutdownNow();
+        }
+        Assert.assertEquals(performCount.get(), 2);
+        Assert.assertEquals(coalescer.getCoalescedCount(), 0L,
+                            "READ which performed itself counted as coalesced");
+    }
+
+    @Test
+    public void testWaiterDeadlineExpires() throws Exception {
+        final ReadCoalescer coalescer;
+        final ReadCoalescer.ReadShape shape;
+        final CountDownLatch leaderStarted;
+        final CountDownLatch release;
+        final ExecutorService threads;
+        final Future<List<Result>> leader;
+
+        coalescer = new ReadCoalescer();
+        shape = ReadCoalescer.ReadShape.of(TABLE_TEST, buildGets(ROW_1));
+        leaderStarted = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        threads = Executors.newSingleThreadExecutor();
+        try {
+            leader = threads.submit(()->coalescer.execute(shape, ROW_1, Deadline.NONE, ()->{
+                leaderStarted.countDown();
+                awaitRelease(release);
+                return emptyResults();
+            }));
+            Assert.assertTrue(leaderStarted.await(AWAIT_MILLIS, TimeUnit.MILLISECONDS));
+            try {
+                coalescer.execute(shape,
+                                  ROW_1,
+                                  Deadline.after(50L, TimeUnit.MILLISECONDS),
+                                  ()->{
+                                      Assert.fail("Waiter performed the READ itself");
+                                      return null;
+                                  });
+                Assert.fail("Waiter outlived its deadline");
+            } catch (HBaseDeadlineExceededException exc) {
+                // expected
+            }
+            release.countDown();
+            leader.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.exec;
+
+import com.liaison.shachi.context.DefaultHBaseContext;
+import com.liaison.shachi.context.HBaseContext;
+import com.liaison.shachi.context.batch.MicroBatchPolicy;
+import com.liaison.shachi.context.batch.MicroBatchPolicyDefault;
+import com.liaison.shachi.dto.Deadline;
+import com.liaison.shachi.model.Name;
+import com.liaison.shachi.model.TableModel;
+import com.liaison.shachi.testutil.MockupHBaseResourceManager;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HRegionInfo;
+import org.apache.hadoop.hbase.HRegionLocation;
+import org.apache.hadoop.hbase.ServerName;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Row;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class TestRegionAwareBatchPerformer {
+
+    private static final TableModel TABLE_TEST = TableModel.of(Name.of("TEST_TABLE"));
+    private static final HRegionInfo REGION_TEST = new HRegionInfo(TableName.valueOf("TEST_TABLE"));
+    private static final ServerName SERVER_A = ServerName.valueOf("server-a", 60020, 1L);
+    private static final ServerName SERVER_B = ServerName.valueOf("server-b", 60020, 1L);
+    private static final long AWAIT_MILLIS = 10000L;
+    private static final long MAX_WAIT_MILLIS = 2000L;
+
+    private static MicroBatchPolicy buildPolicy() {
+        return
+            MicroBatchPolicyDefault
+                .getBuilder()
+                .enabled()
+                .regionAwareDispatch(true)
+                .maxConcurrentPerServer(4)
+                .build();
+    }
+
+    /**
+     * A table whose rows beginning with "a" are hosted by one server, and all others by another;
+     * the first location lookup waits until the given latch is released, and each batch completes
+     * each action with its own row key.
+     */
+    private static HTable mockupTable(final CountDownLatch lookupGate) throws Exception {
+        final HTable table;
+        table = Mockito.mock(HTable.class);
+        Mockito.when(table.getRegionLocation(Mockito.any(byte[].class), Mockito.anyBoolean()))
+               .thenAnswer((invocation)->{
+                   final byte[] row;
+                   Assert.assertTrue(lookupGate.await(AWAIT_MILLIS, TimeUnit.MILLISECONDS));
+                   row = (byte[]) invocation.getArguments()[0];
+                   if (Bytes.toString(row).startsWith("a")) {
+                       return new HRegionLocation(REGION_TEST, SERVER_A);
+                   }
+                   return new HRegionLocation(REGION_TEST, SERVER_B);
+               });
+        Mockito.doAnswer((invocation)->{
+            final List<?> actions;
+            final Object[] results;
+            actions = (List<?>) invocation.getArguments()[0];
+            results = (Object[]) invocation.getArguments()[1];
+            Thread.sleep(5L);
+            for (int index = 0; index < actions.size(); index++) {
+                results[index] = Bytes.toString(((Row) actions.get(index)).getRow());
+            }
+            return null;
+        }).when(table).batch(Mockito.anyListOf(Row.class), Mockito.any(Object[].class));
+        return table;
+    }
+
+    private static List<Row> actions(final String... rowKeys) {
+        final List<Row> actions;
+        actions = new ArrayList<>(rowKeys.length);
+        for (String rowKey : rowKeys) {
+            actions.add(new Put(Bytes.toBytes(rowKey)));
+        }
+        return actions;
+    }
+
+    /**
+     * More batches spanning two servers than there are table resources, with every resource
+     * borrowed (for location lookup) before any batch is dispatched. Each batch must complete
+     * without waiting for a resource held by a thread which is itself waiting for one.
+     */
+    @Test
+    public void testMoreConcurrentBatchesThanResources() throws Exception {
+        final int maxTables = 2;
+        final int batchCount = 6;
+        final CountDownLatch lookupGate;
+        final HTable table;
+        final MockupHBaseResourceManager resMgr;
+        final HBaseContext context;
+        final ExecutorService dispatchPool;
+        final ExecutorService callers;
+        final RegionAwareBatchPerformer performer;
+        final List<Future<Object[]>> outcomes;
+
+        lookupGate = new CountDownLatch(maxTables);
+        table = mockupTable(lookupGate);
+        resMgr =
+            new MockupHBaseResourceManager(()->{
+                                               lookupGate.countDown();
+                                               return table;
+                                           },
+                                           maxTables);
+        context =
+            DefaultHBaseContext
+                .getBuilder()
+                .id(TestRegionAwareBatchPerformer.class.getSimpleName())
+                .configProvider(Configuration::new)
+                .build();
+        dispatchPool = Executors.newCachedThreadPool();
+        callers = Executors.newFixedThreadPool(batchCount);
+        try {
+            performer =
+                new RegionAwareBatchPerformer(buildPolicy(),
+                                              (model, deadline)->resMgr.borrow(context,
+                                                                               model,
+                                                                               MAX_WAIT_MILLIS),
+                                              dispatchPool);
+            outcomes = new ArrayList<>(batchCount);
+            for (int batch = 0; batch < batchCount; batch++) {
+                final String suffix = Integer.toString(batch);
+                outcomes.add(callers.submit(()->{
+                    final Object[] results;
+                    results = new Object[3];
+                    performer.perform(TABLE_TEST,
+                                      actions("a" + suffix, "b" + suffix, "a-" + suffix),
+                                      results,
+                                      Deadline.NONE);
+                    return results;
+                }));
+            }
+            for (int batch = 0; batch < batchCount; batch++) {
+                Assert.assertEquals(outcomes.get(batch).get(AWAIT_MILLIS, TimeUnit.MILLISECONDS),
+                                    new Object[] {"a" + batch, "b" + batch, "a-" + batch});
+            }
+            Assert.assertEquals(performer.getBatchCount(), batchCount);
+            Assert.assertEquals(performer.getSubBatchCount(), 2 * batchCount);
+            Assert.assertEquals(resMgr.getOutstandingCount(), 0);
+            Assert.assertTrue(resMgr.getMaxOutstandingCount() <= maxTables);
+        } finally {
+            callers.shutdownNow();
+            dispatchPool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSingleServerSentAsOneBatch() throws Exception {
+        final CountDownLatch lookupGate;
+        final MockupHBaseResourceManager resMgr;
+        final HBaseContext context;
+        final ExecutorService dispatchPool;
+        final RegionAwareBatchPerformer performer;
+        final Object[] results;
+
+        lookupGate = new CountDownLatch(0);
+        resMgr = new MockupHBaseResourceManager(mockupTable(lookupGate));
+        context =
+            DefaultHBaseContext
+                .getBuilder()
+                .id(TestRegionAwareBatchPerformer.class.getSimpleName() + "-single")
+                .configProvider(Configuration::new)
+                .build();
+        dispatchPool = Executors.newCachedThreadPool();
+        try {
+            performer =
+                new RegionAwareBatchPerformer(buildPolicy(),
+                                              (model, deadline)->resMgr.borrow(context, model),
+                                              dispatchPool);
+            results = new Object[2];
+            performer.perform(TABLE_TEST, actions("a1", "a2"), results, Deadline.NONE);
+            Assert.assertEquals(results, new Object[] {"a1", "a2"});
+            Assert.assertEquals(performer.getSubBatchCount(), 1L);
+            Assert.assertEquals(resMgr.getBorrowCount(), 1);
+            Assert.assertEquals(resMgr.getOutstandingCount(), 0);
+        } finally {
+            dispatchPool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.exec;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.liaison.shachi.model.Name;
+import com.liaison.shachi.model.TableModel;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class TestWriteLaneScheduler {
+
+    private static final TableModel TABLE_TEST = TableModel.of(Name.of("TEST_TABLE"));
+    private static final String THREAD_NAME_PREFIX = "test-writelane";
+    private static final int LANE_COUNT = 4;
+    private static final long AWAIT_MILLIS = 10000L;
+
+    private static BitSet lanes(final int... laneIndexes) {
+        final BitSet laneSet;
+        laneSet = new BitSet(LANE_COUNT);
+        for (int laneIndex : laneIndexes) {
+            laneSet.set(laneIndex);
+        }
+        return laneSet;
+    }
+
+    /**
+     * Find a row which hashes onto a lane other than the given one.
+     */
+    private static byte[] rowOnOtherLane(final WriteLaneScheduler scheduler, final int lane) {
+        byte[] rowKey;
+        for (int index = 0; ; index++) {
+            rowKey = Bytes.toBytes("row-" + index);
+            if (scheduler.laneFor(TABLE_TEST, rowKey) != lane) {
+                return rowKey;
+            }
+        }
+    }
+
+    @Test
+    public void testLaneForIsStable() {
+        final WriteLaneScheduler scheduler;
+        final byte[] rowKey;
+        final int lane;
+
+        scheduler = new WriteLaneScheduler(LANE_COUNT, THREAD_NAME_PREFIX);
+        try {
+            rowKey = Bytes.toBytes("row-stable");
+            lane = scheduler.laneFor(TABLE_TEST, rowKey);
+            Assert.assertTrue((lane >= 0) && (lane < LANE_COUNT));
+            // equal table models and equal (but distinct) row key arrays map to the same lane
+            Assert.assertEquals(scheduler.laneFor(TableModel.of(Name.of("TEST_TABLE")),
+                                                  Bytes.toBytes("row-stable")),
+                                lane);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testSameRowWritesStayOrdered() throws Exception {
+        final int taskCount = 200;
+        final WriteLaneScheduler scheduler;
+        final BitSet laneSet;
+        final List<Integer> executionOrder;
+        final List<ListenableFuture<Object>> futures;
+        final List<Integer> expectedOrder;
+
+        scheduler = new WriteLaneScheduler(LANE_COUNT, THREAD_NAME_PREFIX);
+        executionOrder = Collections.synchronizedList(new ArrayList<>(taskCount));
+        futures = new ArrayList<>(taskCount);
+        expectedOrder = new ArrayList<>(taskCount);
+        try {
+            laneSet = lanes(scheduler.laneFor(TABLE_TEST, Bytes.toBytes("row-ordered")));
+            for (int index = 0; index < taskCount; index++) {
+                final Integer taskIndex = Integer.valueOf(index);
+                expectedOrder.add(taskIndex);
+                futures.add(scheduler.submit(laneSet, ()->{
+                    if ((taskIndex.intValue() % 10) == 0) {
+                        Thread.sleep(1L);
+                    }
+                    executionOrder.add(taskIndex);
+                    return null;
+                }));
+            }
+            for (ListenableFuture<Object> future : futures) {
+                future.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            scheduler.shutdown();
+        }
+        Assert.assertEquals(executionOrder, expectedOrder);
+    }
+
+    @Test
+    public void testDifferentRowsRunInParallel() throws Exception {
+        final WriteLaneScheduler scheduler;
+        final int laneA;
+        final int laneB;
+        final CountDownLatch bothRunning;
+        final ListenableFuture<Boolean> taskA;
+        final ListenableFuture<Boolean> taskB;
+
+        scheduler = new WriteLaneScheduler(LANE_COUNT, THREAD_NAME_PREFIX);
+        try {
+            laneA = scheduler.laneFor(TABLE_TEST, Bytes.toBytes("row-a"));
+            laneB = scheduler.laneFor(TABLE_TEST, rowOnOtherLane(scheduler, laneA));
+            bothRunning = new CountDownLatch(2);
+            // each task completes only once the other is running at the same time
+            taskA = scheduler.submit(lanes(laneA), ()->{
+                bothRunning.countDown();
+                return Boolean.valueOf(bothRunning.await(AWAIT_MILLIS, TimeUnit.MILLISECONDS));
+            });
+            taskB = scheduler.submit(lanes(laneB), ()->{
+                bothRunning.countDown();
+                return Boolean.valueOf(bothRunning.await(AWAIT_MILLIS, TimeUnit.MILLISECONDS));
+            });
+            Assert.assertTrue(taskA.get().booleanValue(), "WRITEs to different rows serialized");
+            Assert.assertTrue(taskB.get().booleanValue(), "WRITEs to different rows serialized");
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testMultiLaneTaskWaitsForAllLanes() throws Exception {
+        final WriteLaneScheduler scheduler;
+        final CountDownLatch releaseFirst;
+        final List<String> executionOrder;
+        final ListenableFuture<Object> first;
+        final ListenableFuture<Object> second;
+        final ListenableFuture<Object> spanning;
+
+        scheduler = new WriteLaneScheduler(LANE_COUNT, THREAD_NAME_PREFIX);
+        releaseFirst = new CountDownLatch(1);
+        executionOrder = Collections.synchronizedList(new ArrayList<>());
+        try {
+            first = scheduler.submit(lanes(1), ()->{
+                releaseFirst.await(AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+                executionOrder.add("first");
+                return null;
+            });
+            second = scheduler.submit(lanes(2), ()->{
+                executionOrder.add("second");
+                return null;
+            });
+            spanning = scheduler.submit(lanes(1, 2), ()->{
+                executionOrder.add("spanning");
+                return null;
+            });
+            second.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+            Assert.assertFalse(spanning.isDone(), "Multi-lane task ran before a lane it spans was clear");
+            releaseFirst.countDown();
+            first.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+            spanning.get(AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } finally {
+            scheduler.shutdown();
+        }
+        Assert.assertEquals(executionOrder.get(executionOrder.size() - 1), "spanning");
+    }
+
+    @Test
+    public void testLaneThreadsNamedDaemons() throws Exception {
+        final WriteLaneScheduler scheduler;
+        final Thread laneThread;
+
+        scheduler = new WriteLaneScheduler(LANE_COUNT, THREAD_NAME_PREFIX);
+        try {
+            laneThread = scheduler.submit(lanes(0), Thread::currentThread).get();
+        } finally {
+            scheduler.shutdown();
+        }
+        Assert.assertTrue(laneThread.isDaemon(), "Lane thread would prevent JVM exit");
+        Assert.assertTrue(laneThread.getName().startsWith(THREAD_NAME_PREFIX),
+                          "Lane thread not named: " + laneThread.getName());
+    }
+}
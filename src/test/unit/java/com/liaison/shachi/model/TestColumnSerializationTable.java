@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.liaison.shachi.model;
+
+import com.liaison.javabasics.logging.JitLog;
+import com.liaison.shachi.dto.FamilyQualifierPair;
+import com.liaison.shachi.model.ser.CellDeserializer;
+import com.liaison.shachi.model.ser.CellSerializer;
+import com.liaison.shachi.util.SpecUtil;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class TestColumnSerializationTable {
+
+    private static final JitLog LOG;
+
+    private static final int QUAL_COUNT = 500;
+    private static final int MEASURED_PASSES = 200;
+
+    private static final CellSerializer TABLE_SER = (obj) -> new byte[0];
+    private static final CellDeserializer FAMILY_DESER = (bytes) -> "family";
+    private static final CellDeserializer QUAL_DESER = (bytes) -> "qual";
+
+    static {
+        LOG = new JitLog(TestColumnSerializationTable.class);
+    }
+
+    private static QualModel declaredQual(final int qualIndex) {
+        final QualModel.Builder build;
+
+        build = QualModel.with(Name.of("q" + qualIndex));
+        if ((qualIndex % 2) == 0) {
+            build.deserializer(QUAL_DESER);
+        }
+        return build.build();
+    }
+
+    private static TableModel buildWideTable() {
+        final FamilyModel.Builder famBuild;
+
+        famBuild = FamilyModel.with(Name.of("wide")).deserializer(FAMILY_DESER);
+        for (int qualIndex = 0; qualIndex < QUAL_COUNT; qualIndex++) {
+            famBuild.qual(declaredQual(qualIndex));
+        }
+        return TableModel.with(Name.of("wideTable")).family(famBuild.build()).serializer(TABLE_SER).build();
+    }
+
+    private static FamilyQualifierPair cellColumn(final FamilyHB family, final int qualIndex) {
+        return FamilyQualifierPair.of(family, QualModel.of(Name.of("q" + qualIndex)));
+    }
+
+    @Test
+    public void testResolvesQualifierFamilyAndTableFallbacks() {
+        final TableModel table;
+        final FamilyModel family;
+        final ColumnSerializationTable.Resolution declared;
+        final ColumnSerializationTable.Resolution fallback;
+
+        table = buildWideTable();
+        family = table.getFamily(Name.of("wide"));
+        declared = table.getSerializationTable().resolve(family, QualModel.of(Name.of("q10")));
+        fallback = table.getSerializationTable().resolve(family, QualModel.of(Name.of("undeclared")));
+
+        Assert.assertSame(declared.getDeserializer(), QUAL_DESER);
+        Assert.assertSame(declared.getSerializer(), TABLE_SER);
+        Assert.assertSame(fallback.getDeserializer(), FAMILY_DESER);
+        Assert.assertSame(table.getSerializationTable().resolve(family, QualModel.of(Name.of("q11"))).getDeserializer(),
+                          FAMILY_DESER);
+        Assert.assertNull(table.getSerializationTable().resolve(FamilyModel.of(Name.of("wide")), null));
+    }
+
+    @Test
+    public void testSpecUtilMatchesModelWalk() {
+        final TableModel table;
+        final FamilyModel family;
+        final FamilyModel adHocFamily;
+        FamilyQualifierPair fqp;
+
+        table = buildWideTable();
+        family = table.getFamily(Name.of("wide"));
+        adHocFamily = FamilyModel.of(Name.of("wide"));
+        for (int qualIndex = 0; qualIndex < QUAL_COUNT; qualIndex++) {
+            fqp = cellColumn(family, qualIndex);
+            Assert.assertSame(SpecUtil.identifyDeserializer(fqp, QualModel.of(Name.of("q" + qualIndex)), family, table),
+                              family.getDeserializer(fqp.getColumn()));
+            Assert.assertSame(SpecUtil.identifySerializer(fqp, null, family, table), TABLE_SER);
+            // family models not declared by the table are still resolved by walking the models
+            Assert.assertSame(SpecUtil.identifyDeserializer(fqp, null, adHocFamily, table), null);
+            Assert.assertSame(SpecUtil.identifySerializer(fqp, null, adHocFamily, table), TABLE_SER);
+        }
+    }
+
+    @Test
+    public void testResolutionThroughput() {
+        final TableModel table;
+        final FamilyModel family;
+        final FamilyQualifierPair[] columns;
+        final long elapsedNanos;
+        final long lookups;
+        long startNanos;
+        int resolvedCount;
+
+        table = buildWideTable();
+        family = table.getFamily(Name.of("wide"));
+        columns = new FamilyQualifierPair[QUAL_COUNT];
+        for (int qualIndex = 0; qualIndex < QUAL_COUNT; qualIndex++) {
+            columns[qualIndex] = cellColumn(family, qualIndex);
+        }
+        resolvedCount = 0;
+        startNanos = System.nanoTime();
+        for (int passIndex = 0; passIndex < MEASURED_PASSES; passIndex++) {
+            for (FamilyQualifierPair column : columns) {
+                if (SpecUtil.identifyDeserializer(column, null, family, table) != null) {
+                    resolvedCount++;
+                }
+            }
+        }
+        elapsedNanos = System.nanoTime() - startNanos;
+        lookups = ((long) MEASURED_PASSES) * QUAL_COUNT;
+        LOG.info("deserializer resolution, "
+                 + QUAL_COUNT
+                 + " declared qualifiers: lookups="
+                 + lookups
+                 + ", elapsed="
+                 + TimeUnit.NANOSECONDS.toMillis(elapsedNanos)
+                 + "ms, mean="
+                 + (elapsedNanos / lookups)
+                 + "ns");
+        Assert.assertEquals(resolvedCount, lookups);
+    }
+}
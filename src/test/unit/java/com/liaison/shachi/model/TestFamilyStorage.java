@@ -0,0 +1,182 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.model;
+
+import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
+import com.liaison.shachi.util.HBaseUtil;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.HBaseAdmin;
+import org.apache.hadoop.hbase.io.compress.Compression;
+import org.apache.hadoop.hbase.io.encoding.DataBlockEncoding;
+import org.apache.hadoop.hbase.regionserver.BloomType;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.mockito.ArgumentMatcher;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.function.Predicate;
+
+public class TestFamilyStorage {
+
+    private static final TableName TABLE_NAME = TableName.valueOf("TEST_STORAGE");
+
+    /**
+     * Match a column family descriptor with the given name whose settings satisfy the given test.
+     */
+    private static HColumnDescriptor family(final String familyName, final Predicate<HColumnDescriptor> settings) {
+        return Mockito.argThat(new ArgumentMatcher<HColumnDescriptor>() {
+            @Override
+            public boolean matches(final Object arg) {
+                return (arg instanceof HColumnDescriptor)
+                       && (((HColumnDescriptor) arg).getNameAsString().equals(familyName))
+                       && (settings.test((HColumnDescriptor) arg));
+            }
+        });
+    }
+
+    @Test
+    public void testApplyAllSettings() {
+        final FamilyModel family;
+        final HColumnDescriptor colFamDesc;
+
+        family =
+            FamilyModel
+                .with(Name.of("a"))
+                .bloomFilter(BloomType.ROWCOL)
+                .blockSize(16384)
+                .blockCache(false)
+                .inMemory(true)
+                .compression(Compression.Algorithm.GZ)
+                .dataBlockEncoding(DataBlockEncoding.FAST_DIFF)
+                .maxVersions(5)
+                .ttlSeconds(3600)
+                .build();
+        colFamDesc = new HColumnDescriptor("a");
+        Assert.assertTrue(HBaseUtil.applyFamilyStorage(family, colFamDesc));
+        Assert.assertEquals(colFamDesc.getBloomFilterType(), BloomType.ROWCOL);
+        Assert.assertEquals(colFamDesc.getBlocksize(), 16384);
+        Assert.assertFalse(colFamDesc.isBlockCacheEnabled());
+        Assert.assertTrue(colFamDesc.isInMemory());
+        Assert.assertEquals(colFamDesc.getCompressionType(), Compression.Algorithm.GZ);
+        Assert.assertEquals(colFamDesc.getDataBlockEncoding(), DataBlockEncoding.FAST_DIFF);
+        Assert.assertEquals(colFamDesc.getMaxVersions(), 5);
+        Assert.assertEquals(colFamDesc.getTimeToLive(), 3600);
+
+        // applying the same model again changes nothing
+        Assert.assertFalse(HBaseUtil.applyFamilyStorage(family, colFamDesc));
+    }
+
+    @Test
+    public void testUnspecifiedSettingsUnchanged() {
+        final HColumnDescriptor colFamDesc;
+        final HColumnDescriptor original;
+
+        colFamDesc = new HColumnDescriptor("a");
+        colFamDesc.setMaxVersions(7);
+        colFamDesc.setInMemory(true);
+        original = new HColumnDescriptor(colFamDesc);
+        Assert.assertFalse(HBaseUtil.applyFamilyStorage(FamilyModel.of(Name.of("a")), colFamDesc));
+        Assert.assertEquals(colFamDesc, original);
+
+        Assert.assertTrue(HBaseUtil.applyFamilyStorage(FamilyModel.with(Name.of("a"))
+                                                                  .ttlSeconds(60)
+                                                                  .build(),
+                                                       colFamDesc));
+        Assert.assertEquals(colFamDesc.getTimeToLive(), 60);
+        Assert.assertEquals(colFamDesc.getMaxVersions(), 7);
+        Assert.assertTrue(colFamDesc.isInMemory());
+    }
+
+    /**
+     * A table with a family whose settings differ from the model, a family whose settings match,
+     * and a family absent from the model; the model also has a family absent from the table.
+     */
+    @Test
+    public void testReconcileAddsAndModifiesOnlyDifferingFamilies() throws Exception {
+        final HTableDescriptor tableDesc;
+        final HColumnDescriptor matching;
+        final TableModel model;
+        final HBaseAdmin admin;
+        final int changeCount;
+
+        tableDesc = new HTableDescriptor(TABLE_NAME);
+        tableDesc.addFamily(new HColumnDescriptor("differs"));
+        matching = new HColumnDescriptor("matches");
+        matching.setMaxVersions(3);
+        tableDesc.addFamily(matching);
+        tableDesc.addFamily(new HColumnDescriptor("unmodeled"));
+        model =
+            TableModel
+                .with(Name.of(TABLE_NAME.getNameAsString()))
+                .family(FamilyModel.with(Name.of("differs")).maxVersions(5).build())
+                .family(FamilyModel.with(Name.of("matches")).maxVersions(3).build())
+                .family(FamilyModel.with(Name.of("absent")).inMemory(true).build())
+                .build();
+        admin = Mockito.mock(HBaseAdmin.class);
+        Mockito.when(admin.getTableDescriptor(TABLE_NAME)).thenReturn(tableDesc);
+
+        changeCount =
+            HBaseUtil.reconcileTableFromModel(admin, model, null, DefensiveCopyStrategy.NEVER);
+
+        Assert.assertEquals(changeCount, 2);
+        Mockito.verify(admin).addColumn(Mockito.eq(TABLE_NAME),
+                                        family("absent", HColumnDescriptor::isInMemory));
+        Mockito.verify(admin).modifyColumn(Mockito.eq(TABLE_NAME),
+                                           family("differs", (desc)->(desc.getMaxVersions() == 5)));
+        Mockito.verify(admin, Mockito.never()).modifyColumn(Mockito.eq(TABLE_NAME),
+                                                            family("matches", (desc)->true));
+        Mockito.verify(admin, Mockito.never()).modifyColumn(Mockito.eq(TABLE_NAME),
+                                                            family("unmodeled", (desc)->true));
+        Mockito.verify(admin, Mockito.times(1)).addColumn(Mockito.any(TableName.class),
+                                                          Mockito.any(HColumnDescriptor.class));
+        // the descriptor obtained from the table is not modified in place
+        Assert.assertEquals(tableDesc.getFamily(Bytes.toBytes("differs")).getMaxVersions(),
+                            HColumnDescriptor.DEFAULT_VERSIONS);
+    }
+
+    @Test
+    public void testReconcileMatchingTableUnchanged() throws Exception {
+        final HTableDescriptor tableDesc;
+        final HColumnDescriptor colFamDesc;
+        final TableModel model;
+        final HBaseAdmin admin;
+
+        tableDesc = new HTableDescriptor(TABLE_NAME);
+        colFamDesc = new HColumnDescriptor("a");
+        colFamDesc.setBloomFilterType(BloomType.ROW);
+        tableDesc.addFamily(colFamDesc);
+        model =
+            TableModel
+                .with(Name.of(TABLE_NAME.getNameAsString()))
+                .family(FamilyModel.with(Name.of("a")).bloomFilter(BloomType.ROW).build())
+                .build();
+        admin = Mockito.mock(HBaseAdmin.class);
+        Mockito.when(admin.getTableDescriptor(TABLE_NAME)).thenReturn(tableDesc);
+
+        Assert.assertEquals(HBaseUtil.reconcileTableFromModel(admin,
+                                                              model,
+                                                              null,
+                                                              DefensiveCopyStrategy.NEVER),
+                            0);
+        Mockito.verify(admin, Mockito.never()).addColumn(Mockito.any(TableName.class),
+                                                         Mockito.any(HColumnDescriptor.class));
+        Mockito.verify(admin, Mockito.never()).modifyColumn(Mockito.any(TableName.class),
+                                                            Mockito.any(HColumnDescriptor.class));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.liaison.shachi.model;
+
+import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
+import com.liaison.shachi.dto.FamilyQualifierPair;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestModelInterner {
+
+    @Test
+    public void testRangeLookupReturnsCanonicalInstance() {
+        final byte[] cellBuffer;
+        final QualModel first;
+        final QualModel second;
+
+        cellBuffer = Bytes.toBytes("rowfamqual_interned");
+        first = ModelInterner.qual(cellBuffer, 6, 13);
+        second = ModelInterner.qual(Bytes.toBytes("qual_interned"), 0, 13);
+
+        Assert.assertSame(first, second);
+        Assert.assertEquals(first.getName().getStr(), "qual_interned");
+        Assert.assertEquals(first, QualModel.of(Name.of("qual_interned")));
+    }
+
+    @Test
+    public void testLookupCopiesCallerBuffer() {
+        final byte[] cellBuffer;
+        final FamilyModel family;
+
+        cellBuffer = Bytes.toBytes("fam_copied");
+        family = ModelInterner.family(cellBuffer, 0, cellBuffer.length);
+        cellBuffer[0] = (byte) 'X';
+
+        Assert.assertEquals(family.getName().getStr(), "fam_copied");
+        Assert.assertSame(ModelInterner.family(Bytes.toBytes("fam_copied")), family);
+    }
+
+    @Test
+    public void testInternedPairsCompareByIdentity() {
+        final FamilyQualifierPair first;
+        final FamilyQualifierPair second;
+        final FamilyQualifierPair built;
+
+        first = FamilyQualifierPair.of(ModelInterner.family(Bytes.toBytes("f_pair")),
+                                       ModelInterner.qual(Bytes.toBytes("q_pair")));
+        second = FamilyQualifierPair.of(ModelInterner.family(Bytes.toBytes("f_pair")),
+                                        ModelInterner.qual(Bytes.toBytes("q_pair")));
+        built = FamilyQualifierPair.of(FamilyModel.of(Name.of("f_pair")),
+                                       QualModel.of(Name.of("q_pair")));
+
+        Assert.assertSame(first.getFamily(), second.getFamily());
+        Assert.assertEquals(first, second);
+        Assert.assertEquals(first, built);
+        Assert.assertEquals(first.hashCode(), built.hashCode());
+    }
+
+    @Test
+    public void testInternedPairEqualsDeclaredPair() {
+        final FamilyModel declared;
+        final FamilyQualifierPair interned;
+
+        declared = FamilyModel.with(Name.of("f_declared")).qual(QualModel.of(Name.of("q_declared"))).build();
+        interned = FamilyQualifierPair.of(ModelInterner.family(Bytes.toBytes("f_declared")),
+                                          ModelInterner.qual(Bytes.toBytes("q_declared")));
+
+        Assert.assertEquals(interned, FamilyQualifierPair.of(declared, QualModel.of(Name.of("q_declared"))));
+    }
+
+    @Test
+    public void testEmptyAliasSetIsShared() {
+        Assert.assertSame(Name.of("a").getAlias(),
+                          Name.of(Bytes.toBytes("b"), DefensiveCopyStrategy.NEVER).getAlias());
+        Assert.assertTrue(Name.of("a").getAlias().isEmpty());
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.model;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestSplitPolicy {
+
+    @Test
+    public void testSaltBucketsEvenlySpaced() {
+        final byte[][] splitKeys;
+
+        splitKeys = SplitPolicy.saltBuckets(4).getSplitKeys();
+        Assert.assertEquals(splitKeys.length, 3);
+        Assert.assertEquals(splitKeys[0], new byte[] {(byte) 0x40, 0, 0, 0});
+        Assert.assertEquals(splitKeys[1], new byte[] {(byte) 0x80, 0, 0, 0});
+        Assert.assertEquals(splitKeys[2], new byte[] {(byte) 0xC0, 0, 0, 0});
+        Assert.assertEquals(SplitPolicy.saltBuckets(1).getSplitKeys().length,
+                            0,
+                            "Single bucket should not pre-split the table");
+    }
+
+    @Test
+    public void testExplicitSplitPointsSortedAndDeduplicated() {
+        final SplitPolicy policy;
+        final byte[][] splitKeys;
+
+        policy = SplitPolicy.at(new byte[] {5}, new byte[] {1}, new byte[0], new byte[] {5});
+        splitKeys = policy.getSplitKeys();
+        Assert.assertEquals(policy.getRegionCount(), 3);
+        Assert.assertEquals(splitKeys[0], new byte[] {1});
+        Assert.assertEquals(splitKeys[1], new byte[] {5});
+        Assert.assertEquals(policy, SplitPolicy.at(new byte[] {1}, new byte[] {5}));
+    }
+}
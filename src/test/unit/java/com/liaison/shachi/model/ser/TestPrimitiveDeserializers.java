@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.liaison.shachi.model.ser;
+
+import com.liaison.shachi.exception.CellDeserializationException;
+import com.liaison.shachi.model.FamilyModel;
+import com.liaison.shachi.model.Name;
+import com.liaison.shachi.model.QualModel;
+import com.liaison.shachi.util.SpecUtil;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestPrimitiveDeserializers {
+
+    @Test
+    public void testStandardDecodesHBaseEncoding() {
+        final byte[] padded;
+
+        padded = Bytes.add(new byte[] {9}, Bytes.toBytes(-42L));
+        Assert.assertEquals(PrimitiveDeserializers.STANDARD.deserializeLong(padded, 1, 8), -42L);
+        Assert.assertEquals(PrimitiveDeserializers.STANDARD.deserializeInt(Bytes.toBytes(7), 0, 4), 7);
+        Assert.assertEquals(PrimitiveDeserializers.STANDARD.deserializeDouble(Bytes.toBytes(2.5d), 0, 8), 2.5d);
+        Assert.assertTrue(PrimitiveDeserializers.STANDARD.deserializeBoolean(Bytes.toBytes(true), 0, 1));
+    }
+
+    @Test(expectedExceptions = CellDeserializationException.class)
+    public void testStandardRejectsWrongWidth() {
+        PrimitiveDeserializers.STANDARD.deserializeLong(Bytes.toBytes(7), 0, 4);
+    }
+
+    @Test
+    public void testUndeclaredTypesFallBackToStandard() {
+        final PrimitiveDeserializers primDeser;
+
+        primDeser =
+            PrimitiveDeserializers
+                .getBuilder()
+                .forLong((value, offset, length) -> Long.parseLong(Bytes.toString(value, offset, length)))
+                .build();
+        Assert.assertEquals(primDeser.deserializeLong(Bytes.toBytes("1234"), 0, 4), 1234L);
+        Assert.assertEquals(primDeser.deserializeInt(Bytes.toBytes(1234), 0, 4), 1234);
+    }
+
+    @Test
+    public void testQualifierDeclarationTakesPrecedence() {
+        final PrimitiveDeserializers famDeser;
+        final PrimitiveDeserializers qualDeser;
+        final QualModel declaringQual;
+        final QualModel plainQual;
+        final FamilyModel family;
+
+        famDeser = PrimitiveDeserializers.getBuilder().build();
+        qualDeser = PrimitiveDeserializers.getBuilder().build();
+        declaringQual = QualModel.with(Name.of("count")).primitiveDeserializers(qualDeser).build();
+        plainQual = QualModel.of(Name.of("label"));
+        family =
+            FamilyModel
+                .with(Name.of("f"))
+                .primitiveDeserializers(famDeser)
+                .qual(declaringQual)
+                .qual(plainQual)
+                .build();
+
+        Assert.assertSame(SpecUtil.identifyPrimitiveDeserializers(null, declaringQual, family), qualDeser);
+        Assert.assertSame(SpecUtil.identifyPrimitiveDeserializers(null, plainQual, family), famDeser);
+        Assert.assertNull(SpecUtil.identifyPrimitiveDeserializers(null, null, null));
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.resmgr;
+
+import com.liaison.shachi.model.Name;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestVerifiedTableRegistry {
+
+    private static final Name TABLE_NAME = Name.of("verifiedTable");
+
+    @Test
+    public void testVerifiedOnce() throws IOException {
+        final VerifiedTableRegistry registry;
+        final AtomicInteger verifyCount;
+
+        registry = new VerifiedTableRegistry();
+        verifyCount = new AtomicInteger(0);
+        Assert.assertFalse(registry.isVerified(TABLE_NAME));
+        for (int index = 0; index < 5; index++) {
+            registry.ensureVerified(TABLE_NAME, (tableName)->verifyCount.incrementAndGet());
+        }
+        Assert.assertTrue(registry.isVerified(TABLE_NAME));
+        Assert.assertEquals(verifyCount.get(), 1, "Table verified more than once");
+    }
+
+    @Test
+    public void testMarkedVerifiedSkipsVerifier() throws IOException {
+        final VerifiedTableRegistry registry;
+        final AtomicInteger verifyCount;
+
+        registry = new VerifiedTableRegistry();
+        verifyCount = new AtomicInteger(0);
+        registry.markVerified(TABLE_NAME);
+        Assert.assertTrue(registry.isVerified(TABLE_NAME));
+        registry.ensureVerified(TABLE_NAME, (tableName)->verifyCount.incrementAndGet());
+        Assert.assertEquals(verifyCount.get(), 0, "Table marked as verified was verified again");
+    }
+
+    @Test
+    public void testConcurrentFirstAccessVerifiesOnce() throws Exception {
+        final VerifiedTableRegistry registry;
+        final AtomicInteger verifyCount;
+        final CountDownLatch start;
+        final ExecutorService pool;
+        final List<Future<?>> results;
+
+        registry = new VerifiedTableRegistry();
+        verifyCount = new AtomicInteger(0);
+        start = new CountDownLatch(1);
+        pool = Executors.newFixedThreadPool(8);
+        results = new ArrayList<>();
+        try {
+            for (int index = 0; index < 8; index++) {
+                results.add(pool.submit(()->{
+                    start.await();
+                    registry.ensureVerified(TABLE_NAME, (tableName)->{
+                        verifyCount.incrementAndGet();
+                        try {
+                            Thread.sleep(50);
+                        } catch (InterruptedException intExc) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        Assert.assertEquals(verifyCount.get(), 1, "Concurrent first access verified more than once");
+    }
+
+    @Test
+    public void testFailedVerificationRetried() throws IOException {
+        final VerifiedTableRegistry registry;
+        final AtomicInteger verifyCount;
+
+        registry = new VerifiedTableRegistry();
+        verifyCount = new AtomicInteger(0);
+        try {
+            registry.ensureVerified(TABLE_NAME, (tableName)->{
+                verifyCount.incrementAndGet();
+                throw new IOException("simulated failure");
+            });
+            Assert.fail("Verification failure not propagated");
+        } catch (IOException ioExc) {
+            // expected
+        }
+        Assert.assertFalse(registry.isVerified(TABLE_NAME));
+        registry.ensureVerified(TABLE_NAME, (tableName)->verifyCount.incrementAndGet());
+        Assert.assertTrue(registry.isVerified(TABLE_NAME));
+        Assert.assertEquals(verifyCount.get(), 2);
+    }
+
+    @Test
+    public void testInvalidateForcesReverification() throws IOException {
+        final VerifiedTableRegistry registry;
+        final AtomicInteger verifyCount;
+
+        registry = new VerifiedTableRegistry();
+        verifyCount = new AtomicInteger(0);
+        registry.ensureVerified(TABLE_NAME, (tableName)->verifyCount.incrementAndGet());
+        registry.invalidate(TABLE_NAME);
+        Assert.assertFalse(registry.isVerified(TABLE_NAME));
+        registry.ensureVerified(TABLE_NAME, (tableName)->verifyCount.incrementAndGet());
+        Assert.assertEquals(verifyCount.get(), 2);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.resmgr.metrics;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestResourcePoolMetrics {
+
+    @Test
+    public void testHistogramPercentiles() {
+        final LatencyHistogram histogram;
+
+        histogram = new LatencyHistogram();
+        Assert.assertEquals(histogram.getPercentileMicros(0.5), 0L);
+        for (int index = 0; index < 99; index++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(3));
+        }
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(30));
+        Assert.assertEquals(histogram.getCount(), 100L);
+        // 3us falls in the bucket [2us, 4us)
+        Assert.assertEquals(histogram.getPercentileMicros(0.5), 4L);
+        Assert.assertEquals(histogram.getPercentileMicros(0.99), 4L);
+        // 30000us falls in the bucket [16384us, 32768us)
+        Assert.assertEquals(histogram.getPercentileMicros(1.0), 32768L);
+        Assert.assertEquals(histogram.getMaxMicros(), 30000L);
+        Assert.assertEquals(histogram.getMeanMicros(), ((99 * 3) + 30000) / 100.0, 0.001);
+    }
+
+    @Test
+    public void testCountersAndGauges() {
+        final AtomicInteger active;
+        final ResourcePoolMetrics metrics;
+
+        active = new AtomicInteger(0);
+        metrics =
+            new ResourcePoolMetrics("ctx", "table-pool", "tbl", active::get, ()->1, ()->2);
+        Assert.assertFalse(metrics.isExhausted());
+        metrics.recordBorrow(1000L, false);
+        active.set(2);
+        Assert.assertTrue(metrics.isExhausted());
+        metrics.recordBorrow(2000000L, true);
+        metrics.recordTimeout();
+        metrics.recordFailure();
+        Assert.assertEquals(metrics.getBorrowCount(), 2L);
+        Assert.assertEquals(metrics.getWaitCount(), 2L);
+        Assert.assertEquals(metrics.getTimeoutCount(), 1L);
+        Assert.assertEquals(metrics.getFailureCount(), 1L);
+        Assert.assertEquals(metrics.getNumActive(), 2);
+        Assert.assertEquals(metrics.getNumIdle(), 1);
+        Assert.assertEquals(metrics.getMaxTotal(), 2);
+    }
+}
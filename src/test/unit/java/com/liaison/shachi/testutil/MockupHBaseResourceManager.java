@@ -0,0 +1,150 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.liaison.shachi.testutil;
+
+import com.liaison.shachi.context.HBaseContext;
+import com.liaison.shachi.exception.HBaseResourceAcquisitionException;
+import com.liaison.shachi.model.TableModel;
+import com.liaison.shachi.resmgr.HBaseResourceManager;
+import com.liaison.shachi.resmgr.res.ManagedAdmin;
+import com.liaison.shachi.resmgr.res.ManagedTable;
+import org.apache.hadoop.hbase.client.HTable;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Resource manager for unit tests which lends out tables supplied by the test (typically Mockito
+ * mocks of HTable), rather than connecting to HBase, and counts the tables borrowed and released.
+ * Optionally, the number of tables outstanding at once is bounded, as by a pool.
+ * @author Branden Smith; Liaison Technologies, Inc.
+ */
+public final class MockupHBaseResourceManager implements HBaseResourceManager {
+
+    private final Supplier<HTable> tableSupplier;
+    private final Semaphore permits;
+    private final AtomicInteger borrowCount;
+    private final AtomicInteger releaseCount;
+    private final AtomicInteger evictCount;
+    private final AtomicInteger maxOutstandingCount;
+    private volatile long lastMaxWaitMillis;
+
+    public int getBorrowCount() {
+        return this.borrowCount.get();
+    }
+    public int getReleaseCount() {
+        return this.releaseCount.get();
+    }
+    public int getEvictCount() {
+        return this.evictCount.get();
+    }
+    public int getOutstandingCount() {
+        return this.borrowCount.get() - this.releaseCount.get();
+    }
+    /**
+     * @return the greatest number of tables outstanding at any one time
+     */
+    public int getMaxOutstandingCount() {
+        return this.maxOutstandingCount.get();
+    }
+    /**
+     * @return the maximum wait passed to the most recent bounded borrow, or -1 if none
+     */
+    public long getLastMaxWaitMillis() {
+        return this.lastMaxWaitMillis;
+    }
+
+    private ManagedTable lend(final HBaseContext context, final TableModel model) {
+        this.borrowCount.incrementAndGet();
+        this.maxOutstandingCount.accumulateAndGet(getOutstandingCount(), Math::max);
+        return new ManagedTable(this,
+                                context,
+                                model,
+                                this.tableSupplier.get(),
+                                context.getConnectionGeneration());
+    }
+    @Override
+    public ManagedTable borrow(final HBaseContext context, final TableModel model) {
+        if (this.permits != null) {
+            this.permits.acquireUninterruptibly();
+        }
+        return lend(context, model);
+    }
+    @Override
+    public ManagedTable borrow(final HBaseContext context, final TableModel model, final long maxWaitMillis) throws HBaseResourceAcquisitionException {
+        this.lastMaxWaitMillis = maxWaitMillis;
+        try {
+            if ((this.permits != null)
+                && (!this.permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS))) {
+                throw new HBaseResourceAcquisitionException("Timed out after "
+                                                            + maxWaitMillis
+                                                            + "ms waiting for a table for "
+                                                            + model);
+            }
+        } catch (InterruptedException iExc) {
+            Thread.currentThread().interrupt();
+            throw new HBaseResourceAcquisitionException("Interrupted waiting for a table", iExc);
+        }
+        return lend(context, model);
+    }
+    @Override
+    public void release(final ManagedTable table) {
+        this.releaseCount.incrementAndGet();
+        if (this.permits != null) {
+            this.permits.release();
+        }
+    }
+    @Override
+    public void prewarm(final HBaseContext context, final TableModel model) { }
+    @Override
+    public void evict(final HBaseContext context) {
+        this.evictCount.incrementAndGet();
+    }
+    @Override
+    public ManagedAdmin borrowAdmin(final HBaseContext context) {
+        throw new UnsupportedOperationException();
+    }
+    @Override
+    public void releaseAdmin(final ManagedAdmin admin) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @param tableSupplier
+     * @param maxOutstanding the maximum number of tables outstanding at once, or 0 if unbounded
+     */
+    public MockupHBaseResourceManager(final Supplier<HTable> tableSupplier, final int maxOutstanding) {
+        this.tableSupplier = tableSupplier;
+        if (maxOutstanding > 0) {
+            this.permits = new Semaphore(maxOutstanding);
+        } else {
+            this.permits = null;
+        }
+        this.borrowCount = new AtomicInteger(0);
+        this.releaseCount = new AtomicInteger(0);
+        this.evictCount = new AtomicInteger(0);
+        this.maxOutstandingCount = new AtomicInteger(0);
+        this.lastMaxWaitMillis = -1L;
+    }
+    public MockupHBaseResourceManager(final Supplier<HTable> tableSupplier) {
+        this(tableSupplier, 0);
+    }
+    public MockupHBaseResourceManager(final HTable table) {
+        this(()->table);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2016 Liaison Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.liaison.shachi.util;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.liaison.javabasics.logging.JitLog;
+import com.liaison.javabasics.serialization.DefensiveCopyStrategy;
+import com.liaison.shachi.dto.RowKey;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+public class TestHBaseUtilSalting {
+
+    private static final JitLog LOG;
+
+    private static final int SALT_LENGTH = 4;
+    private static final int KEY_COUNT = 1000;
+    private static final int MEASURED_PASSES = 200;
+
+    static {
+        LOG = new JitLog(TestHBaseUtilSalting.class);
+    }
+
+    /**
+     * Salting as originally implemented on Guava's murmur3_32 hasher, as the reference for the
+     * stored row key format.
+     */
+    private static byte[] saltWithGuava(final HashFunction murmur3, final RowKey rk) {
+        final byte[] rkBytes;
+        final HashCode hash;
+        final byte[] hashBytes;
+        final byte[] saltedRKBytes;
+
+        rkBytes = rk.getValue(DefensiveCopyStrategy.NEVER);
+        hash = murmur3.hashBytes(rkBytes);
+        hashBytes = hash.asBytes();
+        saltedRKBytes = new byte[SALT_LENGTH + HBaseUtil.DELIM_BYTES.length + rkBytes.length];
+        System.arraycopy(hashBytes, 0, saltedRKBytes, 0, SALT_LENGTH);
+        System.arraycopy(HBaseUtil.DELIM_BYTES, 0, saltedRKBytes, SALT_LENGTH, HBaseUtil.DELIM_BYTES.length);
+        System.arraycopy(rkBytes, 0, saltedRKBytes, SALT_LENGTH + HBaseUtil.DELIM_BYTES.length, rkBytes.length);
+        return saltedRKBytes;
+    }
+
+    private static RowKey[] randomKeys(final Random random) {
+        final RowKey[] keys;
+        byte[] keyBytes;
+
+        keys = new RowKey[KEY_COUNT];
+        for (int keyIndex = 0; keyIndex < KEY_COUNT; keyIndex++) {
+            keyBytes = new byte[keyIndex % 67];
+            random.nextBytes(keyBytes);
+            keys[keyIndex] = RowKey.of(keyBytes, DefensiveCopyStrategy.NEVER);
+        }
+        return keys;
+    }
+
+    @Test
+    public void testMatchesGuavaMurmur3() {
+        final HashFunction murmur3;
+
+        murmur3 = Hashing.murmur3_32();
+        for (RowKey rk : randomKeys(new Random(20161018L))) {
+            Assert.assertEquals(HBaseUtil.saltRowKeyMurmur3_32(rk), saltWithGuava(murmur3, rk));
+        }
+        Assert.assertEquals(HBaseUtil.saltRowKeyMurmur3_32(RowKey.of("row1")),
+                            saltWithGuava(murmur3, RowKey.of("row1")));
+    }
+
+    @Test
+    public void testSaltingThroughput() {
+        final HashFunction murmur3;
+        final RowKey[] keys;
+        final long guavaNanos;
+        final long directNanos;
+        long startNanos;
+        long checksum;
+
+        murmur3 = Hashing.murmur3_32();
+        keys = randomKeys(new Random(42L));
+        checksum = 0;
+        startNanos = System.nanoTime();
+        for (int passIndex = 0; passIndex < MEASURED_PASSES; passIndex++) {
+            for (RowKey rk : keys) {
+                checksum += saltWithGuava(murmur3, rk)[0];
+            }
+        }
+        guavaNanos = System.nanoTime() - startNanos;
+        startNanos = System.nanoTime();
+        for (int passIndex = 0; passIndex < MEASURED_PASSES; passIndex++) {
+            for (RowKey rk : keys) {
+                checksum -= HBaseUtil.saltRowKeyMurmur3_32(rk)[0];
+            }
+        }
+        directNanos = System.nanoTime() - startNanos;
+        LOG.info("salting "
+                 + (((long) MEASURED_PASSES) * KEY_COUNT)
+                 + " keys: guava="
+                 + TimeUnit.NANOSECONDS.toMillis(guavaNanos)
+                 + "ms, direct="
+                 + TimeUnit.NANOSECONDS.toMillis(directNanos)
+                 + "ms");
+        Assert.assertEquals(checksum, 0L);
+    }
+}